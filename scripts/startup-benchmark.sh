@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# 启动耗时基准：多次启动应用，测量从进程启动到首个请求成功返回的时间
+#
+# 用法：
+#   scripts/startup-benchmark.sh [次数] -- <启动命令...>
+# 示例：
+#   scripts/startup-benchmark.sh 5 -- java -jar target/online-store-1.0-SNAPSHOT.jar
+#   scripts/startup-benchmark.sh 5 -- java -XX:SharedArchiveFile=target/online-store.jsa \
+#       -Dspring.aot.enabled=true -Dspring.profiles.active=faststart \
+#       -cp "target/classes:target/lib/*" com.example.onlinestore.OnlineStoreApplication
+#
+# 结果追加到 target/startup-benchmark.csv（提交号、构建方式、各次耗时），便于跨构建对比
+set -euo pipefail
+
+RUNS=${1:-5}
+shift || true
+if [[ "${1:-}" == "--" ]]; then
+    shift
+fi
+if [[ $# -eq 0 ]]; then
+    echo "用法: $0 [次数] -- <启动命令...>" >&2
+    exit 1
+fi
+
+PORT=${BENCHMARK_PORT:-18080}
+URL=${BENCHMARK_URL:-http://localhost:${PORT}/actuator/health}
+TIMEOUT_SECONDS=${BENCHMARK_TIMEOUT:-120}
+RESULT_FILE=${BENCHMARK_RESULT_FILE:-target/startup-benchmark.csv}
+LABEL=${BENCHMARK_LABEL:-$(basename "$1")}
+COMMIT=$(git rev-parse --short HEAD 2>/dev/null || echo unknown)
+
+mkdir -p "$(dirname "$RESULT_FILE")"
+timings=()
+
+for ((i = 1; i <= RUNS; i++)); do
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" > "target/startup-benchmark-run-$i.log" 2>&1 &
+    pid=$!
+
+    elapsed_ms=-1
+    while kill -0 "$pid" 2>/dev/null; do
+        # 任何 HTTP 响应都说明请求已被处理，健康检查可能因为 MySQL/Redis 未启动而返回 503
+        if curl -s -o /dev/null "$URL"; then
+            elapsed_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+            break
+        fi
+        if (( ($(date +%s%N) - start) / 1000000000 > TIMEOUT_SECONDS )); then
+            break
+        fi
+        sleep 0.05
+    done
+
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+
+    if (( elapsed_ms < 0 )); then
+        echo "第 $i 次启动失败，日志见 target/startup-benchmark-run-$i.log" >&2
+        exit 1
+    fi
+    echo "第 $i 次: ${elapsed_ms}ms"
+    timings+=("$elapsed_ms")
+done
+
+sorted=($(printf '%s\n' "${timings[@]}" | sort -n))
+min=${sorted[0]}
+max=${sorted[$((${#sorted[@]} - 1))]}
+median=${sorted[$((${#sorted[@]} / 2))]}
+echo "首个请求耗时: 最小 ${min}ms, 中位数 ${median}ms, 最大 ${max}ms"
+
+if [[ ! -f "$RESULT_FILE" ]]; then
+    echo "timestamp,commit,label,runs,min_ms,median_ms,max_ms" > "$RESULT_FILE"
+fi
+echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$COMMIT,$LABEL,$RUNS,$min,$median,$max" >> "$RESULT_FILE"
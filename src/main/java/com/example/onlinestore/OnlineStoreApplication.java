@@ -3,11 +3,11 @@ package com.example.onlinestore;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@MapperScan("com.example.onlinestore.mapper")
-@RefreshScope
+@MapperScan(value = "com.example.onlinestore.mapper", sqlSessionFactoryRef = "sqlSessionFactory")
+@EnableScheduling
 public class OnlineStoreApplication {
     public static void main(String[] args) {
         SpringApplication.run(OnlineStoreApplication.class, args);
@@ -2,6 +2,7 @@ package com.example.onlinestore.aspect;
 
 import com.example.onlinestore.context.UserContext;
 import com.example.onlinestore.model.User;
+import com.example.onlinestore.trace.Tracer;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.slf4j.Logger;
@@ -53,6 +54,15 @@ public class AdminAuthAspect {
      */
     @Before("@annotation(com.example.onlinestore.annotation.RequireAdmin)")
     public void checkAdminAuth() {
+        int span = Tracer.begin("aspect", "AdminAuthAspect");
+        try {
+            checkCurrentUser();
+        } finally {
+            Tracer.end(span);
+        }
+    }
+
+    private void checkCurrentUser() {
         User currentUser = UserContext.getCurrentUser();
         if (currentUser == null) {
             logger.warn("访问被拒绝：未登录用户尝试访问管理员接口");
@@ -0,0 +1,36 @@
+package com.example.onlinestore.aspect;
+
+import com.example.onlinestore.trace.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为服务接口方法记录 service span，detail 形如 UserService.login
+ *
+ * detail 按方法缓存，调用时不拼接字符串。
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final ConcurrentHashMap<Method, String> names = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.example.onlinestore.service.*Service.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String name = names.computeIfAbsent(method,
+            m -> m.getDeclaringClass().getSimpleName() + "." + m.getName());
+        int span = Tracer.begin("service", name);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            Tracer.end(span);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.onlinestore.aspect;
 
+import com.example.onlinestore.jfr.ValidationEvent;
+import com.example.onlinestore.trace.Tracer;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -53,7 +55,32 @@ public class ValidationAspect {
      */
     @Around("@annotation(com.example.onlinestore.annotation.ValidateParams)")
     public Object validateParameters(ProceedingJoinPoint joinPoint) throws Throwable {
-        Object[] args = joinPoint.getArgs();
+        // span 只覆盖参数校验，不包含原方法的执行
+        int span = Tracer.begin("aspect", "ValidationAspect");
+        ValidationEvent event = new ValidationEvent();
+        event.begin();
+        ResponseEntity<String> invalid;
+        try {
+            invalid = validate(joinPoint.getArgs());
+        } finally {
+            Tracer.end(span);
+            event.end();
+        }
+        if (event.shouldCommit()) {
+            // 只在录制中启用该事件时才生成方法名
+            event.setMethod(joinPoint.toShortString());
+            event.setValid(invalid == null);
+            event.commit();
+        }
+        if (invalid != null) {
+            return invalid;
+        }
+
+        // 校验通过，继续执行原方法
+        return joinPoint.proceed();
+    }
+
+    private ResponseEntity<String> validate(Object[] args) {
         
         // 遍历所有参数进行校验
         for (Object arg : args) {
@@ -72,8 +99,6 @@ public class ValidationAspect {
                 }
             }
         }
-        
-        // 校验通过，继续执行原方法
-        return joinPoint.proceed();
+        return null;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.example.onlinestore.client;
+
+import java.util.Arrays;
+
+/**
+ * 对冲请求的触发延迟和预算
+ *
+ * 触发延迟取最近 {@value #WINDOW} 次调用耗时的指定分位数（不低于 minDelay），每记录 {@value #RECOMPUTE_INTERVAL}
+ * 次重新计算一次；样本少于 {@value #MIN_SAMPLES} 次时延迟未知，不发对冲请求。
+ * 下游整体变慢时分位数随之升高，对冲自然减少。
+ *
+ * 预算为令牌桶：每个请求存入 budgetPercent / 100 个令牌，每个对冲请求消耗 1 个，最多积累 {@value #MAX_TOKENS} 个。
+ * 长期来看对冲请求不超过请求总数的 budgetPercent，下游故障时不会因对冲把压力放大一倍。
+ */
+public class HedgePolicy {
+
+    static final int WINDOW = 256;
+    static final int MIN_SAMPLES = 20;
+    static final int RECOMPUTE_INTERVAL = 16;
+    static final double MAX_TOKENS = 10;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double tokensPerRequest;
+
+    private final long[] samples = new long[WINDOW];
+    private long count;
+    private double tokens;
+    private volatile long delayNanos = -1;
+
+    /**
+     * @param percentile 触发延迟取的分位数，如 0.95
+     * @param minDelayNanos 触发延迟的下限（纳秒）
+     * @param budgetPercent 对冲请求占请求总数的上限
+     */
+    public HedgePolicy(double percentile, long minDelayNanos, int budgetPercent) {
+        if (percentile <= 0 || percentile >= 1 || minDelayNanos <= 0 || budgetPercent < 0 || budgetPercent > 100) {
+            throw new IllegalArgumentException("对冲请求的参数无效");
+        }
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.tokensPerRequest = budgetPercent / 100.0;
+    }
+
+    /**
+     * 记录一次得到响应的调用耗时
+     */
+    public synchronized void record(long latencyNanos) {
+        samples[(int) (count % WINDOW)] = latencyNanos;
+        count++;
+        if (count >= MIN_SAMPLES && (count - MIN_SAMPLES) % RECOMPUTE_INTERVAL == 0) {
+            long[] sorted = Arrays.copyOf(samples, (int) Math.min(count, WINDOW));
+            Arrays.sort(sorted);
+            int index = Math.min(sorted.length - 1, Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1));
+            delayNanos = Math.max(minDelayNanos, sorted[index]);
+        }
+    }
+
+    /**
+     * 当前的触发延迟
+     *
+     * @return 纳秒；样本不足时返回 -1
+     */
+    public long delayNanos() {
+        return delayNanos;
+    }
+
+    /** 当前的触发延迟（毫秒），样本不足时为 NaN */
+    public double getDelayMillis() {
+        long delay = delayNanos;
+        return delay < 0 ? Double.NaN : delay / 1_000_000.0;
+    }
+
+    /**
+     * 收到一个请求，存入预算
+     */
+    public synchronized void onRequest() {
+        tokens = Math.min(MAX_TOKENS, tokens + tokensPerRequest);
+    }
+
+    /**
+     * 尝试为一个对冲请求扣除预算
+     *
+     * @return 预算不足时返回 false
+     */
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
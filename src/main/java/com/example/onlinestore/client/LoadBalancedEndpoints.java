@@ -0,0 +1,215 @@
+package com.example.onlinestore.client;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按延迟和并发选择下游实例（power of two choices）
+ *
+ * 每次随机取两个可用实例，选择代价较低的一个，代价 = 延迟估计 * (处理中的请求数 + 1)：
+ * - 延迟估计为峰值 EWMA：响应变慢时立即取新值，变快时按 decay 的时间常数逐渐回落，慢实例会很快被避开
+ * - 处理中的请求数反映实例当前的排队情况，避免所有请求同时涌向刚变快的实例
+ * - 还没有响应过的新实例延迟估计为 0，会先被选中几次得到真实延迟
+ *
+ * 连续失败达到 ejectFailures 次的实例摘除 ejectDuration，到期后自动恢复；
+ * 同时被摘除的实例不超过总数的 maxEjectedPercent，全部不可用时仍从所有实例中选择。
+ * 实例列表可随时整体更新，已有实例的统计数据保留。
+ */
+public class LoadBalancedEndpoints {
+
+    private final int ejectFailures;
+    private final long ejectNanos;
+    private final int maxEjectedPercent;
+    private final long decayNanos;
+    private final AtomicLong ejections = new AtomicLong();
+
+    private volatile List<Endpoint> endpoints = List.of();
+
+    /**
+     * @param ejectFailures 连续失败多少次后摘除
+     * @param ejectNanos 摘除时长（纳秒）
+     * @param maxEjectedPercent 同时摘除的实例占比上限
+     * @param decayNanos 延迟估计回落的时间常数（纳秒）
+     */
+    public LoadBalancedEndpoints(int ejectFailures, long ejectNanos, int maxEjectedPercent, long decayNanos) {
+        if (ejectFailures < 1 || ejectNanos <= 0 || maxEjectedPercent < 0 || maxEjectedPercent > 100 || decayNanos <= 0) {
+            throw new IllegalArgumentException("实例摘除和延迟估计的参数无效");
+        }
+        this.ejectFailures = ejectFailures;
+        this.ejectNanos = ejectNanos;
+        this.maxEjectedPercent = maxEjectedPercent;
+        this.decayNanos = decayNanos;
+    }
+
+    /**
+     * 更新实例列表，保留仍存在的实例的统计数据
+     */
+    public synchronized void update(List<URI> uris) {
+        Map<URI, Endpoint> existing = new HashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            existing.put(endpoint.uri, endpoint);
+        }
+        List<Endpoint> updated = new ArrayList<>(uris.size());
+        for (URI uri : uris) {
+            Endpoint endpoint = existing.get(uri);
+            updated.add(endpoint != null ? endpoint : new Endpoint(uri));
+        }
+        endpoints = List.copyOf(updated);
+    }
+
+    /**
+     * 选择一个实例，调用前后必须调用 {@link Endpoint#start()} 和 {@link #succeeded}/{@link #failed}
+     *
+     * @return 选中的实例；没有任何实例时返回 null
+     */
+    public Endpoint choose() {
+        return choose(null);
+    }
+
+    /**
+     * 选择 excluded 以外的一个实例，用于对冲请求
+     *
+     * @return 选中的实例；没有其他实例时返回 null
+     */
+    public Endpoint chooseOther(Endpoint excluded) {
+        return choose(excluded);
+    }
+
+    private Endpoint choose(Endpoint excluded) {
+        List<Endpoint> all = endpoints;
+        long now = System.nanoTime();
+        List<Endpoint> candidates = new ArrayList<>(all.size());
+        List<Endpoint> available = new ArrayList<>(all.size());
+        for (Endpoint endpoint : all) {
+            if (endpoint == excluded) {
+                continue;
+            }
+            candidates.add(endpoint);
+            if (!endpoint.isEjected(now)) {
+                available.add(endpoint);
+            }
+        }
+        if (available.isEmpty()) {
+            available = candidates;
+        }
+        int size = available.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            return available.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint a = available.get(first);
+        Endpoint b = available.get(second);
+        return a.cost() <= b.cost() ? a : b;
+    }
+
+    /**
+     * 记录一次成功的调用
+     *
+     * @param latencyNanos 调用耗时
+     */
+    public void succeeded(Endpoint endpoint, long latencyNanos) {
+        endpoint.inflight.decrementAndGet();
+        endpoint.consecutiveFailures.set(0);
+        endpoint.observe(latencyNanos, System.nanoTime(), decayNanos);
+    }
+
+    /**
+     * 记录一次失败的调用（连接失败、超时、5xx），连续失败过多时摘除该实例
+     */
+    public void failed(Endpoint endpoint) {
+        endpoint.inflight.decrementAndGet();
+        if (endpoint.consecutiveFailures.incrementAndGet() < ejectFailures) {
+            return;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            List<Endpoint> all = endpoints;
+            int ejected = 0;
+            for (Endpoint other : all) {
+                if (other.isEjected(now)) {
+                    ejected++;
+                }
+            }
+            if (endpoint.isEjected(now) || (ejected + 1) * 100 > all.size() * maxEjectedPercent) {
+                return;
+            }
+            endpoint.consecutiveFailures.set(0);
+            endpoint.ejectedUntil = now + ejectNanos;
+            ejections.incrementAndGet();
+        }
+    }
+
+    /** 当前的实例列表 */
+    public List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    /** 累计摘除次数 */
+    public long ejections() {
+        return ejections.get();
+    }
+
+    public static class Endpoint {
+        private final URI uri;
+        private final AtomicInteger inflight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long ejectedUntil;
+        private double latencyNanos;
+        private long observedAt;
+
+        Endpoint(URI uri) {
+            this.uri = uri;
+        }
+
+        public URI getUri() {
+            return uri;
+        }
+
+        /** 开始一次调用 */
+        public void start() {
+            inflight.incrementAndGet();
+        }
+
+        public int getInflight() {
+            return inflight.get();
+        }
+
+        public boolean isEjected(long now) {
+            long until = ejectedUntil;
+            return until != 0 && until - now > 0;
+        }
+
+        /** 延迟估计（纳秒） */
+        public synchronized double getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        private double cost() {
+            return getLatencyNanos() * (inflight.get() + 1);
+        }
+
+        private synchronized void observe(long latency, long now, long decayNanos) {
+            if (latency >= latencyNanos) {
+                latencyNanos = latency;
+            } else {
+                double weight = Math.exp(-(double) (now - observedAt) / decayNanos);
+                latencyNanos = latencyNanos * weight + latency * (1 - weight);
+            }
+            observedAt = now;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.onlinestore.client;
+
+import com.example.onlinestore.dto.LoginRequest;
+import com.example.onlinestore.logging.LogSampler;
+import com.example.onlinestore.trace.Tracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * user-service 认证接口的客户端
+ *
+ * 实例列表从服务发现（Nacos）获取并缓存在本地，每隔 service.user.discovery.refresh-interval 刷新一次，
+ * 请求时不访问注册中心；每次调用由 {@link LoadBalancedEndpoints} 按延迟和并发选择实例，连续失败的实例自动摘除。
+ * 服务发现没有返回实例（本地运行、未接入 Nacos）时使用 service.user.base-url。
+ *
+ * 4xx 响应说明实例本身正常，按成功调用记录延迟；连接失败、超时和 5xx 计为实例失败。
+ *
+ * 开启 service.user.hedge.enabled 后，第一次调用在 {@link HedgePolicy} 给出的延迟（近期耗时的分位数）内
+ * 没有响应时，向另一个实例再发一次，先得到的响应（含 4xx）作为结果；一次调用失败时等待另一次。
+ * 落后的调用无法中断，会在 hedgeExecutor 上继续执行到结束，其耗时和失败照常计入负载均衡的统计。
+ * 对冲请求受预算限制，只有一个可用实例、预算不足或线程池已满时不对冲。两次调用都在线程池中执行，
+ * 请求追踪中只记录一个 http span 覆盖整个等待过程。
+ *
+ * 指标：user.auth.requests（认证请求数）、user.auth.hedges（发出的对冲请求数）、
+ * user.auth.hedge.wins（对冲请求先响应的次数）、user.auth.hedge.throttled（因预算或线程池不足未对冲的次数）、
+ * user.auth.hedge.delay（当前的触发延迟，毫秒）。
+ */
+@Component
+public class UserAuthClient {
+    private static final Logger logger = LoggerFactory.getLogger(UserAuthClient.class);
+
+    private static final String AUTH_PATH = "/auth";
+    private static final String HEDGED_SPAN_DETAIL = "user-service" + AUTH_PATH + " (hedged)";
+
+    private final LogSampler discoveryFailureLog = new LogSampler(Duration.ofMinutes(1), 5);
+
+    @Value("${service.user.service-id:user-service}")
+    private String serviceId;
+
+    @Value("${service.user.base-url}")
+    private String baseUrl;
+
+    @Value("${service.user.eject.consecutive-failures:3}")
+    private int ejectFailures;
+
+    @Value("${service.user.eject.duration:PT30S}")
+    private Duration ejectDuration;
+
+    @Value("${service.user.eject.max-percent:50}")
+    private int maxEjectedPercent;
+
+    @Value("${service.user.latency-decay:PT10S}")
+    private Duration latencyDecay;
+
+    @Value("${service.user.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${service.user.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${service.user.hedge.min-delay:PT0.01S}")
+    private Duration hedgeMinDelay;
+
+    @Value("${service.user.hedge.budget-percent:10}")
+    private int hedgeBudgetPercent;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("hedgeExecutor")
+    private Executor hedgeExecutor;
+
+    @Autowired(required = false)
+    private DiscoveryClient discoveryClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LoadBalancedEndpoints endpoints;
+    private HedgePolicy hedgePolicy;
+    private Counter requests;
+    private Counter hedges;
+    private Counter hedgeWins;
+    private Counter hedgeThrottled;
+
+    @PostConstruct
+    public void init() {
+        endpoints = new LoadBalancedEndpoints(ejectFailures, ejectDuration.toNanos(), maxEjectedPercent,
+            latencyDecay.toNanos());
+        hedgePolicy = new HedgePolicy(hedgePercentile, hedgeMinDelay.toNanos(), hedgeBudgetPercent);
+        FunctionCounter.builder("user.auth.ejections", endpoints, LoadBalancedEndpoints::ejections)
+            .description("user-service 实例被摘除的次数")
+            .register(meterRegistry);
+        requests = Counter.builder("user.auth.requests")
+            .description("调用 user-service 认证的次数")
+            .register(meterRegistry);
+        hedges = Counter.builder("user.auth.hedges")
+            .description("发出的对冲请求数")
+            .register(meterRegistry);
+        hedgeWins = Counter.builder("user.auth.hedge.wins")
+            .description("对冲请求先于第一次调用响应的次数")
+            .register(meterRegistry);
+        hedgeThrottled = Counter.builder("user.auth.hedge.throttled")
+            .description("因预算不足或线程池已满未发出对冲请求的次数")
+            .register(meterRegistry);
+        Gauge.builder("user.auth.hedge.delay", hedgePolicy, HedgePolicy::getDelayMillis)
+            .description("对冲请求的触发延迟（毫秒）")
+            .register(meterRegistry);
+        refreshInstances();
+    }
+
+    /**
+     * 调用 user-service 认证用户名和密码
+     *
+     * @return 认证是否通过
+     * @throws RestClientException 调用失败
+     */
+    public boolean authenticate(LoginRequest request) {
+        requests.increment();
+        LoadBalancedEndpoints.Endpoint endpoint = endpoints.choose();
+        if (!hedgeEnabled) {
+            return attempt(endpoint, request);
+        }
+        hedgePolicy.onRequest();
+        long delay = hedgePolicy.delayNanos();
+        if (delay < 0) {
+            return attempt(endpoint, request);
+        }
+        int span = Tracer.begin("http", HEDGED_SPAN_DETAIL);
+        try {
+            return hedged(endpoint, request, delay);
+        } finally {
+            Tracer.end(span);
+        }
+    }
+
+    private boolean hedged(LoadBalancedEndpoints.Endpoint endpoint, LoginRequest request, long delay) {
+        CompletableFuture<Boolean> first;
+        try {
+            first = CompletableFuture.supplyAsync(() -> attempt(endpoint, request), hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            hedgeThrottled.increment();
+            return attempt(endpoint, request);
+        }
+        try {
+            return first.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // 超过触发延迟仍未响应，继续发对冲请求
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            throw interrupted();
+        }
+
+        LoadBalancedEndpoints.Endpoint other = endpoints.chooseOther(endpoint);
+        if (other == null) {
+            return await(first);
+        }
+        if (!hedgePolicy.tryAcquire()) {
+            hedgeThrottled.increment();
+            return await(first);
+        }
+        CompletableFuture<Boolean> second;
+        try {
+            second = CompletableFuture.supplyAsync(() -> attempt(other, request), hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            hedgeThrottled.increment();
+            return await(first);
+        }
+        hedges.increment();
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        AtomicBoolean decided = new AtomicBoolean();
+        race(first, false, result, pending, decided);
+        race(second, true, result, pending, decided);
+        return await(result);
+    }
+
+    /**
+     * 一次调用结束时：得到响应（含 4xx）则作为结果；失败时只有另一次也结束了才把失败作为结果
+     */
+    private void race(CompletableFuture<Boolean> attempt, boolean hedge, CompletableFuture<Boolean> result,
+                      AtomicInteger pending, AtomicBoolean decided) {
+        attempt.whenComplete((authenticated, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            boolean answered = cause == null || cause instanceof HttpClientErrorException;
+            boolean last = pending.decrementAndGet() == 0;
+            if ((!answered && !last) || !decided.compareAndSet(false, true)) {
+                return;
+            }
+            // 先计数再唤醒等待的线程，调用方返回时指标已经更新
+            if (answered && hedge) {
+                hedgeWins.increment();
+            }
+            if (cause == null) {
+                result.complete(authenticated);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * 等待结果，把调用中的异常原样抛出
+     */
+    private static boolean await(CompletableFuture<Boolean> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            throw interrupted();
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+    }
+
+    private static RuntimeException interrupted() {
+        Thread.currentThread().interrupt();
+        return new ResourceAccessException("等待 user-service 认证结果时被中断");
+    }
+
+    private boolean attempt(LoadBalancedEndpoints.Endpoint endpoint, LoginRequest request) {
+        String url = UriComponentsBuilder.fromUri(endpoint.getUri()).path(AUTH_PATH).toUriString();
+        endpoint.start();
+        long start = System.nanoTime();
+        try {
+            Boolean authenticated = restTemplate.postForObject(url, request, Boolean.class);
+            answered(endpoint, System.nanoTime() - start);
+            return Boolean.TRUE.equals(authenticated);
+        } catch (HttpClientErrorException e) {
+            answered(endpoint, System.nanoTime() - start);
+            throw e;
+        } catch (RuntimeException e) {
+            endpoints.failed(endpoint);
+            throw e;
+        }
+    }
+
+    private void answered(LoadBalancedEndpoints.Endpoint endpoint, long latencyNanos) {
+        endpoints.succeeded(endpoint, latencyNanos);
+        if (hedgeEnabled) {
+            hedgePolicy.record(latencyNanos);
+        }
+    }
+
+    /**
+     * 从服务发现刷新实例列表；查询失败时保留原列表
+     */
+    @Scheduled(fixedDelayString = "${service.user.discovery.refresh-interval:PT5S}")
+    public void refreshInstances() {
+        List<URI> uris = new ArrayList<>();
+        if (discoveryClient != null) {
+            try {
+                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+                    uris.add(instance.getUri());
+                }
+            } catch (Exception e) {
+                long suppressed = discoveryFailureLog.acquire();
+                if (suppressed >= 0) {
+                    logger.warn("查询 {} 实例失败，继续使用原实例列表: {}，此前省略 {} 条",
+                        serviceId, e.getMessage(), suppressed);
+                }
+                return;
+            }
+        }
+        if (uris.isEmpty()) {
+            uris.add(URI.create(baseUrl));
+        }
+        endpoints.update(uris);
+    }
+
+    /** 当前的实例列表及其统计数据 */
+    public List<LoadBalancedEndpoints.Endpoint> endpoints() {
+        return endpoints.endpoints();
+    }
+}
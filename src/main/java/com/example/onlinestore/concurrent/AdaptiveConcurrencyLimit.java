@@ -0,0 +1,144 @@
+package com.example.onlinestore.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发上限
+ *
+ * 按延迟梯度调整同时处理的请求数上限（思路同 Netflix concurrency-limits 的 Gradient）：
+ * - 每 windowSize 个请求为一个窗口，取窗口内的平均耗时为短期 RTT
+ * - 基准 RTT 为各窗口短期 RTT 的最小值，代表没有排队时的正常耗时
+ * - 梯度 = tolerance * 基准 RTT / 短期 RTT，限制在 [0.5, 1]；新上限 = 上限 * 梯度 + sqrt(上限)
+ *
+ * 延迟没有上升时梯度为 1，上限按 sqrt(上限) 缓慢增长；请求开始排队、短期 RTT 超过基准 RTT 的 tolerance 倍时上限下降，
+ * 最终稳定在略高于服务能力的位置，多出的 sqrt(上限) 个请求排队，保证处理线程不空闲。
+ * 基准 RTT 不跟随短期 RTT 上升，否则排队耗时会逐步抬高基准，上限随之越涨越高；
+ * 上限已降到 minLimit 仍在排队，说明是下游本身变慢而不是并发过高，这时以当前耗时为新的基准。
+ * 窗口内的最大并发不到上限一半时说明负载不高，只更新基准 RTT，不调整上限，避免空闲时上限无限增长。
+ * 启动时应使用较小的初始上限，先在没有排队的情况下测出基准 RTT。
+ *
+ * 使用示例：
+ * <pre>
+ * {@code
+ * if (!limit.tryAcquire(1.0)) {
+ *     // 超出上限，直接拒绝
+ * }
+ * long start = System.nanoTime();
+ * try {
+ *     handle();
+ * } finally {
+ *     limit.release(System.nanoTime() - start);
+ * }
+ * }
+ * </pre>
+ */
+public class AdaptiveConcurrencyLimit {
+
+    /** 新上限的平滑系数 */
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final int windowSize;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile int limit;
+
+    private double estimatedLimit;
+    private double baselineRttNanos;
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInflight;
+
+    /**
+     * @param initialLimit 初始上限
+     * @param minLimit 上限的下限
+     * @param maxLimit 上限的上限，通常不超过处理线程数
+     * @param tolerance 短期 RTT 超过基准 RTT 的多少倍时开始下调上限，不小于 1
+     * @param windowSize 每个窗口的请求数
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, int windowSize) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("并发上限应满足 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (tolerance < 1 || windowSize < 1) {
+            throw new IllegalArgumentException("tolerance 不能小于 1，windowSize 必须大于 0");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowSize = windowSize;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     *
+     * @param share 允许占用上限的比例，低优先级的请求使用较小的比例，上限被占满前先被拒绝
+     * @return 是否占用成功；成功后必须调用 {@link #release(long)}
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放名额并记录本次请求的耗时
+     */
+    public void release(long rttNanos) {
+        int before = inflight.getAndDecrement();
+        sample(rttNanos, before);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /** 基准 RTT（毫秒），还没有完整窗口时为 0 */
+    public synchronized double getBaselineRttMillis() {
+        return baselineRttNanos / 1_000_000;
+    }
+
+    private synchronized void sample(long rttNanos, int inflightBefore) {
+        windowRttSum += rttNanos;
+        windowCount++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflightBefore);
+        if (windowCount < windowSize) {
+            return;
+        }
+
+        double shortRtt = Math.max(1, (double) windowRttSum / windowCount);
+        int maxInflight = windowMaxInflight;
+        windowRttSum = 0;
+        windowCount = 0;
+        windowMaxInflight = 0;
+
+        if (baselineRttNanos == 0 || shortRtt < baselineRttNanos
+                || (estimatedLimit <= minLimit && shortRtt > tolerance * baselineRttNanos)) {
+            baselineRttNanos = shortRtt;
+        }
+        if (maxInflight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRttNanos / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.onlinestore.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 按键合并并发调用
+ *
+ * 同一个键同时只有一次调用真正执行，期间到达的其他调用等待并共享它的结果或异常。
+ * 调用结束后立即移除该键，之后的调用会重新执行，因此这里只合并并发请求，不做缓存。
+ *
+ * 使用示例：
+ * <pre>
+ * {@code
+ * SingleFlight<String, User> flight = new SingleFlight<>();
+ * User user = flight.execute(username, () -> loadUser(username));
+ * }
+ * </pre>
+ *
+ * @param <K> 键类型
+ * @param <V> 结果类型
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inflight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行调用，同键的并发调用只执行一次
+     *
+     * @param key 合并键
+     * @param supplier 实际调用
+     * @return 调用结果
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inflight.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = supplier.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, created);
+        }
+    }
+
+    /**
+     * 当前正在执行的调用数
+     */
+    public int inflightCount() {
+        return inflight.size();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.onlinestore.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 线程池配置
+ *
+ * queryExecutor 用于并行执行同一请求内相互独立的数据库查询。每个任务都会占用一个数据库连接，
+ * 因此线程数应小于连接池大小；队列满时由调用线程自己执行，退化为串行查询而不是拒绝请求。
+ *
+ * hedgeExecutor 用于执行 user-service 认证的对冲请求（service.user.hedge.enabled）。不设队列，
+ * 线程用尽时直接拒绝：排队等待的对冲请求已经失去意义，调用方会退化为不对冲的普通调用。
+ *
+ * 配置示例：
+ * <pre>
+ * executor:
+ *   query:
+ *     core-size: 4
+ *     max-size: 8
+ *     queue-capacity: 100
+ *   hedge:
+ *     core-size: 2
+ *     max-size: 20
+ * </pre>
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(name = "queryExecutor")
+    public ThreadPoolTaskExecutor queryExecutor(@Value("${executor.query.core-size:4}") int coreSize,
+                                                @Value("${executor.query.max-size:8}") int maxSize,
+                                                @Value("${executor.query.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    @Bean(name = "hedgeExecutor")
+    public ThreadPoolTaskExecutor hedgeExecutor(@Value("${executor.hedge.core-size:2}") int coreSize,
+                                                @Value("${executor.hedge.max-size:20}") int maxSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("hedge-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
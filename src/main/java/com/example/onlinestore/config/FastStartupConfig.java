@@ -0,0 +1,34 @@
+package com.example.onlinestore.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 快速启动配置
+ *
+ * faststart 模式下开启 spring.main.lazy-initialization，非关键 Bean 在首次使用时才创建。
+ * 以下 Bean 仍需在启动时创建：
+ * - 含有 @Scheduled 方法的 Bean：定时任务只在 Bean 创建时注册，延迟创建会导致任务永远不执行
+ * - 拦截器：首个请求就会用到，提前创建避免首个请求承担初始化开销
+ */
+@Configuration
+@Profile("faststart")
+public class FastStartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerInfrastructureFilter() {
+        return (beanName, beanDefinition, beanType) ->
+            HandlerInterceptor.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+            AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
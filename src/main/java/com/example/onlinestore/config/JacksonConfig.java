@@ -0,0 +1,35 @@
+package com.example.onlinestore.config;
+
+import com.example.onlinestore.dto.UserVO;
+import com.example.onlinestore.json.UserVOSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JSON 序列化配置
+ *
+ * 应用内只使用 Spring 创建的 ObjectMapper，HTTP 响应和 Redis 中的 JSON 共用同一套序列化器缓存。
+ * Module 类型的 Bean 由 Spring Boot 自动注册到该 ObjectMapper。
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * 为 UserVO、User 等 Bean 生成属性访问器，序列化时不再经过反射调用 getter
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * 用户列表的记录使用手写的序列化器，见 {@link UserVOSerializer}
+     */
+    @Bean
+    public Module userVOModule() {
+        return new SimpleModule("UserVOModule").addSerializer(UserVO.class, new UserVOSerializer());
+    }
+}
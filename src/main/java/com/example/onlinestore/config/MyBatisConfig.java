@@ -1,25 +1,41 @@
 package com.example.onlinestore.config;
 
+import com.example.onlinestore.trace.MyBatisTracingInterceptor;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.mybatis.spring.SqlSessionFactoryBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 public class MyBatisConfig {
 
+    @Value("${mybatis.mapper-locations:classpath:mapper/*.xml}")
+    private String[] mapperLocations;
+
     @Bean
     public SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
         SqlSessionFactoryBean sessionFactory = new SqlSessionFactoryBean();
         sessionFactory.setDataSource(dataSource);
-        sessionFactory.setMapperLocations(new PathMatchingResourcePatternResolver()
-                .getResources("classpath:mapper/*.xml"));
+        // 与 mybatis.mapper-locations 保持一致，快速启动时可配置为具体文件以省去类路径扫描
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<Resource> mappers = new ArrayList<>();
+        for (String location : mapperLocations) {
+            mappers.addAll(Arrays.asList(resolver.getResources(location.trim())));
+        }
+        sessionFactory.setMapperLocations(mappers.toArray(new Resource[0]));
         
         org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
         // 开启驼峰命名转换
         configuration.setMapUnderscoreToCamelCase(true);
+        // 记录每条语句的耗时到请求追踪中
+        configuration.addInterceptor(new MyBatisTracingInterceptor());
         sessionFactory.setConfiguration(configuration);
         
         return sessionFactory.getObject();
@@ -0,0 +1,288 @@
+package com.example.onlinestore.config;
+
+import org.springframework.boot.context.properties.bind.Binder;
+
+import java.time.Duration;
+
+/**
+ * 可在运行时调整的性能参数快照
+ *
+ * 各分组沿用原有的配置项前缀，未配置的项取这里的默认值：
+ * - user.token：登录 token 的有效期
+ * - catalog.cache：商品目录本地缓存的容量和过期时间、Redis 缓存的过期时间
+ * - service.http：调用 user-service 等下游服务的 HTTP 连接池和超时
+ * - user.login.rate-limit：登录限流的次数和周期
+ * - spring.data.redis.jedis.pool：Jedis 连接池大小（仅 jedis 模式）
+ *
+ * 快照创建后不再修改，配置变更时整体替换，见 {@link PerformanceSettings}。
+ */
+public class PerformanceProperties {
+
+    public static final String TOKEN = "user.token";
+    public static final String CATALOG_CACHE = "catalog.cache";
+    public static final String HTTP = "service.http";
+    public static final String LOGIN_RATE_LIMIT = "user.login.rate-limit";
+    public static final String REDIS_POOL = "spring.data.redis.jedis.pool";
+
+    static final String[] SECTIONS = {TOKEN, CATALOG_CACHE, HTTP, LOGIN_RATE_LIMIT, REDIS_POOL};
+
+    private final Token token;
+    private final CatalogCache catalogCache;
+    private final Http http;
+    private final LoginRateLimit loginRateLimit;
+    private final RedisPool redisPool;
+
+    private PerformanceProperties(Binder binder) {
+        this.token = binder.bind(TOKEN, Token.class).orElseGet(Token::new);
+        this.catalogCache = binder.bind(CATALOG_CACHE, CatalogCache.class).orElseGet(CatalogCache::new);
+        this.http = binder.bind(HTTP, Http.class).orElseGet(Http::new);
+        this.loginRateLimit = binder.bind(LOGIN_RATE_LIMIT, LoginRateLimit.class).orElseGet(LoginRateLimit::new);
+        this.redisPool = binder.bind(REDIS_POOL, RedisPool.class).orElseGet(RedisPool::new);
+    }
+
+    /**
+     * 从当前配置绑定并校验
+     *
+     * @throws IllegalArgumentException 配置值无效
+     */
+    public static PerformanceProperties bind(Binder binder) {
+        PerformanceProperties properties = new PerformanceProperties(binder);
+        properties.validate();
+        return properties;
+    }
+
+    public Token getToken() {
+        return token;
+    }
+
+    public CatalogCache getCatalogCache() {
+        return catalogCache;
+    }
+
+    public Http getHttp() {
+        return http;
+    }
+
+    public LoginRateLimit getLoginRateLimit() {
+        return loginRateLimit;
+    }
+
+    public RedisPool getRedisPool() {
+        return redisPool;
+    }
+
+    private void validate() {
+        positive(TOKEN + ".ttl", token.ttl);
+        positive(CATALOG_CACHE + ".local-max-size", catalogCache.localMaxSize);
+        positive(CATALOG_CACHE + ".local-ttl", catalogCache.localTtl);
+        positive(CATALOG_CACHE + ".page-ttl", catalogCache.pageTtl);
+        positive(CATALOG_CACHE + ".redis-ttl", catalogCache.redisTtl);
+        positive(HTTP + ".max-total", http.maxTotal);
+        positive(HTTP + ".max-per-route", http.maxPerRoute);
+        positive(HTTP + ".connect-timeout", http.connectTimeout);
+        positive(HTTP + ".connection-request-timeout", http.connectionRequestTimeout);
+        positive(HTTP + ".response-timeout", http.responseTimeout);
+        positive(LOGIN_RATE_LIMIT + ".period", loginRateLimit.period);
+        positive(LOGIN_RATE_LIMIT + ".username-capacity", loginRateLimit.usernameCapacity);
+        positive(LOGIN_RATE_LIMIT + ".username-ip-capacity", loginRateLimit.usernameIpCapacity);
+        positive(LOGIN_RATE_LIMIT + ".ip-capacity", loginRateLimit.ipCapacity);
+        positive(REDIS_POOL + ".max-active", redisPool.maxActive);
+        if (redisPool.minIdle < 0 || redisPool.minIdle > redisPool.maxIdle) {
+            throw new IllegalArgumentException(REDIS_POOL + ".min-idle 应在 0 和 max-idle 之间");
+        }
+    }
+
+    private static void positive(String name, long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " 必须大于 0: " + value);
+        }
+    }
+
+    private static void positive(String name, Duration value) {
+        if (value == null || value.isNegative() || value.isZero()) {
+            throw new IllegalArgumentException(name + " 必须大于 0: " + value);
+        }
+    }
+
+    public static class Token {
+        private Duration ttl = Duration.ofDays(1);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class CatalogCache {
+        private long localMaxSize = 10000;
+        private Duration localTtl = Duration.ofMinutes(5);
+        private Duration pageTtl = Duration.ofSeconds(10);
+        private Duration redisTtl = Duration.ofMinutes(30);
+
+        public long getLocalMaxSize() {
+            return localMaxSize;
+        }
+
+        public void setLocalMaxSize(long localMaxSize) {
+            this.localMaxSize = localMaxSize;
+        }
+
+        public Duration getLocalTtl() {
+            return localTtl;
+        }
+
+        public void setLocalTtl(Duration localTtl) {
+            this.localTtl = localTtl;
+        }
+
+        public Duration getPageTtl() {
+            return pageTtl;
+        }
+
+        public void setPageTtl(Duration pageTtl) {
+            this.pageTtl = pageTtl;
+        }
+
+        public Duration getRedisTtl() {
+            return redisTtl;
+        }
+
+        public void setRedisTtl(Duration redisTtl) {
+            this.redisTtl = redisTtl;
+        }
+    }
+
+    public static class Http {
+        private int maxTotal = 50;
+        private int maxPerRoute = 20;
+        private Duration connectTimeout = Duration.ofSeconds(1);
+        private Duration connectionRequestTimeout = Duration.ofMillis(500);
+        private Duration responseTimeout = Duration.ofSeconds(3);
+
+        /** 连接池的总连接数 */
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        /** 每个下游地址的连接数 */
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        /** 从连接池借用连接的等待上限 */
+        public Duration getConnectionRequestTimeout() {
+            return connectionRequestTimeout;
+        }
+
+        public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+        }
+
+        /** 等待响应的上限 */
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+    }
+
+    public static class LoginRateLimit {
+        private Duration period = Duration.ofMinutes(1);
+        private int usernameCapacity = 100;
+        private int usernameIpCapacity = 10;
+        private int ipCapacity = 100;
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+
+        public int getUsernameCapacity() {
+            return usernameCapacity;
+        }
+
+        public void setUsernameCapacity(int usernameCapacity) {
+            this.usernameCapacity = usernameCapacity;
+        }
+
+        public int getUsernameIpCapacity() {
+            return usernameIpCapacity;
+        }
+
+        public void setUsernameIpCapacity(int usernameIpCapacity) {
+            this.usernameIpCapacity = usernameIpCapacity;
+        }
+
+        public int getIpCapacity() {
+            return ipCapacity;
+        }
+
+        public void setIpCapacity(int ipCapacity) {
+            this.ipCapacity = ipCapacity;
+        }
+    }
+
+    public static class RedisPool {
+        private int maxActive = 8;
+        private int maxIdle = 8;
+        private int minIdle = 0;
+        private Duration maxWait = Duration.ofMillis(-1);
+
+        public int getMaxActive() {
+            return maxActive;
+        }
+
+        public void setMaxActive(int maxActive) {
+            this.maxActive = maxActive;
+        }
+
+        public int getMaxIdle() {
+            return maxIdle;
+        }
+
+        public void setMaxIdle(int maxIdle) {
+            this.maxIdle = maxIdle;
+        }
+
+        public int getMinIdle() {
+            return minIdle;
+        }
+
+        public void setMinIdle(int minIdle) {
+            this.minIdle = minIdle;
+        }
+
+        /** 等待连接的上限，负数表示一直等待 */
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.onlinestore.config;
+
+import com.example.onlinestore.event.PerformanceSettingsChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 运行时可调整的性能参数
+ *
+ * 启动时从当前配置绑定 {@link PerformanceProperties}：接入 Nacos 时来自配置中心，
+ * 本地运行时来自 application.yml 和 {@link LocalConfigProperties} 加载的 application-local.yml。
+ *
+ * Nacos 推送配置变更后（bootstrap.yml 中 refresh-enabled: true）Spring Cloud 发布 {@link EnvironmentChangeEvent}，
+ * 这里重新绑定完整的快照，校验通过后一次性替换，再发布 {@link PerformanceSettingsChangedEvent}，
+ * 由各组件按新参数重建连接池、缓存策略或限流桶，整个过程不需要重启。
+ * 新配置校验失败时保留原参数并记录错误日志，不会部分生效。
+ */
+@Component
+public class PerformanceSettings {
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceSettings.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private volatile PerformanceProperties current;
+
+    @PostConstruct
+    public void init() {
+        current = PerformanceProperties.bind(Binder.get(environment));
+    }
+
+    /**
+     * 当前生效的参数
+     */
+    public PerformanceProperties current() {
+        return current;
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        Set<String> sections = new LinkedHashSet<>();
+        for (String key : event.getKeys()) {
+            for (String section : PerformanceProperties.SECTIONS) {
+                if (key.startsWith(section + ".")) {
+                    sections.add(section);
+                }
+            }
+        }
+        if (sections.isEmpty()) {
+            return;
+        }
+
+        PerformanceProperties updated;
+        try {
+            updated = PerformanceProperties.bind(Binder.get(environment));
+        } catch (RuntimeException e) {
+            logger.error("性能参数变更无效，继续使用原参数: {}", sections, e);
+            return;
+        }
+        current = updated;
+        logger.info("性能参数已更新: {}", sections);
+        eventPublisher.publishEvent(new PerformanceSettingsChangedEvent(updated, sections));
+    }
+}
@@ -1,10 +1,20 @@
 package com.example.onlinestore.config;
 
+import io.micrometer.core.instrument.binder.commonspool2.CommonsObjectPool2Metrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
+/**
+ * Redis 配置
+ *
+ * 通过 spring.data.redis.client-type 选择客户端模式：
+ * - jedis：连接池模式，每条命令独占一个连接，并发超过 max-active 时请求线程排队等待连接
+ * - lettuce：多路复用模式，所有请求线程共享少量连接，并发命令直接写入同一连接而无需等待前一条响应，
+ *   即自动流水线化，不存在连接池等待
+ */
 @Configuration
 public class RedisConfig {
 
@@ -12,4 +22,13 @@ public class RedisConfig {
     public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
         return new StringRedisTemplate(connectionFactory);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 连接池模式下暴露 commons-pool2 指标，包括借用连接的平均/最大等待时间和排队线程数
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.data.redis.client-type", havingValue = "jedis")
+    public CommonsObjectPool2Metrics redisPoolMetrics() {
+        return new CommonsObjectPool2Metrics();
+    }
+}
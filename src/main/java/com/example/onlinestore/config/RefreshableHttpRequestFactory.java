@@ -0,0 +1,92 @@
+package com.example.onlinestore.config;
+
+import com.example.onlinestore.event.PerformanceSettingsChangedEvent;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 Apache HttpClient 5 连接池的请求工厂，连接池大小和超时可在运行时调整
+ *
+ * 参数变更时按新参数创建新的 HttpClient 并一次性替换，之后的请求使用新连接池；
+ * 旧连接池上可能还有进行中的请求，等最长的请求超时过去后再关闭。
+ */
+public class RefreshableHttpRequestFactory implements ClientHttpRequestFactory, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshableHttpRequestFactory.class);
+
+    private volatile HttpComponentsClientHttpRequestFactory delegate;
+
+    public RefreshableHttpRequestFactory(PerformanceProperties.Http settings) {
+        this.delegate = create(settings);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return delegate.createRequest(uri, httpMethod);
+    }
+
+    @EventListener
+    public void onSettingsChanged(PerformanceSettingsChangedEvent event) {
+        if (!event.affects(PerformanceProperties.HTTP)) {
+            return;
+        }
+        PerformanceProperties.Http settings = event.getSettings().getHttp();
+        HttpComponentsClientHttpRequestFactory previous = delegate;
+        delegate = create(settings);
+        long graceMillis = settings.getConnectionRequestTimeout().plus(settings.getResponseTimeout()).toMillis() + 1000;
+        CompletableFuture.delayedExecutor(graceMillis, TimeUnit.MILLISECONDS).execute(() -> close(previous));
+        logger.info("HTTP 连接池参数已更新: 总连接数 {}，每个地址 {}，连接超时 {}，等待连接 {}，响应超时 {}",
+            settings.getMaxTotal(), settings.getMaxPerRoute(), settings.getConnectTimeout(),
+            settings.getConnectionRequestTimeout(), settings.getResponseTimeout());
+    }
+
+    @Override
+    public void destroy() {
+        close(delegate);
+    }
+
+    private static HttpComponentsClientHttpRequestFactory create(PerformanceProperties.Http settings) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(settings.getMaxTotal())
+            .setMaxConnPerRoute(settings.getMaxPerRoute())
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(settings.getConnectTimeout()))
+                .build())
+            .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(settings.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.of(settings.getResponseTimeout()))
+                .build())
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private static void close(HttpComponentsClientHttpRequestFactory factory) {
+        try {
+            factory.destroy();
+        } catch (Exception e) {
+            logger.warn("关闭旧的 HTTP 连接池失败", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.onlinestore.config;
 
+import com.example.onlinestore.trace.TracingHttpInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -7,8 +8,18 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * 下游 HTTP 调用使用连接池，连接池大小和超时见 service.http，可在运行时调整
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RefreshableHttpRequestFactory httpRequestFactory(PerformanceSettings performanceSettings) {
+        return new RefreshableHttpRequestFactory(performanceSettings.current().getHttp());
     }
-} 
\ No newline at end of file
+
+    @Bean
+    public RestTemplate restTemplate(RefreshableHttpRequestFactory httpRequestFactory) {
+        RestTemplate restTemplate = new RestTemplate(httpRequestFactory);
+        restTemplate.getInterceptors().add(new TracingHttpInterceptor());
+        return restTemplate;
+    }
+}
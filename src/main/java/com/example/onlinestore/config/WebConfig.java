@@ -1,6 +1,7 @@
 package com.example.onlinestore.config;
 
 import com.example.onlinestore.interceptor.AuthInterceptor;
+import com.example.onlinestore.interceptor.LoadSheddingInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -9,13 +10,23 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private LoadSheddingInterceptor loadSheddingInterceptor;
+
     @Autowired
     private AuthInterceptor authInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // 过载保护放在最前面，被拒绝的请求不再访问 Redis 校验 token
+        registry.addInterceptor(loadSheddingInterceptor)
+                .addPathPatterns("/api/**");
         registry.addInterceptor(authInterceptor)
                 .addPathPatterns("/api/**")
-                .excludePathPatterns("/api/auth/login");
+                .excludePathPatterns("/api/auth/login")
+                // 商品浏览为公开接口
+                .excludePathPatterns("/api/products/**", "/api/categories/**")
+                // 游客购物车由服务端生成的购物车标识访问，无需登录
+                .excludePathPatterns("/api/guest-cart/**");
     }
 } 
\ No newline at end of file
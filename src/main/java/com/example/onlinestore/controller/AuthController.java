@@ -2,38 +2,66 @@ package com.example.onlinestore.controller;
 
 import com.example.onlinestore.dto.LoginRequest;
 import com.example.onlinestore.dto.LoginResponse;
+import com.example.onlinestore.logging.LogSampler;
+import com.example.onlinestore.security.LoginRateLimiter;
 import com.example.onlinestore.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
+    // 撞库时每个请求都会命中这两条日志，按分钟抽样输出
+    private final LogSampler throttledLog = new LogSampler(Duration.ofMinutes(1), 10);
+    private final LogSampler failedLog = new LogSampler(Duration.ofMinutes(1), 20);
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @Autowired
     private MessageSource messageSource;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        long retryAfter = loginRateLimiter.acquire(request.getUsername(), httpRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            // 超出登录次数限制，不再调用认证服务，返回429
+            long suppressed = throttledLog.acquire();
+            if (suppressed >= 0) {
+                logger.warn("登录请求被限流: {}，此前省略 {} 条", httpRequest.getRemoteAddr(), suppressed);
+            }
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(messageSource.getMessage("error.login.throttled", null, LocaleContextHolder.getLocale()));
+        }
         try {
             LoginResponse response = userService.login(request);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             // 业务逻辑异常，返回400
-            logger.warn("登录失败: {}", e.getMessage());
+            long suppressed = failedLog.acquire();
+            if (suppressed >= 0) {
+                logger.warn("登录失败: {}，此前省略 {} 条", e.getMessage(), suppressed);
+            }
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             // 系统异常，返回500
@@ -0,0 +1,113 @@
+package com.example.onlinestore.controller;
+
+import com.example.onlinestore.annotation.ValidateParams;
+import com.example.onlinestore.context.UserContext;
+import com.example.onlinestore.dto.CartRequest;
+import com.example.onlinestore.dto.ErrorResponse;
+import com.example.onlinestore.service.CartService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 购物车控制器
+ *
+ * /api/cart 为当前登录用户的购物车；/api/guest-cart 为游客购物车，无需登录，
+ * 登录时在请求中携带 guestCartId 即可合并到用户购物车。
+ */
+@RestController
+public class CartController {
+    private static final Logger logger = LoggerFactory.getLogger(CartController.class);
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @GetMapping("/api/cart")
+    public ResponseEntity<?> getCart(@RequestParam(required = false) String coupon) {
+        return execute("查询购物车", () -> cartService.getCart(currentUserId(), coupon));
+    }
+
+    @PostMapping("/api/cart/items")
+    @ValidateParams
+    public ResponseEntity<?> addItems(@Valid @RequestBody CartRequest request) {
+        return execute("加购", () -> cartService.addItems(currentUserId(), request.getItems()));
+    }
+
+    @PutMapping("/api/cart/items")
+    @ValidateParams
+    public ResponseEntity<?> updateItems(@Valid @RequestBody CartRequest request) {
+        return execute("修改购物车", () -> cartService.updateItems(currentUserId(), request.getItems()));
+    }
+
+    @DeleteMapping("/api/cart/items")
+    public ResponseEntity<?> removeItems(@RequestParam List<Long> productIds) {
+        return execute("移除购物车商品", () -> cartService.removeItems(currentUserId(), productIds));
+    }
+
+    @PostMapping("/api/guest-cart")
+    public ResponseEntity<?> createGuestCart() {
+        return execute("创建游客购物车",
+            () -> ResponseEntity.status(HttpStatus.CREATED).body(cartService.createGuestCart()));
+    }
+
+    @GetMapping("/api/guest-cart/{cartId}")
+    public ResponseEntity<?> getGuestCart(@PathVariable String cartId,
+                                          @RequestParam(required = false) String coupon) {
+        return execute("查询游客购物车", () -> cartService.getGuestCart(cartId, coupon));
+    }
+
+    @PostMapping("/api/guest-cart/{cartId}/items")
+    @ValidateParams
+    public ResponseEntity<?> addGuestItems(@PathVariable String cartId, @Valid @RequestBody CartRequest request) {
+        return execute("游客加购", () -> cartService.addGuestItems(cartId, request.getItems()));
+    }
+
+    @PutMapping("/api/guest-cart/{cartId}/items")
+    @ValidateParams
+    public ResponseEntity<?> updateGuestItems(@PathVariable String cartId, @Valid @RequestBody CartRequest request) {
+        return execute("修改游客购物车", () -> cartService.updateGuestItems(cartId, request.getItems()));
+    }
+
+    @DeleteMapping("/api/guest-cart/{cartId}/items")
+    public ResponseEntity<?> removeGuestItems(@PathVariable String cartId, @RequestParam List<Long> productIds) {
+        return execute("移除游客购物车商品", () -> cartService.removeGuestItems(cartId, productIds));
+    }
+
+    private static Long currentUserId() {
+        return UserContext.getCurrentUser().getId();
+    }
+
+    private ResponseEntity<?> execute(String action, Supplier<?> operation) {
+        try {
+            Object result = operation.get();
+            return result instanceof ResponseEntity<?> response ? response : ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            logger.warn("{}失败：{}", action, e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("{}失败：{}", action, e.getMessage(), e);
+            String errorMessage = messageSource.getMessage(
+                "error.system.internal", null, LocaleContextHolder.getLocale());
+            return ResponseEntity.internalServerError().body(new ErrorResponse(errorMessage));
+        }
+    }
+}
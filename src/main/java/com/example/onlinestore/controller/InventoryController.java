@@ -0,0 +1,107 @@
+package com.example.onlinestore.controller;
+
+import com.example.onlinestore.annotation.RequireAdmin;
+import com.example.onlinestore.annotation.ValidateParams;
+import com.example.onlinestore.context.UserContext;
+import com.example.onlinestore.dto.ErrorResponse;
+import com.example.onlinestore.dto.Reservation;
+import com.example.onlinestore.dto.ReservationRequest;
+import com.example.onlinestore.dto.StockRequest;
+import com.example.onlinestore.dto.StockVO;
+import com.example.onlinestore.service.InventoryService;
+import com.example.onlinestore.service.ProductService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.function.Supplier;
+
+/**
+ * 库存控制器
+ *
+ * 商品可售库存为公开接口，只查询上架商品，不存在的商品返回 404，不为其加载库存；
+ * 预占和释放需要登录；设置库存仅管理员可用。
+ */
+@RestController
+public class InventoryController {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryController.class);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @GetMapping("/api/products/{productId}/stock")
+    public ResponseEntity<?> getStock(@PathVariable Long productId) {
+        return execute("查询库存", () -> {
+            // 商品经目录缓存校验，任意商品ID不会回源库存表或在 Redis 中留下库存键
+            if (productService.getProduct(productId) == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(messageSource.getMessage(
+                    "error.product.not.found", null, LocaleContextHolder.getLocale())));
+            }
+            return new StockVO(productId, inventoryService.getAvailable(productId));
+        });
+    }
+
+    @PostMapping("/api/inventory/reservations")
+    @ValidateParams
+    public ResponseEntity<?> reserve(@Valid @RequestBody ReservationRequest request) {
+        return execute("预占库存", () -> {
+            Reservation reservation = inventoryService.reserve(
+                UserContext.getCurrentUser().getId(), request.getProductId(), request.getQuantity());
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+        });
+    }
+
+    @DeleteMapping("/api/inventory/reservations/{reservationId}")
+    public ResponseEntity<?> release(@PathVariable String reservationId) {
+        return execute("释放预占", () -> {
+            if (inventoryService.release(reservationId, UserContext.getCurrentUser().getId())) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(messageSource.getMessage(
+                "error.inventory.reservation.not.found", null, LocaleContextHolder.getLocale())));
+        });
+    }
+
+    @PutMapping("/api/admin/inventory/{productId}")
+    @RequireAdmin
+    @ValidateParams
+    public ResponseEntity<?> setStock(@PathVariable Long productId, @Valid @RequestBody StockRequest request) {
+        return execute("设置库存", () -> {
+            inventoryService.setStock(productId, request.getStock());
+            return new StockVO(productId, inventoryService.getAvailable(productId));
+        });
+    }
+
+    private ResponseEntity<?> execute(String action, Supplier<?> operation) {
+        try {
+            Object result = operation.get();
+            return result instanceof ResponseEntity<?> response ? response : ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            logger.warn("{}失败：{}", action, e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("{}失败：{}", action, e.getMessage(), e);
+            String errorMessage = messageSource.getMessage(
+                "error.system.internal", null, LocaleContextHolder.getLocale());
+            return ResponseEntity.internalServerError().body(new ErrorResponse(errorMessage));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.onlinestore.controller;
+
+import com.example.onlinestore.annotation.ValidateParams;
+import com.example.onlinestore.context.UserContext;
+import com.example.onlinestore.dto.ErrorResponse;
+import com.example.onlinestore.dto.OrderRequest;
+import com.example.onlinestore.dto.PlacedOrder;
+import com.example.onlinestore.model.Order;
+import com.example.onlinestore.service.OrderService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 订单控制器
+ *
+ * 下单必须携带 Idempotency-Key 请求头，客户端超时重试时使用同一个值；
+ * 重复请求返回首次创建的订单，并带有 Idempotent-Replayed: true 响应头。
+ */
+@RestController
+@RequestMapping("/api/orders")
+public class OrderController {
+    private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @PostMapping
+    @ValidateParams
+    public ResponseEntity<?> placeOrder(@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                        @Valid @RequestBody OrderRequest request) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()
+                || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(messageSource.getMessage(
+                "error.order.idempotency.key.invalid", null, LocaleContextHolder.getLocale())));
+        }
+        try {
+            PlacedOrder placed = orderService.placeOrder(
+                UserContext.getCurrentUser().getId(), idempotencyKey, request);
+            if (placed.isReplayed()) {
+                return ResponseEntity.ok().header(REPLAYED_HEADER, "true").body(placed.getOrder());
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(placed.getOrder());
+        } catch (IllegalArgumentException e) {
+            logger.warn("下单失败：{}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            // 相同幂等键的请求仍在处理中
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            logger.warn("下单繁忙：{}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(
+                messageSource.getMessage("error.order.busy", null, LocaleContextHolder.getLocale())));
+        } catch (Exception e) {
+            logger.error("下单失败：{}", e.getMessage(), e);
+            return internalError();
+        }
+    }
+
+    @GetMapping("/{orderNo}")
+    public ResponseEntity<?> getOrder(@PathVariable String orderNo) {
+        try {
+            Order order = orderService.getOrder(UserContext.getCurrentUser().getId(), orderNo);
+            if (order == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(messageSource.getMessage(
+                    "error.order.not.found", null, LocaleContextHolder.getLocale())));
+            }
+            return ResponseEntity.ok(order);
+        } catch (Exception e) {
+            logger.error("查询订单失败：{}", e.getMessage(), e);
+            return internalError();
+        }
+    }
+
+    private ResponseEntity<?> internalError() {
+        String errorMessage = messageSource.getMessage(
+            "error.system.internal", null, LocaleContextHolder.getLocale());
+        return ResponseEntity.internalServerError().body(new ErrorResponse(errorMessage));
+    }
+}
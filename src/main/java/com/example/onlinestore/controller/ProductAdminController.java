@@ -0,0 +1,102 @@
+package com.example.onlinestore.controller;
+
+import com.example.onlinestore.annotation.RequireAdmin;
+import com.example.onlinestore.annotation.ValidateParams;
+import com.example.onlinestore.dto.CategoryRequest;
+import com.example.onlinestore.dto.ErrorResponse;
+import com.example.onlinestore.dto.ProductRequest;
+import com.example.onlinestore.service.ProductService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.function.Supplier;
+
+/**
+ * 商品目录管理控制器
+ *
+ * 仅管理员可用，写入成功后由服务层在事务提交后失效商品目录缓存。
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class ProductAdminController {
+    private static final Logger logger = LoggerFactory.getLogger(ProductAdminController.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @PostMapping("/products")
+    @RequireAdmin
+    @ValidateParams
+    public ResponseEntity<?> createProduct(@Valid @RequestBody ProductRequest request) {
+        return execute("创建商品", () -> productService.createProduct(request));
+    }
+
+    @PutMapping("/products/{id}")
+    @RequireAdmin
+    @ValidateParams
+    public ResponseEntity<?> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductRequest request) {
+        return execute("更新商品", () -> productService.updateProduct(id, request));
+    }
+
+    @DeleteMapping("/products/{id}")
+    @RequireAdmin
+    public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
+        return execute("下架商品", () -> {
+            productService.deleteProduct(id);
+            return null;
+        });
+    }
+
+    @PostMapping("/categories")
+    @RequireAdmin
+    @ValidateParams
+    public ResponseEntity<?> createCategory(@Valid @RequestBody CategoryRequest request) {
+        return execute("创建分类", () -> productService.createCategory(request));
+    }
+
+    @PutMapping("/categories/{id}")
+    @RequireAdmin
+    @ValidateParams
+    public ResponseEntity<?> updateCategory(@PathVariable Long id, @Valid @RequestBody CategoryRequest request) {
+        return execute("更新分类", () -> productService.updateCategory(id, request));
+    }
+
+    @DeleteMapping("/categories/{id}")
+    @RequireAdmin
+    public ResponseEntity<?> deleteCategory(@PathVariable Long id) {
+        return execute("删除分类", () -> {
+            productService.deleteCategory(id);
+            return null;
+        });
+    }
+
+    private ResponseEntity<?> execute(String action, Supplier<?> operation) {
+        try {
+            Object result = operation.get();
+            return result == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            logger.warn("{}失败：{}", action, e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("{}失败：{}", action, e.getMessage(), e);
+            String errorMessage = messageSource.getMessage(
+                "error.system.internal", null, LocaleContextHolder.getLocale());
+            return ResponseEntity.internalServerError().body(new ErrorResponse(errorMessage));
+        }
+    }
+}
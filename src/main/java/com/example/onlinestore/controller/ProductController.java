@@ -0,0 +1,155 @@
+package com.example.onlinestore.controller;
+
+import com.example.onlinestore.annotation.ValidateParams;
+import com.example.onlinestore.dto.ErrorResponse;
+import com.example.onlinestore.dto.ProductPageRequest;
+import com.example.onlinestore.dto.ProductSearchRequest;
+import com.example.onlinestore.dto.Versioned;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.service.ProductSearchService;
+import com.example.onlinestore.service.ProductService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * 商品浏览控制器
+ *
+ * 公开接口，无需登录。响应来自商品目录缓存，带有 ETag，商品详情另带 Last-Modified，
+ * 客户端携带 If-None-Match / If-Modified-Since 且内容未变化时返回 304。
+ */
+@RestController
+@RequestMapping("/api")
+public class ProductController {
+    private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    /**
+     * 分页查询上架商品
+     *
+     * @param request 分页参数，可按分类过滤
+     * @param webRequest 当前请求，用于条件请求校验
+     * @return 商品分页数据
+     */
+    @GetMapping("/products")
+    @ValidateParams
+    public ResponseEntity<?> listProducts(@Valid ProductPageRequest request, WebRequest webRequest) {
+        try {
+            return conditional(productService.listProducts(request), webRequest);
+        } catch (Exception e) {
+            return internalError("查询商品列表失败", e);
+        }
+    }
+
+    /**
+     * 全文检索上架商品
+     *
+     * @param request 查询词和分页参数，可按分类过滤
+     * @return 按相关度排序的商品分页数据，索引尚未就绪时返回 503
+     */
+    @GetMapping("/products/search")
+    @ValidateParams
+    public ResponseEntity<?> searchProducts(@Valid ProductSearchRequest request) {
+        try {
+            return ResponseEntity.ok(productSearchService.search(request));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return internalError("搜索商品失败", e);
+        }
+    }
+
+    /**
+     * 搜索词自动补全
+     *
+     * @param prefix 已输入的前缀
+     * @param limit 返回的候选数，最多 20 个
+     * @return 候选词列表，索引尚未就绪时返回 503
+     */
+    @GetMapping("/products/suggest")
+    public ResponseEntity<?> suggest(@RequestParam String prefix,
+                                     @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(productSearchService.suggest(prefix,
+                Math.max(1, Math.min(limit, MAX_SUGGESTIONS))));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return internalError("搜索词补全失败", e);
+        }
+    }
+
+    /**
+     * 查询商品详情
+     *
+     * @param id 商品ID
+     * @param webRequest 当前请求，用于条件请求校验
+     * @return 商品详情，不存在或已下架时返回 404
+     */
+    @GetMapping("/products/{id}")
+    public ResponseEntity<?> getProduct(@PathVariable Long id, WebRequest webRequest) {
+        try {
+            Versioned<Product> product = productService.getProduct(id);
+            if (product == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(messageSource.getMessage(
+                    "error.product.not.found", null, LocaleContextHolder.getLocale())));
+            }
+            return conditional(product, webRequest);
+        } catch (Exception e) {
+            return internalError("查询商品详情失败", e);
+        }
+    }
+
+    /**
+     * 查询全部分类
+     *
+     * @param webRequest 当前请求，用于条件请求校验
+     * @return 分类列表
+     */
+    @GetMapping("/categories")
+    public ResponseEntity<?> listCategories(WebRequest webRequest) {
+        try {
+            return conditional(productService.listCategories(), webRequest);
+        } catch (Exception e) {
+            return internalError("查询分类列表失败", e);
+        }
+    }
+
+    /**
+     * checkNotModified 会同时写入 ETag 和 Last-Modified 响应头（列表没有修改时间，只写入 ETag），命中时设置 304 并返回 null 结束处理
+     */
+    private ResponseEntity<?> conditional(Versioned<?> result, WebRequest webRequest) {
+        if (webRequest.checkNotModified(result.getEtag(), result.getLastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok(result.getValue());
+    }
+
+    private ResponseEntity<?> internalError(String action, Exception e) {
+        logger.error("{}：{}", action, e.getMessage(), e);
+        String errorMessage = messageSource.getMessage(
+            "error.system.internal", null, LocaleContextHolder.getLocale());
+        return ResponseEntity.internalServerError().body(new ErrorResponse(errorMessage));
+    }
+}
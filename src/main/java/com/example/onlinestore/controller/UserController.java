@@ -4,8 +4,11 @@ import com.example.onlinestore.annotation.RequireAdmin;
 import com.example.onlinestore.annotation.ValidateParams;
 import com.example.onlinestore.dto.ErrorResponse;
 import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.UserImportReport;
 import com.example.onlinestore.dto.UserPageRequest;
 import com.example.onlinestore.dto.UserVO;
+import com.example.onlinestore.service.UserImportService;
+import com.example.onlinestore.service.UserImportService.ImportFormat;
 import com.example.onlinestore.service.UserService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -15,8 +18,15 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.Locale;
 
 /**
  * 用户管理控制器
@@ -29,20 +39,32 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserImportService userImportService;
+
     @Autowired
     private MessageSource messageSource;
 
     /**
      * 获取用户列表
+     *
+     * 响应带有基于用户表版本号的 ETag，请求携带的 If-None-Match 与当前版本一致时直接返回 304，不查询数据库。
      * 
      * @param request 分页请求参数
+     * @param webRequest 当前请求，用于校验 If-None-Match
      * @return 用户列表分页数据
      */
     @GetMapping
     @RequireAdmin
     @ValidateParams
-    public ResponseEntity<?> listUsers(@Valid UserPageRequest request) {
+    public ResponseEntity<?> listUsers(@Valid UserPageRequest request, WebRequest webRequest) {
         try {
+            String etag = listEtag(request);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                logger.debug("用户列表未变化，版本：{}", etag);
+                return null;
+            }
+
             logger.debug("开始查询用户列表，请求参数：{}", request);
             long startTime = System.currentTimeMillis();
             
@@ -52,7 +74,7 @@ public class UserController {
             logger.debug("查询用户列表成功，耗时：{}ms，返回 {} 条记录", 
                 (endTime - startTime), response.getRecords().size());
             
-            return ResponseEntity.ok(response);
+            return etag == null ? ResponseEntity.ok(response) : ResponseEntity.ok().eTag(etag).body(response);
         } catch (IllegalArgumentException e) {
             logger.warn("查询用户列表失败：{}", e.getMessage());
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
@@ -63,4 +85,50 @@ public class UserController {
             return ResponseEntity.internalServerError().body(new ErrorResponse(errorMessage));
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 批量导入用户
+     *
+     * @param file 用户文件，CSV 第一列为用户名，NDJSON 每行形如 {"username": "..."}
+     * @param format 文件格式：csv 或 ndjson
+     * @return 导入结果统计
+     */
+    @PostMapping("/import")
+    @RequireAdmin
+    public ResponseEntity<?> importUsers(@RequestParam("file") MultipartFile file,
+                                         @RequestParam(value = "format", defaultValue = "csv") String format) {
+        try {
+            ImportFormat importFormat = parseFormat(format);
+            logger.info("开始批量导入用户，文件：{}，大小：{} 字节", file.getOriginalFilename(), file.getSize());
+            try (InputStream input = file.getInputStream()) {
+                UserImportReport report = userImportService.importUsers(input, importFormat);
+                return ResponseEntity.ok(report);
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("批量导入用户失败：{}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("批量导入用户失败：{}", e.getMessage(), e);
+            String errorMessage = messageSource.getMessage(
+                "error.system.internal", null, LocaleContextHolder.getLocale());
+            return ResponseEntity.internalServerError().body(new ErrorResponse(errorMessage));
+        }
+    }
+
+    private String listEtag(UserPageRequest request) {
+        String version = userService.getUserListVersion();
+        if (version == null) {
+            return null;
+        }
+        return "\"users-" + version + "-" + request.getPageNum() + "-" + request.getPageSize() + "\"";
+    }
+
+    private ImportFormat parseFormat(String format) {
+        try {
+            return ImportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.import.format.unsupported", null, LocaleContextHolder.getLocale()));
+        }
+    }
+}
\ No newline at end of file
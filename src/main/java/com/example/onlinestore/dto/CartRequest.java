@@ -0,0 +1,22 @@
+package com.example.onlinestore.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class CartRequest {
+    @NotEmpty(message = "error.cart.items.required")
+    @Size(max = 50, message = "error.cart.items.size")
+    @Valid
+    private List<CartItemRequest> items;
+
+    public List<CartItemRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CartItemRequest> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.onlinestore.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class CartVO {
+    private String cartId;
+    private List<CartItemVO> items;
+    private int totalQuantity;
+    /** 可购买商品按成交单价的合计金额 */
+    private BigDecimal totalAmount;
+    /** 满减等整单优惠 */
+    private BigDecimal discountAmount;
+    /** 应付金额 */
+    private BigDecimal payableAmount;
+    /** 生效的整单促销名称 */
+    private List<String> promotions;
+
+    public String getCartId() {
+        return cartId;
+    }
+
+    public void setCartId(String cartId) {
+        this.cartId = cartId;
+    }
+
+    public List<CartItemVO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CartItemVO> items) {
+        this.items = items;
+    }
+
+    public int getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(int totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    public BigDecimal getPayableAmount() {
+        return payableAmount;
+    }
+
+    public void setPayableAmount(BigDecimal payableAmount) {
+        this.payableAmount = payableAmount;
+    }
+
+    public List<String> getPromotions() {
+        return promotions;
+    }
+
+    public void setPromotions(List<String> promotions) {
+        this.promotions = promotions;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.onlinestore.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class CategoryRequest {
+    @NotBlank(message = "error.category.name.required")
+    @Size(max = 50, message = "error.category.name.size")
+    private String name;
+
+    private Long parentId;
+
+    private int sortOrder;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public int getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(int sortOrder) {
+        this.sortOrder = sortOrder;
+    }
+}
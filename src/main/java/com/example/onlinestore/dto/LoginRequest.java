@@ -3,6 +3,8 @@ package com.example.onlinestore.dto;
 public class LoginRequest {
     private String username;
     private String password;
+    /** 登录前使用的游客购物车，可选，登录成功后合并到用户购物车 */
+    private String guestCartId;
 
     public String getUsername() {
         return username;
@@ -19,4 +21,12 @@ public class LoginRequest {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    public String getGuestCartId() {
+        return guestCartId;
+    }
+
+    public void setGuestCartId(String guestCartId) {
+        this.guestCartId = guestCartId;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.onlinestore.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class OrderItemRequest {
+    @NotNull(message = "error.order.product.required")
+    private Long productId;
+
+    @Min(value = 1, message = "error.order.quantity.min")
+    @Max(value = 99, message = "error.order.quantity.max")
+    private int quantity;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.onlinestore.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class OrderRequest {
+    @NotEmpty(message = "error.order.items.required")
+    @Size(max = 50, message = "error.order.items.size")
+    @Valid
+    private List<OrderItemRequest> items;
+
+    @Size(max = 32, message = "error.order.coupon.size")
+    private String couponCode;
+
+    public List<OrderItemRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderItemRequest> items) {
+        this.items = items;
+    }
+
+    public String getCouponCode() {
+        return couponCode;
+    }
+
+    public void setCouponCode(String couponCode) {
+        this.couponCode = couponCode;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.onlinestore.dto;
+
+import com.example.onlinestore.model.Order;
+
+/**
+ * 下单结果
+ *
+ * replayed 为 true 表示使用了已处理过的幂等键，返回的是首次请求创建的订单，没有重复下单。
+ */
+public class PlacedOrder {
+    private final Order order;
+    private final boolean replayed;
+
+    public PlacedOrder(Order order, boolean replayed) {
+        this.order = order;
+        this.replayed = replayed;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public boolean isReplayed() {
+        return replayed;
+    }
+}
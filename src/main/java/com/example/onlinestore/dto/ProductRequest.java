@@ -0,0 +1,66 @@
+package com.example.onlinestore.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public class ProductRequest {
+    @NotNull(message = "error.product.category.required")
+    private Long categoryId;
+
+    @NotBlank(message = "error.product.name.required")
+    @Size(max = 100, message = "error.product.name.size")
+    private String name;
+
+    private String description;
+
+    @NotNull(message = "error.product.price.required")
+    @DecimalMin(value = "0.00", message = "error.product.price.min")
+    private BigDecimal price;
+
+    @Size(max = 255, message = "error.product.image.size")
+    private String imageUrl;
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.onlinestore.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class ProductSearchRequest {
+    @NotBlank(message = "error.search.query.required")
+    @Size(max = 100, message = "error.search.query.size")
+    private String q;
+
+    /** 深分页需要在堆中保留 pageNum * pageSize 个候选，限制页码 */
+    @Min(value = 1, message = "error.page.number.min")
+    @Max(value = 50, message = "error.search.page.max")
+    private int pageNum = 1;
+
+    @Min(value = 1, message = "error.page.size.min")
+    @Max(value = 100, message = "error.page.size.max")
+    private int pageSize = 20;
+
+    private Long categoryId;
+
+    public String getQ() {
+        return q;
+    }
+
+    public void setQ(String q) {
+        this.q = q;
+    }
+
+    public int getPageNum() {
+        return pageNum;
+    }
+
+    public void setPageNum(int pageNum) {
+        this.pageNum = pageNum;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+}
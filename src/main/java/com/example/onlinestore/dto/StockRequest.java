@@ -0,0 +1,16 @@
+package com.example.onlinestore.dto;
+
+import jakarta.validation.constraints.Min;
+
+public class StockRequest {
+    @Min(value = 0, message = "error.inventory.stock.min")
+    private int stock;
+
+    public int getStock() {
+        return stock;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+}
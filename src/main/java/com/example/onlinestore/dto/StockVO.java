@@ -0,0 +1,30 @@
+package com.example.onlinestore.dto;
+
+public class StockVO {
+    private Long productId;
+    private int available;
+
+    public StockVO() {
+    }
+
+    public StockVO(Long productId, int available) {
+        this.productId = productId;
+        this.available = available;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+}
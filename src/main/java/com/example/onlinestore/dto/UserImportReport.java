@@ -0,0 +1,70 @@
+package com.example.onlinestore.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserImportReport {
+    private long processed;
+    private long inserted;
+    private long duplicates;
+    private long rejected;
+    private long elapsedMillis;
+    private long throughputPerSecond;
+    private List<String> rejectSamples = new ArrayList<>();
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getThroughputPerSecond() {
+        return throughputPerSecond;
+    }
+
+    public void setThroughputPerSecond(long throughputPerSecond) {
+        this.throughputPerSecond = throughputPerSecond;
+    }
+
+    public List<String> getRejectSamples() {
+        return rejectSamples;
+    }
+
+    public void setRejectSamples(List<String> rejectSamples) {
+        this.rejectSamples = rejectSamples;
+    }
+}
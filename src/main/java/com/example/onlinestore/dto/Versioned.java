@@ -0,0 +1,37 @@
+package com.example.onlinestore.dto;
+
+/**
+ * 带版本信息的查询结果
+ *
+ * etag 为结果 JSON 的摘要，lastModified 为结果中最近的修改时间（毫秒），两者都在结果加载进缓存时计算一次，
+ * 控制器据此处理 If-None-Match / If-Modified-Since，不需要每次序列化响应。
+ * 列表的修改时间无法从结果本身得出（删除、下架的记录不在结果中），lastModified 为 {@link #NO_LAST_MODIFIED}，只使用 ETag。
+ *
+ * @param <T> 结果类型
+ */
+public class Versioned<T> {
+    /** 没有可靠的修改时间，响应不带 Last-Modified，也不处理 If-Modified-Since */
+    public static final long NO_LAST_MODIFIED = -1;
+
+    private final T value;
+    private final String etag;
+    private final long lastModified;
+
+    public Versioned(T value, String etag, long lastModified) {
+        this.value = value;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.onlinestore.event;
+
+/**
+ * 商品目录变更事件
+ *
+ * 管理端写入商品或分类后发布，监听方（缓存失效等）应在事务提交后处理。
+ */
+public class CatalogChangedEvent {
+
+    public enum Type {
+        PRODUCT,
+        CATEGORY
+    }
+
+    private final Type type;
+    private final Long id;
+
+    public CatalogChangedEvent(Type type, Long id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    public static CatalogChangedEvent product(Long productId) {
+        return new CatalogChangedEvent(Type.PRODUCT, productId);
+    }
+
+    public static CatalogChangedEvent category(Long categoryId) {
+        return new CatalogChangedEvent(Type.CATEGORY, categoryId);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
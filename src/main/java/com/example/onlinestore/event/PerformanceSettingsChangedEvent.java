@@ -0,0 +1,35 @@
+package com.example.onlinestore.event;
+
+import com.example.onlinestore.config.PerformanceProperties;
+
+import java.util.Set;
+
+/**
+ * 性能参数变更事件
+ *
+ * 新的参数快照校验通过并生效后发布，监听方只处理自己关心的分组，见 {@link #affects(String)}。
+ */
+public class PerformanceSettingsChangedEvent {
+
+    private final PerformanceProperties settings;
+    private final Set<String> sections;
+
+    public PerformanceSettingsChangedEvent(PerformanceProperties settings, Set<String> sections) {
+        this.settings = settings;
+        this.sections = sections;
+    }
+
+    /** 变更后的参数 */
+    public PerformanceProperties getSettings() {
+        return settings;
+    }
+
+    /**
+     * 指定分组是否有配置项变更
+     *
+     * @param section 分组前缀，如 {@link PerformanceProperties#CATALOG_CACHE}
+     */
+    public boolean affects(String section) {
+        return sections.contains(section);
+    }
+}
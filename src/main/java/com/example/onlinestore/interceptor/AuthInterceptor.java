@@ -3,6 +3,7 @@ package com.example.onlinestore.interceptor;
 import com.example.onlinestore.context.UserContext;
 import com.example.onlinestore.model.User;
 import com.example.onlinestore.service.UserService;
+import com.example.onlinestore.trace.Tracer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +23,15 @@ public class AuthInterceptor implements HandlerInterceptor {
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        int span = Tracer.begin("interceptor", "AuthInterceptor");
+        try {
+            return authenticate(request, response);
+        } finally {
+            Tracer.end(span);
+        }
+    }
+
+    private boolean authenticate(HttpServletRequest request, HttpServletResponse response) throws Exception {
         String token = request.getHeader("X-Token");
         if (token == null) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -0,0 +1,162 @@
+package com.example.onlinestore.interceptor;
+
+import com.example.onlinestore.annotation.RequireAdmin;
+import com.example.onlinestore.concurrent.AdaptiveConcurrencyLimit;
+import com.example.onlinestore.logging.LogSampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 过载保护
+ *
+ * 按 {@link AdaptiveConcurrencyLimit} 限制 /api/** 同时处理的请求数，超出的请求立即返回 503 和 Retry-After，
+ * 不再占用 Tomcat 线程和 Jedis 连接排队，保证已接收的请求仍能按正常耗时完成。
+ *
+ * 请求分三个优先级，低优先级只能占用上限的一部分，过载时先被拒绝：
+ * - login：登录接口，可占满上限
+ * - admin：标注 {@link RequireAdmin} 的管理接口
+ * - normal：其他接口
+ *
+ * 指标：loadshedding.limit（当前上限）、loadshedding.inflight（处理中的请求数）、
+ * loadshedding.rtt（基准 RTT，毫秒）、loadshedding.rejected（按 priority 区分的拒绝次数）。
+ * 必须注册在其他拦截器之前，被拒绝的请求不再校验 token。
+ */
+@Component
+public class LoadSheddingInterceptor implements HandlerInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(LoadSheddingInterceptor.class);
+
+    private static final String START_ATTRIBUTE = LoadSheddingInterceptor.class.getName() + ".start";
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    enum Priority {
+        LOGIN, ADMIN, NORMAL
+    }
+
+    private final LogSampler rejectedLog = new LogSampler(Duration.ofMinutes(1), 5);
+
+    @Value("${load-shedding.enabled:true}")
+    private boolean enabled;
+
+    @Value("${load-shedding.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${load-shedding.min-limit:10}")
+    private int minLimit;
+
+    @Value("${load-shedding.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${load-shedding.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${load-shedding.window-size:100}")
+    private int windowSize;
+
+    @Value("${load-shedding.retry-after:PT1S}")
+    private Duration retryAfter;
+
+    @Value("${load-shedding.share.login:1.0}")
+    private double loginShare;
+
+    @Value("${load-shedding.share.admin:0.9}")
+    private double adminShare;
+
+    @Value("${load-shedding.share.normal:0.75}")
+    private double normalShare;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    private AdaptiveConcurrencyLimit limit;
+    private final Map<Priority, Double> shares = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    @PostConstruct
+    public void init() {
+        limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance, windowSize);
+        shares.put(Priority.LOGIN, loginShare);
+        shares.put(Priority.ADMIN, adminShare);
+        shares.put(Priority.NORMAL, normalShare);
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("loadshedding.rejected")
+                .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                .description("过载时拒绝的请求数")
+                .register(meterRegistry));
+        }
+        Gauge.builder("loadshedding.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+            .description("当前的并发上限")
+            .register(meterRegistry);
+        Gauge.builder("loadshedding.inflight", limit, AdaptiveConcurrencyLimit::getInflight)
+            .description("处理中的请求数")
+            .register(meterRegistry);
+        Gauge.builder("loadshedding.rtt", limit, AdaptiveConcurrencyLimit::getBaselineRttMillis)
+            .description("基准 RTT（毫秒）")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // 异步请求再次分发时已经占用了名额
+        if (!enabled || request.getAttribute(START_ATTRIBUTE) != null) {
+            return true;
+        }
+        Priority priority = priority(request, handler);
+        if (!limit.tryAcquire(shares.get(priority))) {
+            rejected.get(priority).increment();
+            long suppressed = rejectedLog.acquire();
+            if (suppressed >= 0) {
+                logger.warn("服务过载，拒绝请求: {}，当前并发上限 {}，此前省略 {} 条",
+                    request.getRequestURI(), limit.getLimit(), suppressed);
+            }
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(messageSource.getMessage(
+                "error.server.busy", null, LocaleContextHolder.getLocale()));
+            return false;
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start instanceof Long) {
+            request.removeAttribute(START_ATTRIBUTE);
+            limit.release(System.nanoTime() - (Long) start);
+        }
+    }
+
+    static Priority priority(HttpServletRequest request, Object handler) {
+        if (LOGIN_PATH.equals(request.getRequestURI())) {
+            return Priority.LOGIN;
+        }
+        if (handler instanceof HandlerMethod method && method.hasMethodAnnotation(RequireAdmin.class)) {
+            return Priority.ADMIN;
+        }
+        return Priority.NORMAL;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.onlinestore.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JFR 录制端点，无需重启、无需 agent 即可在线采集性能数据
+ *
+ * - GET /actuator/jfr：查看录制状态
+ * - POST /actuator/jfr：开始一次按需录制（profile 配置），可选参数 durationSeconds、maxSizeMb 均有上限，到时自动停止
+ * - DELETE /actuator/jfr：停止并丢弃按需录制
+ * - GET /actuator/jfr/ondemand、/actuator/jfr/rolling：下载按需录制或滚动录制的 .jfr 文件
+ *
+ * 滚动录制在启动时开启（default 配置，开销约 1%），只保留最近 jfr.rolling.max-age 内的数据，用于事后排查。
+ * 下载的文件先写入临时目录，每次下载前清理上一次的文件，用 JDK Mission Control 或 jfr 命令打开。
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+    private static final Logger logger = LoggerFactory.getLogger(JfrEndpoint.class);
+
+    static final String ON_DEMAND = "ondemand";
+    static final String ROLLING = "rolling";
+
+    @Value("${jfr.rolling.enabled:true}")
+    private boolean rollingEnabled;
+
+    @Value("${jfr.rolling.max-age:PT10M}")
+    private Duration rollingMaxAge;
+
+    @Value("${jfr.rolling.max-size:64MB}")
+    private DataSize rollingMaxSize;
+
+    @Value("${jfr.on-demand.default-duration:PT1M}")
+    private Duration defaultDuration;
+
+    @Value("${jfr.on-demand.max-duration:PT5M}")
+    private Duration maxDuration;
+
+    @Value("${jfr.on-demand.max-size:128MB}")
+    private DataSize maxSize;
+
+    private final Path dumpDir = Paths.get(System.getProperty("java.io.tmpdir"), "online-store-jfr");
+
+    private Recording rolling;
+    private Recording onDemand;
+
+    @PostConstruct
+    public synchronized void init() {
+        if (!rollingEnabled) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            logger.warn("当前 JVM 不支持 JFR，不开启滚动录制");
+            return;
+        }
+        try {
+            rolling = new Recording(Configuration.getConfiguration("default"));
+            rolling.setName("online-store-rolling");
+            rolling.setMaxAge(rollingMaxAge);
+            rolling.setMaxSize(rollingMaxSize.toBytes());
+            rolling.setToDisk(true);
+            rolling.start();
+            logger.info("JFR 滚动录制已开启，保留最近 {}", rollingMaxAge);
+        } catch (Exception e) {
+            logger.warn("开启 JFR 滚动录制失败", e);
+            rolling = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void destroy() {
+        close(rolling);
+        close(onDemand);
+        rolling = null;
+        onDemand = null;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("available", FlightRecorder.isAvailable());
+        status.put(ROLLING, describe(rolling));
+        status.put(ON_DEMAND, describe(onDemand));
+        return status;
+    }
+
+    /**
+     * 开始按需录制；已有正在进行的按需录制时不重复开始
+     *
+     * @param durationSeconds 录制时长，缺省或不大于 0 时为 jfr.on-demand.default-duration，不超过 jfr.on-demand.max-duration
+     * @param maxSizeMb       录制文件上限，缺省或不大于 0 时为 jfr.on-demand.max-size，不超过 jfr.on-demand.max-size
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Integer durationSeconds, @Nullable Integer maxSizeMb) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("当前 JVM 不支持 JFR");
+        }
+        if (onDemand != null && onDemand.getState() == RecordingState.RUNNING) {
+            return describe(onDemand);
+        }
+        close(onDemand);
+
+        Duration duration = durationSeconds == null || durationSeconds <= 0
+            ? defaultDuration : Duration.ofSeconds(durationSeconds);
+        if (duration.compareTo(maxDuration) > 0) {
+            duration = maxDuration;
+        }
+        long size = maxSizeMb == null || maxSizeMb <= 0
+            ? maxSize.toBytes() : Math.min(DataSize.ofMegabytes(maxSizeMb).toBytes(), maxSize.toBytes());
+
+        try {
+            onDemand = new Recording(Configuration.getConfiguration("profile"));
+        } catch (Exception e) {
+            throw new IllegalStateException("读取 JFR profile 配置失败", e);
+        }
+        onDemand.setName("online-store-ondemand");
+        onDemand.setDuration(duration);
+        onDemand.setMaxSize(size);
+        onDemand.setToDisk(true);
+        onDemand.start();
+        logger.info("JFR 按需录制已开始，时长 {}，上限 {} 字节", duration, size);
+        return describe(onDemand);
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        close(onDemand);
+        onDemand = null;
+        return status();
+    }
+
+    /**
+     * 下载录制文件，录制进行中也可以下载当前已有的数据
+     *
+     * @param name ondemand 或 rolling；对应录制不存在时返回 404
+     */
+    @ReadOperation
+    public synchronized Resource dump(@Selector String name) throws IOException {
+        Recording recording = ON_DEMAND.equals(name) ? onDemand : ROLLING.equals(name) ? rolling : null;
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            return null;
+        }
+        Files.createDirectories(dumpDir);
+        try (DirectoryStream<Path> previous = Files.newDirectoryStream(dumpDir, "*.jfr")) {
+            for (Path file : previous) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Path file = dumpDir.resolve(name + "-" + System.currentTimeMillis() + ".jfr");
+        recording.dump(file);
+        return new FileSystemResource(file);
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        if (recording == null) {
+            info.put("state", "NONE");
+            return info;
+        }
+        info.put("state", recording.getState().name());
+        info.put("startTime", recording.getStartTime());
+        info.put("duration", recording.getDuration());
+        info.put("maxAge", recording.getMaxAge());
+        info.put("maxSize", recording.getMaxSize());
+        info.put("size", recording.getSize());
+        return info;
+    }
+
+    private static void close(Recording recording) {
+        if (recording != null && recording.getState() != RecordingState.CLOSED) {
+            recording.close();
+        }
+    }
+}
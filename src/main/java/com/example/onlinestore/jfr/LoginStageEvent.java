@@ -0,0 +1,38 @@
+package com.example.onlinestore.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 登录流程中一个阶段的耗时
+ *
+ * 阶段：authenticate（调用 user-service）、findOrCreateUser、persistSession、cacheSession、mergeCart。
+ * 阶段失败抛出异常时不提交事件。
+ */
+@Name("onlinestore.LoginStage")
+@Label("Login Stage")
+@Category({"Online Store", "Auth"})
+@Description("登录流程中一个阶段的耗时")
+@StackTrace(false)
+public class LoginStageEvent extends Event {
+
+    @Label("Stage")
+    private String stage;
+
+    private LoginStageEvent(String stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * 开始一个阶段，阶段完成后调用 {@link #commit()}
+     */
+    public static LoginStageEvent start(String stage) {
+        LoginStageEvent event = new LoginStageEvent(stage);
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.onlinestore.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一条 MyBatis Mapper 语句的耗时，包含等待连接、执行 SQL 和映射结果
+ *
+ * 默认不记录调用栈；需要定位调用方时可在录制配置中为该事件开启 stackTrace。
+ */
+@Name("onlinestore.MapperStatement")
+@Label("Mapper Statement")
+@Category({"Online Store", "Database"})
+@Description("MyBatis Mapper 语句的执行")
+@StackTrace(false)
+public class MapperStatementEvent extends Event {
+
+    @Label("Statement")
+    private String statement;
+
+    public void setStatement(String statement) {
+        this.statement = statement;
+    }
+}
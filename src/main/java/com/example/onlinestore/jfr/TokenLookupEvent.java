@@ -0,0 +1,27 @@
+package com.example.onlinestore.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 按 token 查询登录用户的耗时和结果
+ */
+@Name("onlinestore.TokenLookup")
+@Label("Token Lookup")
+@Category({"Online Store", "Auth"})
+@Description("按 token 查询登录用户")
+@StackTrace(false)
+public class TokenLookupEvent extends Event {
+
+    @Label("Hit")
+    @Description("找到有效的会话")
+    private boolean hit;
+
+    public void setHit(boolean hit) {
+        this.hit = hit;
+    }
+}
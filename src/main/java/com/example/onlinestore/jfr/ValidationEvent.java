@@ -0,0 +1,33 @@
+package com.example.onlinestore.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * {@code @ValidateParams} 参数校验的耗时
+ */
+@Name("onlinestore.Validation")
+@Label("Parameter Validation")
+@Category({"Online Store", "Web"})
+@Description("控制器方法的参数校验")
+@StackTrace(false)
+public class ValidationEvent extends Event {
+
+    @Label("Method")
+    private String method;
+
+    @Label("Valid")
+    private boolean valid;
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+}
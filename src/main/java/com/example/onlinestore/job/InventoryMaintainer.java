@@ -0,0 +1,66 @@
+package com.example.onlinestore.job;
+
+import com.example.onlinestore.service.InventoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 库存维护任务
+ *
+ * - 释放过期未确认的预占，库存归还为可售
+ * - 将 Redis 中有变动的库存回写 MySQL，MySQL 中的库存用于 Redis 数据丢失后的恢复和报表
+ *
+ * 每轮按批处理，一批处理满时继续下一批，直到处理完或达到单轮上限。
+ *
+ * 配置示例：
+ * <pre>
+ * inventory:
+ *   batch-size: 500
+ *   expire-interval: PT5S
+ *   reconcile-interval: PT10S
+ * </pre>
+ */
+@Component
+public class InventoryMaintainer {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryMaintainer.class);
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    @Value("${inventory.batch-size:500}")
+    protected int batchSize;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Scheduled(initialDelayString = "${inventory.initial-delay:PT30S}",
+               fixedDelayString = "${inventory.expire-interval:PT5S}")
+    public void releaseExpired() {
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (inventoryService.releaseExpired(batchSize) < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("释放过期预占失败", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${inventory.initial-delay:PT30S}",
+               fixedDelayString = "${inventory.reconcile-interval:PT10S}")
+    public void reconcile() {
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (inventoryService.reconcile(batchSize) < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("回写库存失败", e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.onlinestore.job;
+
+import com.example.onlinestore.mapper.OutboxMapper;
+import com.example.onlinestore.model.OutboxEvent;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 订单发件箱中继
+ *
+ * 定期锁定一批待发布的订单事件，以流水线方式发布到 Redis 频道 order:events 后标记为已发布。
+ * 锁定使用 FOR UPDATE SKIP LOCKED，多个实例同时运行时各自处理不同的事件。
+ * 发布失败时事件保持待发布并累计重试次数，下一轮重试；投递语义为至少一次，
+ * 消费者按消息中的 id 去重。载荷格式错误的事件重试也无法发布，直接标记为失败并保留待人工处理，
+ * 同批的其他事件照常发布，避免一条坏数据一直排在最前面阻塞整个发件箱。已发布的事件保留 retention 后删除。
+ *
+ * 配置示例：
+ * <pre>
+ * order:
+ *   outbox:
+ *     batch-size: 200
+ *     relay-interval: PT1S
+ *     retention: P7D
+ *     cleanup-interval: PT1H
+ * </pre>
+ */
+@Component
+public class OrderOutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    static final String CHANNEL = "order:events";
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    @Value("${order.outbox.batch-size:200}")
+    protected int batchSize;
+
+    @Value("${order.outbox.retention:P7D}")
+    private Duration retention;
+
+    @Autowired
+    private OutboxMapper outboxMapper;
+
+    @Autowired
+    private RedisAccessor redisAccessor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${order.outbox.initial-delay:PT10S}",
+               fixedDelayString = "${order.outbox.relay-interval:PT1S}")
+    public void relay() {
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (relayBatch() < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("发布订单事件失败", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${order.outbox.initial-delay:PT10S}",
+               fixedDelayString = "${order.outbox.cleanup-interval:PT1H}")
+    public void cleanup() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(retention);
+            int deleted;
+            do {
+                deleted = outboxMapper.deletePublishedBefore(before, batchSize);
+            } while (deleted == batchSize);
+        } catch (Exception e) {
+            logger.error("清理已发布的订单事件失败", e);
+        }
+    }
+
+    /**
+     * 发布一批事件
+     *
+     * @return 本批处理的事件数（含标记为失败的）；发布失败时返回 0，本轮不再继续
+     */
+    public int relayBatch() {
+        Integer processed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxMapper.lockPending(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<Long> ids = new ArrayList<>(events.size());
+            List<Long> failedIds = new ArrayList<>();
+            List<String> messages = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                try {
+                    messages.add(toMessage(event));
+                    ids.add(event.getId());
+                } catch (Exception e) {
+                    logger.error("订单事件格式错误，标记为失败: id={}, type={}", event.getId(), event.getEventType(), e);
+                    failedIds.add(event.getId());
+                }
+            }
+            if (!failedIds.isEmpty()) {
+                outboxMapper.markFailed(failedIds);
+            }
+            if (ids.isEmpty()) {
+                return events.size();
+            }
+            try {
+                redisAccessor.pipelined(connection -> messages.forEach(message -> connection.publish(CHANNEL, message)));
+            } catch (Exception e) {
+                logger.warn("发布订单事件失败，下一轮重试: {} 个, {}", ids.size(), e.getMessage());
+                outboxMapper.incrementAttempts(ids);
+                return 0;
+            }
+            outboxMapper.markPublished(ids, LocalDateTime.now());
+            return events.size();
+        });
+        return processed == null ? 0 : processed;
+    }
+
+    private String toMessage(OutboxEvent event) throws IOException {
+        ObjectNode message = objectMapper.createObjectNode();
+        message.put("id", event.getId());
+        message.put("type", event.getEventType());
+        message.put("aggregateId", event.getAggregateId());
+        message.set("payload", objectMapper.readTree(event.getPayload()));
+        return objectMapper.writeValueAsString(message);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.onlinestore.job;
+
+import com.example.onlinestore.mapper.UserSessionMapper;
+import com.example.onlinestore.mapper.UserSessionMapper.SessionPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 会话表分区维护任务
+ *
+ * user_sessions 按过期日期做 RANGE 分区，每天一个分区（如 p20240101 存放当天过期的会话）。
+ * 该任务定期执行两件事：
+ * - 预先创建未来若干天的分区，保证新会话不会落入 p_future
+ * - 删除过期日期早于今天的分区，DROP PARTITION 是常数时间操作，避免逐行 DELETE
+ *
+ * 配置示例：
+ * <pre>
+ * session:
+ *   partition:
+ *     days-ahead: 7
+ *     maintain-interval: PT1H
+ * </pre>
+ */
+@Component
+public class SessionPartitionMaintainer {
+    private static final Logger logger = LoggerFactory.getLogger(SessionPartitionMaintainer.class);
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final Pattern DAILY_PARTITION = Pattern.compile("^p(\\d{8})$");
+
+    @Value("${session.partition.days-ahead:7}")
+    protected int daysAhead;
+
+    @Autowired
+    private UserSessionMapper userSessionMapper;
+
+    @Scheduled(initialDelayString = "${session.partition.initial-delay:PT30S}",
+               fixedDelayString = "${session.partition.maintain-interval:PT1H}")
+    public void maintain() {
+        try {
+            maintain(LocalDate.now());
+        } catch (Exception e) {
+            logger.error("维护会话表分区失败", e);
+        }
+    }
+
+    /**
+     * 以指定日期为“今天”维护分区
+     *
+     * @param today 当前日期
+     */
+    public void maintain(LocalDate today) {
+        Set<LocalDate> existing = new HashSet<>();
+        List<String> expired = new ArrayList<>();
+        for (String name : userSessionMapper.findPartitionNames()) {
+            Matcher matcher = DAILY_PARTITION.matcher(name);
+            if (!matcher.matches()) {
+                continue;
+            }
+            LocalDate day = LocalDate.parse(matcher.group(1), NAME_FORMAT);
+            existing.add(day);
+            if (day.isBefore(today)) {
+                expired.add(name);
+            }
+        }
+
+        // 新分区必须按日期递增且都大于已有分区，因此从已有的最大日期之后开始补齐
+        LocalDate start = existing.stream()
+            .max(LocalDate::compareTo)
+            .map(day -> day.plusDays(1))
+            .filter(day -> day.isAfter(today))
+            .orElse(today);
+        List<SessionPartition> toCreate = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(today.plusDays(daysAhead)); day = day.plusDays(1)) {
+            toCreate.add(new SessionPartition("p" + day.format(NAME_FORMAT), day.plusDays(1).toString()));
+        }
+
+        if (!toCreate.isEmpty()) {
+            userSessionMapper.addPartitions(toCreate);
+            logger.info("创建会话分区 {} 个，最远到 {}", toCreate.size(), today.plusDays(daysAhead));
+        }
+        if (!expired.isEmpty()) {
+            userSessionMapper.dropPartitions(expired);
+            logger.info("删除过期会话分区: {}", expired);
+        }
+    }
+}
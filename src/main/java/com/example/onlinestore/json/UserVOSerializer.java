@@ -0,0 +1,91 @@
+package com.example.onlinestore.json;
+
+import com.example.onlinestore.dto.UserVO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * UserVO 序列化器
+ *
+ * 用户列表一页最多 100 条，序列化耗时主要花在通过 DateTimeFormatter 格式化两个时间字段上。
+ * 这里按字段顺序直接写出，时间逐位写入字符数组，输出与 JavaTimeModule 的 ISO_LOCAL_DATE_TIME 格式一致：
+ * 秒总是输出，纳秒部分去掉末尾的 0，为 0 时省略。年份超出 0000-9999 时退回 DateTimeFormatter。
+ * null 字段与默认序列化一样输出为 null。
+ */
+public class UserVOSerializer extends StdSerializer<UserVO> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+
+    public UserVOSerializer() {
+        super(UserVO.class);
+    }
+
+    @Override
+    public void serialize(UserVO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName(ID);
+        if (value.getId() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.getId());
+        }
+        gen.writeFieldName(USERNAME);
+        gen.writeString(value.getUsername());
+        gen.writeFieldName(CREATED_AT);
+        writeDateTime(value.getCreatedAt(), gen);
+        gen.writeFieldName(UPDATED_AT);
+        writeDateTime(value.getUpdatedAt(), gen);
+        gen.writeEndObject();
+    }
+
+    static void writeDateTime(LocalDateTime time, JsonGenerator gen) throws IOException {
+        if (time == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = time.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time));
+            return;
+        }
+        char[] buffer = new char[29];
+        digits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        digits(buffer, 5, time.getMonthValue(), 2);
+        buffer[7] = '-';
+        digits(buffer, 8, time.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        digits(buffer, 11, time.getHour(), 2);
+        buffer[13] = ':';
+        digits(buffer, 14, time.getMinute(), 2);
+        buffer[16] = ':';
+        digits(buffer, 17, time.getSecond(), 2);
+        int length = 19;
+        int nano = time.getNano();
+        if (nano != 0) {
+            buffer[19] = '.';
+            digits(buffer, 20, nano, 9);
+            length = 29;
+            while (buffer[length - 1] == '0') {
+                length--;
+            }
+        }
+        gen.writeString(buffer, 0, length);
+    }
+
+    private static void digits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.onlinestore.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 热点路径日志的抽样
+ *
+ * 每条日志语句持有一个实例，每个时间窗口内最多输出 permits 条，其余的只计数。
+ * 新窗口的第一条日志带上上一窗口被省略的条数，日志量不再随请求量线性增长，异常的规模仍然可见。
+ * 只使用 CAS，不加锁，被省略的日志在请求线程上只有两次原子操作。
+ *
+ * 使用示例：
+ * <pre>
+ * {@code
+ * private final LogSampler missLog = new LogSampler(Duration.ofMinutes(1), 10);
+ *
+ * long suppressed = missLog.acquire();
+ * if (suppressed >= 0) {
+ *     logger.warn("无效的token: {}，此前省略 {} 条", TokenGenerator.redact(token), suppressed);
+ * }
+ * }
+ * </pre>
+ */
+public class LogSampler {
+
+    private final long windowNanos;
+    private final int permits;
+
+    /** 高 32 位为窗口序号，低 32 位为窗口内已输出的条数 */
+    private final AtomicLong state = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+    private final long origin = System.nanoTime();
+
+    /**
+     * @param window 时间窗口
+     * @param permits 每个窗口最多输出的条数
+     */
+    public LogSampler(Duration window, int permits) {
+        this.windowNanos = window.toNanos();
+        this.permits = permits;
+    }
+
+    /**
+     * 申请输出一条日志
+     *
+     * @return 允许输出时返回此前被省略且尚未报告的条数（≥ 0）；应省略时返回 -1
+     */
+    public long acquire() {
+        long window = (System.nanoTime() - origin) / windowNanos;
+        while (true) {
+            long current = state.get();
+            long currentWindow = current >>> 32;
+            int used = (int) current;
+            long next;
+            if (currentWindow != window) {
+                next = window << 32 | 1;
+            } else if (used < permits) {
+                next = current + 1;
+            } else {
+                suppressed.incrementAndGet();
+                return -1;
+            }
+            if (state.compareAndSet(current, next)) {
+                return suppressed.getAndSet(0);
+            }
+        }
+    }
+}
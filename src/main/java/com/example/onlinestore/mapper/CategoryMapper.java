@@ -0,0 +1,20 @@
+package com.example.onlinestore.mapper;
+
+import com.example.onlinestore.model.Category;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.util.List;
+
+@Mapper
+public interface CategoryMapper {
+
+    Category findById(Long id);
+
+    List<Category> findAll();
+
+    void insertCategory(Category category);
+
+    int updateCategory(Category category);
+
+    int deleteCategory(Long id);
+}
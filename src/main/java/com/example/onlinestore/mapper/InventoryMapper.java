@@ -0,0 +1,28 @@
+package com.example.onlinestore.mapper;
+
+import com.example.onlinestore.model.Inventory;
+import com.example.onlinestore.model.InventoryDeduction;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface InventoryMapper {
+
+    Inventory findByProductId(Long productId);
+
+    /**
+     * 批量写入库存，不存在的记录会被创建
+     */
+    int upsertInventories(@Param("inventories") List<Inventory> inventories);
+
+    /**
+     * 记录待扣减的库存，同一预占重复记录时忽略
+     */
+    int insertDeduction(InventoryDeduction deduction);
+
+    List<InventoryDeduction> findDeductions(@Param("limit") int limit);
+
+    int deleteDeduction(@Param("reservationId") String reservationId);
+}
@@ -0,0 +1,23 @@
+package com.example.onlinestore.mapper;
+
+import com.example.onlinestore.model.Order;
+import com.example.onlinestore.model.OrderItem;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface OrderMapper {
+
+    Order findByOrderNo(String orderNo);
+
+    List<OrderItem> findItemsByOrderNo(String orderNo);
+
+    /**
+     * 多行插入订单，由 OrderBatchWriter 按批调用
+     */
+    int insertOrders(@Param("orders") List<Order> orders);
+
+    int insertOrderItems(@Param("items") List<OrderItem> items);
+}
@@ -0,0 +1,30 @@
+package com.example.onlinestore.mapper;
+
+import com.example.onlinestore.model.OutboxEvent;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface OutboxMapper {
+
+    int insertEvents(@Param("events") List<OutboxEvent> events);
+
+    /**
+     * 锁定一批待发布事件，已被其他实例锁定的行直接跳过，需要在事务中调用
+     */
+    List<OutboxEvent> lockPending(@Param("limit") int limit);
+
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    int incrementAttempts(@Param("ids") List<Long> ids);
+
+    /**
+     * 标记为无法发布，不再被 lockPending 选中
+     */
+    int markFailed(@Param("ids") List<Long> ids);
+
+    int deletePublishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
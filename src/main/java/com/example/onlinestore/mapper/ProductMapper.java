@@ -0,0 +1,38 @@
+package com.example.onlinestore.mapper;
+
+import com.example.onlinestore.model.Product;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface ProductMapper {
+
+    Product findById(Long id);
+
+    List<Product> findByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 分页查询上架商品，categoryId 为 null 时查询全部分类
+     */
+    List<Product> findOnSaleWithPagination(@Param("categoryId") Long categoryId,
+                                           @Param("offset") int offset,
+                                           @Param("limit") int limit);
+
+    /**
+     * 按ID顺序分批扫描上架商品，返回ID大于 afterId 的前 limit 个
+     */
+    List<Product> findOnSaleAfterId(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    long countOnSale(@Param("categoryId") Long categoryId);
+
+    long countByCategory(Long categoryId);
+
+    void insertProduct(Product product);
+
+    int updateProduct(Product product);
+
+    int updateStatus(@Param("id") Long id, @Param("status") int status);
+}
@@ -0,0 +1,16 @@
+package com.example.onlinestore.mapper;
+
+import com.example.onlinestore.model.Promotion;
+import org.apache.ibatis.annotations.Mapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface PromotionMapper {
+
+    /**
+     * 查询已启用且在 now 时尚未结束的规则，包括尚未开始的
+     */
+    List<Promotion> findEffective(LocalDateTime now);
+}
@@ -1,9 +1,11 @@
 package com.example.onlinestore.mapper;
 
+import com.example.onlinestore.dto.UserVO;
 import com.example.onlinestore.model.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -16,8 +18,17 @@ public interface UserMapper {
     void insertUser(User user);
     
     List<User> findAllWithPagination(@Param("offset") int offset, @Param("limit") int limit);
+
+    /**
+     * 分页查询用户列表展示所需的字段，直接映射为 UserVO，不查询 token 等会话字段
+     */
+    List<UserVO> findPageRecords(@Param("offset") int offset, @Param("limit") int limit);
     
     long countTotal();
 
     List<User> findAll();
+
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    int batchInsertUsers(@Param("users") List<User> users);
 }
\ No newline at end of file
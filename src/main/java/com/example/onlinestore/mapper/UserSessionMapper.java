@@ -0,0 +1,48 @@
+package com.example.onlinestore.mapper;
+
+import com.example.onlinestore.model.User;
+import com.example.onlinestore.model.UserSession;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface UserSessionMapper {
+
+    void insertSession(UserSession session);
+
+    /**
+     * 按 token 查询未过期的会话及其用户，Redis 不可用时使用
+     *
+     * @return 用户信息，token 和 tokenExpireTime 取自会话；不存在或已过期时返回 null
+     */
+    User findUserByToken(@Param("token") String token);
+
+    List<String> findPartitionNames();
+
+    void addPartitions(@Param("partitions") List<SessionPartition> partitions);
+
+    void dropPartitions(@Param("names") List<String> names);
+
+    /**
+     * 日期分区定义，name 形如 p20240101，lessThan 为分区上界（不含）
+     */
+    class SessionPartition {
+        private final String name;
+        private final String lessThan;
+
+        public SessionPartition(String name, String lessThan) {
+            this.name = name;
+            this.lessThan = lessThan;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLessThan() {
+            return lessThan;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.onlinestore.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待扣减的库存：订单已写入但预占确认失败，由库存回写任务补扣
+ */
+public class InventoryDeduction {
+    private String reservationId;
+    private String orderNo;
+    private Long productId;
+    private Integer quantity;
+    private LocalDateTime createdAt;
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public String getOrderNo() {
+        return orderNo;
+    }
+
+    public void setOrderNo(String orderNo) {
+        this.orderNo = orderNo;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.onlinestore.model;
+
+import java.time.LocalDateTime;
+
+public class OutboxEvent {
+    /** 待发布 */
+    public static final int STATUS_PENDING = 0;
+    /** 已发布 */
+    public static final int STATUS_PUBLISHED = 1;
+    /** 格式错误无法发布，保留待人工处理 */
+    public static final int STATUS_FAILED = 2;
+
+    private Long id;
+    private String aggregateId;
+    private String eventType;
+    private String payload;
+    private Integer status;
+    private Integer attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(String aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.onlinestore.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 促销规则
+ *
+ * 来自 promotions 表或配置项 pricing.rules，两者字段相同。
+ */
+public class Promotion {
+    /** 特价：value 为单价，仅限商品范围 */
+    public static final int TYPE_SPECIAL_PRICE = 1;
+    /** 折扣：value 为折扣百分比，如 15 表示减 15% */
+    public static final int TYPE_PERCENT_OFF = 2;
+    /** 满减：tiers 为 门槛:减免 列表，如 "100:10,200:30" */
+    public static final int TYPE_AMOUNT_OFF = 3;
+
+    public static final int SCOPE_ALL = 0;
+    public static final int SCOPE_CATEGORY = 1;
+    public static final int SCOPE_PRODUCT = 2;
+
+    public static final int STATUS_DISABLED = 0;
+    public static final int STATUS_ENABLED = 1;
+
+    private Long id;
+    private String name;
+    private Integer type;
+    private Integer scopeType;
+    private Long scopeId;
+    private BigDecimal value;
+    private String tiers;
+    private String couponCode;
+    private boolean memberOnly;
+    private LocalDateTime startsAt;
+    private LocalDateTime endsAt;
+    private Integer status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getType() {
+        return type;
+    }
+
+    public void setType(Integer type) {
+        this.type = type;
+    }
+
+    public Integer getScopeType() {
+        return scopeType;
+    }
+
+    public void setScopeType(Integer scopeType) {
+        this.scopeType = scopeType;
+    }
+
+    public Long getScopeId() {
+        return scopeId;
+    }
+
+    public void setScopeId(Long scopeId) {
+        this.scopeId = scopeId;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public void setValue(BigDecimal value) {
+        this.value = value;
+    }
+
+    public String getTiers() {
+        return tiers;
+    }
+
+    public void setTiers(String tiers) {
+        this.tiers = tiers;
+    }
+
+    public String getCouponCode() {
+        return couponCode;
+    }
+
+    public void setCouponCode(String couponCode) {
+        this.couponCode = couponCode;
+    }
+
+    public boolean isMemberOnly() {
+        return memberOnly;
+    }
+
+    public void setMemberOnly(boolean memberOnly) {
+        this.memberOnly = memberOnly;
+    }
+
+    public LocalDateTime getStartsAt() {
+        return startsAt;
+    }
+
+    public void setStartsAt(LocalDateTime startsAt) {
+        this.startsAt = startsAt;
+    }
+
+    public LocalDateTime getEndsAt() {
+        return endsAt;
+    }
+
+    public void setEndsAt(LocalDateTime endsAt) {
+        this.endsAt = endsAt;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.onlinestore.pricing;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 以 long 为键的只读索引
+ *
+ * 键排序后存放在 long[] 中按二分查找，查询时不产生装箱对象。
+ */
+final class LongIndex<T> {
+
+    private final long[] keys;
+    private final Object[] values;
+
+    private LongIndex(long[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    static <S, T> LongIndex<T> of(Map<Long, S> source, Function<S, T> converter) {
+        long[] keys = source.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = converter.apply(source.get(keys[i]));
+        }
+        return new LongIndex<>(keys, values);
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(long key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index < 0 ? null : (T) values[index];
+    }
+}
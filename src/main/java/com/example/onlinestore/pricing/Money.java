@@ -0,0 +1,21 @@
+package com.example.onlinestore.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 金额与分之间的换算，计价过程中金额一律以 long 表示的分计算
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
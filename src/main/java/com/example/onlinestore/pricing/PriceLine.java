@@ -0,0 +1,38 @@
+package com.example.onlinestore.pricing;
+
+/**
+ * 待计价的一行商品
+ */
+public class PriceLine {
+
+    private final long productId;
+    private final long categoryId;
+
+    /** 标价，单位分 */
+    private final long unitPrice;
+
+    private final int quantity;
+
+    public PriceLine(long productId, long categoryId, long unitPrice, int quantity) {
+        this.productId = productId;
+        this.categoryId = categoryId;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public long getCategoryId() {
+        return categoryId;
+    }
+
+    public long getUnitPrice() {
+        return unitPrice;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+}
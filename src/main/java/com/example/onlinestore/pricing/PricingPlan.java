@@ -0,0 +1,328 @@
+package com.example.onlinestore.pricing;
+
+import com.example.onlinestore.model.Promotion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的促销规则
+ *
+ * 规则在编译时校验、换算为分并按范围建立索引，编译结果不可变，可被任意多个线程同时使用。
+ * 计价时每行商品只按商品ID和分类ID各做一次二分查找，不访问数据库、不解析规则文本。
+ *
+ * 计价规则：
+ * - 单品促销（特价、折扣）：每行取成交价最低的一条，不叠加
+ * - 整单促销（满减）：按适用范围内商品的成交金额计算门槛，普通满减取减免最多的一条，
+ *   优惠券另取减免最多的一条，两者可以叠加，合计不超过订单金额
+ * - 限会员的规则只对登录用户生效；设置了券码的规则只在提供相同券码时生效
+ * - 规则只在 [startsAt, endsAt) 内生效，未开始的规则也会编译，到时间后自动生效
+ */
+public final class PricingPlan {
+    private static final Logger logger = LoggerFactory.getLogger(PricingPlan.class);
+
+    public static final PricingPlan EMPTY = compile(List.of());
+
+    private final LongIndex<ItemRule[]> itemRulesByProduct;
+    private final LongIndex<ItemRule[]> itemRulesByCategory;
+    private final ItemRule[] globalItemRules;
+
+    /** 整单规则；按范围索引的值为规则在 orderRules 中的下标 */
+    private final OrderRule[] orderRules;
+    private final LongIndex<int[]> orderRulesByProduct;
+    private final LongIndex<int[]> orderRulesByCategory;
+    private final int[] globalOrderRules;
+
+    private PricingPlan(Map<Long, List<ItemRule>> itemsByProduct, Map<Long, List<ItemRule>> itemsByCategory,
+                        List<ItemRule> globalItems, List<OrderRule> orders) {
+        this.itemRulesByProduct = LongIndex.of(itemsByProduct, rules -> rules.toArray(new ItemRule[0]));
+        this.itemRulesByCategory = LongIndex.of(itemsByCategory, rules -> rules.toArray(new ItemRule[0]));
+        this.globalItemRules = globalItems.toArray(new ItemRule[0]);
+
+        this.orderRules = orders.toArray(new OrderRule[0]);
+        Map<Long, List<Integer>> byProduct = new HashMap<>();
+        Map<Long, List<Integer>> byCategory = new HashMap<>();
+        List<Integer> global = new ArrayList<>();
+        for (int i = 0; i < orderRules.length; i++) {
+            OrderRule rule = orderRules[i];
+            switch (rule.scopeType) {
+                case Promotion.SCOPE_PRODUCT -> byProduct.computeIfAbsent(rule.scopeId, id -> new ArrayList<>()).add(i);
+                case Promotion.SCOPE_CATEGORY -> byCategory.computeIfAbsent(rule.scopeId, id -> new ArrayList<>()).add(i);
+                default -> global.add(i);
+            }
+        }
+        this.orderRulesByProduct = LongIndex.of(byProduct, PricingPlan::toIntArray);
+        this.orderRulesByCategory = LongIndex.of(byCategory, PricingPlan::toIntArray);
+        this.globalOrderRules = toIntArray(global);
+    }
+
+    /**
+     * 编译规则，无效的规则记录日志后忽略
+     *
+     * @param promotions 规则
+     * @return 编译结果
+     */
+    public static PricingPlan compile(Collection<Promotion> promotions) {
+        Map<Long, List<ItemRule>> itemsByProduct = new HashMap<>();
+        Map<Long, List<ItemRule>> itemsByCategory = new HashMap<>();
+        List<ItemRule> globalItems = new ArrayList<>();
+        List<OrderRule> orders = new ArrayList<>();
+
+        for (Promotion promotion : promotions) {
+            if (promotion.getStatus() != null && promotion.getStatus() != Promotion.STATUS_ENABLED) {
+                continue;
+            }
+            try {
+                int scopeType = promotion.getScopeType() == null ? Promotion.SCOPE_ALL : promotion.getScopeType();
+                if (scopeType != Promotion.SCOPE_ALL && promotion.getScopeId() == null) {
+                    throw new IllegalArgumentException("缺少适用范围ID");
+                }
+                if (promotion.getType() != null && promotion.getType() == Promotion.TYPE_AMOUNT_OFF) {
+                    orders.add(new OrderRule(promotion, scopeType));
+                    continue;
+                }
+                ItemRule rule = new ItemRule(promotion, scopeType);
+                switch (scopeType) {
+                    case Promotion.SCOPE_PRODUCT ->
+                        itemsByProduct.computeIfAbsent(promotion.getScopeId(), id -> new ArrayList<>()).add(rule);
+                    case Promotion.SCOPE_CATEGORY ->
+                        itemsByCategory.computeIfAbsent(promotion.getScopeId(), id -> new ArrayList<>()).add(rule);
+                    case Promotion.SCOPE_ALL -> globalItems.add(rule);
+                    default -> throw new IllegalArgumentException("未知的适用范围: " + scopeType);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("忽略无效的促销规则: {} {}, {}", promotion.getId(), promotion.getName(), e.getMessage());
+            }
+        }
+        return new PricingPlan(itemsByProduct, itemsByCategory, globalItems, orders);
+    }
+
+    /**
+     * 计价
+     *
+     * @param lines 商品行
+     * @param member 是否为登录用户
+     * @param couponCode 券码，可以为 null
+     * @param now 当前时间（毫秒）
+     * @return 计价结果
+     */
+    public PricingResult price(List<PriceLine> lines, boolean member, String couponCode, long now) {
+        int n = lines.size();
+        long[] unitPrices = new long[n];
+        String[] linePromotions = new String[n];
+        long[] eligible = new long[orderRules.length];
+        long subtotal = 0;
+
+        for (int i = 0; i < n; i++) {
+            PriceLine line = lines.get(i);
+            long listPrice = line.getUnitPrice();
+            ItemRule best = best(itemRulesByProduct.get(line.getProductId()), null, listPrice, member, couponCode, now);
+            best = best(itemRulesByCategory.get(line.getCategoryId()), best, listPrice, member, couponCode, now);
+            best = best(globalItemRules, best, listPrice, member, couponCode, now);
+            long price = best == null ? listPrice : best.apply(listPrice);
+            unitPrices[i] = price;
+            linePromotions[i] = best == null ? null : best.name;
+
+            long amount = price * line.getQuantity();
+            subtotal += amount;
+            if (eligible.length > 0) {
+                accumulate(orderRulesByProduct.get(line.getProductId()), eligible, amount);
+                accumulate(orderRulesByCategory.get(line.getCategoryId()), eligible, amount);
+                accumulate(globalOrderRules, eligible, amount);
+            }
+        }
+
+        OrderRule bestRule = null;
+        long bestDiscount = 0;
+        OrderRule bestCoupon = null;
+        long bestCouponDiscount = 0;
+        for (int r = 0; r < orderRules.length; r++) {
+            OrderRule rule = orderRules[r];
+            if (eligible[r] == 0 || !rule.applies(member, couponCode, now)) {
+                continue;
+            }
+            long discount = rule.discountFor(eligible[r]);
+            if (rule.couponCode != null) {
+                if (discount > bestCouponDiscount) {
+                    bestCoupon = rule;
+                    bestCouponDiscount = discount;
+                }
+            } else if (discount > bestDiscount) {
+                bestRule = rule;
+                bestDiscount = discount;
+            }
+        }
+
+        List<String> orderPromotions = new ArrayList<>(2);
+        if (bestRule != null) {
+            orderPromotions.add(bestRule.name);
+        }
+        if (bestCoupon != null) {
+            orderPromotions.add(bestCoupon.name);
+        }
+        long discount = Math.min(subtotal, bestDiscount + bestCouponDiscount);
+        return new PricingResult(unitPrices, linePromotions, subtotal, discount, orderPromotions);
+    }
+
+    private static ItemRule best(ItemRule[] rules, ItemRule best, long listPrice,
+                                 boolean member, String couponCode, long now) {
+        if (rules == null) {
+            return best;
+        }
+        long bestPrice = best == null ? listPrice : best.apply(listPrice);
+        for (ItemRule rule : rules) {
+            if (rule.applies(member, couponCode, now)) {
+                long price = rule.apply(listPrice);
+                if (price < bestPrice) {
+                    best = rule;
+                    bestPrice = price;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static void accumulate(int[] ruleIndexes, long[] eligible, long amount) {
+        if (ruleIndexes != null) {
+            for (int index : ruleIndexes) {
+                eligible[index] += amount;
+            }
+        }
+    }
+
+    private static int[] toIntArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static long epochMillis(LocalDateTime time, long absent) {
+        return time == null ? absent : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 规则的公共条件
+     */
+    private abstract static class Rule {
+        final String name;
+        final boolean memberOnly;
+        final String couponCode;
+        final long startsAt;
+        final long endsAt;
+
+        Rule(Promotion promotion) {
+            this.name = promotion.getName();
+            this.memberOnly = promotion.isMemberOnly();
+            this.couponCode = promotion.getCouponCode() == null || promotion.getCouponCode().isBlank()
+                ? null : promotion.getCouponCode();
+            this.startsAt = epochMillis(promotion.getStartsAt(), Long.MIN_VALUE);
+            this.endsAt = epochMillis(promotion.getEndsAt(), Long.MAX_VALUE);
+        }
+
+        boolean applies(boolean member, String presentedCoupon, long now) {
+            return (member || !memberOnly)
+                && (couponCode == null || couponCode.equals(presentedCoupon))
+                && now >= startsAt && now < endsAt;
+        }
+    }
+
+    /**
+     * 单品促销：特价或折扣
+     */
+    private static final class ItemRule extends Rule {
+        /** 特价（分），折扣规则为 -1 */
+        final long specialPrice;
+
+        /** 折扣，单位万分之一 */
+        final long percentOffBasisPoints;
+
+        ItemRule(Promotion promotion, int scopeType) {
+            super(promotion);
+            BigDecimal value = promotion.getValue();
+            if (value == null || value.signum() < 0) {
+                throw new IllegalArgumentException("缺少有效的 value");
+            }
+            if (promotion.getType() == null) {
+                throw new IllegalArgumentException("缺少类型");
+            }
+            switch (promotion.getType()) {
+                case Promotion.TYPE_SPECIAL_PRICE -> {
+                    if (scopeType != Promotion.SCOPE_PRODUCT) {
+                        throw new IllegalArgumentException("特价只能用于单个商品");
+                    }
+                    this.specialPrice = Money.toCents(value);
+                    this.percentOffBasisPoints = 0;
+                }
+                case Promotion.TYPE_PERCENT_OFF -> {
+                    if (value.signum() == 0 || value.compareTo(BigDecimal.valueOf(100)) > 0) {
+                        throw new IllegalArgumentException("折扣百分比应在 (0, 100] 之间");
+                    }
+                    this.specialPrice = -1;
+                    this.percentOffBasisPoints = Money.toCents(value);
+                }
+                default -> throw new IllegalArgumentException("未知的类型: " + promotion.getType());
+            }
+        }
+
+        long apply(long listPrice) {
+            if (specialPrice >= 0) {
+                return Math.min(specialPrice, listPrice);
+            }
+            return (listPrice * (10_000 - percentOffBasisPoints) + 5_000) / 10_000;
+        }
+    }
+
+    /**
+     * 整单促销：阶梯满减
+     */
+    private static final class OrderRule extends Rule {
+        final int scopeType;
+        final long scopeId;
+
+        /** 门槛和减免（分），按门槛从高到低 */
+        final long[] thresholds;
+        final long[] discounts;
+
+        OrderRule(Promotion promotion, int scopeType) {
+            super(promotion);
+            this.scopeType = scopeType;
+            this.scopeId = promotion.getScopeId() == null ? 0 : promotion.getScopeId();
+            if (promotion.getTiers() == null || promotion.getTiers().isBlank()) {
+                throw new IllegalArgumentException("缺少 tiers");
+            }
+            String[] tiers = promotion.getTiers().split(",");
+            long[][] parsed = new long[tiers.length][];
+            for (int i = 0; i < tiers.length; i++) {
+                String[] parts = tiers[i].trim().split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("tiers 格式应为 门槛:减免: " + tiers[i]);
+                }
+                long threshold = Money.toCents(new BigDecimal(parts[0].trim()));
+                long discount = Money.toCents(new BigDecimal(parts[1].trim()));
+                if (threshold < 0 || discount <= 0) {
+                    throw new IllegalArgumentException("门槛不能为负数，减免必须大于 0: " + tiers[i]);
+                }
+                parsed[i] = new long[]{threshold, discount};
+            }
+            Arrays.sort(parsed, (a, b) -> Long.compare(b[0], a[0]));
+            this.thresholds = Arrays.stream(parsed).mapToLong(tier -> tier[0]).toArray();
+            this.discounts = Arrays.stream(parsed).mapToLong(tier -> tier[1]).toArray();
+        }
+
+        long discountFor(long amount) {
+            for (int i = 0; i < thresholds.length; i++) {
+                if (amount >= thresholds[i]) {
+                    return Math.min(discounts[i], amount);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.onlinestore.pricing;
+
+import java.util.List;
+
+/**
+ * 计价结果，金额单位均为分
+ */
+public class PricingResult {
+
+    /** 每行的成交单价，与输入的行顺序一致 */
+    private final long[] unitPrices;
+
+    /** 每行生效的单品促销名称，没有时为 null */
+    private final String[] linePromotions;
+
+    /** 按成交单价计算的合计 */
+    private final long subtotal;
+
+    /** 满减等整单优惠 */
+    private final long discount;
+
+    /** 生效的整单促销名称 */
+    private final List<String> orderPromotions;
+
+    public PricingResult(long[] unitPrices, String[] linePromotions, long subtotal, long discount,
+                         List<String> orderPromotions) {
+        this.unitPrices = unitPrices;
+        this.linePromotions = linePromotions;
+        this.subtotal = subtotal;
+        this.discount = discount;
+        this.orderPromotions = orderPromotions;
+    }
+
+    public long[] getUnitPrices() {
+        return unitPrices;
+    }
+
+    public String[] getLinePromotions() {
+        return linePromotions;
+    }
+
+    public long getSubtotal() {
+        return subtotal;
+    }
+
+    public long getDiscount() {
+        return discount;
+    }
+
+    /**
+     * 应付金额 = 合计 - 整单优惠
+     */
+    public long getPayable() {
+        return subtotal - discount;
+    }
+
+    public List<String> getOrderPromotions() {
+        return orderPromotions;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.onlinestore.redis;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 热点键检测
+ *
+ * 对读取按 1/sampleRate 抽样，抽中的键计入 count-min sketch（depth 行 × width 列的计数器，
+ * 估计值取各行计数的最小值，只会高估不会低估）。计数按窗口清零，估计值乘以 sampleRate 即为
+ * 当前窗口内的读取次数，达到 threshold 时标记为热点。
+ * 窗口结束时，读取次数低于 threshold 一半的热点键被降级；阈值留出一半的余量，避免在阈值附近反复升降。
+ * 热点键数量有上限，达到上限后不再标记新的热点键。
+ *
+ * 未被抽中的读取只有一次随机数判断和一次哈希表查找，抽中的读取多 depth 次原子加。
+ */
+public class HotKeyDetector {
+
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final int width;
+    private final int sampleRate;
+    private final long threshold;
+    private final int maxHotKeys;
+    private final AtomicIntegerArray counters;
+    private final Map<String, HotKey> hotKeys = new ConcurrentHashMap<>();
+
+    /**
+     * @param width 每行的计数器数，向上取整为 2 的幂
+     * @param sampleRate 每 sampleRate 次读取抽样一次
+     * @param threshold 一个窗口内达到该读取次数时标记为热点
+     * @param maxHotKeys 热点键数量上限
+     */
+    public HotKeyDetector(int width, int sampleRate, long threshold, int maxHotKeys) {
+        this.width = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.threshold = threshold;
+        this.maxHotKeys = maxHotKeys;
+        this.counters = new AtomicIntegerArray(DEPTH * this.width);
+    }
+
+    /**
+     * 记录一次读取
+     *
+     * @return 该键当前是否为热点
+     */
+    public boolean recordRead(String key) {
+        HotKey hot = hotKeys.get(key);
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return hot != null;
+        }
+        int hash = key.hashCode();
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters.incrementAndGet(row * width + index(hash, row)));
+        }
+        long estimate = (long) min * sampleRate;
+        if (hot != null) {
+            hot.windowReads = estimate;
+            return true;
+        }
+        if (estimate >= threshold && hotKeys.size() < maxHotKeys) {
+            hotKeys.putIfAbsent(key, new HotKey(key, estimate));
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isHot(String key) {
+        return hotKeys.containsKey(key);
+    }
+
+    /**
+     * 记录一次本地副本命中
+     */
+    public void recordReplicaHit(String key) {
+        HotKey hot = hotKeys.get(key);
+        if (hot != null) {
+            hot.replicaHits.increment();
+        }
+    }
+
+    /**
+     * 结束当前窗口：降级已冷却的热点键并清零计数
+     *
+     * @return 被降级的键
+     */
+    public List<String> rotate() {
+        List<String> demoted = new ArrayList<>();
+        for (HotKey hot : hotKeys.values()) {
+            // 本窗口内未被抽中过的热点键 windowReads 仍为上一窗口的值，先记下再清零
+            long reads = hot.windowReads;
+            hot.lastWindowReads = reads;
+            hot.windowReads = 0;
+            if (reads < threshold / 2) {
+                hotKeys.remove(hot.key);
+                demoted.add(hot.key);
+            }
+        }
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+        return demoted;
+    }
+
+    /**
+     * 当前热点键，按上一窗口的读取次数从高到低
+     */
+    public List<HotKey> hotKeys() {
+        List<HotKey> snapshot = new ArrayList<>(hotKeys.values());
+        snapshot.sort(Comparator.comparingLong(HotKey::getLastWindowReads).reversed());
+        return snapshot;
+    }
+
+    private int index(int hash, int row) {
+        int h = hash * SEEDS[row];
+        h ^= h >>> 16;
+        return h & (width - 1);
+    }
+
+    /**
+     * 热点键的状态
+     */
+    public static class HotKey {
+        private final String key;
+        private final long promotedAt = System.currentTimeMillis();
+        private final LongAdder replicaHits = new LongAdder();
+        private volatile long windowReads;
+        private volatile long lastWindowReads;
+
+        HotKey(String key, long windowReads) {
+            this.key = key;
+            this.windowReads = windowReads;
+            this.lastWindowReads = windowReads;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getPromotedAt() {
+            return promotedAt;
+        }
+
+        public long getReplicaHits() {
+            return replicaHits.sum();
+        }
+
+        /** 上一窗口内的估计读取次数 */
+        public long getLastWindowReads() {
+            return lastWindowReads;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.onlinestore.redis;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热点键查看端点：GET /actuator/hotkeys
+ *
+ * 会话键的最后一段是登录 token，输出时只保留前 4 个字符，避免通过端点泄露可用的 token。
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private static final int MASK_MIN_LENGTH = 16;
+    private static final int MASK_KEEP = 4;
+
+    @Autowired
+    private RedisAccessor redisAccessor;
+
+    @ReadOperation
+    public List<Map<String, Object>> hotKeys() {
+        return redisAccessor.hotKeys().stream().map(hot -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("key", mask(hot.getKey()));
+            item.put("reads", hot.getLastWindowReads());
+            item.put("replicaHits", hot.getReplicaHits());
+            item.put("promotedAt", Instant.ofEpochMilli(hot.getPromotedAt()).toString());
+            return item;
+        }).toList();
+    }
+
+    static String mask(String key) {
+        int separator = key.lastIndexOf(':');
+        String last = key.substring(separator + 1);
+        if (last.length() < MASK_MIN_LENGTH) {
+            return key;
+        }
+        return key.substring(0, separator + 1) + last.substring(0, MASK_KEEP) + "…";
+    }
+}
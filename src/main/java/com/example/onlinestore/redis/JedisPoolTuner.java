@@ -0,0 +1,59 @@
+package com.example.onlinestore.redis;
+
+import com.example.onlinestore.config.PerformanceProperties;
+import com.example.onlinestore.event.PerformanceSettingsChangedEvent;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 运行时调整 Jedis 连接池大小
+ *
+ * commons-pool2 的连接池支持在使用中修改上限和等待时间，直接修改现有连接池，不重建连接：
+ * 调小 max-active 时多出的连接在归还时关闭，调大后等待中的线程立即可以借到新连接。
+ * 仅在 jedis 模式下生效，lettuce 模式没有连接池。
+ */
+@Component
+@ConditionalOnProperty(name = "spring.data.redis.client-type", havingValue = "jedis")
+public class JedisPoolTuner {
+    private static final Logger logger = LoggerFactory.getLogger(JedisPoolTuner.class);
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @EventListener
+    public void onSettingsChanged(PerformanceSettingsChangedEvent event) {
+        if (!event.affects(PerformanceProperties.REDIS_POOL)) {
+            return;
+        }
+        GenericObjectPool<?> pool = pool();
+        if (pool == null) {
+            logger.warn("未找到 Jedis 连接池，忽略连接池参数变更");
+            return;
+        }
+        PerformanceProperties.RedisPool settings = event.getSettings().getRedisPool();
+        // 先设置上限再设置 min-idle，避免 min-idle 短暂超过 max-idle
+        pool.setMaxTotal(settings.getMaxActive());
+        pool.setMaxIdle(settings.getMaxIdle());
+        pool.setMinIdle(settings.getMinIdle());
+        pool.setMaxWait(settings.getMaxWait());
+        logger.info("Jedis 连接池参数已更新: max-active {}，max-idle {}，min-idle {}，max-wait {}",
+            settings.getMaxActive(), settings.getMaxIdle(), settings.getMinIdle(), settings.getMaxWait());
+    }
+
+    private GenericObjectPool<?> pool() {
+        if (!(connectionFactory instanceof JedisConnectionFactory)) {
+            return null;
+        }
+        // JedisConnectionFactory 没有公开连接池，只能读取私有字段
+        Object pool = new DirectFieldAccessor(connectionFactory).getPropertyValue("pool");
+        return pool instanceof GenericObjectPool<?> genericPool ? genericPool : null;
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.onlinestore.redis;
+
+import com.example.onlinestore.trace.Tracer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Redis 访问层
+ *
+ * 业务代码统一通过该类读写 Redis，以便在一处记录命令耗时和在途命令数：
+ * - redis.commands：按命令统计耗时，耗时包含等待连接池的时间
+ * - redis.commands.inflight：当前已发出但未返回的命令数
+ *
+ * 两个指标都带有 client 标签（jedis 或 lettuce），用于在相同流量下对比连接池模式和多路复用模式。
+ *
+ * 热点键本地副本（redis.hot-key.enabled）：
+ * 对 redis.hot-key.prefixes 下的键（默认只有会话 token:），GET 经 {@link HotKeyDetector}
+ * 抽样计数，被判定为热点的键在本地保留一份 replica-ttl 的副本，副本有效期内的读取不再访问 Redis，
+ * 避免单个键的读取集中压在同一个 Redis 实例上。键冷却后自动降级并删除副本。
+ * 本实例的写入和删除会在命令前后各清除一次副本，与之并发、读到旧值的 GET 不会再写入副本；
+ * 其他实例的写入最多在 replica-ttl 后可见，例如在其他实例上退出登录的会话，在本实例上最多还能再使用 replica-ttl。
+ * 自带本地缓存的数据（如商品目录 catalog:）不应加入 prefixes：收到其他实例的失效通知后重新加载时，
+ * 读到的副本会被重新放进本地缓存并保留更久；确需加入时，失效处理须调用 {@link #evictReplica(String)}。
+ */
+@Component
+public class RedisAccessor {
+
+    @Value("${spring.data.redis.client-type:lettuce}")
+    private String clientType;
+
+    @Value("${redis.hot-key.enabled:false}")
+    private boolean hotKeyEnabled;
+
+    @Value("${redis.hot-key.prefixes:token:}")
+    private String[] hotKeyPrefixes;
+
+    @Value("${redis.hot-key.sample-rate:8}")
+    private int hotKeySampleRate;
+
+    @Value("${redis.hot-key.threshold:1000}")
+    private long hotKeyThreshold;
+
+    @Value("${redis.hot-key.max-keys:64}")
+    private int hotKeyMaxKeys;
+
+    @Value("${redis.hot-key.replica-ttl:PT1S}")
+    private Duration replicaTtl;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private Timer getTimer;
+    private Timer setTimer;
+    private Timer deleteTimer;
+    private Timer incrTimer;
+    private Timer setNxTimer;
+    private Timer publishTimer;
+    private Timer scriptTimer;
+    private Timer mgetTimer;
+    private Timer hgetTimer;
+    private Timer zrangeTimer;
+    private Timer spopTimer;
+    private Timer saddTimer;
+    private Timer hgetallTimer;
+    private Timer hdelTimer;
+    private Timer pipelineTimer;
+    private HotKeyDetector hotKeyDetector;
+    private Cache<String, String> replica;
+    // 每次清除副本时递增，GET 期间有过清除时不写入副本
+    private final AtomicLong replicaEvictions = new AtomicLong();
+    private Counter replicaHits;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("redis.commands.inflight", inflight, AtomicInteger::get)
+            .tag("client", clientType)
+            .description("已发出但尚未返回的 Redis 命令数")
+            .register(meterRegistry);
+        getTimer = commandTimer("get");
+        setTimer = commandTimer("set");
+        deleteTimer = commandTimer("del");
+        incrTimer = commandTimer("incr");
+        setNxTimer = commandTimer("setnx");
+        publishTimer = commandTimer("publish");
+        scriptTimer = commandTimer("evalsha");
+        mgetTimer = commandTimer("mget");
+        hgetTimer = commandTimer("hget");
+        zrangeTimer = commandTimer("zrangebyscore");
+        spopTimer = commandTimer("spop");
+        saddTimer = commandTimer("sadd");
+        hgetallTimer = commandTimer("hgetall");
+        hdelTimer = commandTimer("hdel");
+        pipelineTimer = commandTimer("pipeline");
+        if (hotKeyEnabled) {
+            // 计数器总数远大于热点键上限，非热点键互相碰撞导致误判的概率很低
+            hotKeyDetector = new HotKeyDetector(2048, hotKeySampleRate, hotKeyThreshold, hotKeyMaxKeys);
+            replica = Caffeine.newBuilder()
+                .expireAfterWrite(replicaTtl)
+                .maximumSize(hotKeyMaxKeys * 2L)
+                .build();
+            Gauge.builder("redis.hotkeys", hotKeyDetector, detector -> detector.hotKeys().size())
+                .description("当前的 Redis 热点键数")
+                .register(meterRegistry);
+            replicaHits = Counter.builder("redis.hotkeys.replica.hits")
+                .description("由热点键本地副本返回、未访问 Redis 的读取次数")
+                .register(meterRegistry);
+        }
+    }
+
+    public String get(String key) {
+        if (!isReplicable(key)) {
+            return execute(getTimer, () -> redisTemplate.opsForValue().get(key));
+        }
+        String cached = replica.getIfPresent(key);
+        if (cached != null) {
+            hotKeyDetector.recordReplicaHit(key);
+            replicaHits.increment();
+            return cached;
+        }
+        long evictions = replicaEvictions.get();
+        String value = execute(getTimer, () -> redisTemplate.opsForValue().get(key));
+        if (hotKeyDetector.recordRead(key) && value != null && replicaEvictions.get() == evictions) {
+            replica.put(key, value);
+        }
+        return value;
+    }
+
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        write(key, setTimer, () -> {
+            redisTemplate.opsForValue().set(key, value, timeout, unit);
+            return null;
+        });
+    }
+
+    public boolean delete(String key) {
+        return Boolean.TRUE.equals(write(key, deleteTimer, () -> redisTemplate.delete(key)));
+    }
+
+    public boolean setIfAbsent(String key, String value) {
+        return Boolean.TRUE.equals(write(key, setNxTimer,
+            () -> redisTemplate.opsForValue().setIfAbsent(key, value)));
+    }
+
+    public boolean setIfAbsent(String key, String value, long timeout, TimeUnit unit) {
+        return Boolean.TRUE.equals(write(key, setNxTimer,
+            () -> redisTemplate.opsForValue().setIfAbsent(key, value, timeout, unit)));
+    }
+
+    public Long increment(String key) {
+        return write(key, incrTimer, () -> redisTemplate.opsForValue().increment(key));
+    }
+
+    public void publish(String channel, String message) {
+        execute(publishTimer, () -> {
+            redisTemplate.convertAndSend(channel, message);
+            return null;
+        });
+    }
+
+    /**
+     * 执行 Lua 脚本，优先使用 EVALSHA，服务端没有缓存脚本时自动退回 EVAL
+     */
+    public <T> T eval(RedisScript<T> script, List<String> keys, String... args) {
+        return execute(scriptTimer, () -> redisTemplate.execute(script, keys, (Object[]) args));
+    }
+
+    public List<String> multiGet(Collection<String> keys) {
+        return execute(mgetTimer, () -> redisTemplate.opsForValue().multiGet(keys));
+    }
+
+    public String hashGet(String key, String field) {
+        return execute(hgetTimer, () -> redisTemplate.<String, String>opsForHash().get(key, field));
+    }
+
+    public Set<String> rangeByScore(String key, double min, double max, long count) {
+        return execute(zrangeTimer, () -> redisTemplate.opsForZSet().rangeByScore(key, min, max, 0, count));
+    }
+
+    public List<String> popMembers(String key, long count) {
+        return execute(spopTimer, () -> redisTemplate.opsForSet().pop(key, count));
+    }
+
+    public void addMembers(String key, String... members) {
+        execute(saddTimer, () -> redisTemplate.opsForSet().add(key, members));
+    }
+
+    public Map<String, String> hashEntries(String key) {
+        return execute(hgetallTimer, () -> redisTemplate.<String, String>opsForHash().entries(key));
+    }
+
+    public long hashDelete(String key, String... fields) {
+        Long deleted = execute(hdelTimer, () -> redisTemplate.opsForHash().delete(key, (Object[]) fields));
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * 以流水线方式发送一组命令，只产生一次网络往返
+     *
+     * 回调中的命令返回值都是 null，结果按发送顺序在返回的列表中。整个流水线计为一次 pipeline 命令耗时。
+     *
+     * @param commands 在连接上发送命令
+     * @return 各命令的结果
+     */
+    public List<Object> pipelined(Consumer<StringRedisConnection> commands) {
+        return execute(pipelineTimer, () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            commands.accept((StringRedisConnection) connection);
+            return null;
+        }));
+    }
+
+    /**
+     * 当前的热点键，未启用热点键检测时为空
+     */
+    public List<HotKeyDetector.HotKey> hotKeys() {
+        return hotKeyDetector == null ? List.of() : hotKeyDetector.hotKeys();
+    }
+
+    /**
+     * 每个窗口结束时降级已冷却的热点键，并删除其本地副本
+     */
+    @Scheduled(fixedDelayString = "${redis.hot-key.window:PT1S}")
+    public void rotateHotKeys() {
+        if (hotKeyDetector == null) {
+            return;
+        }
+        for (String key : hotKeyDetector.rotate()) {
+            replica.invalidate(key);
+        }
+    }
+
+    private boolean isReplicable(String key) {
+        if (hotKeyDetector == null) {
+            return false;
+        }
+        for (String prefix : hotKeyPrefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 清除键的本地副本，用于得知其他实例修改了该键（如收到失效通知）时
+     */
+    public void evictReplica(String key) {
+        if (replica != null) {
+            replicaEvictions.incrementAndGet();
+            replica.invalidate(key);
+        }
+    }
+
+    /**
+     * 执行写命令，命令前后各清除一次副本：命令执行期间读到旧值的 GET 因清除计数变化不会写入副本
+     */
+    private <T> T write(String key, Timer timer, Supplier<T> command) {
+        evictReplica(key);
+        try {
+            return execute(timer, command);
+        } finally {
+            evictReplica(key);
+        }
+    }
+
+    private <T> T execute(Timer timer, Supplier<T> command) {
+        inflight.incrementAndGet();
+        int span = Tracer.begin("redis", timer.getId().getTag("command"));
+        long start = System.nanoTime();
+        try {
+            return command.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            Tracer.end(span);
+            inflight.decrementAndGet();
+        }
+    }
+
+    private Timer commandTimer(String command) {
+        return Timer.builder("redis.commands")
+            .tag("command", command)
+            .tag("client", clientType)
+            .description("Redis 命令耗时，包含等待连接的时间")
+            .register(meterRegistry);
+    }
+}
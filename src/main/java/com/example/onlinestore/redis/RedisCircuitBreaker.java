@@ -0,0 +1,122 @@
+package com.example.onlinestore.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Redis 熔断器
+ *
+ * 调用方在访问 Redis 后调用 {@link #recordSuccess()} 或 {@link #recordFailure()}，连续失败 failure-threshold 次后打开。
+ * 打开期间调用方不再访问 Redis，直接走各自的降级路径，请求不必逐个等待连接超时。
+ * 打开后由后台任务每隔 probe-interval 发送一次 PING，成功后自动关闭；请求本身不参与探测。
+ * 关闭后的 recovery-window 内 {@link #isRecovering()} 为 true，调用方可在这段时间内补回熔断期间只写入了其他存储的数据。
+ *
+ * 指标：redis.circuit.open（1 表示打开）、redis.circuit.opened（打开的次数）。
+ */
+@Component
+public class RedisCircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    @Value("${redis.circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${redis.circuit-breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${redis.circuit-breaker.recovery-window:PT10M}")
+    private Duration recoveryWindow;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean open = new AtomicBoolean();
+    // 最近一次关闭的时间（System.nanoTime），从未打开过时为 0
+    private volatile long closedAt;
+    private Counter opened;
+
+    @PostConstruct
+    public void init() {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("redis.circuit-breaker.failure-threshold 必须大于 0: " + failureThreshold);
+        }
+        opened = Counter.builder("redis.circuit.opened")
+            .description("Redis 熔断打开的次数")
+            .register(meterRegistry);
+        Gauge.builder("redis.circuit.open", open, state -> state.get() ? 1 : 0)
+            .description("Redis 熔断是否打开")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 熔断是否打开，打开时调用方不应访问 Redis
+     */
+    public boolean isOpen() {
+        return open.get();
+    }
+
+    /**
+     * 熔断关闭后是否仍在 recovery-window 内
+     */
+    public boolean isRecovering() {
+        long closed = closedAt;
+        return closed != 0 && !open.get() && System.nanoTime() - closed < recoveryWindow.toNanos();
+    }
+
+    /** 记录一次成功的调用 */
+    public void recordSuccess() {
+        // 每个请求都会调用，没有失败记录时只读不写
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    /** 记录一次失败的调用（连接失败、超时），连续失败达到阈值时打开熔断 */
+    public void recordFailure() {
+        if (!enabled || consecutiveFailures.incrementAndGet() < failureThreshold) {
+            return;
+        }
+        if (open.compareAndSet(false, true)) {
+            opened.increment();
+            logger.error("Redis 连续 {} 次调用失败，熔断打开，等待后台探测恢复", failureThreshold);
+        }
+    }
+
+    /**
+     * 熔断打开时探测 Redis 是否恢复
+     */
+    @Scheduled(fixedDelayString = "${redis.circuit-breaker.probe-interval:PT1S}")
+    public void probe() {
+        if (!open.get()) {
+            return;
+        }
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.ping();
+        } catch (Exception e) {
+            logger.debug("Redis 仍不可用: {}", e.getMessage());
+            return;
+        }
+        consecutiveFailures.set(0);
+        closedAt = System.nanoTime();
+        if (open.compareAndSet(true, false)) {
+            logger.info("Redis 已恢复，熔断关闭，{} 内补回熔断期间登录的会话", recoveryWindow);
+        }
+    }
+}
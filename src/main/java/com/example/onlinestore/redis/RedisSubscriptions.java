@@ -0,0 +1,68 @@
+package com.example.onlinestore.redis;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 发布订阅
+ *
+ * 监听容器首次订阅时必须连上 Redis，否则抛出异常。若把容器注册为 Bean 随上下文启动，
+ * Redis 不可用会导致整个应用启动失败，因此容器由这里持有并在后台启动：
+ * 定期检查容器状态，未运行时尝试启动；启动成功后连接中断由容器自身负责重连。
+ *
+ * 订阅会长期占用一个连接，连接池模式下可用于普通命令的连接数相应减少一个。
+ */
+@Component
+public class RedisSubscriptions {
+    private static final Logger logger = LoggerFactory.getLogger(RedisSubscriptions.class);
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    private RedisMessageListenerContainer container;
+
+    @PostConstruct
+    public void init() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+    }
+
+    /**
+     * 订阅频道，可在容器启动前调用
+     *
+     * @param channel 频道名
+     * @param listener 消息监听器
+     */
+    public void subscribe(String channel, MessageListener listener) {
+        container.addMessageListener(listener, new ChannelTopic(channel));
+    }
+
+    @Scheduled(initialDelayString = "${redis.subscription.initial-delay:PT1S}",
+               fixedDelayString = "${redis.subscription.retry-interval:PT30S}")
+    public void ensureStarted() {
+        if (container.isRunning()) {
+            return;
+        }
+        try {
+            container.start();
+            logger.info("Redis 发布订阅已启动");
+        } catch (Exception e) {
+            logger.warn("启动 Redis 发布订阅失败，稍后重试: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        container.destroy();
+    }
+}
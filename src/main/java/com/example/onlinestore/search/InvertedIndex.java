@@ -0,0 +1,460 @@
+package com.example.onlinestore.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存倒排索引
+ *
+ * 每个文档分配一个连续的内部编号 docId，倒排表以 int[] 保存升序的 docId、short[] 保存对应词频，
+ * 不为每条记录创建对象。
+ * 查询为 AND 语义：从最短的倒排表出发，在其余倒排表中跳跃查找（指数 + 二分），
+ * 同时按 BM25（k1=1.2，b=0.75）计算得分，用大小为 offset + limit 的小顶堆取前若干名。
+ *
+ * 更新和删除不修改已有倒排表：删除只标记 docId，更新为删除后以新 docId 重新加入。
+ * 已删除的文档超过四分之一时整体压缩，重新编号并清理倒排表。
+ * 计算 IDF 时文档频率包含尚未压缩掉的已删除文档，对排序影响可以忽略。
+ *
+ * 词典为 TreeMap，前缀补全在其 subMap 上进行，按文档频率排序。
+ *
+ * 线程安全：读写锁，查询并发执行，写入互斥。
+ */
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    /** 前缀补全最多扫描的词数，避免单字符前缀遍历大半个词典 */
+    private static final int MAX_SUGGEST_SCAN = 10_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Integer> docIds = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    /** docId -> 外部ID */
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    /** docId -> 分组ID，用于过滤（商品分类） */
+    private long[] groups = new long[INITIAL_CAPACITY];
+
+    /** docId -> 文档长度（加权词频之和） */
+    private int[] lengths = new int[INITIAL_CAPACITY];
+
+    /** 已分配的 docId 数，包含已删除的 */
+    private int docCount;
+    private int deletedCount;
+
+    /** 未删除文档的长度之和 */
+    private long liveLength;
+
+    /**
+     * 加入或替换文档
+     *
+     * @param key 外部ID
+     * @param group 分组ID
+     * @param termFreqs 词 -> 词频，见 {@link Tokenizer#addTerms}
+     */
+    public void upsert(long key, long group, Map<String, Integer> termFreqs) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            int doc = docCount;
+            ensureCapacity(doc + 1);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), term -> new Postings()).append(doc, entry.getValue());
+                length += entry.getValue();
+            }
+            keys[doc] = key;
+            groups[doc] = group;
+            lengths[doc] = length;
+            docCount++;
+            liveLength += length;
+            docIds.put(key, doc);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除文档
+     *
+     * @return 文档存在时返回 true
+     */
+    public boolean remove(long key) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeLocked(key);
+            compactIfNeeded();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 未删除的文档数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询同时包含全部查询词的文档
+     *
+     * @param queryTerms 查询词，见 {@link Tokenizer#queryTerms}
+     * @param group 只返回该分组的文档，为 null 时不过滤
+     * @param offset 跳过的文档数
+     * @param limit 返回的文档数
+     * @return 按 BM25 得分从高到低的一页结果，得分相同时较晚加入的文档在前
+     */
+    public SearchResult search(Collection<String> queryTerms, Long group, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int live = docIds.size();
+            List<Postings> lists = new ArrayList<>();
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Postings postings = terms.get(term);
+                if (postings == null) {
+                    return SearchResult.EMPTY;
+                }
+                lists.add(postings);
+            }
+            if (lists.isEmpty() || live == 0) {
+                return SearchResult.EMPTY;
+            }
+            lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+            int n = lists.size();
+            float[] idf = new float[n];
+            for (int i = 0; i < n; i++) {
+                int df = Math.min(lists.get(i).size, live);
+                idf[i] = (float) Math.log(1 + (live - df + 0.5) / (df + 0.5));
+            }
+            float avgLength = Math.max(1f, (float) liveLength / live);
+            boolean filtered = group != null;
+            long groupId = filtered ? group : 0L;
+            int[] cursors = new int[n];
+            TopDocs top = new TopDocs(offset + limit);
+            int total = 0;
+
+            Postings lead = lists.get(0);
+            candidates:
+            for (int i = 0; i < lead.size; i++) {
+                int doc = lead.docs[i];
+                if (deleted.get(doc) || (filtered && groups[doc] != groupId)) {
+                    continue;
+                }
+                float norm = K1 * (1 - B + B * lengths[doc] / avgLength);
+                float score = idf[0] * tfScore(lead.freqs[i], norm);
+                for (int j = 1; j < n; j++) {
+                    Postings postings = lists.get(j);
+                    int cursor = postings.advance(cursors[j], doc);
+                    cursors[j] = cursor;
+                    if (cursor == postings.size) {
+                        // 该倒排表已到末尾，之后的候选都不可能全部命中
+                        break candidates;
+                    }
+                    if (postings.docs[cursor] != doc) {
+                        continue candidates;
+                    }
+                    score += idf[j] * tfScore(postings.freqs[cursor], norm);
+                }
+                total++;
+                top.offer(doc, score);
+            }
+
+            int[] ranked = top.drainDescending();
+            if (offset >= ranked.length) {
+                return new SearchResult(new long[0], total);
+            }
+            long[] page = new long[Math.min(limit, ranked.length - offset)];
+            for (int i = 0; i < page.length; i++) {
+                page[i] = keys[ranked[offset + i]];
+            }
+            return new SearchResult(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 前缀补全
+     *
+     * @param prefix 已归一化的前缀，见 {@link Tokenizer#normalize}
+     * @param limit 返回的词数
+     * @return 以 prefix 开头且长于 prefix 的词，按文档频率从高到低
+     */
+    public List<String> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            SortedMap<String, Postings> candidates = terms.subMap(prefix, prefix + Character.MAX_VALUE);
+            List<Map.Entry<String, Postings>> matched = new ArrayList<>();
+            int scanned = 0;
+            for (Map.Entry<String, Postings> entry : candidates.entrySet()) {
+                if (++scanned > MAX_SUGGEST_SCAN) {
+                    break;
+                }
+                if (entry.getKey().length() > prefix.length()) {
+                    matched.add(entry);
+                }
+            }
+            return matched.stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, Postings> entry) -> entry.getValue().size).reversed()
+                    .thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean removeLocked(long key) {
+        Integer doc = docIds.remove(key);
+        if (doc == null) {
+            return false;
+        }
+        deleted.set(doc);
+        deletedCount++;
+        liveLength -= lengths[doc];
+        return true;
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount >= MIN_DELETED_TO_COMPACT && deletedCount * 4 > docCount) {
+            compact();
+        }
+    }
+
+    /**
+     * 去掉已删除的文档并重新编号；新编号保持原有顺序，倒排表无需重新排序
+     */
+    private void compact() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            keys[next] = keys[doc];
+            groups[next] = groups[doc];
+            lengths[next] = lengths[doc];
+            next++;
+        }
+        Iterator<Postings> iterator = terms.values().iterator();
+        while (iterator.hasNext()) {
+            Postings postings = iterator.next();
+            postings.remap(remap);
+            if (postings.size == 0) {
+                iterator.remove();
+            }
+        }
+        docIds.replaceAll((key, doc) -> remap[doc]);
+        deleted.clear();
+        deletedCount = 0;
+        docCount = next;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int newLength = Math.max(capacity, keys.length + (keys.length >> 1));
+            keys = Arrays.copyOf(keys, newLength);
+            groups = Arrays.copyOf(groups, newLength);
+            lengths = Arrays.copyOf(lengths, newLength);
+        }
+    }
+
+    private static float tfScore(int tf, float norm) {
+        return tf * (K1 + 1) / (tf + norm);
+    }
+
+    /**
+     * 单个词的倒排表，docId 升序
+     */
+    private static final class Postings {
+        int[] docs = new int[2];
+        short[] freqs = new short[2];
+        int size;
+
+        void append(int doc, int freq) {
+            if (size == docs.length) {
+                int newLength = size + (size >> 1) + 1;
+                docs = Arrays.copyOf(docs, newLength);
+                freqs = Arrays.copyOf(freqs, newLength);
+            }
+            docs[size] = doc;
+            freqs[size] = (short) Math.min(freq, Short.MAX_VALUE);
+            size++;
+        }
+
+        /**
+         * 从 from 开始查找第一个 docId 不小于 target 的位置，先指数步进再二分
+         *
+         * @return 位置，全部小于 target 时返回 size
+         */
+        int advance(int from, int target) {
+            if (from >= size || docs[from] >= target) {
+                return from;
+            }
+            int step = 1;
+            int low = from;
+            int high = from + step;
+            while (high < size && docs[high] < target) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            high = Math.min(high, size - 1);
+            if (docs[high] < target) {
+                return size;
+            }
+            // docs[low] < target <= docs[high]
+            while (high - low > 1) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < target) {
+                    low = mid;
+                } else {
+                    high = mid;
+                }
+            }
+            return high;
+        }
+
+        void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    freqs[kept] = freqs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            if (kept < docs.length >> 1) {
+                docs = Arrays.copyOf(docs, Math.max(kept, 2));
+                freqs = Arrays.copyOf(freqs, Math.max(kept, 2));
+            }
+        }
+    }
+
+    /**
+     * 固定容量的小顶堆，保留得分最高的若干文档
+     */
+    private static final class TopDocs {
+        private final int capacity;
+        private int[] docs;
+        private float[] scores;
+        private int size;
+
+        TopDocs(int capacity) {
+            this.capacity = capacity;
+            this.docs = new int[Math.min(capacity, 1024)];
+            this.scores = new float[docs.length];
+        }
+
+        void offer(int doc, float score) {
+            if (capacity == 0) {
+                return;
+            }
+            if (size < capacity) {
+                if (size == docs.length) {
+                    grow();
+                }
+                docs[size] = doc;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (better(doc, score, 0)) {
+                docs[0] = doc;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * 依次弹出堆顶，返回从高到低的 docId
+         */
+        int[] drainDescending() {
+            int[] ranked = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                ranked[i] = docs[0];
+                size--;
+                docs[0] = docs[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return ranked;
+        }
+
+        private boolean better(int doc, float score, int slot) {
+            return score > scores[slot] || (score == scores[slot] && doc > docs[slot]);
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0) {
+                int parent = (slot - 1) >>> 1;
+                if (!better(docs[parent], scores[parent], slot)) {
+                    break;
+                }
+                swap(slot, parent);
+                slot = parent;
+            }
+        }
+
+        private void siftDown(int slot) {
+            while (true) {
+                int smallest = slot;
+                int left = 2 * slot + 1;
+                int right = left + 1;
+                if (left < size && better(docs[smallest], scores[smallest], left)) {
+                    smallest = left;
+                }
+                if (right < size && better(docs[smallest], scores[smallest], right)) {
+                    smallest = right;
+                }
+                if (smallest == slot) {
+                    return;
+                }
+                swap(slot, smallest);
+                slot = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int doc = docs[a];
+            docs[a] = docs[b];
+            docs[b] = doc;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+
+        private void grow() {
+            docs = Arrays.copyOf(docs, (int) Math.min(capacity, docs.length * 2L));
+            scores = Arrays.copyOf(scores, docs.length);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.onlinestore.search;
+
+/**
+ * 索引查询结果
+ */
+public class SearchResult {
+
+    public static final SearchResult EMPTY = new SearchResult(new long[0], 0);
+
+    /** 当前页的文档外部ID，按得分从高到低 */
+    private final long[] keys;
+
+    /** 匹配的文档总数 */
+    private final int total;
+
+    public SearchResult(long[] keys, int total) {
+        this.keys = keys;
+        this.total = total;
+    }
+
+    public long[] getKeys() {
+        return keys;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.onlinestore.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 商品文本分词
+ *
+ * 文本先做 NFKC 归一化（全角转半角）并转为小写，然后切分：
+ * - 连续的字母或连续的数字为一个词，字母和数字交界处切开，"iPhone15" 切为 iphone、15
+ * - 连续的汉字建索引时切为单字和相邻二元组，查询时长度为 1 取单字，否则取覆盖全部汉字的二元组，
+ *   "手机壳" 查询词为 手机、机壳，"机械键盘" 查询词为 机械、键盘
+ * - 其他字符为分隔符
+ *
+ * 不依赖词典，新品牌名、型号无需维护词表即可检索。
+ */
+public final class Tokenizer {
+
+    /** 超长的词截断，避免异常数据撑大词典 */
+    private static final int MAX_TOKEN_LENGTH = 32;
+
+    private Tokenizer() {
+    }
+
+    /**
+     * 切分索引文本并按权重累加词频
+     *
+     * @param text 文本，可以为 null
+     * @param weight 该字段中每次出现计入的词频
+     * @param freqs 词 -> 词频
+     */
+    public static void addTerms(String text, int weight, Map<String, Integer> freqs) {
+        scan(text, true, term -> freqs.merge(term, weight, Integer::sum));
+    }
+
+    /**
+     * 切分查询文本
+     *
+     * @param text 查询文本
+     * @return 查询词，按出现顺序，可能重复
+     */
+    public static List<String> queryTerms(String text) {
+        List<String> terms = new ArrayList<>();
+        scan(text, false, terms::add);
+        return terms;
+    }
+
+    /**
+     * 归一化前缀，用于自动补全
+     */
+    public static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    private static void scan(String text, boolean indexing, Consumer<String> sink) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String normalized = normalize(text);
+        StringBuilder word = new StringBuilder();
+        StringBuilder han = new StringBuilder();
+        int wordClass = 0;
+        for (int i = 0; i < normalized.length(); ) {
+            int cp = normalized.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.UnicodeScript.of(cp) == Character.UnicodeScript.HAN) {
+                flushWord(word, sink);
+                han.appendCodePoint(cp);
+            } else if (Character.isLetterOrDigit(cp)) {
+                flushHan(han, indexing, sink);
+                int charClass = Character.isDigit(cp) ? 2 : 1;
+                if (charClass != wordClass) {
+                    flushWord(word, sink);
+                    wordClass = charClass;
+                }
+                word.appendCodePoint(cp);
+            } else {
+                flushWord(word, sink);
+                flushHan(han, indexing, sink);
+            }
+        }
+        flushWord(word, sink);
+        flushHan(han, indexing, sink);
+    }
+
+    private static void flushWord(StringBuilder word, Consumer<String> sink) {
+        if (word.length() > 0) {
+            sink.accept(word.length() > MAX_TOKEN_LENGTH ? word.substring(0, MAX_TOKEN_LENGTH) : word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushHan(StringBuilder han, boolean indexing, Consumer<String> sink) {
+        if (han.length() == 0) {
+            return;
+        }
+        int[] cps = han.codePoints().toArray();
+        han.setLength(0);
+        if (!indexing) {
+            queryHan(cps, sink);
+            return;
+        }
+        for (int cp : cps) {
+            sink.accept(new String(Character.toChars(cp)));
+        }
+        for (int i = 0; i + 1 < cps.length; i++) {
+            sink.accept(new String(cps, i, 2));
+        }
+    }
+
+    /**
+     * 查询只取覆盖全部汉字所需的二元组：从头开始不重叠地取，长度为奇数时补上最后一个。
+     * 相邻二元组的倒排表高度重合，少一个查询词就少一次求交；召回不会减少，只是不再要求各二元组首尾相接
+     */
+    private static void queryHan(int[] cps, Consumer<String> sink) {
+        if (cps.length == 1) {
+            sink.accept(new String(cps, 0, 1));
+            return;
+        }
+        for (int i = 0; i + 1 < cps.length; i += 2) {
+            sink.accept(new String(cps, i, 2));
+        }
+        if (cps.length % 2 == 1) {
+            sink.accept(new String(cps, cps.length - 2, 2));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.onlinestore.security;
+
+import com.example.onlinestore.logging.LogSampler;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.redis.RedisSubscriptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验证凭据的短期缓存
+ *
+ * 用户在 ttl 内用同一密码再次登录时直接认证通过，不再调用 user-service。默认关闭，由 user.auth.credential-cache.enabled 开启。
+ * 缓存保存在 Redis 中由所有实例共享，键为 auth:cred:{用户名}，值为密码的 scrypt 摘要（含随机盐和参数），
+ * 不保存明文或可逆的密码形式；比较由 {@link SCryptPasswordEncoder} 按常量时间完成。
+ * scrypt 是内存困难的算法，Redis 数据泄露后离线穷举的代价远高于普通摘要；每次登录都要在请求线程上计算一次，
+ * cost 越大越安全也越慢，默认参数（N=4096，r=8，p=1）约占用 4MB 内存和数毫秒 CPU。
+ *
+ * 命中缓存的登录不经过 user-service，账号状态的变化只能靠通知得知：user-service 在用户修改或重置密码、
+ * 账号被停用或锁定时，必须向 Redis 频道 user:password-changed 发布用户名，否则这些变化最多要等 ttl 后才对登录生效。
+ * 本服务不修改密码和账号状态，只在 user-service 拒绝一次登录时调用 {@link #invalidate}：
+ * 连续登录失败触发的锁定由此立即生效，不必等待通知。
+ *
+ * 失效时把缓存替换为墓碑值并保留一个 ttl，墓碑期间不再写入：失效前已经开始、认证通过的登录不会把凭据写回缓存。
+ * 缓存只存在于 Redis，失效对所有实例立即生效。
+ *
+ * Redis 不可用时不命中也不写入，登录照常调用 user-service。
+ * 指标：user.auth.credential-cache（按 result 区分 hit、miss）。
+ */
+@Component
+public class CredentialCache implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(CredentialCache.class);
+
+    static final String CHANNEL = "user:password-changed";
+    private static final String PREFIX = "auth:cred:";
+    private static final String TOMBSTONE = "revoked";
+    private static final int KEY_LENGTH = 32;
+    private static final int SALT_LENGTH = 16;
+
+    private static final RedisScript<Long> PUT_SCRIPT = putScript();
+
+    private final LogSampler redisFailureLog = new LogSampler(Duration.ofMinutes(1), 5);
+
+    @Value("${user.auth.credential-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${user.auth.credential-cache.ttl:PT5M}")
+    private Duration ttl;
+
+    @Value("${user.auth.credential-cache.scrypt.cpu-cost:4096}")
+    private int cpuCost;
+
+    @Value("${user.auth.credential-cache.scrypt.memory-cost:8}")
+    private int memoryCost;
+
+    @Value("${user.auth.credential-cache.scrypt.parallelization:1}")
+    private int parallelization;
+
+    @Autowired
+    private RedisAccessor redisAccessor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private RedisSubscriptions redisSubscriptions;
+
+    private SCryptPasswordEncoder encoder;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("user.auth.credential-cache.ttl 必须大于 0: " + ttl);
+        }
+        encoder = new SCryptPasswordEncoder(cpuCost, memoryCost, parallelization, KEY_LENGTH, SALT_LENGTH);
+        hits = Counter.builder("user.auth.credential-cache")
+            .tag("result", "hit")
+            .description("登录凭据缓存的查询次数")
+            .register(meterRegistry);
+        misses = Counter.builder("user.auth.credential-cache")
+            .tag("result", "miss")
+            .description("登录凭据缓存的查询次数")
+            .register(meterRegistry);
+        if (enabled && redisSubscriptions != null) {
+            redisSubscriptions.subscribe(CHANNEL, this);
+        }
+    }
+
+    /**
+     * 检查用户名和密码是否在 ttl 内认证通过过
+     *
+     * @return 缓存命中且密码一致时返回 true；未开启、未命中、密码不一致或 Redis 不可用时返回 false
+     */
+    public boolean verify(String username, String password) {
+        if (!enabled || username == null || password == null) {
+            return false;
+        }
+        String encoded;
+        try {
+            encoded = redisAccessor.get(PREFIX + username);
+        } catch (Exception e) {
+            logRedisFailure("查询", e);
+            misses.increment();
+            return false;
+        }
+        boolean matched = encoded != null && !TOMBSTONE.equals(encoded) && encoder.matches(password, encoded);
+        if (matched) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return matched;
+    }
+
+    /**
+     * 记录一次 user-service 认证通过的登录
+     */
+    public void put(String username, String password) {
+        if (!enabled || username == null || password == null) {
+            return;
+        }
+        String encoded = encoder.encode(password);
+        try {
+            redisAccessor.eval(PUT_SCRIPT, List.of(PREFIX + username), encoded, TOMBSTONE,
+                String.valueOf(ttl.toMillis()));
+        } catch (Exception e) {
+            logRedisFailure("写入", e);
+        }
+    }
+
+    /**
+     * 丢弃缓存的凭据，用于密码修改、账号停用或锁定，以及 user-service 拒绝登录之后
+     *
+     * Redis 不可用时无法失效，已缓存的凭据最多在 ttl 后过期。
+     */
+    public void invalidate(String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+        try {
+            redisAccessor.set(PREFIX + username, TOMBSTONE, ttl.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logger.warn("登录凭据缓存失效失败，用户 {} 的缓存将在 {} 内过期: {}", username, ttl, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String username = new String(message.getBody(), StandardCharsets.UTF_8);
+        logger.debug("收到凭据失效通知: {}", username);
+        invalidate(username);
+    }
+
+    private void logRedisFailure(String operation, Exception e) {
+        long suppressed = redisFailureLog.acquire();
+        if (suppressed >= 0) {
+            logger.warn("{}登录凭据缓存失败: {}，此前省略 {} 条", operation, e.getMessage(), suppressed);
+        }
+    }
+
+    private static RedisScript<Long> putScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("scripts/auth/credential_put.lua")));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
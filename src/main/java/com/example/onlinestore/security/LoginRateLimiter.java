@@ -0,0 +1,206 @@
+package com.example.onlinestore.security;
+
+import com.example.onlinestore.config.PerformanceProperties;
+import com.example.onlinestore.event.PerformanceSettingsChangedEvent;
+import com.example.onlinestore.logging.LogSampler;
+import com.example.onlinestore.redis.RedisAccessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录限流
+ *
+ * 按三个范围限制登录尝试次数，每个 period 内最多 capacity 次，超出的请求直接拒绝，不再调用 user-service：
+ * - 用户名 + IP（username-ip-capacity）：针对单个来源猜测某个账号的密码
+ * - 用户名（username-capacity）：所有来源合计，远高于前者，只用于限制分布式的撞库
+ * - IP（ip-capacity）：单个来源尝试的全部账号
+ * 攻击者用错误密码耗尽的只是自己 IP 下该用户名的次数，用户本人从其他 IP 登录不受影响；
+ * 要锁住一个用户名，需要从大量 IP 发起请求才能达到用户名的总上限。
+ *
+ * 分两层：
+ * - 本地：{@link StripedTokenBuckets}，不访问 Redis，撞库流量中的大部分请求在这一层被拒绝
+ * - 集群：本地放行后，在 Redis 中按滑动窗口统计所有实例的尝试次数，保证多实例部署时总次数不超过上限
+ *
+ * Redis 不可用时只按本地令牌桶限流，不影响正常登录。
+ * 被拒绝的次数记录在 auth.login.throttled 中，按 scope（username、ip）和 layer（local、global）区分。
+ * 客户端 IP 取 request.getRemoteAddr()，部署在反向代理之后时需配置 server.forward-headers-strategy。
+ * 次数和周期可在运行时调整，变更后按新参数重建本地令牌桶，已消耗的次数清零。
+ */
+@Component
+public class LoginRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private static final String USERNAME_PREFIX = "auth:login:user:";
+    private static final String IP_PREFIX = "auth:login:ip:";
+    private static final String USERNAME_IP_PREFIX = "auth:login:user-ip:";
+    private static final String[] SCOPES = {"username", "ip", "username_ip"};
+    private static final int SCOPE_USERNAME = 0;
+    private static final int SCOPE_IP = 1;
+    private static final int SCOPE_USERNAME_IP = 2;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> WINDOW_SCRIPT = windowScript();
+
+    private final LogSampler redisFailureLog = new LogSampler(Duration.ofMinutes(1), 5);
+
+    @Value("${user.login.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user.login.rate-limit.period:PT1M}")
+    private Duration period;
+
+    @Value("${user.login.rate-limit.username-capacity:100}")
+    private int usernameCapacity;
+
+    @Value("${user.login.rate-limit.username-ip-capacity:10}")
+    private int usernameIpCapacity;
+
+    @Value("${user.login.rate-limit.ip-capacity:100}")
+    private int ipCapacity;
+
+    @Value("${user.login.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Autowired
+    private RedisAccessor redisAccessor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile Quota quota;
+    private final Counter[][] throttled = new Counter[SCOPES.length][2];
+
+    @PostConstruct
+    public void init() {
+        quota = new Quota(period, usernameCapacity, usernameIpCapacity, ipCapacity, maxKeys);
+        for (int scope = 0; scope < SCOPES.length; scope++) {
+            throttled[scope][0] = throttledCounter(SCOPES[scope], "local");
+            throttled[scope][1] = throttledCounter(SCOPES[scope], "global");
+        }
+    }
+
+    /**
+     * 登记一次登录尝试
+     *
+     * @param username 用户名，可以为空
+     * @param ip 客户端 IP
+     * @return 0 表示放行；否则为建议客户端等待的秒数
+     */
+    public long acquire(String username, String ip) {
+        if (!enabled) {
+            return 0;
+        }
+        String user = username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+        String client = ip == null ? "" : ip;
+        Quota quota = this.quota;
+        long now = System.nanoTime();
+        String userAtClient = user + "@" + client;
+        long wait = quota.ipBuckets.tryAcquire(client, now);
+        if (wait > 0) {
+            return reject(SCOPE_IP, 0, wait);
+        }
+        wait = quota.usernameIpBuckets.tryAcquire(userAtClient, now);
+        if (wait > 0) {
+            return reject(SCOPE_USERNAME_IP, 0, wait);
+        }
+        wait = quota.usernameBuckets.tryAcquire(user, now);
+        if (wait > 0) {
+            return reject(SCOPE_USERNAME, 0, wait);
+        }
+
+        List<?> result;
+        try {
+            result = redisAccessor.eval(WINDOW_SCRIPT,
+                List.of(USERNAME_PREFIX + user, IP_PREFIX + client, USERNAME_IP_PREFIX + userAtClient),
+                String.valueOf(quota.period.toMillis()), Long.toHexString(ThreadLocalRandom.current().nextLong()),
+                String.valueOf(quota.usernameCapacity), String.valueOf(quota.ipCapacity),
+                String.valueOf(quota.usernameIpCapacity));
+        } catch (Exception e) {
+            long suppressed = redisFailureLog.acquire();
+            if (suppressed >= 0) {
+                logger.warn("登录限流的集群计数不可用，只按本地限流: {}，此前省略 {} 条", e.getMessage(), suppressed);
+            }
+            return 0;
+        }
+        long waitMillis = ((Number) result.get(0)).longValue();
+        if (waitMillis > 0) {
+            int scope = ((Number) result.get(1)).intValue() - 1;
+            return reject(scope, 1, TimeUnit.MILLISECONDS.toNanos(waitMillis));
+        }
+        return 0;
+    }
+
+    @EventListener
+    public void onSettingsChanged(PerformanceSettingsChangedEvent event) {
+        if (!event.affects(PerformanceProperties.LOGIN_RATE_LIMIT)) {
+            return;
+        }
+        PerformanceProperties.LoginRateLimit settings = event.getSettings().getLoginRateLimit();
+        quota = new Quota(settings.getPeriod(), settings.getUsernameCapacity(), settings.getUsernameIpCapacity(),
+            settings.getIpCapacity(), maxKeys);
+        logger.info("登录限流参数已更新: 每 {} 用户名 {} 次、用户名 + IP {} 次、IP {} 次", settings.getPeriod(),
+            settings.getUsernameCapacity(), settings.getUsernameIpCapacity(), settings.getIpCapacity());
+    }
+
+    private long reject(int scope, int layer, long waitNanos) {
+        throttled[scope][layer].increment();
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private Counter throttledCounter(String scope, String layer) {
+        return Counter.builder("auth.login.throttled")
+            .tag("scope", scope)
+            .tag("layer", layer)
+            .description("被限流拒绝的登录请求数")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 一组限流参数和按它创建的令牌桶，参数变更时整体替换
+     */
+    private static final class Quota {
+        private final Duration period;
+        private final int usernameCapacity;
+        private final int usernameIpCapacity;
+        private final int ipCapacity;
+        private final StripedTokenBuckets usernameBuckets;
+        private final StripedTokenBuckets usernameIpBuckets;
+        private final StripedTokenBuckets ipBuckets;
+
+        private Quota(Duration period, int usernameCapacity, int usernameIpCapacity, int ipCapacity, int maxKeys) {
+            int stripes = Runtime.getRuntime().availableProcessors() * 4;
+            this.period = period;
+            this.usernameCapacity = usernameCapacity;
+            this.usernameIpCapacity = usernameIpCapacity;
+            this.ipCapacity = ipCapacity;
+            this.usernameBuckets = new StripedTokenBuckets(stripes, maxKeys, usernameCapacity, period.toNanos());
+            this.usernameIpBuckets = new StripedTokenBuckets(stripes, maxKeys, usernameIpCapacity, period.toNanos());
+            this.ipBuckets = new StripedTokenBuckets(stripes, maxKeys, ipCapacity, period.toNanos());
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> windowScript() {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("scripts/auth/login_window.lua")));
+        script.setResultType(List.class);
+        return script;
+    }
+}
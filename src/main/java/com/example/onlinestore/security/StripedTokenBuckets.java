@@ -0,0 +1,86 @@
+package com.example.onlinestore.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按键分条加锁的本地令牌桶
+ *
+ * 每个键一个令牌桶，容量为 capacity，每个 period 匀速补满一次。键按哈希分到固定数量的分条中，
+ * 每个分条一把锁、一张按访问顺序淘汰的表，不同分条的键互不争用；总键数超过 maxKeys 时淘汰各分条中最久未访问的键。
+ * 被淘汰的键下次访问时得到一个满的桶，长时间未访问的桶本来也已补满，因此只有在键数远超上限时才会放宽限制。
+ */
+public class StripedTokenBuckets {
+
+    private final Stripe[] stripes;
+    private final double capacity;
+    private final double tokensPerNano;
+
+    /**
+     * @param stripeCount 分条数，向上取整为 2 的幂
+     * @param maxKeys 最多保留的键数
+     * @param capacity 桶容量，即允许的突发次数
+     * @param periodNanos 从空桶补满所需的时间（纳秒）
+     */
+    public StripedTokenBuckets(int stripeCount, int maxKeys, int capacity, long periodNanos) {
+        int count = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+        int perStripe = Math.max(maxKeys / count, 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / periodNanos;
+    }
+
+    /**
+     * 尝试取一个令牌
+     *
+     * @param key 限流键
+     * @param nowNanos 当前时间，{@link System#nanoTime()}
+     * @return 0 表示取到；否则为距下一个令牌的纳秒数
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, nowNanos);
+                stripe.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (nowNanos - bucket.updatedAt) * tokensPerNano);
+                bucket.updatedAt = nowNanos;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int maxKeys;
+
+        Stripe(int maxKeys) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
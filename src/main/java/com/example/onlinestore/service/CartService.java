@@ -0,0 +1,69 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.CartItemRequest;
+import com.example.onlinestore.dto.CartVO;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CartService {
+
+    CartVO getCart(Long userId);
+
+    /**
+     * 查询购物车并按券码计价
+     *
+     * @param userId 用户ID
+     * @param couponCode 券码，可以为 null
+     * @return 购物车
+     */
+    CartVO getCart(Long userId, String couponCode);
+
+    /**
+     * 加购，数量累加到已有数量上
+     *
+     * @param userId 用户ID
+     * @param items 商品和增加的数量
+     * @return 加购后的购物车
+     * @throws IllegalArgumentException 商品不存在或已下架，或购物车商品种类超过上限
+     */
+    CartVO addItems(Long userId, List<CartItemRequest> items);
+
+    /**
+     * 修改数量，数量为 0 的商品从购物车移除
+     *
+     * @param userId 用户ID
+     * @param items 商品和修改后的数量
+     * @return 修改后的购物车
+     * @throws IllegalArgumentException 商品不存在或已下架，或购物车商品种类超过上限
+     */
+    CartVO updateItems(Long userId, List<CartItemRequest> items);
+
+    CartVO removeItems(Long userId, Collection<Long> productIds);
+
+    /**
+     * 创建游客购物车，首次加购时才写入 Redis
+     *
+     * @return 带有游客购物车标识的空购物车
+     */
+    CartVO createGuestCart();
+
+    CartVO getGuestCart(String cartId);
+
+    CartVO getGuestCart(String cartId, String couponCode);
+
+    CartVO addGuestItems(String cartId, List<CartItemRequest> items);
+
+    CartVO updateGuestItems(String cartId, List<CartItemRequest> items);
+
+    CartVO removeGuestItems(String cartId, Collection<Long> productIds);
+
+    /**
+     * 登录时将游客购物车合并到用户购物车，合并后删除游客购物车
+     *
+     * @param cartId 游客购物车标识
+     * @param userId 用户ID
+     * @return 合并的商品种类数
+     */
+    int mergeGuestCart(String cartId, Long userId);
+}
@@ -0,0 +1,76 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.Reservation;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface InventoryService {
+
+    /**
+     * 预占库存，预占在 TTL 内未确认会被自动释放
+     *
+     * @param userId 用户ID
+     * @param productId 商品ID
+     * @param quantity 数量
+     * @return 预占信息
+     * @throws IllegalArgumentException 库存不足
+     */
+    Reservation reserve(Long userId, Long productId, int quantity);
+
+    /**
+     * 释放预占，库存归还为可售
+     *
+     * @param reservationId 预占ID
+     * @param userId 用户ID，为 null 时不校验预占归属
+     * @return 预占存在并被释放时返回 true
+     */
+    boolean release(String reservationId, Long userId);
+
+    /**
+     * 确认预占（下单成功），预占数量转为已售出
+     *
+     * @param reservationId 预占ID
+     * @return 预占存在并被确认时返回 true
+     */
+    boolean confirm(String reservationId);
+
+    /**
+     * 订单已写入但预占确认失败（预占已过期释放或 Redis 不可用），记录到数据库，由 {@link #reconcile} 补扣库存
+     *
+     * @param orderNo 订单号
+     * @param reservation 确认失败的预占
+     */
+    void recordDeduction(String orderNo, Reservation reservation);
+
+    int getAvailable(Long productId);
+
+    /**
+     * 批量查询可售库存，只产生一次 Redis 往返（Redis 中缺失的商品除外）
+     *
+     * @param productIds 商品ID
+     * @return 商品ID -> 可售库存
+     */
+    Map<Long, Integer> getAvailable(Collection<Long> productIds);
+
+    /**
+     * 设置未售出库存（含已预占部分）
+     */
+    void setStock(Long productId, int stock);
+
+    /**
+     * 释放已过期的预占，由定时任务调用
+     *
+     * @param limit 本次最多处理的数量
+     * @return 处理的预占数量
+     */
+    int releaseExpired(int limit);
+
+    /**
+     * 补扣确认失败的预占，并将有变动的商品库存回写数据库，由定时任务调用
+     *
+     * @param limit 本次最多处理的商品数
+     * @return 回写的商品数
+     */
+    int reconcile(int limit);
+}
@@ -0,0 +1,30 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.OrderRequest;
+import com.example.onlinestore.dto.PlacedOrder;
+import com.example.onlinestore.model.Order;
+
+public interface OrderService {
+
+    /**
+     * 下单
+     *
+     * 同一用户使用相同幂等键的重复请求不会重复下单，返回首次请求创建的订单。
+     *
+     * @param userId 用户ID
+     * @param idempotencyKey 客户端生成的幂等键
+     * @param request 商品和数量
+     * @return 下单结果
+     * @throws IllegalArgumentException 商品不存在、已下架或库存不足
+     * @throws IllegalStateException 相同幂等键的请求仍在处理中
+     * @throws java.util.concurrent.RejectedExecutionException 写入队列已满或在队列中等待超时
+     */
+    PlacedOrder placeOrder(Long userId, String idempotencyKey, OrderRequest request);
+
+    /**
+     * 查询订单，含明细
+     *
+     * @return 订单，不存在或不属于该用户时返回 null
+     */
+    Order getOrder(Long userId, String orderNo);
+}
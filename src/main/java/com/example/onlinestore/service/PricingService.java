@@ -0,0 +1,24 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.pricing.PriceLine;
+import com.example.onlinestore.pricing.PricingResult;
+
+import java.util.List;
+
+public interface PricingService {
+
+    /**
+     * 按当前生效的促销规则计价，不访问数据库
+     *
+     * @param lines 商品行
+     * @param member 是否为登录用户
+     * @param couponCode 券码，可以为 null
+     * @return 计价结果
+     */
+    PricingResult price(List<PriceLine> lines, boolean member, String couponCode);
+
+    /**
+     * 重新加载数据库中的规则并编译
+     */
+    void reload();
+}
@@ -0,0 +1,34 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.ProductSearchRequest;
+import com.example.onlinestore.model.Product;
+
+import java.util.List;
+
+public interface ProductSearchService {
+
+    /**
+     * 全文检索上架商品，按相关度排序
+     *
+     * @param request 查询词和分页参数，可按分类过滤
+     * @return 商品分页数据
+     * @throws IllegalStateException 索引尚未构建完成
+     */
+    PageResponse<Product> search(ProductSearchRequest request);
+
+    /**
+     * 搜索词自动补全
+     *
+     * @param prefix 已输入的前缀
+     * @param limit 返回的候选数
+     * @return 候选词，按包含该词的商品数从多到少
+     * @throws IllegalStateException 索引尚未构建完成
+     */
+    List<String> suggest(String prefix, int limit);
+
+    /**
+     * 从数据库全量重建索引
+     */
+    void rebuild();
+}
@@ -0,0 +1,51 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.CategoryRequest;
+import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.ProductPageRequest;
+import com.example.onlinestore.dto.ProductRequest;
+import com.example.onlinestore.dto.Versioned;
+import com.example.onlinestore.model.Category;
+import com.example.onlinestore.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductService {
+
+    /**
+     * 获取上架商品
+     *
+     * @param id 商品ID
+     * @return 商品，不存在或已下架时返回 null
+     */
+    Versioned<Product> getProduct(Long id);
+
+    /**
+     * 批量获取上架商品，用于购物车、订单等需要一次展示多个商品的场景
+     *
+     * @param ids 商品ID
+     * @return 商品ID -> 商品，不存在或已下架的商品不在结果中
+     */
+    Map<Long, Product> getProducts(Collection<Long> ids);
+
+    Versioned<PageResponse<Product>> listProducts(ProductPageRequest request);
+
+    Versioned<List<Category>> listCategories();
+
+    Product createProduct(ProductRequest request);
+
+    Product updateProduct(Long id, ProductRequest request);
+
+    /**
+     * 下架商品，记录保留供历史订单引用
+     */
+    void deleteProduct(Long id);
+
+    Category createCategory(CategoryRequest request);
+
+    Category updateCategory(Long id, CategoryRequest request);
+
+    void deleteCategory(Long id);
+}
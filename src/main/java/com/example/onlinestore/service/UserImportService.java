@@ -0,0 +1,15 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.UserImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+    UserImportReport importUsers(InputStream input, ImportFormat format) throws IOException;
+
+    enum ImportFormat {
+        CSV,
+        NDJSON
+    }
+}
@@ -10,5 +10,13 @@ import com.example.onlinestore.model.User;
 public interface UserService {
     LoginResponse login(LoginRequest request);
     PageResponse<UserVO> listUsers(UserPageRequest request);
+
+    /**
+     * 获取用户列表的版本号，新增用户后变化
+     *
+     * @return 版本号，无法获取时返回 null
+     */
+    String getUserListVersion();
+
     User getUserByToken(String token);
 } 
\ No newline at end of file
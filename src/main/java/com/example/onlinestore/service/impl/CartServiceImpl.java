@@ -0,0 +1,368 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.dto.CartItemRequest;
+import com.example.onlinestore.dto.CartItemVO;
+import com.example.onlinestore.dto.CartVO;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.pricing.Money;
+import com.example.onlinestore.pricing.PriceLine;
+import com.example.onlinestore.pricing.PricingResult;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.security.TokenGenerator;
+import com.example.onlinestore.service.CartService;
+import com.example.onlinestore.service.InventoryService;
+import com.example.onlinestore.service.PricingService;
+import com.example.onlinestore.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * 购物车服务
+ *
+ * 每个购物车是一个 Redis 哈希，字段为商品ID，值为数量：
+ * - cart:{userId}：用户购物车
+ * - cart:guest:{cartId}：游客购物车，cartId 由服务端生成
+ *
+ * 一次请求中的多个商品变更与随后读取整个购物车以流水线方式发送，只产生一次网络往返。
+ * 展示时商品信息和可售库存各批量读取一次，与购物车中的商品数无关；可购买的商品按促销规则计价，
+ * 用户购物车按登录用户（会员）计价，游客购物车不享受限会员的促销。
+ * 登录时游客购物车由 Lua 脚本在服务端合并到用户购物车，同样只有一次往返。
+ *
+ * 配置示例：
+ * <pre>
+ * cart:
+ *   max-items: 100
+ *   max-quantity: 99
+ *   ttl: P30D
+ *   guest-ttl: P7D
+ * </pre>
+ */
+@Service
+public class CartServiceImpl implements CartService {
+    private static final Logger logger = LoggerFactory.getLogger(CartServiceImpl.class);
+
+    private static final String USER_CART_PREFIX = "cart:";
+    private static final String GUEST_CART_PREFIX = "cart:guest:";
+    private static final Pattern GUEST_CART_ID = Pattern.compile("^[A-Za-z0-9_-]{22}$");
+
+    private static final RedisScript<Long> MERGE_SCRIPT = mergeScript();
+
+    @Value("${cart.max-items:100}")
+    private int maxItems;
+
+    @Value("${cart.max-quantity:99}")
+    private int maxQuantity;
+
+    @Value("${cart.ttl:P30D}")
+    private Duration userCartTtl;
+
+    @Value("${cart.guest-ttl:P7D}")
+    private Duration guestCartTtl;
+
+    @Autowired
+    private RedisAccessor redisAccessor;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private TokenGenerator tokenGenerator;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Override
+    public CartVO getCart(Long userId) {
+        return getCart(userId, null);
+    }
+
+    @Override
+    public CartVO getCart(Long userId, String couponCode) {
+        return render(null, redisAccessor.hashEntries(userCartKey(userId)), couponCode);
+    }
+
+    @Override
+    public CartVO addItems(Long userId, List<CartItemRequest> items) {
+        return render(null, add(userCartKey(userId), userCartTtl, items), null);
+    }
+
+    @Override
+    public CartVO updateItems(Long userId, List<CartItemRequest> items) {
+        return render(null, update(userCartKey(userId), userCartTtl, items), null);
+    }
+
+    @Override
+    public CartVO removeItems(Long userId, Collection<Long> productIds) {
+        return render(null, remove(userCartKey(userId), productIds), null);
+    }
+
+    @Override
+    public CartVO createGuestCart() {
+        return render(tokenGenerator.nextToken(), Map.of(), null);
+    }
+
+    @Override
+    public CartVO getGuestCart(String cartId) {
+        return getGuestCart(cartId, null);
+    }
+
+    @Override
+    public CartVO getGuestCart(String cartId, String couponCode) {
+        return render(cartId, redisAccessor.hashEntries(guestCartKey(cartId)), couponCode);
+    }
+
+    @Override
+    public CartVO addGuestItems(String cartId, List<CartItemRequest> items) {
+        return render(cartId, add(guestCartKey(cartId), guestCartTtl, items), null);
+    }
+
+    @Override
+    public CartVO updateGuestItems(String cartId, List<CartItemRequest> items) {
+        return render(cartId, update(guestCartKey(cartId), guestCartTtl, items), null);
+    }
+
+    @Override
+    public CartVO removeGuestItems(String cartId, Collection<Long> productIds) {
+        return render(cartId, remove(guestCartKey(cartId), productIds), null);
+    }
+
+    @Override
+    public int mergeGuestCart(String cartId, Long userId) {
+        Long merged = redisAccessor.eval(MERGE_SCRIPT, List.of(guestCartKey(cartId), userCartKey(userId)),
+            String.valueOf(maxQuantity), String.valueOf(maxItems), String.valueOf(userCartTtl.toSeconds()));
+        int count = merged == null ? 0 : merged.intValue();
+        if (count > 0) {
+            logger.info("游客购物车已合并: {} -> 用户 {}，商品 {} 种", cartId, userId, count);
+        }
+        return count;
+    }
+
+    /**
+     * 累加数量，与读取购物车在同一个流水线中完成
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, String> add(String key, Duration ttl, List<CartItemRequest> items) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (CartItemRequest item : items) {
+            if (item.getQuantity() > 0) {
+                quantities.merge(String.valueOf(item.getProductId()), item.getQuantity(), Integer::sum);
+            }
+        }
+        if (quantities.isEmpty()) {
+            return redisAccessor.hashEntries(key);
+        }
+        requireOnSale(quantities.keySet());
+
+        List<Object> results = redisAccessor.pipelined(connection -> {
+            quantities.forEach((field, quantity) -> connection.hIncrBy(key, field, quantity));
+            connection.expire(key, ttl.toSeconds());
+            connection.hGetAll(key);
+        });
+        Map<String, String> entries = new LinkedHashMap<>((Map<String, String>) results.get(results.size() - 1));
+
+        List<String> created = new ArrayList<>();
+        Map<String, String> capped = new LinkedHashMap<>();
+        int index = 0;
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            long total = ((Number) results.get(index++)).longValue();
+            if (total == entry.getValue()) {
+                created.add(entry.getKey());
+            }
+            if (total > maxQuantity) {
+                capped.put(entry.getKey(), String.valueOf(maxQuantity));
+            }
+        }
+        rejectIfFull(key, entries, created);
+        if (!capped.isEmpty()) {
+            redisAccessor.pipelined(connection -> connection.hMSet(key, capped));
+            entries.putAll(capped);
+        }
+        return entries;
+    }
+
+    /**
+     * 覆盖数量，数量为 0 的删除，与读取购物车在同一个流水线中完成
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, String> update(String key, Duration ttl, List<CartItemRequest> items) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (CartItemRequest item : items) {
+            quantities.put(String.valueOf(item.getProductId()), Math.min(item.getQuantity(), maxQuantity));
+        }
+        List<String> updated = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        quantities.forEach((field, quantity) -> (quantity > 0 ? updated : removed).add(field));
+        requireOnSale(updated);
+
+        List<Object> results = redisAccessor.pipelined(connection -> {
+            for (String field : updated) {
+                connection.hSet(key, field, String.valueOf(quantities.get(field)));
+            }
+            if (!removed.isEmpty()) {
+                connection.hDel(key, removed.toArray(new String[0]));
+            }
+            connection.expire(key, ttl.toSeconds());
+            connection.hGetAll(key);
+        });
+        Map<String, String> entries = new LinkedHashMap<>((Map<String, String>) results.get(results.size() - 1));
+
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < updated.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                created.add(updated.get(i));
+            }
+        }
+        rejectIfFull(key, entries, created);
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> remove(String key, Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return redisAccessor.hashEntries(key);
+        }
+        String[] fields = productIds.stream().map(String::valueOf).toArray(String[]::new);
+        List<Object> results = redisAccessor.pipelined(connection -> {
+            connection.hDel(key, fields);
+            connection.hGetAll(key);
+        });
+        return (Map<String, String>) results.get(results.size() - 1);
+    }
+
+    /**
+     * 购物车商品种类超过上限时撤销本次新增的商品；已有商品的数量变更保留
+     */
+    private void rejectIfFull(String key, Map<String, String> entries, List<String> created) {
+        if (entries.size() <= maxItems || created.isEmpty()) {
+            return;
+        }
+        redisAccessor.hashDelete(key, created.toArray(new String[0]));
+        throw new IllegalArgumentException(messageSource.getMessage(
+            "error.cart.items.full", null, LocaleContextHolder.getLocale()));
+    }
+
+    private void requireOnSale(Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = productIds.stream().map(Long::valueOf).toList();
+        if (productService.getProducts(ids).size() < ids.size()) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.product.not.found", null, LocaleContextHolder.getLocale()));
+        }
+    }
+
+    /**
+     * 组装购物车，商品信息和可售库存各批量读取一次
+     *
+     * @param cartId 游客购物车标识，用户购物车为 null
+     */
+    private CartVO render(String cartId, Map<String, String> entries, String couponCode) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        entries.forEach((field, quantity) -> {
+            try {
+                quantities.put(Long.valueOf(field), Integer.valueOf(quantity));
+            } catch (NumberFormatException e) {
+                logger.warn("忽略无效的购物车条目: {}={}", field, quantity);
+            }
+        });
+
+        Map<Long, Product> products = quantities.isEmpty() ? Map.of() : productService.getProducts(quantities.keySet());
+        Map<Long, Integer> stocks = products.isEmpty() ? Map.of() : inventoryService.getAvailable(products.keySet());
+
+        List<CartItemVO> items = new ArrayList<>(quantities.size());
+        List<CartItemVO> purchasable = new ArrayList<>(quantities.size());
+        List<PriceLine> lines = new ArrayList<>(quantities.size());
+        int totalQuantity = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            CartItemVO item = new CartItemVO();
+            item.setProductId(entry.getKey());
+            item.setQuantity(entry.getValue());
+            item.setSubtotal(BigDecimal.ZERO);
+            totalQuantity += entry.getValue();
+
+            // 已下架的商品保留在购物车中，标记为不可购买，由用户自行移除
+            Product product = products.get(entry.getKey());
+            if (product != null) {
+                int stock = stocks.getOrDefault(entry.getKey(), 0);
+                item.setName(product.getName());
+                item.setImageUrl(product.getImageUrl());
+                item.setPrice(product.getPrice());
+                item.setSalePrice(product.getPrice());
+                item.setStock(stock);
+                item.setPurchasable(stock >= entry.getValue());
+                item.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(entry.getValue())));
+                if (item.isPurchasable()) {
+                    purchasable.add(item);
+                    lines.add(new PriceLine(product.getId(), product.getCategoryId() == null ? 0 : product.getCategoryId(),
+                        Money.toCents(product.getPrice()), entry.getValue()));
+                }
+            }
+            items.add(item);
+        }
+
+        // 只有可购买的商品参与计价，满减门槛按可购买商品计算
+        PricingResult pricing = pricingService.price(lines, cartId == null, couponCode);
+        for (int i = 0; i < purchasable.size(); i++) {
+            CartItemVO item = purchasable.get(i);
+            BigDecimal salePrice = Money.toAmount(pricing.getUnitPrices()[i]);
+            item.setSalePrice(salePrice);
+            item.setPromotion(pricing.getLinePromotions()[i]);
+            item.setSubtotal(salePrice.multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+
+        CartVO cart = new CartVO();
+        cart.setCartId(cartId);
+        cart.setItems(items);
+        cart.setTotalQuantity(totalQuantity);
+        cart.setTotalAmount(Money.toAmount(pricing.getSubtotal()));
+        cart.setDiscountAmount(Money.toAmount(pricing.getDiscount()));
+        cart.setPayableAmount(Money.toAmount(pricing.getPayable()));
+        cart.setPromotions(pricing.getOrderPromotions());
+        return cart;
+    }
+
+    private static String userCartKey(Long userId) {
+        return USER_CART_PREFIX + userId;
+    }
+
+    private String guestCartKey(String cartId) {
+        if (cartId == null || !GUEST_CART_ID.matcher(cartId).matches()) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.cart.guest.invalid", null, LocaleContextHolder.getLocale()));
+        }
+        return GUEST_CART_PREFIX + cartId;
+    }
+
+    private static RedisScript<Long> mergeScript() {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("scripts/cart/merge.lua")));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
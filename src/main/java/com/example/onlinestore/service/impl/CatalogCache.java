@@ -0,0 +1,320 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.config.PerformanceProperties;
+import com.example.onlinestore.dto.Versioned;
+import com.example.onlinestore.event.PerformanceSettingsChangedEvent;
+import com.example.onlinestore.logging.LogSampler;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.redis.RedisSubscriptions;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 商品目录两级缓存
+ *
+ * - 共享数据（单个商品、分类列表）：进程内 Caffeine 为一级，Redis 为二级，都未命中时才查询数据库
+ * - 列表分页：组合太多，只放进程内缓存，TTL 很短
+ *
+ * 缓存值在加载时序列化一次，同时得到写入 Redis 的 JSON 和 ETag，不在每次请求时重新计算。
+ * 管理端写入后调用 {@link #invalidate(String...)}：删除 Redis 中的键、清除本地缓存，
+ * 并通过 Redis 频道 catalog:invalidate 通知其他实例清除各自的本地缓存。
+ * 失效消息丢失（如 Redis 短暂不可用）时，本地缓存最迟在 local-ttl 后过期。
+ *
+ * 配置示例：
+ * <pre>
+ * catalog:
+ *   cache:
+ *     local-max-size: 10000
+ *     local-ttl: PT5M
+ *     page-ttl: PT10S
+ *     redis-ttl: PT30M
+ * </pre>
+ * 配置变更后就地调整本地缓存的容量和过期时间，已缓存的数据保留，见 {@link #onSettingsChanged}。
+ */
+@Component
+public class CatalogCache implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    static final String CHANNEL = "catalog:invalidate";
+    private static final String REDIS_PREFIX = "catalog:";
+
+    /** Redis 故障期间每次未命中本地缓存都会读写失败，四处日志共用一个抽样 */
+    private final LogSampler redisFailureLog = new LogSampler(Duration.ofMinutes(1), 10);
+
+    @Value("${catalog.cache.local-max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${catalog.cache.local-ttl:PT5M}")
+    private Duration localTtl;
+
+    @Value("${catalog.cache.page-ttl:PT10S}")
+    private Duration pageTtl;
+
+    @Value("${catalog.cache.redis-ttl:PT30M}")
+    private volatile Duration redisTtl;
+
+    @Autowired
+    private RedisAccessor redisAccessor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private RedisSubscriptions redisSubscriptions;
+
+    private Cache<String, Versioned<?>> shared;
+    private Cache<String, Versioned<?>> pages;
+
+    @PostConstruct
+    public void init() {
+        shared = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(localTtl)
+            .recordStats()
+            .build();
+        pages = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(pageTtl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, shared, "catalog.shared");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "catalog.pages");
+        if (redisSubscriptions != null) {
+            redisSubscriptions.subscribe(CHANNEL, this);
+        }
+    }
+
+    /**
+     * 读取共享数据，依次查询本地缓存、Redis 和 loader
+     *
+     * 同一实例内同一个键的并发加载只执行一次。loader 返回 null 时不缓存。
+     *
+     * @param key 缓存键
+     * @param type 值类型，用于反序列化 Redis 中的 JSON
+     * @param loader 从数据库加载
+     * @param lastModified 从值中取得最后修改时间（毫秒）
+     * @return 带版本信息的值，不存在时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Versioned<T> get(String key, JavaType type, Supplier<T> loader, ToLongFunction<T> lastModified) {
+        return (Versioned<T>) shared.get(key, k -> load(k, type, loader, lastModified));
+    }
+
+    /**
+     * 批量读取共享数据
+     *
+     * 本地缓存未命中的键合并为一次 MGET，Redis 也未命中的键交给 loader 一次加载，
+     * 加载结果以流水线写回 Redis。无论键有多少，最多产生两次 Redis 往返和一次数据库查询。
+     *
+     * @param keys 缓存键
+     * @param type 值类型，用于反序列化 Redis 中的 JSON
+     * @param loader 按未命中的键批量加载，返回 键 -> 值，不存在的键不放入结果
+     * @param lastModified 从值中取得最后修改时间（毫秒）
+     * @return 键 -> 带版本信息的值，不存在的键不在结果中
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, Versioned<T>> getAll(Collection<String> keys, JavaType type,
+                                                Function<Set<String>, Map<String, T>> loader,
+                                                ToLongFunction<T> lastModified) {
+        Map<String, Versioned<?>> values = shared.getAll(keys,
+            missing -> loadAll((Set<String>) missing, type, loader, lastModified));
+        return (Map<String, Versioned<T>>) (Map<String, ?>) values;
+    }
+
+    /**
+     * 读取列表分页，只使用本地缓存
+     *
+     * 分页中看不到被删除或下架的商品，无法得出可靠的修改时间，结果只带 ETag。
+     *
+     * @param key 缓存键
+     * @param loader 从数据库加载
+     * @return 带版本信息的值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Versioned<T> getPage(String key, Supplier<T> loader) {
+        return (Versioned<T>) pages.get(key, k -> {
+            T value = loader.get();
+            return value == null ? null : version(value, toJson(value), v -> Versioned.NO_LAST_MODIFIED);
+        });
+    }
+
+    /**
+     * 失效指定的共享键和全部列表分页，并通知其他实例
+     *
+     * @param keys 共享数据的缓存键
+     */
+    public void invalidate(String... keys) {
+        for (String key : keys) {
+            try {
+                redisAccessor.delete(REDIS_PREFIX + key);
+            } catch (Exception e) {
+                logger.error("删除商品目录缓存失败: {}", key, e);
+            }
+        }
+        evictLocal(keys);
+        try {
+            redisAccessor.publish(CHANNEL, String.join(",", keys));
+        } catch (Exception e) {
+            logger.error("广播商品目录缓存失效失败: {}", String.join(",", keys), e);
+        }
+    }
+
+    @EventListener
+    public void onSettingsChanged(PerformanceSettingsChangedEvent event) {
+        if (!event.affects(PerformanceProperties.CATALOG_CACHE)) {
+            return;
+        }
+        PerformanceProperties.CatalogCache settings = event.getSettings().getCatalogCache();
+        resize(shared, settings.getLocalMaxSize(), settings.getLocalTtl());
+        resize(pages, settings.getLocalMaxSize(), settings.getPageTtl());
+        redisTtl = settings.getRedisTtl();
+        logger.info("商品目录缓存参数已更新: 本地容量 {}，本地 TTL {}，分页 TTL {}，Redis TTL {}",
+            settings.getLocalMaxSize(), settings.getLocalTtl(), settings.getPageTtl(), settings.getRedisTtl());
+    }
+
+    private static void resize(Cache<?, ?> cache, long maxSize, Duration ttl) {
+        cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maxSize));
+        cache.policy().expireAfterWrite().ifPresent(expiration -> expiration.setExpiresAfter(ttl));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        logger.debug("收到商品目录缓存失效通知: {}", body);
+        evictLocal(body.isEmpty() ? new String[0] : body.split(","));
+    }
+
+    private void evictLocal(String[] keys) {
+        for (String key : keys) {
+            shared.invalidate(key);
+            // catalog: 被配置为热点键时，重新加载不能读到 RedisAccessor 中的旧副本
+            redisAccessor.evictReplica(REDIS_PREFIX + key);
+        }
+        pages.invalidateAll();
+    }
+
+    private <T> Versioned<T> load(String key, JavaType type, Supplier<T> loader, ToLongFunction<T> lastModified) {
+        String redisKey = REDIS_PREFIX + key;
+        try {
+            String json = redisAccessor.get(redisKey);
+            if (json != null) {
+                T value = objectMapper.readValue(json, type);
+                return version(value, json, lastModified);
+            }
+        } catch (Exception e) {
+            // Redis 不可用或数据损坏时回源数据库
+            logRedisFailure("读取商品目录二级缓存", key, e);
+        }
+
+        T value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        String json = toJson(value);
+        try {
+            redisAccessor.set(redisKey, json, redisTtl.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logRedisFailure("写入商品目录二级缓存", key, e);
+        }
+        return version(value, json, lastModified);
+    }
+
+    private <T> Map<String, Versioned<?>> loadAll(Set<String> keys, JavaType type,
+                                                  Function<Set<String>, Map<String, T>> loader,
+                                                  ToLongFunction<T> lastModified) {
+        Map<String, Versioned<?>> result = new HashMap<>();
+        List<String> ordered = new ArrayList<>(keys);
+        try {
+            List<String> redisKeys = new ArrayList<>(ordered.size());
+            for (String key : ordered) {
+                redisKeys.add(REDIS_PREFIX + key);
+            }
+            List<String> cached = redisAccessor.multiGet(redisKeys);
+            for (int i = 0; i < ordered.size(); i++) {
+                String json = cached.get(i);
+                if (json != null) {
+                    T value = objectMapper.readValue(json, type);
+                    result.put(ordered.get(i), version(value, json, lastModified));
+                }
+            }
+        } catch (Exception e) {
+            logRedisFailure("批量读取商品目录二级缓存", keys.size() + " 个键", e);
+            result.clear();
+        }
+
+        Set<String> missing = new HashSet<>(keys);
+        missing.removeAll(result.keySet());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        Map<String, String> loaded = new HashMap<>();
+        loader.apply(missing).forEach((key, value) -> {
+            String json = toJson(value);
+            loaded.put(REDIS_PREFIX + key, json);
+            result.put(key, version(value, json, lastModified));
+        });
+        if (!loaded.isEmpty()) {
+            try {
+                long ttlMillis = redisTtl.toMillis();
+                redisAccessor.pipelined(connection ->
+                    loaded.forEach((key, json) -> connection.pSetEx(key, ttlMillis, json)));
+            } catch (Exception e) {
+                logRedisFailure("批量写入商品目录二级缓存", loaded.size() + " 个键", e);
+            }
+        }
+        return result;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void logRedisFailure(String action, String key, Exception e) {
+        long suppressed = redisFailureLog.acquire();
+        if (suppressed >= 0) {
+            logger.warn("{}失败: {}, {}，此前省略 {} 条", action, key, e.getMessage(), suppressed);
+        }
+    }
+
+    private static <T> Versioned<T> version(T value, String json, ToLongFunction<T> lastModified) {
+        String etag = "\"" + DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8)) + "\"";
+        return new Versioned<>(value, etag, lastModified.applyAsLong(value));
+    }
+}
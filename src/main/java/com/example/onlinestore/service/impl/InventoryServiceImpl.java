@@ -0,0 +1,429 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.dto.Reservation;
+import com.example.onlinestore.mapper.InventoryMapper;
+import com.example.onlinestore.model.Inventory;
+import com.example.onlinestore.model.InventoryDeduction;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.redis.RedisSubscriptions;
+import com.example.onlinestore.security.TokenGenerator;
+import com.example.onlinestore.service.InventoryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 库存服务
+ *
+ * 实时库存保存在 Redis 中，预占、释放和确认都由 Lua 脚本在服务端原子执行，不使用数据库行锁：
+ * - inventory:stock:{productId}：可售库存
+ * - inventory:reserved:{productId}：已预占未确认的数量
+ * - inventory:reservation:{reservationId}：预占记录（商品、数量、用户）
+ * - inventory:reservations：按过期时间排序的预占队列，过期预占由定时任务释放
+ * - inventory:dirty：有变动待回写数据库的商品
+ * - inventory:deducted:{reservationId}：已补扣的预占，防止补扣后删除数据库记录失败时重复扣减
+ *
+ * 订单写入后预占确认失败时（预占已过期释放，或 Redis 不可用），预占记入 inventory_deductions 表，
+ * 回写库存前逐条补扣：预占仍在时按确认处理，已释放时从可售库存中扣回，避免已售出的库存再次售出。
+ *
+ * 售罄的商品在本地记录一小段时间（sold-out-ttl），期间的预占请求直接拒绝，不访问 Redis。
+ * 抢购时绝大多数请求发生在售罄之后，这部分请求因此不产生网络往返。
+ * 本实例释放预占或补货时立即清除本地记录，其他实例补货通过 inventory:restock 频道通知。
+ *
+ * 配置示例：
+ * <pre>
+ * inventory:
+ *   reservation-ttl: PT10M
+ *   sold-out-ttl: PT1S
+ * </pre>
+ */
+@Service
+public class InventoryServiceImpl implements InventoryService, MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
+
+    private static final String STOCK_PREFIX = "inventory:stock:";
+    private static final String RESERVED_PREFIX = "inventory:reserved:";
+    private static final String RESERVATION_PREFIX = "inventory:reservation:";
+    private static final String EXPIRY_KEY = "inventory:reservations";
+    private static final String DIRTY_KEY = "inventory:dirty";
+    private static final String DEDUCTED_PREFIX = "inventory:deducted:";
+    private static final Duration DEDUCTED_TTL = Duration.ofDays(1);
+    static final String RESTOCK_CHANNEL = "inventory:restock";
+
+    private static final long RESULT_OK = 1;
+    private static final long RESULT_NOT_LOADED = -1;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RESERVE_SCRIPT = script("reserve.lua", List.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT = script("release.lua", Long.class);
+    private static final RedisScript<Long> LOAD_SCRIPT = script("load.lua", Long.class);
+    private static final RedisScript<Long> SET_STOCK_SCRIPT = script("set_stock.lua", Long.class);
+    private static final RedisScript<Long> DEDUCT_SCRIPT = script("deduct.lua", Long.class);
+
+    @Value("${inventory.reservation-ttl:PT10M}")
+    private Duration reservationTtl;
+
+    @Value("${inventory.sold-out-ttl:PT1S}")
+    private Duration soldOutTtl;
+
+    @Autowired
+    private RedisAccessor redisAccessor;
+
+    @Autowired
+    private InventoryMapper inventoryMapper;
+
+    @Autowired
+    private TokenGenerator tokenGenerator;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private RedisSubscriptions redisSubscriptions;
+
+    /** 商品ID -> 本地售罄标记的过期时间（毫秒） */
+    private final ConcurrentHashMap<Long, Long> soldOutUntil = new ConcurrentHashMap<>();
+
+    private Counter reservedCounter;
+    private Counter insufficientCounter;
+    private Counter localRejectCounter;
+
+    @PostConstruct
+    public void init() {
+        reservedCounter = reservationCounter("reserved");
+        insufficientCounter = reservationCounter("insufficient");
+        localRejectCounter = reservationCounter("sold_out_local");
+        if (redisSubscriptions != null) {
+            redisSubscriptions.subscribe(RESTOCK_CHANNEL, this);
+        }
+    }
+
+    @Override
+    public Reservation reserve(Long userId, Long productId, int quantity) {
+        if (isSoldOutLocally(productId)) {
+            localRejectCounter.increment();
+            throw insufficient();
+        }
+
+        String reservationId = tokenGenerator.nextToken();
+        long expireAt = System.currentTimeMillis() + reservationTtl.toMillis();
+        List<?> result = runReserve(userId, productId, quantity, reservationId, expireAt);
+        if (code(result) == RESULT_NOT_LOADED) {
+            loadStock(productId);
+            result = runReserve(userId, productId, quantity, reservationId, expireAt);
+        }
+
+        long stock = ((Number) result.get(1)).longValue();
+        if (code(result) != RESULT_OK) {
+            if (stock <= 0) {
+                markSoldOut(productId);
+            }
+            insufficientCounter.increment();
+            throw insufficient();
+        }
+        if (stock == 0) {
+            markSoldOut(productId);
+        }
+        reservedCounter.increment();
+
+        Reservation reservation = new Reservation();
+        reservation.setReservationId(reservationId);
+        reservation.setProductId(productId);
+        reservation.setQuantity(quantity);
+        reservation.setExpireTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(expireAt), ZoneId.systemDefault()));
+        return reservation;
+    }
+
+    @Override
+    public boolean release(String reservationId, Long userId) {
+        Long released = finish(reservationId, userId, true);
+        if (released != null && released < 0) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.access.denied", null, LocaleContextHolder.getLocale()));
+        }
+        return released != null && released > 0;
+    }
+
+    @Override
+    public boolean confirm(String reservationId) {
+        Long confirmed = finish(reservationId, null, false);
+        return confirmed != null && confirmed > 0;
+    }
+
+    @Override
+    public void recordDeduction(String orderNo, Reservation reservation) {
+        InventoryDeduction deduction = new InventoryDeduction();
+        deduction.setReservationId(reservation.getReservationId());
+        deduction.setOrderNo(orderNo);
+        deduction.setProductId(reservation.getProductId());
+        deduction.setQuantity(reservation.getQuantity());
+        inventoryMapper.insertDeduction(deduction);
+        logger.warn("预占确认失败，记录待扣减库存: 订单 {}，商品 {} x {}", orderNo,
+            reservation.getProductId(), reservation.getQuantity());
+    }
+
+    @Override
+    public int getAvailable(Long productId) {
+        String stock = redisAccessor.get(STOCK_PREFIX + productId);
+        long available = stock != null ? Long.parseLong(stock) : loadStock(productId);
+        return (int) Math.max(available, 0);
+    }
+
+    @Override
+    public Map<Long, Integer> getAvailable(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<String> keys = new ArrayList<>(ids.size());
+        for (Long productId : ids) {
+            keys.add(STOCK_PREFIX + productId);
+        }
+        List<String> values = redisAccessor.multiGet(keys);
+        Map<Long, Integer> available = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String stock = values.get(i);
+            long value = stock != null ? Long.parseLong(stock) : loadStock(ids.get(i));
+            available.put(ids.get(i), (int) Math.max(value, 0));
+        }
+        return available;
+    }
+
+    @Override
+    public void setStock(Long productId, int stock) {
+        Long available = redisAccessor.eval(SET_STOCK_SCRIPT,
+            List.of(STOCK_PREFIX + productId, RESERVED_PREFIX + productId, DIRTY_KEY),
+            String.valueOf(stock), String.valueOf(productId));
+        if (available == null || available < 0) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.inventory.stock.below.reserved", null, LocaleContextHolder.getLocale()));
+        }
+        soldOutUntil.remove(productId);
+        // 管理端修改需要立即持久化，不等待定时回写
+        persist(List.of(productId));
+        try {
+            redisAccessor.publish(RESTOCK_CHANNEL, String.valueOf(productId));
+        } catch (Exception e) {
+            logger.warn("广播补货消息失败: {}, {}", productId, e.getMessage());
+        }
+        logger.info("设置商品库存: {} -> {}，可售 {}", productId, stock, available);
+    }
+
+    @Override
+    public int releaseExpired(int limit) {
+        Set<String> expired = redisAccessor.rangeByScore(EXPIRY_KEY, 0, System.currentTimeMillis(), limit);
+        if (expired == null || expired.isEmpty()) {
+            return 0;
+        }
+        for (String reservationId : expired) {
+            Long released = finish(reservationId, null, true);
+            if (released == null) {
+                // 预占记录已不存在（已确认或已释放），只需从队列中移除
+                redisAccessor.eval(RELEASE_SCRIPT, releaseKeys(reservationId, "0"), reservationId, "0", "", "1");
+            }
+        }
+        logger.info("释放过期预占 {} 个", expired.size());
+        return expired.size();
+    }
+
+    @Override
+    public int reconcile(int limit) {
+        applyDeductions(limit);
+        List<String> productIds = redisAccessor.popMembers(DIRTY_KEY, limit);
+        if (productIds == null || productIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(productIds.size());
+        for (String productId : productIds) {
+            ids.add(Long.valueOf(productId));
+        }
+        try {
+            return persist(ids);
+        } catch (RuntimeException e) {
+            // 回写失败时放回待回写集合，下一轮重试
+            redisAccessor.addMembers(DIRTY_KEY, productIds.toArray(new String[0]));
+            throw e;
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String productId = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            soldOutUntil.remove(Long.valueOf(productId));
+        } catch (NumberFormatException e) {
+            logger.warn("无效的补货消息: {}", productId);
+        }
+    }
+
+    /**
+     * 补扣确认失败的预占，补扣后删除数据库记录；补扣的商品记入待回写集合，随本轮一起回写
+     */
+    private void applyDeductions(int limit) {
+        List<InventoryDeduction> deductions = inventoryMapper.findDeductions(limit);
+        for (InventoryDeduction deduction : deductions) {
+            Long result = runDeduct(deduction);
+            if (result != null && result == RESULT_NOT_LOADED) {
+                loadStock(deduction.getProductId());
+                result = runDeduct(deduction);
+            }
+            if (result == null || result == RESULT_NOT_LOADED) {
+                logger.warn("补扣库存失败，下一轮重试: 订单 {}，预占 {}", deduction.getOrderNo(), deduction.getReservationId());
+                continue;
+            }
+            inventoryMapper.deleteDeduction(deduction.getReservationId());
+            if (result == RESULT_OK) {
+                logger.info("补扣库存: 订单 {}，商品 {} x {}", deduction.getOrderNo(),
+                    deduction.getProductId(), deduction.getQuantity());
+            }
+        }
+    }
+
+    private Long runDeduct(InventoryDeduction deduction) {
+        String reservationId = deduction.getReservationId();
+        String productId = String.valueOf(deduction.getProductId());
+        return redisAccessor.eval(DEDUCT_SCRIPT,
+            List.of(RESERVATION_PREFIX + reservationId, STOCK_PREFIX + productId, RESERVED_PREFIX + productId,
+                EXPIRY_KEY, DIRTY_KEY, DEDUCTED_PREFIX + reservationId),
+            reservationId, productId, String.valueOf(deduction.getQuantity()),
+            String.valueOf(DEDUCTED_TTL.toMillis()));
+    }
+
+    private List<?> runReserve(Long userId, Long productId, int quantity, String reservationId, long expireAt) {
+        return redisAccessor.eval(RESERVE_SCRIPT,
+            List.of(STOCK_PREFIX + productId, RESERVED_PREFIX + productId,
+                RESERVATION_PREFIX + reservationId, EXPIRY_KEY, DIRTY_KEY),
+            String.valueOf(quantity), String.valueOf(expireAt), reservationId,
+            String.valueOf(productId), String.valueOf(userId));
+    }
+
+    /**
+     * 释放或确认预占
+     *
+     * @return 预占数量；预占不存在时返回 null；归属不符返回负数
+     */
+    private Long finish(String reservationId, Long userId, boolean restock) {
+        String productId = redisAccessor.hashGet(RESERVATION_PREFIX + reservationId, "productId");
+        if (productId == null) {
+            return null;
+        }
+        Long quantity = redisAccessor.eval(RELEASE_SCRIPT, releaseKeys(reservationId, productId),
+            reservationId, productId, userId == null ? "" : String.valueOf(userId), restock ? "1" : "0");
+        if (restock && quantity != null && quantity > 0) {
+            soldOutUntil.remove(Long.valueOf(productId));
+        }
+        return quantity;
+    }
+
+    private List<String> releaseKeys(String reservationId, String productId) {
+        return List.of(RESERVATION_PREFIX + reservationId, STOCK_PREFIX + productId,
+            RESERVED_PREFIX + productId, EXPIRY_KEY, DIRTY_KEY);
+    }
+
+    /**
+     * Redis 中没有该商品库存时（首次访问或 Redis 数据丢失）从数据库加载
+     */
+    private long loadStock(Long productId) {
+        Inventory inventory = inventoryMapper.findByProductId(productId);
+        int stock = inventory == null ? 0 : inventory.getStock();
+        Long available = redisAccessor.eval(LOAD_SCRIPT,
+            List.of(STOCK_PREFIX + productId, RESERVED_PREFIX + productId), String.valueOf(stock));
+        logger.debug("从数据库加载商品库存: {} -> {}", productId, available);
+        return available == null ? 0 : available;
+    }
+
+    private int persist(List<Long> productIds) {
+        List<String> keys = new ArrayList<>(productIds.size() * 2);
+        for (Long productId : productIds) {
+            keys.add(STOCK_PREFIX + productId);
+            keys.add(RESERVED_PREFIX + productId);
+        }
+        List<String> values = redisAccessor.multiGet(keys);
+        List<Inventory> inventories = new ArrayList<>(productIds.size());
+        for (int i = 0; i < productIds.size(); i++) {
+            String available = values.get(i * 2);
+            if (available == null) {
+                continue;
+            }
+            String reservedValue = values.get(i * 2 + 1);
+            int reserved = reservedValue == null ? 0 : Integer.parseInt(reservedValue);
+            Inventory inventory = new Inventory();
+            inventory.setProductId(productIds.get(i));
+            inventory.setStock(Integer.parseInt(available) + reserved);
+            inventory.setReserved(reserved);
+            inventories.add(inventory);
+        }
+        if (!inventories.isEmpty()) {
+            inventoryMapper.upsertInventories(inventories);
+        }
+        return inventories.size();
+    }
+
+    private boolean isSoldOutLocally(Long productId) {
+        Long until = soldOutUntil.get(productId);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            soldOutUntil.remove(productId, until);
+            return false;
+        }
+        return true;
+    }
+
+    private void markSoldOut(Long productId) {
+        soldOutUntil.put(productId, System.currentTimeMillis() + soldOutTtl.toMillis());
+    }
+
+    private IllegalArgumentException insufficient() {
+        return new IllegalArgumentException(messageSource.getMessage(
+            "error.inventory.insufficient", null, LocaleContextHolder.getLocale()));
+    }
+
+    private Counter reservationCounter(String result) {
+        return Counter.builder("inventory.reservations")
+            .tag("result", result)
+            .description("库存预占请求数")
+            .register(meterRegistry);
+    }
+
+    private static long code(List<?> result) {
+        return ((Number) result.get(0)).longValue();
+    }
+
+    private static <T> RedisScript<T> script(String name, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("scripts/inventory/" + name)));
+        script.setResultType(resultType);
+        return script;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.mapper.OrderMapper;
+import com.example.onlinestore.mapper.OutboxMapper;
+import com.example.onlinestore.model.Order;
+import com.example.onlinestore.model.OrderItem;
+import com.example.onlinestore.model.OutboxEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单组提交写入器
+ *
+ * 下单线程把订单（含明细）和发件箱事件放入有界队列，由单个写入线程取出队列中已积压的全部订单（最多 max-size 个），
+ * 在一个事务中以多行 INSERT 写入订单、明细和事件。低负载时每批只有一个订单，不引入额外等待；
+ * 高负载时上一批提交期间到达的订单合并为下一批，事务提交的开销由整批分摊。
+ *
+ * 整批写入失败时逐个订单重试，单个订单的问题不影响同批的其他订单。
+ * 队列已满时立即拒绝，由调用方返回繁忙，避免请求线程在数据库前无限堆积。
+ * 在队列中等待超过 max-queue-wait 的订单不再写入，同样以繁忙失败：max-queue-wait 必须小于 order.pending-ttl，
+ * 否则幂等键的“处理中”标记过期后，使用相同幂等键的重试会在原订单写入前创建第二个订单。
+ *
+ * 配置示例：
+ * <pre>
+ * order:
+ *   batch:
+ *     max-size: 100
+ *     queue-capacity: 2000
+ *     max-queue-wait: PT30S
+ * </pre>
+ */
+@Component
+public class OrderBatchWriter {
+    private static final Logger logger = LoggerFactory.getLogger(OrderBatchWriter.class);
+
+    @Value("${order.batch.max-size:100}")
+    private int maxBatchSize;
+
+    @Value("${order.batch.queue-capacity:2000}")
+    private int queueCapacity;
+
+    @Value("${order.batch.max-queue-wait:PT30S}")
+    private Duration maxQueueWait;
+
+    @Value("${order.pending-ttl:PT1M}")
+    private Duration pendingTtl;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OutboxMapper outboxMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingWrite> queue;
+    private TransactionTemplate transactionTemplate;
+    private DistributionSummary batchSizes;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        if (maxQueueWait.compareTo(pendingTtl) >= 0) {
+            throw new IllegalArgumentException("order.batch.max-queue-wait 必须小于 order.pending-ttl: "
+                + maxQueueWait + " >= " + pendingTtl);
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        batchSizes = DistributionSummary.builder("order.batch.size")
+            .description("每个事务写入的订单数")
+            .register(meterRegistry);
+        Gauge.builder("order.batch.queued", queue, BlockingQueue::size)
+            .description("等待写入的订单数")
+            .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::run, "order-batch-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        List<PendingWrite> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (PendingWrite write : remaining) {
+            write.future.completeExceptionally(new RejectedExecutionException("订单写入器已关闭"));
+        }
+    }
+
+    /**
+     * 提交订单写入
+     *
+     * @param order 订单，含明细
+     * @param event 与订单在同一事务中写入的发件箱事件
+     * @return 事务提交后完成；队列已满时立即以 RejectedExecutionException 失败，
+     *         在队列中等待超过 max-queue-wait 时以 RejectedExecutionException 失败
+     */
+    public CompletableFuture<Void> submit(Order order, OutboxEvent event) {
+        PendingWrite write = new PendingWrite(order, event, System.nanoTime() + maxQueueWait.toNanos());
+        if (!running || !queue.offer(write)) {
+            write.future.completeExceptionally(new RejectedExecutionException("订单写入队列已满"));
+        }
+        return write.future;
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            dropExpired(batch);
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        logger.info("订单写入线程已退出");
+    }
+
+    private void dropExpired(List<PendingWrite> batch) {
+        long now = System.nanoTime();
+        batch.removeIf(write -> {
+            if (now - write.deadline < 0) {
+                return false;
+            }
+            logger.warn("订单在写入队列中等待超过 {}，放弃写入: {}", maxQueueWait, write.order.getOrderNo());
+            write.future.completeExceptionally(new RejectedExecutionException("订单在写入队列中等待超时"));
+            return true;
+        });
+    }
+
+    private void write(List<PendingWrite> batch) {
+        batchSizes.record(batch.size());
+        try {
+            insert(batch);
+            batch.forEach(write -> write.future.complete(null));
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            logger.warn("订单批量写入失败，逐个重试: {} 个, {}", batch.size(), e.getMessage());
+        }
+        for (PendingWrite write : batch) {
+            try {
+                insert(List.of(write));
+                write.future.complete(null);
+            } catch (RuntimeException e) {
+                write.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void insert(List<PendingWrite> batch) {
+        List<Order> orders = new ArrayList<>(batch.size());
+        List<OrderItem> items = new ArrayList<>();
+        List<OutboxEvent> events = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            orders.add(write.order);
+            items.addAll(write.order.getItems());
+            events.add(write.event);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            orderMapper.insertOrders(orders);
+            orderMapper.insertOrderItems(items);
+            outboxMapper.insertEvents(events);
+        });
+    }
+
+    private static class PendingWrite {
+        private final Order order;
+        private final OutboxEvent event;
+        // System.nanoTime() 时间点，此后仍未开始写入的订单被放弃
+        private final long deadline;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingWrite(Order order, OutboxEvent event, long deadline) {
+            this.order = order;
+            this.event = event;
+            this.deadline = deadline;
+        }
+    }
+}
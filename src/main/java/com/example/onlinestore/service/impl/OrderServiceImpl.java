@@ -0,0 +1,312 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.dto.OrderItemRequest;
+import com.example.onlinestore.dto.OrderRequest;
+import com.example.onlinestore.dto.PlacedOrder;
+import com.example.onlinestore.dto.Reservation;
+import com.example.onlinestore.mapper.OrderMapper;
+import com.example.onlinestore.model.Order;
+import com.example.onlinestore.model.OrderItem;
+import com.example.onlinestore.model.OutboxEvent;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.pricing.Money;
+import com.example.onlinestore.pricing.PriceLine;
+import com.example.onlinestore.pricing.PricingResult;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.security.TokenGenerator;
+import com.example.onlinestore.service.CartService;
+import com.example.onlinestore.service.InventoryService;
+import com.example.onlinestore.service.OrderService;
+import com.example.onlinestore.service.PricingService;
+import com.example.onlinestore.service.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 订单服务
+ *
+ * 下单流程：
+ * 1. 以 order:idempotency:{userId}:{key} 占用幂等键，已有结果时直接返回首次创建的订单
+ * 2. 批量读取商品快照，逐个预占库存，按促销规则计价（与购物车展示使用同一份规则）
+ * 3. 订单、明细和 ORDER_CREATED 事件交给 {@link OrderBatchWriter} 组提交，同一事务写入发件箱
+ * 4. 提交成功后确认预占、移除购物车中已购买的商品、记录幂等结果；失败则释放预占并删除幂等键
+ *
+ * 确认预占出错时重试，仍失败或预占已过期释放时记为待扣减库存，由库存回写任务补扣，已售出的库存不会再次售出。
+ *
+ * 下游消费者只通过发件箱事件获知新订单，由 OrderOutboxRelay 异步发布，下单请求不等待任何下游调用。
+ * 等待写入超过 write-timeout 时不放弃订单：写入完成后在后台完成第 4 步，
+ * 此期间使用相同幂等键的重试收到“处理中”，写入完成后重试即可得到订单。
+ *
+ * 配置示例：
+ * <pre>
+ * order:
+ *   idempotency-ttl: PT24H
+ *   pending-ttl: PT1M
+ *   write-timeout: PT3S
+ * </pre>
+ */
+@Service
+public class OrderServiceImpl implements OrderService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
+
+    private static final String IDEMPOTENCY_PREFIX = "order:idempotency:";
+    private static final String PENDING = "PENDING";
+    static final String EVENT_ORDER_CREATED = "ORDER_CREATED";
+    private static final int CONFIRM_ATTEMPTS = 3;
+
+    @Value("${order.idempotency-ttl:PT24H}")
+    private Duration idempotencyTtl;
+
+    @Value("${order.pending-ttl:PT1M}")
+    private Duration pendingTtl;
+
+    @Value("${order.write-timeout:PT3S}")
+    private Duration writeTimeout;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OrderBatchWriter orderBatchWriter;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private RedisAccessor redisAccessor;
+
+    @Autowired
+    private TokenGenerator tokenGenerator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Override
+    public PlacedOrder placeOrder(Long userId, String idempotencyKey, OrderRequest request) {
+        String key = IDEMPOTENCY_PREFIX + userId + ":" + idempotencyKey;
+        // 处理中的标记只保留很短时间，进程在处理中途退出时客户端不必等到 idempotency-ttl 才能重试
+        if (!redisAccessor.setIfAbsent(key, PENDING, pendingTtl.toMillis(), TimeUnit.MILLISECONDS)) {
+            return replay(userId, key);
+        }
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequest item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        List<Reservation> reservations = new ArrayList<>(quantities.size());
+        Order order;
+        CompletableFuture<Void> written;
+        try {
+            Map<Long, Product> products = productService.getProducts(quantities.keySet());
+            if (products.size() < quantities.size()) {
+                throw new IllegalArgumentException(messageSource.getMessage(
+                    "error.product.not.found", null, LocaleContextHolder.getLocale()));
+            }
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                reservations.add(inventoryService.reserve(userId, entry.getKey(), entry.getValue()));
+            }
+            order = buildOrder(userId, quantities, products, request.getCouponCode());
+            written = orderBatchWriter.submit(order, createdEvent(order));
+        } catch (RuntimeException e) {
+            settle(null, reservations, key, e);
+            throw e;
+        }
+
+        try {
+            written.get(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("订单写入超时，转为后台完成: {}", order.getOrderNo());
+            written.whenCompleteAsync((ignored, error) -> settle(order, reservations, key, error));
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            written.whenCompleteAsync((ignored, error) -> settle(order, reservations, key, error));
+            throw inProgress();
+        } catch (ExecutionException e) {
+            settle(order, reservations, key, e.getCause());
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        settle(order, reservations, key, null);
+        logger.info("用户 {} 下单成功: {}，金额 {}", userId, order.getOrderNo(), order.getTotalAmount());
+        return new PlacedOrder(order, false);
+    }
+
+    @Override
+    public Order getOrder(Long userId, String orderNo) {
+        Order order = orderMapper.findByOrderNo(orderNo);
+        if (order == null || !order.getUserId().equals(userId)) {
+            return null;
+        }
+        order.setItems(orderMapper.findItemsByOrderNo(orderNo));
+        return order;
+    }
+
+    private PlacedOrder replay(Long userId, String key) {
+        String orderNo = redisAccessor.get(key);
+        if (orderNo == null || PENDING.equals(orderNo)) {
+            throw inProgress();
+        }
+        Order order = getOrder(userId, orderNo);
+        if (order == null) {
+            throw inProgress();
+        }
+        logger.info("幂等键重复，返回已创建的订单: {}", orderNo);
+        return new PlacedOrder(order, true);
+    }
+
+    /**
+     * 写入结束后的收尾：成功时确认预占并记录幂等结果，失败时释放预占并删除幂等键
+     *
+     * @param order 已提交写入的订单，未提交时为 null
+     * @param error 写入失败的原因，成功时为 null
+     */
+    private void settle(Order order, List<Reservation> reservations, String key, Throwable error) {
+        if (error != null) {
+            for (Reservation reservation : reservations) {
+                try {
+                    inventoryService.release(reservation.getReservationId(), null);
+                } catch (Exception e) {
+                    // 释放失败的预占在 TTL 到期后由定时任务释放
+                    logger.warn("释放预占失败: {}, {}", reservation.getReservationId(), e.getMessage());
+                }
+            }
+            try {
+                redisAccessor.delete(key);
+            } catch (Exception e) {
+                logger.warn("删除幂等键失败: {}, {}", key, e.getMessage());
+            }
+            if (order != null) {
+                logger.error("订单写入失败: {}, {}", order.getOrderNo(), error.getMessage());
+            }
+            return;
+        }
+
+        for (Reservation reservation : reservations) {
+            if (!confirm(order, reservation)) {
+                try {
+                    inventoryService.recordDeduction(order.getOrderNo(), reservation);
+                } catch (Exception e) {
+                    logger.error("记录待扣减库存失败，需人工核对: 订单 {}，预占 {}，商品 {} x {}, {}",
+                        order.getOrderNo(), reservation.getReservationId(), reservation.getProductId(),
+                        reservation.getQuantity(), e.getMessage());
+                }
+            }
+        }
+        try {
+            redisAccessor.set(key, order.getOrderNo(), idempotencyTtl.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logger.error("记录幂等结果失败: {}, {}", key, e.getMessage());
+        }
+        try {
+            cartService.removeItems(order.getUserId(), order.getItems().stream().map(OrderItem::getProductId).toList());
+        } catch (Exception e) {
+            logger.warn("移除购物车中已购买的商品失败: {}, {}", order.getOrderNo(), e.getMessage());
+        }
+    }
+
+    /**
+     * 确认预占，出错时重试
+     *
+     * @return 预占已确认时返回 true；预占已不存在（过期释放）或重试后仍出错时返回 false
+     */
+    private boolean confirm(Order order, Reservation reservation) {
+        for (int attempt = 1; attempt <= CONFIRM_ATTEMPTS; attempt++) {
+            try {
+                return inventoryService.confirm(reservation.getReservationId());
+            } catch (Exception e) {
+                logger.warn("确认预占失败（第 {} 次）: 订单 {}，预占 {}, {}", attempt,
+                    order.getOrderNo(), reservation.getReservationId(), e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private Order buildOrder(Long userId, Map<Long, Integer> quantities, Map<Long, Product> products,
+                             String couponCode) {
+        List<PriceLine> lines = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            lines.add(new PriceLine(product.getId(), product.getCategoryId() == null ? 0 : product.getCategoryId(),
+                Money.toCents(product.getPrice()), entry.getValue()));
+        }
+        PricingResult pricing = pricingService.price(lines, true, couponCode);
+
+        String orderNo = tokenGenerator.nextToken();
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderItem> items = new ArrayList<>(quantities.size());
+        int index = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            OrderItem item = new OrderItem();
+            item.setOrderNo(orderNo);
+            item.setProductId(product.getId());
+            item.setProductName(product.getName());
+            item.setPrice(Money.toAmount(pricing.getUnitPrices()[index++]));
+            item.setQuantity(entry.getValue());
+            items.add(item);
+        }
+
+        Order order = new Order();
+        order.setOrderNo(orderNo);
+        order.setUserId(userId);
+        order.setStatus(Order.STATUS_CREATED);
+        order.setTotalAmount(Money.toAmount(pricing.getPayable()));
+        order.setDiscountAmount(Money.toAmount(pricing.getDiscount()));
+        order.setItems(items);
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        return order;
+    }
+
+    private OutboxEvent createdEvent(Order order) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateId(order.getOrderNo());
+        event.setEventType(EVENT_ORDER_CREATED);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(order));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        event.setCreatedAt(order.getCreatedAt());
+        return event;
+    }
+
+    private IllegalStateException inProgress() {
+        return new IllegalStateException(messageSource.getMessage(
+            "error.order.in.progress", null, LocaleContextHolder.getLocale()));
+    }
+}
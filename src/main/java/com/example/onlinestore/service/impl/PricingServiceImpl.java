@@ -0,0 +1,121 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.mapper.PromotionMapper;
+import com.example.onlinestore.model.Promotion;
+import com.example.onlinestore.pricing.PriceLine;
+import com.example.onlinestore.pricing.PricingPlan;
+import com.example.onlinestore.pricing.PricingResult;
+import com.example.onlinestore.service.PricingService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 计价服务
+ *
+ * 促销规则有两个来源：
+ * - promotions 表，定期重新加载
+ * - 配置项 pricing.rules，可放在 Nacos 中，配置刷新（refresh-enabled）时重新编译
+ *
+ * 两个来源合并后编译为不可变的 {@link PricingPlan}，通过 AtomicReference 整体替换，
+ * 计价请求要么使用旧规则、要么使用新规则，不会看到编译到一半的状态。
+ * 数据库不可用时继续使用上一次加载的规则；启动时在数据库规则加载前只使用配置中的规则。
+ *
+ * 配置示例：
+ * <pre>
+ * pricing:
+ *   reload-interval: PT1M
+ *   rules:
+ *     - name: 双十一键盘 85 折
+ *       type: 2
+ *       scope-type: 1
+ *       scope-id: 3
+ *       value: 15
+ *       starts-at: 2026-11-11T00:00:00
+ *       ends-at: 2026-11-12T00:00:00
+ * </pre>
+ */
+@Service
+public class PricingServiceImpl implements PricingService {
+    private static final Logger logger = LoggerFactory.getLogger(PricingServiceImpl.class);
+
+    private static final String RULES_PROPERTY = "pricing.rules";
+
+    @Autowired
+    private PromotionMapper promotionMapper;
+
+    @Autowired
+    private Environment environment;
+
+    private final AtomicReference<PricingPlan> plan = new AtomicReference<>(PricingPlan.EMPTY);
+
+    private volatile List<Promotion> configRules = List.of();
+
+    private volatile List<Promotion> databaseRules = List.of();
+
+    @PostConstruct
+    public void init() {
+        configRules = bindConfigRules();
+        recompile();
+    }
+
+    @Override
+    public PricingResult price(List<PriceLine> lines, boolean member, String couponCode) {
+        return plan.get().price(lines, member, couponCode, System.currentTimeMillis());
+    }
+
+    @Override
+    public void reload() {
+        databaseRules = promotionMapper.findEffective(LocalDateTime.now());
+        recompile();
+    }
+
+    @Scheduled(initialDelayString = "${pricing.initial-delay:PT5S}",
+               fixedDelayString = "${pricing.reload-interval:PT1M}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("加载促销规则失败，继续使用当前规则: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 配置刷新后重新绑定 pricing.rules；不依赖 @ConfigurationProperties 的重新绑定顺序
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(RULES_PROPERTY))) {
+            configRules = bindConfigRules();
+            recompile();
+        }
+    }
+
+    private List<Promotion> bindConfigRules() {
+        return Binder.get(environment)
+            .bind(RULES_PROPERTY, Bindable.listOf(Promotion.class))
+            .orElse(List.of());
+    }
+
+    private synchronized void recompile() {
+        List<Promotion> rules = new ArrayList<>(configRules.size() + databaseRules.size());
+        rules.addAll(configRules);
+        rules.addAll(databaseRules);
+        PricingPlan compiled = PricingPlan.compile(rules);
+        plan.set(compiled);
+        logger.debug("促销规则已编译: 配置 {} 条，数据库 {} 条", configRules.size(), databaseRules.size());
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.ProductSearchRequest;
+import com.example.onlinestore.event.CatalogChangedEvent;
+import com.example.onlinestore.mapper.ProductMapper;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.redis.RedisSubscriptions;
+import com.example.onlinestore.search.InvertedIndex;
+import com.example.onlinestore.search.SearchResult;
+import com.example.onlinestore.search.Tokenizer;
+import com.example.onlinestore.service.ProductSearchService;
+import com.example.onlinestore.service.ProductService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 商品全文检索服务
+ *
+ * 索引保存在进程内（{@link InvertedIndex}），按商品ID顺序分批扫描上架商品构建，
+ * 构建在后台定时任务中进行，数据库不可用时稍后重试，不影响应用启动；构建完成前查询返回“索引未就绪”。
+ * 商品名称的词频按 3 倍计入，描述按 1 倍。
+ *
+ * 增量更新：
+ * - 本实例的商品写入在事务提交后通过 {@link CatalogChangedEvent} 更新
+ * - 其他实例的商品写入通过商品目录缓存失效广播（catalog:invalidate）更新
+ * 更新时从数据库重新读取该商品，已下架或已删除则从索引中移除。
+ * 全量构建期间发生变更的商品会在新索引就绪后重新读取一次，不会丢失扫描过程中的更新。
+ *
+ * 查询只在索引中取得商品ID，商品内容通过商品服务（缓存）批量读取。
+ *
+ * 配置示例：
+ * <pre>
+ * search:
+ *   index:
+ *     scan-batch-size: 1000
+ *     initial-delay: PT5S
+ *     retry-interval: PT1M
+ * </pre>
+ */
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService, MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchServiceImpl.class);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    /** 与 ProductServiceImpl 中的商品缓存键前缀一致 */
+    private static final String PRODUCT_KEY_PREFIX = "product:";
+
+    @Value("${search.index.scan-batch-size:1000}")
+    private int scanBatchSize;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired(required = false)
+    private RedisSubscriptions redisSubscriptions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    private volatile InvertedIndex index;
+
+    private volatile boolean building;
+
+    /** 全量构建期间发生变更的商品ID */
+    private final Set<Long> changedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("search.index.documents", this, service -> {
+            InvertedIndex current = service.index;
+            return current == null ? 0 : current.size();
+        }).register(meterRegistry);
+        if (redisSubscriptions != null) {
+            redisSubscriptions.subscribe(CatalogCache.CHANNEL, this);
+        }
+    }
+
+    @Override
+    public PageResponse<Product> search(ProductSearchRequest request) {
+        InvertedIndex current = requireIndex();
+        int offset = (request.getPageNum() - 1) * request.getPageSize();
+        SearchResult result = current.search(Tokenizer.queryTerms(request.getQ()),
+            request.getCategoryId(), offset, request.getPageSize());
+
+        List<Long> ids = new ArrayList<>(result.getKeys().length);
+        for (long key : result.getKeys()) {
+            ids.add(key);
+        }
+        // 刚下架的商品可能尚未从索引中移除，由商品服务过滤
+        Map<Long, Product> products = ids.isEmpty() ? Map.of() : productService.getProducts(ids);
+        PageResponse<Product> response = new PageResponse<>();
+        response.setRecords(new ArrayList<>(products.values()));
+        response.setTotal(result.getTotal());
+        response.setPageNum(request.getPageNum());
+        response.setPageSize(request.getPageSize());
+        return response;
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        InvertedIndex current = requireIndex();
+        String normalized = Tokenizer.normalize(prefix.trim());
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return current.suggest(normalized, limit);
+    }
+
+    @Scheduled(initialDelayString = "${search.index.initial-delay:PT5S}",
+               fixedDelayString = "${search.index.retry-interval:PT1M}")
+    public void ensureBuilt() {
+        if (index != null) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.warn("构建商品搜索索引失败，稍后重试: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        building = true;
+        changedDuringBuild.clear();
+        InvertedIndex fresh = new InvertedIndex();
+        try {
+            long afterId = 0;
+            List<Product> batch;
+            do {
+                batch = productMapper.findOnSaleAfterId(afterId, scanBatchSize);
+                for (Product product : batch) {
+                    fresh.upsert(product.getId(), product.getCategoryId(), termFreqs(product));
+                    afterId = product.getId();
+                }
+            } while (batch.size() == scanBatchSize);
+            index = fresh;
+        } finally {
+            building = false;
+        }
+        for (Long id : changedDuringBuild) {
+            reindex(id);
+        }
+        changedDuringBuild.clear();
+        logger.info("商品搜索索引构建完成: {} 个商品，耗时 {} ms", fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 事务提交后更新索引；在提交前读取会读到旧数据
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.PRODUCT) {
+            onProductChanged(event.getId());
+        }
+    }
+
+    /**
+     * 其他实例的商品写入；本实例自己的广播也会收到，重复更新的结果相同
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        for (String key : body.split(",")) {
+            if (key.startsWith(PRODUCT_KEY_PREFIX)) {
+                try {
+                    onProductChanged(Long.parseLong(key.substring(PRODUCT_KEY_PREFIX.length())));
+                } catch (NumberFormatException e) {
+                    logger.warn("忽略无法识别的商品目录变更通知: {}", key);
+                }
+            }
+        }
+    }
+
+    private void onProductChanged(Long id) {
+        if (building) {
+            changedDuringBuild.add(id);
+        }
+        if (index != null) {
+            reindex(id);
+        }
+    }
+
+    private void reindex(Long id) {
+        InvertedIndex current = index;
+        try {
+            Product product = productMapper.findById(id);
+            if (product == null || !Integer.valueOf(Product.STATUS_ON_SALE).equals(product.getStatus())) {
+                current.remove(id);
+            } else {
+                current.upsert(id, product.getCategoryId(), termFreqs(product));
+            }
+        } catch (Exception e) {
+            // 索引中保留旧内容，商品内容以商品服务返回的为准
+            logger.error("更新商品搜索索引失败: {}, {}", id, e.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> termFreqs(Product product) {
+        Map<String, Integer> freqs = new HashMap<>();
+        Tokenizer.addTerms(product.getName(), NAME_WEIGHT, freqs);
+        Tokenizer.addTerms(product.getDescription(), DESCRIPTION_WEIGHT, freqs);
+        return freqs;
+    }
+
+    private InvertedIndex requireIndex() {
+        InvertedIndex current = index;
+        if (current == null) {
+            throw new IllegalStateException(messageSource.getMessage(
+                "error.search.not.ready", null, LocaleContextHolder.getLocale()));
+        }
+        return current;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.dto.CategoryRequest;
+import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.ProductPageRequest;
+import com.example.onlinestore.dto.ProductRequest;
+import com.example.onlinestore.dto.Versioned;
+import com.example.onlinestore.event.CatalogChangedEvent;
+import com.example.onlinestore.mapper.CategoryMapper;
+import com.example.onlinestore.mapper.ProductMapper;
+import com.example.onlinestore.model.Category;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.service.ProductService;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+public class ProductServiceImpl implements ProductService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
+
+    private static final String PRODUCT_KEY_PREFIX = "product:";
+    private static final String CATEGORIES_KEY = "categories";
+    private static final JavaType PRODUCT_TYPE = TypeFactory.defaultInstance().constructType(Product.class);
+    private static final JavaType CATEGORY_LIST_TYPE =
+        TypeFactory.defaultInstance().constructCollectionType(List.class, Category.class);
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Override
+    public Versioned<Product> getProduct(Long id) {
+        // 下架商品同样缓存，避免对其重复回源
+        Versioned<Product> product = catalogCache.get(PRODUCT_KEY_PREFIX + id, PRODUCT_TYPE,
+            () -> productMapper.findById(id), p -> toMillis(p.getUpdatedAt()));
+        if (product == null || !Objects.equals(product.getValue().getStatus(), Product.STATUS_ON_SALE)) {
+            return null;
+        }
+        return product;
+    }
+
+    @Override
+    public Map<Long, Product> getProducts(Collection<Long> ids) {
+        Map<String, Long> keys = new LinkedHashMap<>();
+        for (Long id : ids) {
+            keys.put(PRODUCT_KEY_PREFIX + id, id);
+        }
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Versioned<Product>> cached = catalogCache.getAll(keys.keySet(), PRODUCT_TYPE, missing -> {
+            Map<String, Product> loaded = new HashMap<>();
+            for (Product product : productMapper.findByIds(missing.stream().map(keys::get).toList())) {
+                loaded.put(PRODUCT_KEY_PREFIX + product.getId(), product);
+            }
+            return loaded;
+        }, p -> toMillis(p.getUpdatedAt()));
+
+        Map<Long, Product> products = new LinkedHashMap<>();
+        keys.forEach((key, id) -> {
+            Versioned<Product> product = cached.get(key);
+            if (product != null && Objects.equals(product.getValue().getStatus(), Product.STATUS_ON_SALE)) {
+                products.put(id, product.getValue());
+            }
+        });
+        return products;
+    }
+
+    @Override
+    public Versioned<PageResponse<Product>> listProducts(ProductPageRequest request) {
+        String key = request.getCategoryId() + ":" + request.getPageNum() + ":" + request.getPageSize();
+        return catalogCache.getPage(key, () -> loadPage(request));
+    }
+
+    @Override
+    public Versioned<List<Category>> listCategories() {
+        // 删除的分类不在列表中，最大 updatedAt 不能反映删除，只使用 ETag
+        return catalogCache.get(CATEGORIES_KEY, CATEGORY_LIST_TYPE, categoryMapper::findAll,
+            categories -> Versioned.NO_LAST_MODIFIED);
+    }
+
+    @Override
+    @Transactional
+    public Product createProduct(ProductRequest request) {
+        requireCategory(request.getCategoryId());
+        LocalDateTime now = LocalDateTime.now();
+        Product product = new Product();
+        applyRequest(product, request);
+        product.setStatus(Product.STATUS_ON_SALE);
+        product.setCreatedAt(now);
+        product.setUpdatedAt(now);
+        productMapper.insertProduct(product);
+        logger.info("创建商品: {} ({})", product.getName(), product.getId());
+        eventPublisher.publishEvent(CatalogChangedEvent.product(product.getId()));
+        return product;
+    }
+
+    @Override
+    @Transactional
+    public Product updateProduct(Long id, ProductRequest request) {
+        Product product = requireProduct(id);
+        requireCategory(request.getCategoryId());
+        applyRequest(product, request);
+        product.setUpdatedAt(LocalDateTime.now());
+        productMapper.updateProduct(product);
+        logger.info("更新商品: {} ({})", product.getName(), id);
+        eventPublisher.publishEvent(CatalogChangedEvent.product(id));
+        return product;
+    }
+
+    @Override
+    @Transactional
+    public void deleteProduct(Long id) {
+        requireProduct(id);
+        productMapper.updateStatus(id, Product.STATUS_OFF_SALE);
+        logger.info("下架商品: {}", id);
+        eventPublisher.publishEvent(CatalogChangedEvent.product(id));
+    }
+
+    @Override
+    @Transactional
+    public Category createCategory(CategoryRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        Category category = new Category();
+        category.setName(request.getName());
+        category.setParentId(request.getParentId());
+        category.setSortOrder(request.getSortOrder());
+        category.setCreatedAt(now);
+        category.setUpdatedAt(now);
+        categoryMapper.insertCategory(category);
+        logger.info("创建分类: {} ({})", category.getName(), category.getId());
+        eventPublisher.publishEvent(CatalogChangedEvent.category(category.getId()));
+        return category;
+    }
+
+    @Override
+    @Transactional
+    public Category updateCategory(Long id, CategoryRequest request) {
+        Category category = requireCategory(id);
+        category.setName(request.getName());
+        category.setParentId(request.getParentId());
+        category.setSortOrder(request.getSortOrder());
+        category.setUpdatedAt(LocalDateTime.now());
+        categoryMapper.updateCategory(category);
+        logger.info("更新分类: {} ({})", category.getName(), id);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(id));
+        return category;
+    }
+
+    @Override
+    @Transactional
+    public void deleteCategory(Long id) {
+        requireCategory(id);
+        if (productMapper.countByCategory(id) > 0) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.category.not.empty", null, LocaleContextHolder.getLocale()));
+        }
+        categoryMapper.deleteCategory(id);
+        logger.info("删除分类: {}", id);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(id));
+    }
+
+    /**
+     * 事务提交后失效缓存；在事务提交前失效，并发读取可能把旧数据重新写回缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() == CatalogChangedEvent.Type.PRODUCT) {
+            catalogCache.invalidate(PRODUCT_KEY_PREFIX + event.getId());
+        } else {
+            catalogCache.invalidate(CATEGORIES_KEY);
+        }
+    }
+
+    private PageResponse<Product> loadPage(ProductPageRequest request) {
+        int offset = (request.getPageNum() - 1) * request.getPageSize();
+        PageResponse<Product> response = new PageResponse<>();
+        response.setRecords(productMapper.findOnSaleWithPagination(
+            request.getCategoryId(), offset, request.getPageSize()));
+        response.setTotal(productMapper.countOnSale(request.getCategoryId()));
+        response.setPageNum(request.getPageNum());
+        response.setPageSize(request.getPageSize());
+        return response;
+    }
+
+    private Product requireProduct(Long id) {
+        Product product = productMapper.findById(id);
+        if (product == null) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.product.not.found", null, LocaleContextHolder.getLocale()));
+        }
+        return product;
+    }
+
+    private Category requireCategory(Long id) {
+        Category category = categoryMapper.findById(id);
+        if (category == null) {
+            throw new IllegalArgumentException(messageSource.getMessage(
+                "error.category.not.found", null, LocaleContextHolder.getLocale()));
+        }
+        return category;
+    }
+
+    private static void applyRequest(Product product, ProductRequest request) {
+        product.setCategoryId(request.getCategoryId());
+        product.setName(request.getName());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        product.setImageUrl(request.getImageUrl());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
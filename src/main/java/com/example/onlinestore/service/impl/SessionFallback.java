@@ -0,0 +1,138 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.mapper.UserSessionMapper;
+import com.example.onlinestore.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Redis 不可用时的会话查询
+ *
+ * {@link #lookup} 只在 Redis 调用失败或熔断打开时使用，依次查询：
+ * - 本地缓存：正常路径从 Redis 读到的会话和这里从 MySQL 查到的会话，按 local-max-size 和 local-ttl 淘汰
+ * - MySQL：按 token 查询 user_sessions 并关联 users，使用主键 (token, expire_date) 的前缀，
+ *   只扫描未过期的日期分区
+ * {@link #recover} 在熔断关闭后的恢复窗口内使用，只查询 MySQL，找回熔断期间登录、只写入了 user_sessions 的会话。
+ *
+ * 两种查询都只返回未过期的会话。Redis 正常时本地缓存不被读取，已从 Redis 删除的会话不会因此复活；
+ * MySQL 中不存在的 token 记入 negative-ttl 的否定缓存，同一个无效 token 重复请求时不再查询数据库。
+ * 指标：session.fallback（按 source 区分 local、mysql、miss）。
+ */
+@Component
+public class SessionFallback {
+
+    @Value("${user.session.fallback.enabled:true}")
+    private boolean enabled;
+
+    @Value("${user.session.fallback.local-max-size:100000}")
+    private long localMaxSize;
+
+    @Value("${user.session.fallback.local-ttl:PT30M}")
+    private Duration localTtl;
+
+    @Value("${user.session.fallback.negative-ttl:PT1M}")
+    private Duration negativeTtl;
+
+    @Autowired
+    private UserSessionMapper userSessionMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, User> sessions;
+    private Cache<String, Boolean> absent;
+    private Counter localHits;
+    private Counter mysqlHits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        sessions = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(localTtl)
+            .build();
+        absent = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(negativeTtl)
+            .build();
+        localHits = counter("local");
+        mysqlHits = counter("mysql");
+        misses = counter("miss");
+    }
+
+    /**
+     * 记录正常路径读到的会话，每个请求都会调用，已记录的会话不再写入
+     */
+    public void remember(String token, User user) {
+        if (enabled && sessions.getIfPresent(token) == null) {
+            sessions.put(token, user);
+        }
+    }
+
+    /**
+     * Redis 不可用时按 token 查询会话，先查本地缓存再查 MySQL
+     *
+     * @return 用户信息；未开启降级、token 不存在或已过期时返回 null
+     * @throws org.springframework.dao.DataAccessException 查询 MySQL 失败
+     */
+    public User lookup(String token) {
+        if (!enabled) {
+            return null;
+        }
+        User user = sessions.getIfPresent(token);
+        if (user != null && isValid(user, LocalDateTime.now())) {
+            localHits.increment();
+            return user;
+        }
+        return queryMySql(token);
+    }
+
+    /**
+     * 熔断恢复窗口内 Redis 中没有 token 时，从 MySQL 找回熔断期间登录的会话，不读取本地缓存
+     *
+     * @return 用户信息；未开启降级、token 不存在或已过期时返回 null
+     * @throws org.springframework.dao.DataAccessException 查询 MySQL 失败
+     */
+    public User recover(String token) {
+        if (!enabled) {
+            return null;
+        }
+        return queryMySql(token);
+    }
+
+    private User queryMySql(String token) {
+        if (absent.getIfPresent(token) != null) {
+            misses.increment();
+            return null;
+        }
+        User user = userSessionMapper.findUserByToken(token);
+        if (user == null || !isValid(user, LocalDateTime.now())) {
+            absent.put(token, Boolean.TRUE);
+            misses.increment();
+            return null;
+        }
+        sessions.put(token, user);
+        mysqlHits.increment();
+        return user;
+    }
+
+    private static boolean isValid(User user, LocalDateTime now) {
+        return user.getTokenExpireTime() != null && user.getTokenExpireTime().isAfter(now);
+    }
+
+    private Counter counter(String source) {
+        return Counter.builder("session.fallback")
+            .tag("source", source)
+            .description("未从 Redis 取得会话时的降级查询次数")
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.dto.UserImportReport;
+import com.example.onlinestore.mapper.UserMapper;
+import com.example.onlinestore.model.User;
+import com.example.onlinestore.service.UserImportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量用户导入服务
+ *
+ * 以流的方式逐行读取 CSV（第一列为用户名）或 NDJSON（{"username": "..."}）文件，
+ * 按 chunk-size 分块，块内去重后再与数据库已有用户名去重，最后通过 BATCH 执行器的
+ * 多行 INSERT 写入。每 commit-interval 个块提交一次事务，内存占用只与块大小相关，与文件大小无关。
+ *
+ * 配置示例：
+ * <pre>
+ * user:
+ *   import:
+ *     chunk-size: 1000
+ *     commit-interval: 10
+ *     reject-sample-limit: 100
+ * </pre>
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportServiceImpl.class);
+    private static final int MAX_USERNAME_LENGTH = 50;
+    private static final String CSV_HEADER = "username";
+
+    @Value("${user.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${user.import.commit-interval:10}")
+    private int commitInterval;
+
+    @Value("${user.import.reject-sample-limit:100}")
+    private int rejectSampleLimit;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserVersionStamp userVersionStamp;
+
+    private SqlSession batchSession;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        // 不能注册为 Bean，否则 @MapperScan 扫描出的 Mapper 会按类型注入到这个 BATCH 模板上
+        this.batchSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public UserImportReport importUsers(InputStream input, ImportFormat format) throws IOException {
+        long startNanos = System.nanoTime();
+        UserImportReport report = new UserImportReport();
+        UserMapper batchMapper = batchSession.getMapper(UserMapper.class);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            LineCursor cursor = new LineCursor(reader);
+            boolean hasMore = true;
+            while (hasMore) {
+                long insertedBefore = report.getInserted();
+                // 每个事务处理 commitInterval 个块，事务结束即提交
+                hasMore = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                    for (int i = 0; i < commitInterval; i++) {
+                        Set<String> chunk = readChunk(cursor, format, report);
+                        if (!chunk.isEmpty()) {
+                            insertChunk(batchMapper, chunk, report);
+                        }
+                        if (cursor.exhausted) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+                if (report.getInserted() > insertedBefore) {
+                    userVersionStamp.bump();
+                }
+                logProgress(report, startNanos);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        report.setThroughputPerSecond(throughput(report.getProcessed(), elapsedNanos));
+        logger.info("用户导入完成: 处理 {} 行，新增 {}，重复 {}，拒绝 {}，耗时 {}ms",
+            report.getProcessed(), report.getInserted(), report.getDuplicates(),
+            report.getRejected(), report.getElapsedMillis());
+        return report;
+    }
+
+    private Set<String> readChunk(LineCursor cursor, ImportFormat format, UserImportReport report) {
+        Set<String> chunk = new LinkedHashSet<>();
+        String line;
+        while (chunk.size() < chunkSize && (line = cursor.next()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == ImportFormat.CSV && cursor.lineNumber == 1
+                    && CSV_HEADER.equalsIgnoreCase(parseCsvUsername(line))) {
+                continue;
+            }
+            report.setProcessed(report.getProcessed() + 1);
+
+            String username;
+            try {
+                username = format == ImportFormat.CSV ? parseCsvUsername(line) : parseJsonUsername(line);
+            } catch (IOException e) {
+                reject(report, cursor.lineNumber, "JSON格式错误");
+                continue;
+            }
+            String reason = validate(username);
+            if (reason != null) {
+                reject(report, cursor.lineNumber, reason);
+                continue;
+            }
+            if (!chunk.add(username)) {
+                report.setDuplicates(report.getDuplicates() + 1);
+            }
+        }
+        return chunk;
+    }
+
+    private void insertChunk(UserMapper batchMapper, Set<String> chunk, UserImportReport report) {
+        // BATCH 执行器在查询前会先刷出未执行的语句，因此之前块插入的用户名也能查到
+        Set<String> existing = new HashSet<>(batchMapper.findExistingUsernames(chunk));
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(chunk.size());
+        for (String username : chunk) {
+            if (existing.contains(username)) {
+                continue;
+            }
+            User user = new User();
+            user.setUsername(username);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            users.add(user);
+        }
+        report.setDuplicates(report.getDuplicates() + existing.size());
+        if (users.isEmpty()) {
+            return;
+        }
+
+        batchMapper.batchInsertUsers(users);
+        // INSERT IGNORE 会跳过与并发登录冲突的用户名，以实际影响行数为准
+        long inserted = 0;
+        for (BatchResult result : batchSession.flushStatements()) {
+            for (int count : result.getUpdateCounts()) {
+                inserted += Math.max(count, 0);
+            }
+        }
+        report.setInserted(report.getInserted() + inserted);
+        report.setDuplicates(report.getDuplicates() + users.size() - inserted);
+    }
+
+    private String parseCsvUsername(String line) {
+        int comma = line.indexOf(',');
+        String value = (comma >= 0 ? line.substring(0, comma) : line).trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).replace("\"\"", "\"");
+        }
+        return value;
+    }
+
+    private String parseJsonUsername(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        JsonNode username = node == null ? null : node.get("username");
+        return username == null || !username.isTextual() ? null : username.asText().trim();
+    }
+
+    private String validate(String username) {
+        if (username == null || username.isEmpty()) {
+            return "用户名为空";
+        }
+        if (username.length() > MAX_USERNAME_LENGTH) {
+            return "用户名超过" + MAX_USERNAME_LENGTH + "个字符";
+        }
+        for (int i = 0; i < username.length(); i++) {
+            char c = username.charAt(i);
+            if (Character.isWhitespace(c) || Character.isISOControl(c)) {
+                return "用户名包含空白或控制字符";
+            }
+        }
+        return null;
+    }
+
+    private void reject(UserImportReport report, long lineNumber, String reason) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getRejectSamples().size() < rejectSampleLimit) {
+            report.getRejectSamples().add("第" + lineNumber + "行: " + reason);
+        }
+    }
+
+    private void logProgress(UserImportReport report, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        logger.info("用户导入进度: 已处理 {} 行，新增 {}，重复 {}，拒绝 {}，速率 {} 行/秒",
+            report.getProcessed(), report.getInserted(), report.getDuplicates(),
+            report.getRejected(), throughput(report.getProcessed(), elapsedNanos));
+    }
+
+    private static long throughput(long count, long elapsedNanos) {
+        return elapsedNanos <= 0 ? count : count * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * 逐行读取并记录行号，IO 异常包装为 UncheckedIOException，在事务回调外还原
+     */
+    private static class LineCursor {
+        private final BufferedReader reader;
+        private long lineNumber;
+        private boolean exhausted;
+
+        LineCursor(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        String next() {
+            try {
+                String line = reader.readLine();
+                if (line == null) {
+                    exhausted = true;
+                } else {
+                    lineNumber++;
+                }
+                return line;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,43 +1,61 @@
 package com.example.onlinestore.service.impl;
 
+import com.example.onlinestore.client.UserAuthClient;
+import com.example.onlinestore.concurrent.SingleFlight;
+import com.example.onlinestore.config.PerformanceProperties;
+import com.example.onlinestore.event.PerformanceSettingsChangedEvent;
+import com.example.onlinestore.logging.LogSampler;
 import com.example.onlinestore.dto.LoginRequest;
 import com.example.onlinestore.dto.LoginResponse;
 import com.example.onlinestore.dto.PageResponse;
 import com.example.onlinestore.dto.UserPageRequest;
 import com.example.onlinestore.dto.UserVO;
+import com.example.onlinestore.jfr.LoginStageEvent;
+import com.example.onlinestore.jfr.TokenLookupEvent;
 import com.example.onlinestore.model.User;
+import com.example.onlinestore.model.UserSession;
 import com.example.onlinestore.mapper.UserMapper;
+import com.example.onlinestore.mapper.UserSessionMapper;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.redis.RedisCircuitBreaker;
+import com.example.onlinestore.security.CredentialCache;
+import com.example.onlinestore.security.TokenGenerator;
+import com.example.onlinestore.service.CartService;
 import com.example.onlinestore.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.client.HttpClientErrorException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
-    private final ObjectMapper objectMapper;
-
-    public UserServiceImpl() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-    }
+    private final SingleFlight<String, LoginResponse> loginFlight = new SingleFlight<>();
+    // 每个请求都会经过 getUserByToken，token 失效或 Redis 故障时按分钟抽样输出
+    private final LogSampler invalidTokenLog = new LogSampler(Duration.ofMinutes(1), 10);
+    private final LogSampler sessionReadFailureLog = new LogSampler(Duration.ofMinutes(1), 5);
 
     @Value("${admin.auth.username}")
     private String adminUsername;
@@ -45,34 +63,67 @@ public class UserServiceImpl implements UserService {
     @Value("${admin.auth.password}")
     private String adminPassword;
 
-    @Value("${service.user.base-url}")
-    private String userServiceBaseUrl;
+    // token 有效期，可在运行时调整，只影响之后签发的 token
+    @Value("${user.token.ttl:P1D}")
+    private volatile Duration tokenTtl;
 
-    private static final String AUTH_PATH = "/auth";
     private static final String TOKEN_PREFIX = "token:";
-    private static final long TOKEN_EXPIRE_DAYS = 1;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private UserAuthClient userAuthClient;
+
+    @Autowired
+    private CredentialCache credentialCache;
 
     @Autowired
     private UserMapper userMapper;
 
     @Autowired
-    private StringRedisTemplate redisTemplate;
+    private UserSessionMapper userSessionMapper;
+
+    @Autowired
+    private RedisAccessor redisAccessor;
+
+    @Autowired
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Autowired
+    private SessionFallback sessionFallback;
+
+    @Autowired
+    private UserVersionStamp userVersionStamp;
+
+    @Autowired
+    private TokenGenerator tokenGenerator;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    @Qualifier("queryExecutor")
+    private Executor queryExecutor;
 
     @Autowired
     private MessageSource messageSource;
 
+    /** 与 HTTP 响应共用 Spring 的 ObjectMapper，见 JacksonConfig */
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
-    @Transactional
     public LoginResponse login(LoginRequest request) {
+        // 同一用户名、同一密码的并发登录（客户端重试、多标签页）只认证和持久化一次，共享同一个 token；
+        // 键中只保存密码摘要，密码不同的请求不会合并，各自独立认证；携带的游客购物车不同也不合并
+        return loginFlight.execute(loginFlightKey(request), () -> doLogin(request));
+    }
+
+    private LoginResponse doLogin(LoginRequest request) {
         // 先检查是否是管理员用户
         if (adminUsername.equals(request.getUsername())) {
             // 如果是管理员，验证密码
             if (adminPassword.equals(request.getPassword())) {
                 logger.info("管理员快速登录");
-                return createLoginResponse(request.getUsername());
+                return createLoginResponse(request.getUsername(), request.getGuestCartId());
             } else {
                 logger.warn("管理员密码错误");
                 throw new IllegalArgumentException(messageSource.getMessage(
@@ -80,55 +131,109 @@ public class UserServiceImpl implements UserService {
             }
         }
 
-        // 非管理员用户，调用user-service进行认证
-        String authUrl = UriComponentsBuilder.fromHttpUrl(userServiceBaseUrl)
-            .path(AUTH_PATH)
-            .toUriString();
-        Boolean isAuthenticated = restTemplate.postForObject(authUrl, request, Boolean.class);
-        
-        if (isAuthenticated == null || !isAuthenticated) {
+        // 非管理员用户，ttl 内用同一密码登录过的直接通过，否则调用user-service进行认证
+        LoginStageEvent stage = LoginStageEvent.start("authenticate");
+        boolean isAuthenticated = credentialCache.verify(request.getUsername(), request.getPassword());
+        if (!isAuthenticated) {
+            try {
+                isAuthenticated = userAuthClient.authenticate(request);
+            } catch (HttpClientErrorException e) {
+                // 4xx 拒绝（如账号停用、锁定）同样视为账号状态变化
+                credentialCache.invalidate(request.getUsername());
+                throw e;
+            }
+            // 被拒绝时失效缓存：失败次数触发的锁定对之后命中缓存的登录同样生效
+            if (isAuthenticated) {
+                credentialCache.put(request.getUsername(), request.getPassword());
+            } else {
+                credentialCache.invalidate(request.getUsername());
+            }
+        }
+        stage.commit();
+
+        if (!isAuthenticated) {
             throw new IllegalArgumentException(messageSource.getMessage(
                 "error.invalid.credentials", null, LocaleContextHolder.getLocale()));
         }
 
-        return createLoginResponse(request.getUsername());
+        return createLoginResponse(request.getUsername(), request.getGuestCartId());
     }
 
-    private LoginResponse createLoginResponse(String username) {
+    private LoginResponse createLoginResponse(String username, String guestCartId) {
         // 生成token
-        String token = UUID.randomUUID().toString();
-        LocalDateTime expireTime = LocalDateTime.now().plusDays(TOKEN_EXPIRE_DAYS);
+        String token = tokenGenerator.nextToken();
+        Duration ttl = tokenTtl;
+        LocalDateTime expireTime = LocalDateTime.now().plus(ttl);
 
         // 查找或创建用户
+        LoginStageEvent stage = LoginStageEvent.start("findOrCreateUser");
         User user = userMapper.findByUsername(username);
         if (user == null) {
             // 用户不存在，创建新用户
             user = new User();
             user.setUsername(username);
-            user.setToken(token);
-            user.setTokenExpireTime(expireTime);
             user.setCreatedAt(LocalDateTime.now());
             user.setUpdatedAt(LocalDateTime.now());
-            userMapper.insertUser(user);
-            logger.info("创建新用户: {}", username);
+            try {
+                userMapper.insertUser(user);
+                userVersionStamp.bump();
+                logger.info("创建新用户: {}", username);
+            } catch (DuplicateKeyException e) {
+                // 其他实例或不同密码的并发登录已创建该用户，改用已存在的记录
+                logger.info("用户已被并发创建: {}", username);
+                user = userMapper.findByUsername(username);
+                if (user == null) {
+                    throw e;
+                }
+            }
+        }
+        stage.commit();
+
+        // 会话写入独立的 user_sessions 表，不再每次登录都改写 users 行
+        UserSession session = new UserSession();
+        session.setToken(token);
+        session.setUserId(user.getId());
+        session.setExpireTime(expireTime);
+        session.setExpireDate(expireTime.toLocalDate());
+        session.setCreatedAt(LocalDateTime.now());
+        stage = LoginStageEvent.start("persistSession");
+        userSessionMapper.insertSession(session);
+        stage.commit();
+        logger.debug("创建用户会话: {}", username);
+
+        user.setToken(token);
+        user.setTokenExpireTime(expireTime);
+
+        if (redisCircuitBreaker.isOpen()) {
+            // Redis 不可用，会话已写入 user_sessions，之后由降级查询找到
+            sessionFallback.remember(token, user);
         } else {
-            // 更新现有用户的token
-            user.setToken(token);
-            user.setTokenExpireTime(expireTime);
-            user.setUpdatedAt(LocalDateTime.now());
-            userMapper.updateUserToken(user);
-            logger.info("更新用户token: {}", username);
+            try {
+                // 将用户信息转换为JSON并保存到Redis
+                String redisKey = TOKEN_PREFIX + token;
+                stage = LoginStageEvent.start("cacheSession");
+                String userJson = objectMapper.writeValueAsString(user);
+                redisAccessor.set(redisKey, userJson, ttl.toMillis(), TimeUnit.MILLISECONDS);
+                redisCircuitBreaker.recordSuccess();
+                stage.commit();
+                logger.debug("用户信息已缓存到Redis: {}", username);
+            } catch (Exception e) {
+                logger.error("缓存用户信息失败", e);
+                // 继续处理，因为这不是致命错误：会话已写入 user_sessions，降级查询可以找到
+                redisCircuitBreaker.recordFailure();
+                sessionFallback.remember(token, user);
+            }
         }
 
-        try {
-            // 将用户信息转换为JSON并保存到Redis
-            String redisKey = TOKEN_PREFIX + token;
-            String userJson = objectMapper.writeValueAsString(user);
-            redisTemplate.opsForValue().set(redisKey, userJson, TOKEN_EXPIRE_DAYS, TimeUnit.DAYS);
-            logger.info("用户信息已缓存到Redis: {}", username);
-        } catch (Exception e) {
-            logger.error("缓存用户信息失败", e);
-            // 继续处理，因为这不是致命错误
+        if (guestCartId != null) {
+            try {
+                stage = LoginStageEvent.start("mergeCart");
+                cartService.mergeGuestCart(guestCartId, user.getId());
+                stage.commit();
+            } catch (Exception e) {
+                // 合并失败不影响登录，游客购物车保留到过期
+                logger.warn("合并游客购物车失败: {}, {}", guestCartId, e.getMessage());
+            }
         }
 
         // 返回响应
@@ -138,16 +243,15 @@ public class UserServiceImpl implements UserService {
         return response;
     }
 
-    private UserVO convertToVO(User user) {
-        if (user == null) {
-            return null;
+    private static String loginFlightKey(LoginRequest request) {
+        String password = request.getPassword() == null ? "" : request.getPassword();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return request.getUsername() + ":" + HexFormat.of().formatHex(
+                digest.digest(password.getBytes(StandardCharsets.UTF_8))) + ":" + request.getGuestCartId();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
         }
-        UserVO vo = new UserVO();
-        vo.setId(user.getId());
-        vo.setUsername(user.getUsername());
-        vo.setCreatedAt(user.getCreatedAt());
-        vo.setUpdatedAt(user.getUpdatedAt());
-        return vo;
     }
 
     @Override
@@ -156,18 +260,23 @@ public class UserServiceImpl implements UserService {
         int offset = (request.getPageNum() - 1) * request.getPageSize();
         int limit = request.getPageSize();
 
-        // 查询数据
-        List<User> users = userMapper.findAllWithPagination(offset, limit);
-        long total = userMapper.countTotal();
-
-        // 转换为VO
-        List<UserVO> userVOs = users.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList());
+        // 分页查询和总数统计相互独立，在查询线程池中并行执行
+        CompletableFuture<Long> totalFuture = CompletableFuture.supplyAsync(userMapper::countTotal, queryExecutor);
+        // 查询结果直接映射为 UserVO，由 Jackson 序列化，不再逐条从 User 复制
+        List<UserVO> records = userMapper.findPageRecords(offset, limit);
+        long total;
+        try {
+            total = totalFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
 
         // 构建响应
         PageResponse<UserVO> response = new PageResponse<>();
-        response.setRecords(userVOs);
+        response.setRecords(records);
         response.setTotal(total);
         response.setPageNum(request.getPageNum());
         response.setPageSize(request.getPageSize());
@@ -175,19 +284,113 @@ public class UserServiceImpl implements UserService {
         return response;
     }
 
+    @Override
+    public String getUserListVersion() {
+        return userVersionStamp.current();
+    }
+
+    @EventListener
+    public void onSettingsChanged(PerformanceSettingsChangedEvent event) {
+        if (event.affects(PerformanceProperties.TOKEN)) {
+            tokenTtl = event.getSettings().getToken().getTtl();
+            logger.info("token 有效期已更新为 {}", tokenTtl);
+        }
+    }
+
+    /**
+     * 按 token 查询用户
+     *
+     * 正常情况下只读 Redis。Redis 调用失败或 {@link RedisCircuitBreaker} 已打开时改由 {@link SessionFallback}
+     * 查询本地缓存和 MySQL，Redis 短暂故障只增加延迟，不会让所有用户掉线；熔断由后台探测自动关闭。
+     * Redis 正常时未命中直接返回 null；只有熔断关闭后的恢复窗口内才到 MySQL 找回熔断期间登录的会话并写回 Redis。
+     */
     @Override
     public User getUserByToken(String token) {
+        TokenLookupEvent event = new TokenLookupEvent();
+        event.begin();
         try {
-            String redisKey = TOKEN_PREFIX + token;
-            String userJson = redisTemplate.opsForValue().get(redisKey);
+            if (redisCircuitBreaker.isOpen()) {
+                return fallbackUserByToken(token, event);
+            }
+            String userJson;
+            try {
+                userJson = redisAccessor.get(TOKEN_PREFIX + token);
+                redisCircuitBreaker.recordSuccess();
+            } catch (Exception e) {
+                redisCircuitBreaker.recordFailure();
+                long suppressed = sessionReadFailureLog.acquire();
+                if (suppressed >= 0) {
+                    logger.error("从Redis获取用户信息失败，改为降级查询，此前省略 {} 条", suppressed, e);
+                }
+                return fallbackUserByToken(token, event);
+            }
+            event.setHit(userJson != null);
             if (userJson == null) {
-                logger.warn("无效的token: {}", token);
-                return null;
+                if (!redisCircuitBreaker.isRecovering()) {
+                    logInvalidToken(token);
+                    return null;
+                }
+                // 熔断期间登录的会话只写入了 user_sessions，恢复窗口内从 MySQL 找回并重新写入 Redis
+                User user = recoverUserByToken(token, event);
+                if (user != null) {
+                    restoreSession(token, user);
+                }
+                return user;
             }
-            return objectMapper.readValue(userJson, User.class);
+            User user = objectMapper.readValue(userJson, User.class);
+            sessionFallback.remember(token, user);
+            return user;
         } catch (Exception e) {
-            logger.error("从Redis获取用户信息失败", e);
+            logger.error("解析用户信息失败: {}", TokenGenerator.redact(token), e);
             return null;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private User fallbackUserByToken(String token, TokenLookupEvent event) {
+        return querySessionFallback(token, event, sessionFallback::lookup);
+    }
+
+    private User recoverUserByToken(String token, TokenLookupEvent event) {
+        return querySessionFallback(token, event, sessionFallback::recover);
+    }
+
+    private User querySessionFallback(String token, TokenLookupEvent event, Function<String, User> query) {
+        User user;
+        try {
+            user = query.apply(token);
+        } catch (Exception e) {
+            long suppressed = sessionReadFailureLog.acquire();
+            if (suppressed >= 0) {
+                logger.error("降级查询用户信息失败，此前省略 {} 条", suppressed, e);
+            }
+            return null;
+        }
+        event.setHit(user != null);
+        if (user == null) {
+            logInvalidToken(token);
+        }
+        return user;
+    }
+
+    private void restoreSession(String token, User user) {
+        long remaining = Duration.between(LocalDateTime.now(), user.getTokenExpireTime()).toMillis();
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            redisAccessor.set(TOKEN_PREFIX + token, objectMapper.writeValueAsString(user), remaining,
+                TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logger.debug("会话写回Redis失败: {}", e.getMessage());
+        }
+    }
+
+    private void logInvalidToken(String token) {
+        long suppressed = invalidTokenLog.acquire();
+        if (suppressed >= 0) {
+            logger.warn("无效的token: {}，此前省略 {} 条", TokenGenerator.redact(token), suppressed);
         }
     }
-} 
\ No newline at end of file
+}
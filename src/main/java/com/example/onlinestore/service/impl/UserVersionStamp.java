@@ -0,0 +1,78 @@
+package com.example.onlinestore.service.impl;
+
+import com.example.onlinestore.redis.RedisAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * users 表版本号
+ *
+ * 版本号保存在 Redis 的 users:version 中，每次新增用户后递增，用户列表以它生成 ETag。
+ * 递增放在事务提交之后执行：若在提交前递增，并发的列表请求可能用新版本号标记提交前的旧数据，
+ * 之后客户端会一直拿到 304。
+ *
+ * 键不存在时（首次使用或 Redis 被清空）以当前毫秒时间初始化，避免与清空前发出的 ETag 重号。
+ * Redis 不可用时 {@link #current()} 返回 null，调用方应放弃条件请求、直接查询数据库。
+ */
+@Component
+public class UserVersionStamp {
+    private static final Logger logger = LoggerFactory.getLogger(UserVersionStamp.class);
+
+    private static final String VERSION_KEY = "users:version";
+
+    @Autowired
+    private RedisAccessor redisAccessor;
+
+    /**
+     * 获取当前版本号
+     *
+     * @return 版本号，Redis 不可用时返回 null
+     */
+    public String current() {
+        try {
+            String version = redisAccessor.get(VERSION_KEY);
+            if (version == null) {
+                redisAccessor.setIfAbsent(VERSION_KEY, String.valueOf(System.currentTimeMillis()));
+                version = redisAccessor.get(VERSION_KEY);
+            }
+            return version;
+        } catch (Exception e) {
+            logger.warn("读取用户版本号失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 递增版本号，处于事务中时延迟到事务提交之后
+     */
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment();
+                }
+            });
+        } else {
+            increment();
+        }
+    }
+
+    private void increment() {
+        try {
+            redisAccessor.increment(VERSION_KEY);
+        } catch (Exception e) {
+            // 递增失败时旧 ETag 仍会命中，删除键让下次读取重新初始化
+            logger.error("递增用户版本号失败", e);
+            try {
+                redisAccessor.delete(VERSION_KEY);
+            } catch (Exception ignored) {
+                // Redis 整体不可用，读取时同样会失败并回退到直接查询
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.onlinestore.startup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 启动耗时记录
+ *
+ * 记录从 JVM 启动到应用就绪、到首个请求处理完成的耗时，输出日志并注册为指标
+ * application.first.request.time，供 scripts/startup-benchmark.sh 在不同构建之间对比。
+ *
+ * 当 startup.training-run=true 时，应用就绪后立即退出，用于构建 AppCDS 归档的训练运行。
+ */
+@Component
+public class StartupTimeRecorder extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimeRecorder.class);
+
+    @Value("${startup.training-run:false}")
+    private boolean trainingRun;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile boolean firstRequestRecorded;
+    private volatile long firstRequestMillis = -1;
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        long readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        logger.info("应用启动完成，JVM 启动至就绪耗时 {}ms", readyMillis);
+        Gauge.builder("application.first.request.time", this, recorder -> recorder.firstRequestMillis)
+            .baseUnit("milliseconds")
+            .description("JVM 启动到首个请求处理完成的耗时")
+            .register(meterRegistry);
+
+        if (trainingRun) {
+            logger.info("训练运行结束，退出以生成 AppCDS 归档");
+            System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!firstRequestRecorded) {
+                recordFirstRequest(request);
+            }
+        }
+    }
+
+    private synchronized void recordFirstRequest(HttpServletRequest request) {
+        if (firstRequestRecorded) {
+            return;
+        }
+        firstRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        firstRequestRecorded = true;
+        logger.info("首个请求 {} 处理完成，JVM 启动至首个请求耗时 {}ms",
+            request.getRequestURI(), firstRequestMillis);
+    }
+}
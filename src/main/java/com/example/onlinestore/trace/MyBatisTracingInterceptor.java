@@ -0,0 +1,44 @@
+package com.example.onlinestore.trace;
+
+import com.example.onlinestore.jfr.MapperStatementEvent;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * 为每条 Mapper 语句记录一个 mybatis span，detail 为语句 ID，如 com.example.onlinestore.mapper.UserMapper.findByUsername，
+ * 同时提交 JFR 事件 {@link MapperStatementEvent}
+ *
+ * 耗时包含等待连接、执行 SQL 和映射结果。
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class MyBatisTracingInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        int span = Tracer.begin("mybatis", statement.getId());
+        MapperStatementEvent event = new MapperStatementEvent();
+        event.begin();
+        try {
+            return invocation.proceed();
+        } finally {
+            event.setStatement(statement.getId());
+            event.commit();
+            Tracer.end(span);
+        }
+    }
+}
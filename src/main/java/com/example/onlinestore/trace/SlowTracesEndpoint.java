@@ -0,0 +1,31 @@
+package com.example.onlinestore.trace;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 请求追踪查看端点：GET /actuator/slowtraces
+ *
+ * slow 为最近的慢请求，sampled 为最近抽样保留的普通请求，可作为对照。
+ */
+@Component
+@Endpoint(id = "slowtraces")
+public class SlowTracesEndpoint {
+
+    @Autowired
+    private TraceRecorder traceRecorder;
+
+    @ReadOperation
+    public Map<String, List<Trace>> traces() {
+        Map<String, List<Trace>> traces = new LinkedHashMap<>();
+        traces.put("slow", traceRecorder.slowTraces());
+        traces.put("sampled", traceRecorder.sampledTraces());
+        return traces;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.onlinestore.trace;
+
+import java.util.List;
+
+/**
+ * 一次请求的追踪快照，时间单位为微秒
+ */
+public class Trace {
+    private final String method;
+    private final String uri;
+    private final int status;
+    private final long startedAt;
+    private final long durationMicros;
+    private final boolean slow;
+    private final List<Span> spans;
+    private final int droppedSpans;
+
+    Trace(String method, String uri, int status, long startedAt, long durationMicros, boolean slow,
+          List<Span> spans, int droppedSpans) {
+        this.method = method;
+        this.uri = uri;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.durationMicros = durationMicros;
+        this.slow = slow;
+        this.spans = spans;
+        this.droppedSpans = droppedSpans;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /** 请求路径，不含查询参数 */
+    public String getUri() {
+        return uri;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /** 请求开始时间（毫秒时间戳） */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    /** 是否因超过慢请求阈值而记录；否则为按比例抽样记录 */
+    public boolean isSlow() {
+        return slow;
+    }
+
+    /** 按开始顺序排列的 span */
+    public List<Span> getSpans() {
+        return spans;
+    }
+
+    /** 因超出缓冲容量而被覆盖的最早的 span 个数 */
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    public static class Span {
+        private final String name;
+        private final String detail;
+        private final int depth;
+        private final long offsetMicros;
+        private final long durationMicros;
+
+        Span(String name, String detail, int depth, long offsetMicros, long durationMicros) {
+            this.name = name;
+            this.detail = detail;
+            this.depth = depth;
+            this.offsetMicros = offsetMicros;
+            this.durationMicros = durationMicros;
+        }
+
+        /** 类别，如 redis、mybatis、http、service */
+        public String getName() {
+            return name;
+        }
+
+        /** 具体操作，如命令名、Mapper 语句 ID */
+        public String getDetail() {
+            return detail;
+        }
+
+        /** 嵌套深度，从 0 开始 */
+        public int getDepth() {
+            return depth;
+        }
+
+        /** 相对请求开始的时间 */
+        public long getOffsetMicros() {
+            return offsetMicros;
+        }
+
+        /** 耗时；请求结束时仍未结束的 span 为 -1 */
+        public long getDurationMicros() {
+            return durationMicros;
+        }
+    }
+}
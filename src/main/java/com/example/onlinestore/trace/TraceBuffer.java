@@ -0,0 +1,98 @@
+package com.example.onlinestore.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单个线程上当前请求的 span 缓冲
+ *
+ * 每个线程持有一个缓冲，创建时按容量一次性分配全部数组，之后的请求复用同一缓冲，记录 span 不产生任何对象。
+ * span 按开始顺序写入环形数组，超过容量时覆盖最早的 span，快照中记录被覆盖的个数。
+ * 只在所属线程上读写，不需要同步；请求结束时复制为不可变的 {@link Trace}。
+ */
+final class TraceBuffer {
+
+    private final int mask;
+    private final String[] names;
+    private final String[] details;
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] depths;
+
+    private boolean active;
+    private int count;
+    private int depth;
+    private long requestStart;
+
+    TraceBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.mask = size - 1;
+        this.names = new String[size];
+        this.details = new String[size];
+        this.starts = new long[size];
+        this.ends = new long[size];
+        this.depths = new int[size];
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    void reset(long now) {
+        active = true;
+        count = 0;
+        depth = 0;
+        requestStart = now;
+    }
+
+    /**
+     * @return span 序号，传给 {@link #end(int, long)}
+     */
+    int begin(String name, String detail, long now) {
+        int seq = count++;
+        int slot = seq & mask;
+        names[slot] = name;
+        details[slot] = detail;
+        starts[slot] = now;
+        ends[slot] = 0;
+        depths[slot] = depth++;
+        return seq;
+    }
+
+    void end(int seq, long now) {
+        depth--;
+        // 已被之后的 span 覆盖时只回退深度
+        if (count - seq <= names.length) {
+            ends[seq & mask] = now;
+        }
+    }
+
+    long requestStart() {
+        return requestStart;
+    }
+
+    /**
+     * 结束当前请求，不再记录 span
+     */
+    void deactivate() {
+        active = false;
+    }
+
+    /**
+     * 复制为快照，并清除对 span 名称的引用
+     */
+    Trace snapshot(String method, String uri, int status, long startedAtMillis, long end, boolean slow) {
+        int size = names.length;
+        int kept = Math.min(count, size);
+        List<Trace.Span> spans = new ArrayList<>(kept);
+        for (int seq = count - kept; seq < count; seq++) {
+            int slot = seq & mask;
+            long spanEnd = ends[slot];
+            spans.add(new Trace.Span(names[slot], details[slot], depths[slot],
+                (starts[slot] - requestStart) / 1000,
+                spanEnd == 0 ? -1 : (spanEnd - starts[slot]) / 1000));
+        }
+        return new Trace(method, uri, status, startedAtMillis, (end - requestStart) / 1000, slow,
+            spans, count - kept);
+    }
+}
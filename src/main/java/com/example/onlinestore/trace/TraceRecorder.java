@@ -0,0 +1,133 @@
+package com.example.onlinestore.trace;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 请求追踪记录
+ *
+ * 每个请求都记录 span，请求结束后才决定是否保留（尾部采样）：
+ * - 耗时达到 trace.slow-threshold 的请求全部保留
+ * - 其余请求按 trace.sample-rate 的比例抽样保留
+ *
+ * 两类快照各保留最近的 trace.retained 条，通过 /actuator/slowtraces 查看。
+ * 未保留的请求只在线程私有的缓冲中写入数组元素，不产生对象，也不需要任何外部采集服务。
+ */
+@Component
+public class TraceRecorder {
+
+    @Value("${trace.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trace.slow-threshold:PT0.5S}")
+    private Duration slowThreshold;
+
+    @Value("${trace.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${trace.max-spans:256}")
+    private int maxSpans;
+
+    @Value("${trace.retained:50}")
+    private int retained;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Deque<Trace> slowTraces = new ArrayDeque<>();
+    private final Deque<Trace> sampledTraces = new ArrayDeque<>();
+    private long slowThresholdNanos;
+    private Counter slowCounter;
+    private Counter sampledCounter;
+
+    @PostConstruct
+    public void init() {
+        slowThresholdNanos = slowThreshold.toNanos();
+        slowCounter = recordedCounter("slow");
+        sampledCounter = recordedCounter("sampled");
+    }
+
+    /**
+     * 在当前线程上开始追踪一个请求
+     *
+     * @return 是否开始追踪；关闭追踪时为 false
+     */
+    public boolean start() {
+        if (!enabled) {
+            return false;
+        }
+        Tracer.buffer(maxSpans).reset(System.nanoTime());
+        return true;
+    }
+
+    /**
+     * 结束当前线程上的请求，按耗时和采样比例决定是否保留
+     */
+    public void finish(String method, String uri, int status) {
+        TraceBuffer buffer = Tracer.buffer(maxSpans);
+        if (!buffer.isActive()) {
+            return;
+        }
+        buffer.deactivate();
+        long end = System.nanoTime();
+        long elapsed = end - buffer.requestStart();
+        boolean slow = elapsed >= slowThresholdNanos;
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis() - elapsed / 1_000_000;
+        Trace trace = buffer.snapshot(method, uri, status, startedAt, end, slow);
+        if (slow) {
+            slowCounter.increment();
+            retain(slowTraces, trace);
+        } else {
+            sampledCounter.increment();
+            retain(sampledTraces, trace);
+        }
+    }
+
+    /**
+     * 最近的慢请求，最新的在前
+     */
+    public List<Trace> slowTraces() {
+        synchronized (slowTraces) {
+            return new ArrayList<>(slowTraces);
+        }
+    }
+
+    /**
+     * 最近抽样保留的请求，最新的在前
+     */
+    public List<Trace> sampledTraces() {
+        synchronized (sampledTraces) {
+            return new ArrayList<>(sampledTraces);
+        }
+    }
+
+    private void retain(Deque<Trace> traces, Trace trace) {
+        synchronized (traces) {
+            traces.addFirst(trace);
+            while (traces.size() > retained) {
+                traces.removeLast();
+            }
+        }
+    }
+
+    private Counter recordedCounter(String kind) {
+        return Counter.builder("trace.recorded")
+            .tag("kind", kind)
+            .description("保留的请求追踪数")
+            .register(meterRegistry);
+    }
+}
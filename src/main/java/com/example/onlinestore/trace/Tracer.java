@@ -0,0 +1,68 @@
+package com.example.onlinestore.trace;
+
+/**
+ * 进程内请求追踪的 span 记录入口
+ *
+ * 在需要计时的代码处成对调用 {@link #begin} 和 {@link #end}，span 记录在当前线程上正在处理的请求中：
+ * <pre>
+ * {@code
+ * int span = Tracer.begin("redis", "get");
+ * try {
+ *     ...
+ * } finally {
+ *     Tracer.end(span);
+ * }
+ * }
+ * </pre>
+ * 当前线程没有正在追踪的请求时（后台任务、线程池中的任务、追踪已关闭）两个方法都只做一次 ThreadLocal 读取。
+ * name 和 detail 只保存引用，应传入常量或已缓存的字符串，避免每次调用拼接新的字符串。
+ */
+public final class Tracer {
+
+    private static final ThreadLocal<TraceBuffer> CURRENT = new ThreadLocal<>();
+
+    private Tracer() {
+    }
+
+    /**
+     * 开始一个 span
+     *
+     * @param name 类别，如 redis、mybatis
+     * @param detail 具体操作
+     * @return span 序号；没有正在追踪的请求时为 -1
+     */
+    public static int begin(String name, String detail) {
+        TraceBuffer buffer = CURRENT.get();
+        if (buffer == null || !buffer.isActive()) {
+            return -1;
+        }
+        return buffer.begin(name, detail, System.nanoTime());
+    }
+
+    /**
+     * 结束 span
+     *
+     * @param span {@link #begin} 的返回值
+     */
+    public static void end(int span) {
+        if (span < 0) {
+            return;
+        }
+        TraceBuffer buffer = CURRENT.get();
+        if (buffer != null && buffer.isActive()) {
+            buffer.end(span, System.nanoTime());
+        }
+    }
+
+    /**
+     * 取当前线程的缓冲，首次使用时按容量创建
+     */
+    static TraceBuffer buffer(int capacity) {
+        TraceBuffer buffer = CURRENT.get();
+        if (buffer == null) {
+            buffer = new TraceBuffer(capacity);
+            CURRENT.set(buffer);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.onlinestore.trace;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * 为 RestTemplate 发出的每个请求记录一个 http span，detail 为目标主机和路径
+ *
+ * 耗时到收到响应头为止，不包含读取响应体。
+ */
+public class TracingHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        int span = Tracer.begin("http", request.getURI().getHost() + request.getURI().getPath());
+        try {
+            return execution.execute(request, body);
+        } finally {
+            Tracer.end(span);
+        }
+    }
+}
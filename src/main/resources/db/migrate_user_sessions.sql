@@ -0,0 +1,16 @@
+-- 将 users 表中的 token 迁移到 user_sessions 表
+-- 执行前请先按 schema.sql 创建 user_sessions 表，并确保应用已启动过一次以创建日期分区
+
+-- 1. 复制仍然有效的会话（已过期的 token 直接丢弃）
+INSERT IGNORE INTO user_sessions (token, user_id, expire_time, expire_date, created_at)
+SELECT token, id, token_expire_time, DATE(token_expire_time), updated_at
+FROM users
+WHERE token IS NOT NULL
+  AND token_expire_time > NOW();
+
+-- 2. 清空旧列中的数据，列本身保留一个版本周期以便回滚
+UPDATE users
+SET token = NULL,
+    token_expire_time = NULL,
+    updated_at = updated_at
+WHERE token IS NOT NULL;
@@ -5,4 +5,123 @@ CREATE TABLE IF NOT EXISTS users (
     token_expire_time DATETIME,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
-); 
\ No newline at end of file
+);
+
+-- 用户会话表，按过期日期分区，过期分区由 SessionPartitionMaintainer 整体删除
+-- 分区表的主键必须包含分区列，因此主键为 (token, expire_date)
+CREATE TABLE IF NOT EXISTS user_sessions (
+    token VARCHAR(100) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expire_time DATETIME NOT NULL,
+    expire_date DATE NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (token, expire_date),
+    KEY idx_user_sessions_user_id (user_id)
+)
+PARTITION BY RANGE COLUMNS (expire_date) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- 商品分类
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    parent_id BIGINT,
+    sort_order INT NOT NULL DEFAULT 0,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- 商品，status: 1 上架，0 下架；下架商品保留记录，供历史订单引用
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    category_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    description TEXT,
+    price DECIMAL(10, 2) NOT NULL,
+    image_url VARCHAR(255),
+    status TINYINT NOT NULL DEFAULT 1,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    KEY idx_products_category_status (category_id, status, id)
+);
+
+-- 商品库存，实时库存以 Redis 为准，由 InventoryMaintainer 定期回写
+-- stock 为未售出库存（含已预占），reserved 为已预占未确认的数量
+CREATE TABLE IF NOT EXISTS inventory (
+    product_id BIGINT PRIMARY KEY,
+    stock INT NOT NULL DEFAULT 0,
+    reserved INT NOT NULL DEFAULT 0,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- 待扣减的库存：订单已写入但预占确认失败，由 InventoryMaintainer 回写库存前补扣后删除
+CREATE TABLE IF NOT EXISTS inventory_deductions (
+    reservation_id VARCHAR(32) PRIMARY KEY,
+    order_no VARCHAR(32) NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 订单，order_no 为对外的订单号；status: 1 已创建
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_no VARCHAR(32) NOT NULL,
+    user_id BIGINT NOT NULL,
+    status TINYINT NOT NULL DEFAULT 1,
+    total_amount DECIMAL(12, 2) NOT NULL,
+    discount_amount DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_orders_order_no (order_no),
+    KEY idx_orders_user_id (user_id, id)
+);
+
+-- 订单明细，商品名称为下单时的快照，价格为促销后的成交单价
+CREATE TABLE IF NOT EXISTS order_items (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_no VARCHAR(32) NOT NULL,
+    product_id BIGINT NOT NULL,
+    product_name VARCHAR(100) NOT NULL,
+    price DECIMAL(10, 2) NOT NULL,
+    quantity INT NOT NULL,
+    KEY idx_order_items_order_no (order_no)
+);
+
+-- 订单事件发件箱，与订单在同一事务中写入，由 OrderOutboxRelay 异步发布
+-- status: 0 待发布，1 已发布，2 格式错误无法发布（不会被清理，待人工处理）
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    aggregate_id VARCHAR(32) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status TINYINT NOT NULL DEFAULT 0,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    published_at DATETIME,
+    KEY idx_order_outbox_status (status, id)
+);
+
+-- 促销规则，由 PricingServiceImpl 定期加载并编译
+-- type: 1 特价（value 为单价，仅限商品范围），2 折扣（value 为折扣百分比），3 满减（tiers 为 门槛:减免 列表）
+-- scope_type: 0 全场，1 分类，2 商品
+-- coupon_code 不为空时为优惠券，结算时需提供券码；member_only 为 1 时仅登录用户享受
+-- status: 0 停用，1 启用
+CREATE TABLE IF NOT EXISTS promotions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    type TINYINT NOT NULL,
+    scope_type TINYINT NOT NULL DEFAULT 0,
+    scope_id BIGINT,
+    value DECIMAL(10, 2),
+    tiers VARCHAR(255),
+    coupon_code VARCHAR(32),
+    member_only TINYINT NOT NULL DEFAULT 0,
+    starts_at DATETIME,
+    ends_at DATETIME,
+    status TINYINT NOT NULL DEFAULT 1,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    KEY idx_promotions_status_ends (status, ends_at)
+);
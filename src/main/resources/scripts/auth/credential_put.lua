@@ -0,0 +1,9 @@
+-- 写入已验证凭据的缓存，密码修改后的墓碑期间不写入
+-- KEYS: 1 缓存键
+-- ARGV: 1 密码的 scrypt 摘要, 2 墓碑值, 3 有效期（毫秒）
+-- 返回 1 表示已写入，0 表示存在墓碑未写入
+if redis.call('GET', KEYS[1]) == ARGV[2] then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+return 1
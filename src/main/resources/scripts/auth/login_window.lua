@@ -0,0 +1,20 @@
+-- 登录尝试的集群滑动窗口
+-- KEYS: 各限流范围的窗口（有序集合，成员为一次尝试，分值为尝试时间），依次为 用户名、IP、用户名+IP
+-- ARGV: 1 窗口长度（毫秒）, 2 本次尝试的成员, 3.. 与 KEYS 一一对应的上限
+-- 返回 {0, 0} 表示放行并计入全部窗口；超出上限时不计入任何窗口，返回 {等待毫秒数, 超限的窗口序号（从 1 开始）}
+-- 使用 Redis 服务端时间，各实例的时钟偏差不影响窗口
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local window = tonumber(ARGV[1])
+for i = 1, #KEYS do
+    redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', now - window)
+    if redis.call('ZCARD', KEYS[i]) >= tonumber(ARGV[i + 2]) then
+        local oldest = redis.call('ZRANGE', KEYS[i], 0, 0, 'WITHSCORES')
+        return {math.max(tonumber(oldest[2]) + window - now, 1), i}
+    end
+end
+for i = 1, #KEYS do
+    redis.call('ZADD', KEYS[i], now, ARGV[2])
+    redis.call('PEXPIRE', KEYS[i], window)
+end
+return {0, 0}
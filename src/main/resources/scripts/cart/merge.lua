@@ -0,0 +1,27 @@
+-- 将游客购物车合并到用户购物车并删除游客购物车
+-- KEYS: 1 游客购物车, 2 用户购物车
+-- ARGV: 1 单个商品数量上限, 2 商品种类上限, 3 用户购物车过期时间（秒）
+-- 同一商品数量相加，超过上限时取上限；用户购物车种类已满时，游客购物车中的新商品被丢弃
+-- 返回合并的商品种类数
+local items = redis.call('HGETALL', KEYS[1])
+if #items == 0 then
+    return 0
+end
+local maxQuantity = tonumber(ARGV[1])
+local maxItems = tonumber(ARGV[2])
+local size = redis.call('HLEN', KEYS[2])
+local merged = 0
+for i = 1, #items, 2 do
+    local existing = redis.call('HGET', KEYS[2], items[i])
+    if existing or size < maxItems then
+        local quantity = tonumber(items[i + 1]) + (tonumber(existing) or 0)
+        redis.call('HSET', KEYS[2], items[i], math.min(quantity, maxQuantity))
+        if not existing then
+            size = size + 1
+        end
+        merged = merged + 1
+    end
+end
+redis.call('DEL', KEYS[1])
+redis.call('EXPIRE', KEYS[2], ARGV[3])
+return merged
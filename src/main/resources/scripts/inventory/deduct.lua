@@ -0,0 +1,22 @@
+-- 扣减确认失败的预占
+-- KEYS: 1 预占记录, 2 可售库存, 3 已预占数量, 4 预占过期队列, 5 待回写商品集合, 6 已扣减标记
+-- ARGV: 1 预占ID, 2 商品ID, 3 数量, 4 已扣减标记的过期时间(毫秒)
+-- 预占仍在时按确认处理；已被释放（库存已归还为可售）时从可售库存中扣回
+-- 返回 1 已扣减；0 此前已扣减；-1 库存未加载到 Redis
+if redis.call('EXISTS', KEYS[6]) == 1 then
+    return 0
+end
+local quantity = tonumber(ARGV[3])
+if redis.call('HGET', KEYS[1], 'productId') == ARGV[2] then
+    redis.call('DECRBY', KEYS[3], quantity)
+    redis.call('DEL', KEYS[1])
+    redis.call('ZREM', KEYS[4], ARGV[1])
+else
+    if redis.call('EXISTS', KEYS[2]) == 0 then
+        return -1
+    end
+    redis.call('DECRBY', KEYS[2], quantity)
+end
+redis.call('SADD', KEYS[5], ARGV[2])
+redis.call('SET', KEYS[6], 1, 'PX', ARGV[4])
+return 1
@@ -0,0 +1,7 @@
+-- 从数据库加载库存，只在 Redis 中没有该商品库存时写入
+-- KEYS: 1 可售库存, 2 已预占数量
+-- ARGV: 1 未售出库存
+-- Redis 中的数据丢失时预占记录也一并丢失，因此全部未售出库存都视为可售
+redis.call('SET', KEYS[1], ARGV[1], 'NX')
+redis.call('SET', KEYS[2], 0, 'NX')
+return tonumber(redis.call('GET', KEYS[1]))
@@ -0,0 +1,24 @@
+-- 释放或确认预占
+-- KEYS: 1 预占记录, 2 可售库存, 3 已预占数量, 4 预占过期队列, 5 待回写商品集合
+-- ARGV: 1 预占ID, 2 商品ID, 3 用户ID（为空时不校验归属）, 4 是否归还库存（1 释放，0 确认售出）
+-- 返回预占数量；预占不存在或已处理返回 0；归属不符返回 -1
+local record = redis.call('HMGET', KEYS[1], 'productId', 'quantity', 'userId')
+if not record[2] then
+    redis.call('ZREM', KEYS[4], ARGV[1])
+    return 0
+end
+if record[1] ~= ARGV[2] then
+    return 0
+end
+if ARGV[3] ~= '' and record[3] ~= ARGV[3] then
+    return -1
+end
+local quantity = tonumber(record[2])
+if ARGV[4] == '1' then
+    redis.call('INCRBY', KEYS[2], quantity)
+end
+redis.call('DECRBY', KEYS[3], quantity)
+redis.call('DEL', KEYS[1])
+redis.call('ZREM', KEYS[4], ARGV[1])
+redis.call('SADD', KEYS[5], ARGV[2])
+return quantity
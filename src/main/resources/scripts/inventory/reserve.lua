@@ -0,0 +1,19 @@
+-- 预占库存
+-- KEYS: 1 可售库存, 2 已预占数量, 3 预占记录, 4 预占过期队列, 5 待回写商品集合
+-- ARGV: 1 数量, 2 过期时间(毫秒), 3 预占ID, 4 商品ID, 5 用户ID
+-- 返回 {1, 剩余库存} 成功；{0, 当前库存} 库存不足；{-1, 0} 库存未加载到 Redis
+local stock = redis.call('GET', KEYS[1])
+if not stock then
+    return {-1, 0}
+end
+stock = tonumber(stock)
+local quantity = tonumber(ARGV[1])
+if stock < quantity then
+    return {0, stock}
+end
+redis.call('DECRBY', KEYS[1], quantity)
+redis.call('INCRBY', KEYS[2], quantity)
+redis.call('HSET', KEYS[3], 'productId', ARGV[4], 'quantity', quantity, 'userId', ARGV[5])
+redis.call('ZADD', KEYS[4], ARGV[2], ARGV[3])
+redis.call('SADD', KEYS[5], ARGV[4])
+return {1, stock - quantity}
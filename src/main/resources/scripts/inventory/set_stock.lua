@@ -0,0 +1,13 @@
+-- 设置未售出库存（含已预占部分）
+-- KEYS: 1 可售库存, 2 已预占数量, 3 待回写商品集合
+-- ARGV: 1 未售出库存, 2 商品ID
+-- 返回新的可售库存；未售出库存小于已预占数量时返回 -1
+local reserved = tonumber(redis.call('GET', KEYS[2]) or '0')
+local stock = tonumber(ARGV[1])
+if stock < reserved then
+    return -1
+end
+redis.call('SET', KEYS[1], stock - reserved)
+redis.call('SET', KEYS[2], reserved)
+redis.call('SADD', KEYS[3], ARGV[2])
+return stock - reserved
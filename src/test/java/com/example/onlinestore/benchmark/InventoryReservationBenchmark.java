@@ -0,0 +1,127 @@
+package com.example.onlinestore.benchmark;
+
+import com.example.onlinestore.mapper.InventoryMapper;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.security.TokenGenerator;
+import com.example.onlinestore.service.impl.InventoryServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个热点商品的库存预占吞吐
+ *
+ * 32 个线程同时预占同一个商品：
+ * - reserveHotSku：库存充足，每次预占都在 Redis 中执行一次 Lua 脚本
+ * - reserveSoldOutSku：已售罄，请求由本地售罄标记直接拒绝
+ *
+ * 需要可访问的 Redis，默认使用 localhost:6379 的 15 号库，结束时删除 inventory:* 键。
+ * 运行：mvn -Pbenchmark test -Dbenchmark=InventoryReservationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class InventoryReservationBenchmark {
+
+    private static final long HOT_SKU = 1L;
+    private static final long SOLD_OUT_SKU = 2L;
+
+    @Param("localhost")
+    public String redisHost;
+
+    @Param("6379")
+    public int redisPort;
+
+    @Param("15")
+    public int redisDatabase;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private InventoryServiceImpl inventoryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(redisHost, redisPort);
+        configuration.setDatabase(redisDatabase);
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RedisAccessor redisAccessor = new RedisAccessor();
+        ReflectionTestUtils.setField(redisAccessor, "clientType", "lettuce");
+        ReflectionTestUtils.setField(redisAccessor, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(redisAccessor, "meterRegistry", meterRegistry);
+        redisAccessor.init();
+
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+
+        inventoryService = new InventoryServiceImpl();
+        ReflectionTestUtils.setField(inventoryService, "reservationTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(inventoryService, "soldOutTtl", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(inventoryService, "redisAccessor", redisAccessor);
+        ReflectionTestUtils.setField(inventoryService, "inventoryMapper", Mockito.mock(InventoryMapper.class));
+        ReflectionTestUtils.setField(inventoryService, "tokenGenerator", new TokenGenerator());
+        ReflectionTestUtils.setField(inventoryService, "messageSource", messageSource);
+        ReflectionTestUtils.setField(inventoryService, "meterRegistry", meterRegistry);
+        inventoryService.init();
+
+        deleteKeys();
+        inventoryService.setStock(HOT_SKU, Integer.MAX_VALUE / 2);
+        inventoryService.setStock(SOLD_OUT_SKU, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        deleteKeys();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public Object reserveHotSku() {
+        return inventoryService.reserve(1L, HOT_SKU, 1);
+    }
+
+    @Benchmark
+    public Object reserveSoldOutSku() {
+        try {
+            return inventoryService.reserve(1L, SOLD_OUT_SKU, 1);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    private void deleteKeys() {
+        Set<String> keys = redisTemplate.keys("inventory:*");
+        if (keys != null && !keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+}
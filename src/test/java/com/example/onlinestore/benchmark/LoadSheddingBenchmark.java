@@ -0,0 +1,119 @@
+package com.example.onlinestore.benchmark;
+
+import com.example.onlinestore.concurrent.AdaptiveConcurrencyLimit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 过载保护的压测
+ *
+ * 64 个客户端线程不间断地请求一个模拟服务：workers 个处理线程（相当于 Jedis 连接池），每个请求占用 1 ms，
+ * 其余请求排队。客户端超时为 10 ms，超时的响应即使成功也没有用，只有按时返回的才计入 goodput。
+ * workers 从 64 降到 4，即负载从刚好饱和到超出服务能力 16 倍。对比：
+ * - unlimited：不限流，所有请求排队
+ * - limited：{@link AdaptiveConcurrencyLimit} 限流，被拒绝的客户端等待 2 ms 后重试（相当于 Retry-After）
+ *
+ * 关注 goodput（每秒按时返回的请求数）：unlimited 在超出服务能力后排队时间超过客户端超时，goodput 跌到接近 0；
+ * limited 的 goodput 应保持在服务能力（workers * 1000/s）附近。
+ * 运行：mvn -Pbenchmark test -Dbenchmark=LoadSheddingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(64)
+public class LoadSheddingBenchmark {
+
+    private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long DEADLINE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Param({"64", "16", "4"})
+    public int workers;
+
+    private Semaphore server;
+    private AdaptiveConcurrencyLimit limit;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Outcome {
+        /** 按时返回的请求 */
+        public long goodput;
+        /** 返回时已超过客户端超时的请求 */
+        public long late;
+        /** 被限流拒绝的请求 */
+        public long shed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            goodput = 0;
+            late = 0;
+            shed = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new Semaphore(workers, true);
+        limit = new AdaptiveConcurrencyLimit(10, 1, 64, 1.5, 20);
+    }
+
+    @Benchmark
+    public void unlimited(Outcome outcome) throws InterruptedException {
+        long start = System.nanoTime();
+        serve();
+        record(outcome, System.nanoTime() - start);
+    }
+
+    @Benchmark
+    public void limited(Outcome outcome) throws InterruptedException {
+        if (!limit.tryAcquire(1.0)) {
+            outcome.shed++;
+            LockSupport.parkNanos(BACKOFF_NANOS);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            serve();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            limit.release(elapsed);
+            record(outcome, elapsed);
+        }
+    }
+
+    private void serve() throws InterruptedException {
+        server.acquire();
+        try {
+            LockSupport.parkNanos(SERVICE_NANOS);
+        } finally {
+            server.release();
+        }
+    }
+
+    private static void record(Outcome outcome, long elapsed) {
+        if (elapsed <= DEADLINE_NANOS) {
+            outcome.goodput++;
+        } else {
+            outcome.late++;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.onlinestore.benchmark;
+
+import com.example.onlinestore.mapper.OrderMapper;
+import com.example.onlinestore.mapper.OutboxMapper;
+import com.example.onlinestore.model.Order;
+import com.example.onlinestore.model.OrderItem;
+import com.example.onlinestore.model.OutboxEvent;
+import com.example.onlinestore.service.impl.OrderBatchWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 并发下单的订单写入吞吐
+ *
+ * 64 个线程同时下单，每个线程提交订单后等待事务提交。数据库以固定的提交延迟模拟（commitMicros，
+ * 近似一次 redo log 刷盘），SQL 执行本身不计耗时，用于对比：
+ * - maxBatchSize=1：每个订单单独一个事务，吞吐上限约为 1 / 提交延迟
+ * - maxBatchSize=100：组提交，提交期间到达的订单合并为一个事务
+ *
+ * 不需要数据库和 Redis。
+ * 运行：mvn -Pbenchmark test -Dbenchmark=OrderPlacementBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class OrderPlacementBenchmark {
+
+    @Param({"1", "100"})
+    public int maxBatchSize;
+
+    @Param("1000")
+    public long commitMicros;
+
+    private OrderBatchWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        writer = new OrderBatchWriter();
+        ReflectionTestUtils.setField(writer, "maxBatchSize", maxBatchSize);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 10_000);
+        ReflectionTestUtils.setField(writer, "orderMapper", new NoopOrderMapper());
+        ReflectionTestUtils.setField(writer, "outboxMapper", new NoopOutboxMapper());
+        ReflectionTestUtils.setField(writer, "transactionManager", new FixedLatencyTransactionManager(commitMicros));
+        ReflectionTestUtils.setField(writer, "meterRegistry", new SimpleMeterRegistry());
+        writer.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Benchmark
+    public void placeOrder() {
+        Order order = new Order();
+        order.setOrderNo("order");
+        order.setUserId(1L);
+        order.setStatus(Order.STATUS_CREATED);
+        order.setTotalAmount(BigDecimal.TEN);
+        order.setItems(List.of(new OrderItem()));
+        order.setCreatedAt(LocalDateTime.now());
+        writer.submit(order, new OutboxEvent()).join();
+    }
+
+    /**
+     * 只模拟提交延迟的事务管理器
+     */
+    private static class FixedLatencyTransactionManager extends AbstractPlatformTransactionManager {
+        private final long commitNanos;
+
+        FixedLatencyTransactionManager(long commitMicros) {
+            this.commitNanos = TimeUnit.MICROSECONDS.toNanos(commitMicros);
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            LockSupport.parkNanos(commitNanos);
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    private static class NoopOrderMapper implements OrderMapper {
+        @Override
+        public Order findByOrderNo(String orderNo) {
+            return null;
+        }
+
+        @Override
+        public List<OrderItem> findItemsByOrderNo(String orderNo) {
+            return List.of();
+        }
+
+        @Override
+        public int insertOrders(List<Order> orders) {
+            return orders.size();
+        }
+
+        @Override
+        public int insertOrderItems(List<OrderItem> items) {
+            return items.size();
+        }
+    }
+
+    private static class NoopOutboxMapper implements OutboxMapper {
+        @Override
+        public int insertEvents(List<OutboxEvent> events) {
+            return events.size();
+        }
+
+        @Override
+        public List<OutboxEvent> lockPending(int limit) {
+            return List.of();
+        }
+
+        @Override
+        public int markPublished(List<Long> ids, LocalDateTime publishedAt) {
+            return ids.size();
+        }
+
+        @Override
+        public int incrementAttempts(List<Long> ids) {
+            return ids.size();
+        }
+
+        @Override
+        public int markFailed(List<Long> ids) {
+            return ids.size();
+        }
+
+        @Override
+        public int deletePublishedBefore(LocalDateTime before, int limit) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.onlinestore.benchmark;
+
+import com.example.onlinestore.model.Promotion;
+import com.example.onlinestore.pricing.PriceLine;
+import com.example.onlinestore.pricing.PricingPlan;
+import com.example.onlinestore.pricing.PricingResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 购物车计价耗时
+ *
+ * 规则集：10000 条商品特价、500 条分类折扣、50 条满减（含优惠券），商品 10 万个、分类 1000 个。
+ * 对比：
+ * - compiledPlan：{@link PricingPlan} 编译后的规则
+ * - interpretRules：每次计价遍历全部规则、以 BigDecimal 计算并解析满减阶梯，相当于不做预编译
+ *
+ * 不需要数据库和 Redis。
+ * 运行：mvn -Pbenchmark test -Dbenchmark=PricingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final int PRODUCTS = 100_000;
+    private static final int CATEGORIES = 1000;
+
+    @Param({"1", "10", "50", "200"})
+    public int lines;
+
+    private List<Promotion> promotions;
+    private PricingPlan plan;
+    private List<PriceLine> cart;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        promotions = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            promotions.add(promotion(Promotion.TYPE_SPECIAL_PRICE, Promotion.SCOPE_PRODUCT,
+                (long) random.nextInt(PRODUCTS), BigDecimal.valueOf(random.nextInt(1000, 5000), 2), null));
+        }
+        for (int i = 0; i < 500; i++) {
+            promotions.add(promotion(Promotion.TYPE_PERCENT_OFF, Promotion.SCOPE_CATEGORY,
+                (long) random.nextInt(CATEGORIES), BigDecimal.valueOf(random.nextInt(5, 30)), null));
+        }
+        for (int i = 0; i < 50; i++) {
+            Promotion amountOff = promotion(Promotion.TYPE_AMOUNT_OFF,
+                i < 10 ? Promotion.SCOPE_ALL : Promotion.SCOPE_CATEGORY,
+                i < 10 ? null : (long) random.nextInt(CATEGORIES), null, "100:10,200:30,500:80");
+            if (i % 5 == 0) {
+                amountOff.setCouponCode("COUPON" + i);
+            }
+            promotions.add(amountOff);
+        }
+        plan = PricingPlan.compile(promotions);
+
+        cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            cart.add(new PriceLine(random.nextInt(PRODUCTS), random.nextInt(CATEGORIES),
+                random.nextInt(1000, 50000), 1 + random.nextInt(3)));
+        }
+        now = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public PricingResult compiledPlan() {
+        return plan.price(cart, true, "COUPON10", now);
+    }
+
+    @Benchmark
+    public BigDecimal interpretRules() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal[] eligible = new BigDecimal[promotions.size()];
+        for (PriceLine line : cart) {
+            BigDecimal listPrice = BigDecimal.valueOf(line.getUnitPrice(), 2);
+            BigDecimal price = listPrice;
+            for (Promotion promotion : promotions) {
+                if (!matches(promotion, line)) {
+                    continue;
+                }
+                if (promotion.getType() == Promotion.TYPE_SPECIAL_PRICE) {
+                    price = price.min(promotion.getValue());
+                } else if (promotion.getType() == Promotion.TYPE_PERCENT_OFF) {
+                    price = price.min(listPrice.multiply(BigDecimal.valueOf(100).subtract(promotion.getValue()))
+                        .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP));
+                }
+            }
+            BigDecimal amount = price.multiply(BigDecimal.valueOf(line.getQuantity()));
+            subtotal = subtotal.add(amount);
+            for (int r = 0; r < promotions.size(); r++) {
+                Promotion promotion = promotions.get(r);
+                if (promotion.getType() == Promotion.TYPE_AMOUNT_OFF && matches(promotion, line)) {
+                    eligible[r] = eligible[r] == null ? amount : eligible[r].add(amount);
+                }
+            }
+        }
+        BigDecimal best = BigDecimal.ZERO;
+        for (int r = 0; r < promotions.size(); r++) {
+            if (eligible[r] == null) {
+                continue;
+            }
+            for (String tier : promotions.get(r).getTiers().split(",")) {
+                String[] parts = tier.split(":");
+                if (eligible[r].compareTo(new BigDecimal(parts[0])) >= 0) {
+                    best = best.max(new BigDecimal(parts[1]));
+                }
+            }
+        }
+        return subtotal.subtract(best);
+    }
+
+    private static boolean matches(Promotion promotion, PriceLine line) {
+        return switch (promotion.getScopeType()) {
+            case Promotion.SCOPE_PRODUCT -> promotion.getScopeId() == line.getProductId();
+            case Promotion.SCOPE_CATEGORY -> promotion.getScopeId() == line.getCategoryId();
+            default -> true;
+        };
+    }
+
+    private static Promotion promotion(int type, int scopeType, Long scopeId, BigDecimal value, String tiers) {
+        Promotion promotion = new Promotion();
+        promotion.setName("promotion");
+        promotion.setType(type);
+        promotion.setScopeType(scopeType);
+        promotion.setScopeId(scopeId);
+        promotion.setValue(value);
+        promotion.setTiers(tiers);
+        promotion.setStatus(Promotion.STATUS_ENABLED);
+        return promotion;
+    }
+}
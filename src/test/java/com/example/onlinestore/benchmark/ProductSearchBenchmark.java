@@ -0,0 +1,125 @@
+package com.example.onlinestore.benchmark;
+
+import com.example.onlinestore.search.InvertedIndex;
+import com.example.onlinestore.search.SearchResult;
+import com.example.onlinestore.search.Tokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 商品全文检索耗时
+ *
+ * 以固定随机种子生成 products 个商品（品牌 + 品类词 + 型号，描述为若干品类词），对比：
+ * - likeScan：逐个商品做子串匹配，相当于 MySQL 中 name LIKE '%机械键盘%' 的全表扫描
+ * - searchCommon：倒排索引检索一个高频词（名称或描述中出现，约四分之一的商品命中），取第一页 20 个
+ * - searchNarrow：品牌 + 品类两个条件，测试倒排表求交
+ * - suggest：两个字母的前缀补全
+ *
+ * 不需要数据库和 Redis。生成一百万个商品，以 -Xmx3g 运行。
+ * 运行：mvn -Pbenchmark test -Dbenchmark=ProductSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductSearchBenchmark {
+
+    private static final String[] CATEGORIES = {
+        "机械键盘", "无线鼠标", "显示器", "蓝牙耳机", "充电器", "数据线", "移动电源", "路由器", "手机壳", "钢化膜",
+        "笔记本电脑", "平板电脑", "智能手表", "运动手环", "音箱", "麦克风", "摄像头", "打印机", "硬盘", "内存条",
+        "保温杯", "双肩包", "行李箱", "运动鞋", "羽绒服", "衬衫", "牛仔裤", "电饭煲", "空气炸锅", "吸尘器"
+    };
+
+    private static final String[] ADJECTIVES = {
+        "轻薄", "静音", "防水", "大容量", "高清", "快充", "便携", "原装", "加厚", "透气", "降噪", "护眼"
+    };
+
+    @Param("1000000")
+    public int products;
+
+    private InvertedIndex index;
+    private String[] names;
+    private List<String> commonQuery;
+    private List<String> narrowQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] brands = new String[500];
+        for (int i = 0; i < brands.length; i++) {
+            brands[i] = randomWord(random);
+        }
+        index = new InvertedIndex();
+        names = new String[products];
+        for (int id = 1; id <= products; id++) {
+            String name = brands[random.nextInt(brands.length)] + " "
+                + ADJECTIVES[random.nextInt(ADJECTIVES.length)]
+                + CATEGORIES[random.nextInt(CATEGORIES.length)] + " "
+                + (char) ('a' + random.nextInt(26)) + random.nextInt(1000);
+            StringBuilder description = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                description.append(ADJECTIVES[random.nextInt(ADJECTIVES.length)])
+                    .append(CATEGORIES[random.nextInt(CATEGORIES.length)]).append('，');
+            }
+            Map<String, Integer> freqs = new HashMap<>();
+            Tokenizer.addTerms(name, 3, freqs);
+            Tokenizer.addTerms(description.toString(), 1, freqs);
+            index.upsert(id, id % 100, freqs);
+            names[id - 1] = name;
+        }
+        commonQuery = Tokenizer.queryTerms("机械键盘");
+        narrowQuery = Tokenizer.queryTerms(brands[0] + " 蓝牙耳机");
+    }
+
+    @Benchmark
+    public int likeScan() {
+        int matched = 0;
+        for (String name : names) {
+            if (name.contains("机械键盘")) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public SearchResult searchCommon() {
+        return index.search(commonQuery, null, 0, 20);
+    }
+
+    @Benchmark
+    public SearchResult searchNarrow() {
+        return index.search(narrowQuery, null, 0, 20);
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return index.suggest("ka", 10);
+    }
+
+    private static String randomWord(SplittableRandom random) {
+        char[] chars = new char[4 + random.nextInt(5)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
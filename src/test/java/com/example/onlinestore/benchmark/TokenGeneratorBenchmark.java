@@ -0,0 +1,44 @@
+package com.example.onlinestore.benchmark;
+
+import com.example.onlinestore.security.TokenGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * token 生成基准测试
+ *
+ * 以 16 个线程并发生成 token，对比 UUID.randomUUID() 与 {@link TokenGenerator}。
+ * 运行：mvn -Pbenchmark test -Dbenchmark=TokenGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class TokenGeneratorBenchmark {
+
+    private final TokenGenerator tokenGenerator = new TokenGenerator();
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String tokenGenerator() {
+        return tokenGenerator.nextToken();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.onlinestore.benchmark;
+
+import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.UserVO;
+import com.example.onlinestore.json.UserVOSerializer;
+import com.example.onlinestore.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 用户列表分页响应的序列化耗时
+ *
+ * 对比：
+ * - userRowsToVo：原实现，查询出 User 后经 stream 逐条复制为 UserVO，再以反射访问属性的 ObjectMapper 序列化
+ * - voRowsBlackbird：查询结果直接映射为 UserVO，以注册了 Blackbird 的 ObjectMapper 序列化
+ * - voRowsSerializer：当前实现，在 voRowsBlackbird 的基础上使用 {@link UserVOSerializer}
+ *
+ * 都写入复用的输出缓冲，与 HTTP 消息转换器直接写响应流的方式一致。不需要数据库和 Redis。
+ * 运行：mvn -Pbenchmark test -Dbenchmark=UserPageSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPageSerializationBenchmark {
+
+    @Param({"10", "20", "50", "100"})
+    public int pageSize;
+
+    private ObjectMapper reflectionMapper;
+    private ObjectMapper blackbirdMapper;
+    private ObjectMapper serializerMapper;
+    private List<User> users;
+    private List<UserVO> records;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reflectionMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        blackbirdMapper = new ObjectMapper().registerModule(new JavaTimeModule()).registerModule(new BlackbirdModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        serializerMapper = blackbirdMapper.copy()
+            .registerModule(new SimpleModule().addSerializer(UserVO.class, new UserVOSerializer()));
+        users = new ArrayList<>(pageSize);
+        records = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.of(2026, 10, 1, 12, 0);
+        for (int i = 0; i < pageSize; i++) {
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setUsername("user" + i);
+            user.setToken("token" + i);
+            user.setTokenExpireTime(now.plusDays(1));
+            user.setCreatedAt(now.minusMinutes(i));
+            user.setUpdatedAt(now.minusMinutes(i));
+            users.add(user);
+
+            UserVO vo = new UserVO();
+            vo.setId(user.getId());
+            vo.setUsername(user.getUsername());
+            vo.setCreatedAt(user.getCreatedAt());
+            vo.setUpdatedAt(user.getUpdatedAt());
+            records.add(vo);
+        }
+    }
+
+    @Benchmark
+    public int userRowsToVo() throws IOException {
+        List<UserVO> converted = users.stream().map(user -> {
+            UserVO vo = new UserVO();
+            vo.setId(user.getId());
+            vo.setUsername(user.getUsername());
+            vo.setCreatedAt(user.getCreatedAt());
+            vo.setUpdatedAt(user.getUpdatedAt());
+            return vo;
+        }).collect(Collectors.toList());
+        return write(reflectionMapper, converted);
+    }
+
+    @Benchmark
+    public int voRowsBlackbird() throws IOException {
+        return write(blackbirdMapper, records);
+    }
+
+    @Benchmark
+    public int voRowsSerializer() throws IOException {
+        return write(serializerMapper, records);
+    }
+
+    private int write(ObjectMapper mapper, List<UserVO> page) throws IOException {
+        PageResponse<UserVO> response = new PageResponse<>();
+        response.setRecords(page);
+        response.setTotal(100_000);
+        response.setPageNum(1);
+        response.setPageSize(pageSize);
+        output.reset();
+        mapper.writeValue(output, response);
+        return output.size();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.onlinestore.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地模拟的多个 user-service 实例，用于离线验证负载均衡
+ *
+ * 每个实例是一个 JDK HttpServer，POST /auth 按指定延迟（可随时修改）返回 true，并记录收到的请求数；
+ * {@link #discoveryClient()} 把这些实例注册为 user-service。
+ */
+class StubUserServices implements AutoCloseable {
+
+    static final String SERVICE_ID = "user-service";
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final List<AtomicInteger> hits = new ArrayList<>();
+    private final List<AtomicLong> latencies = new ArrayList<>();
+    private final List<ServiceInstance> instances = new ArrayList<>();
+
+    /**
+     * @param latenciesMillis 每个实例的响应延迟
+     */
+    StubUserServices(long... latenciesMillis) throws IOException {
+        for (long latency : latenciesMillis) {
+            AtomicInteger counter = new AtomicInteger();
+            AtomicLong delay = new AtomicLong(latency);
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/auth", exchange -> {
+                counter.incrementAndGet();
+                try {
+                    Thread.sleep(delay.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "true".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            servers.add(server);
+            hits.add(counter);
+            latencies.add(delay);
+            instances.add(new DefaultServiceInstance(SERVICE_ID + "-" + servers.size(), SERVICE_ID,
+                "127.0.0.1", server.getAddress().getPort(), false));
+        }
+    }
+
+    /** 第 index 个实例收到的请求数 */
+    int hits(int index) {
+        return hits.get(index).get();
+    }
+
+    /** 清零所有实例的请求数 */
+    void resetHits() {
+        for (AtomicInteger counter : hits) {
+            counter.set(0);
+        }
+    }
+
+    /** 修改第 index 个实例的响应延迟 */
+    void setLatency(int index, long latencyMillis) {
+        latencies.get(index).set(latencyMillis);
+    }
+
+    /** 停止第 index 个实例，之后连接该实例会被拒绝 */
+    void stop(int index) {
+        servers.get(index).stop(0);
+    }
+
+    DiscoveryClient discoveryClient() {
+        return new DiscoveryClient() {
+            @Override
+            public String description() {
+                return "stub user-service";
+            }
+
+            @Override
+            public List<ServiceInstance> getInstances(String serviceId) {
+                return SERVICE_ID.equals(serviceId) ? instances : List.of();
+            }
+
+            @Override
+            public List<String> getServices() {
+                return List.of(SERVICE_ID);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        for (HttpServer server : servers) {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.onlinestore.client;
+
+import com.example.onlinestore.dto.LoginRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("user-service 客户端负载均衡测试")
+public class UserAuthClientTest {
+
+    private static final Executor HEDGE_EXECUTOR = Executors.newCachedThreadPool();
+
+    @Test
+    @DisplayName("多数请求发往延迟低的实例，最慢的实例几乎不被选中")
+    void whenLatenciesDiffer_thenPreferFastInstance() throws Exception {
+        try (StubUserServices stubs = new StubUserServices(2, 80, 250)) {
+            // 准备测试数据：本地 POST 往返本身约 50ms，实例间的延迟差距要明显大于这个值
+            warmUp(stubs);
+            UserAuthClient client = client(stubs.discoveryClient());
+
+            // 执行测试
+            for (int i = 0; i < 60; i++) {
+                assertTrue(client.authenticate(request()));
+            }
+
+            // 验证结果：每次从两个实例中选择，最快的实例出现在三分之二的组合中
+            String hits = stubs.hits(0) + "," + stubs.hits(1) + "," + stubs.hits(2);
+            assertTrue(stubs.hits(0) > stubs.hits(1) && stubs.hits(1) > stubs.hits(2), "hits=" + hits);
+            assertTrue(stubs.hits(0) >= 30, "hits=" + hits);
+            assertTrue(stubs.hits(2) <= 6, "hits=" + hits);
+        }
+    }
+
+    @Test
+    @DisplayName("连续失败的实例被摘除，之后的请求都发往正常实例")
+    void whenInstanceDown_thenEject() throws Exception {
+        try (StubUserServices stubs = new StubUserServices(1, 1)) {
+            // 准备测试数据
+            UserAuthClient client = client(stubs.discoveryClient());
+            stubs.stop(1);
+
+            // 执行测试
+            int failures = 0;
+            for (int i = 0; i < 20; i++) {
+                try {
+                    client.authenticate(request());
+                } catch (ResourceAccessException e) {
+                    failures++;
+                }
+            }
+
+            // 验证结果
+            assertTrue(failures <= 3, "failures=" + failures);
+            assertEquals(20 - failures, stubs.hits(0));
+            List<LoadBalancedEndpoints.Endpoint> endpoints = client.endpoints();
+            long now = System.nanoTime();
+            assertFalse(endpoints.get(0).isEjected(now));
+            assertEquals(failures == 3, endpoints.get(1).isEjected(now));
+        }
+    }
+
+    @Test
+    @DisplayName("服务发现没有实例时使用 base-url")
+    void whenNoInstances_thenUseBaseUrl() throws Exception {
+        try (StubUserServices stubs = new StubUserServices()) {
+            // 准备测试数据
+            UserAuthClient client = client(stubs.discoveryClient());
+
+            // 验证结果
+            assertEquals(1, client.endpoints().size());
+            assertEquals("http://localhost:8080", client.endpoints().get(0).getUri().toString());
+        }
+    }
+
+    @Test
+    @DisplayName("第一次调用超过触发延迟时向另一个实例对冲，先响应的结果胜出")
+    void whenFirstAttemptSlow_thenHedgeToOtherInstance() throws Exception {
+        try (StubUserServices stubs = new StubUserServices(5, 5)) {
+            // 准备测试数据：两个实例耗时相同时积累耗时样本，触发延迟取下限 300ms（本地 POST 往返本身约 50ms）；
+            // 之后实例 0 稍慢、实例 1 很慢，实例 1 的延迟估计在第一次慢响应返回前还是旧值，接下来必然被选中
+            warmUp(stubs);
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            UserAuthClient client = hedgingClient(stubs.discoveryClient(), registry, Duration.ofMillis(300));
+            for (int i = 0; i < 40; i++) {
+                client.authenticate(request());
+            }
+            stubs.setLatency(0, 100);
+            stubs.setLatency(1, 1500);
+
+            // 执行测试
+            long slowest = 0;
+            for (int i = 0; i < 5; i++) {
+                long start = System.nanoTime();
+                assertTrue(client.authenticate(request()));
+                slowest = Math.max(slowest, System.nanoTime() - start);
+            }
+
+            // 验证结果
+            assertTrue(slowest < Duration.ofMillis(800).toNanos(), "slowest=" + slowest);
+            double hedges = registry.get("user.auth.hedges").counter().count();
+            double wins = registry.get("user.auth.hedge.wins").counter().count();
+            assertTrue(hedges >= 1 && wins >= 1, "hedges=" + hedges + ", wins=" + wins);
+        }
+    }
+
+    @Test
+    @DisplayName("所有实例同时变慢时对冲请求不超过预算")
+    void whenAllInstancesSlow_thenHedgesLimitedByBudget() throws Exception {
+        try (StubUserServices stubs = new StubUserServices(5, 5)) {
+            // 准备测试数据
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            UserAuthClient client = hedgingClient(stubs.discoveryClient(), registry, Duration.ofMillis(10));
+            for (int i = 0; i < 40; i++) {
+                client.authenticate(request());
+            }
+            stubs.setLatency(0, 30);
+            stubs.setLatency(1, 30);
+
+            // 执行测试
+            for (int i = 0; i < 40; i++) {
+                assertTrue(client.authenticate(request()));
+            }
+
+            // 验证结果：80 个请求按 10% 最多积累 8 次对冲
+            double requests = registry.get("user.auth.requests").counter().count();
+            double hedges = registry.get("user.auth.hedges").counter().count();
+            assertEquals(80, requests);
+            assertTrue(hedges >= 1 && hedges <= requests * 0.1, "hedges=" + hedges);
+            assertTrue(registry.get("user.auth.hedge.throttled").counter().count() > 0);
+        }
+    }
+
+    /**
+     * 用另一个客户端预热 JVM，避免第一次调用的耗时让某个实例的延迟估计长期偏高，之后清零各实例的请求数
+     */
+    private static void warmUp(StubUserServices stubs) {
+        UserAuthClient client = client(stubs.discoveryClient());
+        for (int i = 0; i < 10; i++) {
+            client.authenticate(request());
+        }
+        stubs.resetHits();
+    }
+
+    private static UserAuthClient hedgingClient(DiscoveryClient discoveryClient, MeterRegistry registry,
+                                                Duration minDelay) {
+        UserAuthClient client = client(discoveryClient);
+        ReflectionTestUtils.setField(client, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(client, "hedgeMinDelay", minDelay);
+        ReflectionTestUtils.setField(client, "meterRegistry", registry);
+        client.init();
+        return client;
+    }
+
+    private static UserAuthClient client(DiscoveryClient discoveryClient) {
+        UserAuthClient client = new UserAuthClient();
+        ReflectionTestUtils.setField(client, "serviceId", StubUserServices.SERVICE_ID);
+        ReflectionTestUtils.setField(client, "baseUrl", "http://localhost:8080");
+        ReflectionTestUtils.setField(client, "ejectFailures", 3);
+        ReflectionTestUtils.setField(client, "ejectDuration", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(client, "maxEjectedPercent", 50);
+        ReflectionTestUtils.setField(client, "latencyDecay", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(client, "hedgePercentile", 0.95);
+        ReflectionTestUtils.setField(client, "hedgeMinDelay", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(client, "hedgeBudgetPercent", 10);
+        ReflectionTestUtils.setField(client, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(client, "hedgeExecutor", HEDGE_EXECUTOR);
+        ReflectionTestUtils.setField(client, "discoveryClient", discoveryClient);
+        ReflectionTestUtils.setField(client, "meterRegistry", new SimpleMeterRegistry());
+        client.init();
+        return client;
+    }
+
+    private static LoginRequest request() {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("user");
+        request.setPassword("password");
+        return request;
+    }
+}
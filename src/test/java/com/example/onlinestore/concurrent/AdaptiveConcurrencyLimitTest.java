@@ -0,0 +1,98 @@
+package com.example.onlinestore.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("自适应并发上限测试")
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long BASE_RTT = 1_000_000;
+
+    @Test
+    @DisplayName("并发超过服务能力、请求开始排队时下调上限")
+    void whenQueueing_thenLimitDrops() {
+        // 准备测试数据
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 4, 200, 1.5, 20);
+
+        // 执行测试：先在低负载下得到基准 RTT，再以远超服务能力的并发压测
+        // 服务能力为 10 个并发，超出部分排队，耗时随并发线性增长
+        for (int round = 0; round < 50; round++) {
+            serve(limit, 5, 10);
+        }
+        for (int round = 0; round < 200; round++) {
+            serve(limit, 200, 10);
+        }
+
+        // 验证结果
+        assertTrue(limit.getLimit() < 30, "limit=" + limit.getLimit());
+        assertEquals(0, limit.getInflight());
+    }
+
+    @Test
+    @DisplayName("延迟不变时逐步上调上限，但不超过最大值")
+    void whenNoQueueing_thenLimitGrows() {
+        // 准备测试数据
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 50, 1.5, 20);
+
+        // 执行测试：服务能力足够，耗时不随并发变化
+        for (int round = 0; round < 200; round++) {
+            serve(limit, 200, 1000);
+        }
+
+        // 验证结果
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("负载不到上限一半时不调整上限")
+    void whenLightLoad_thenLimitUnchanged() {
+        // 准备测试数据
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200, 1.5, 20);
+
+        // 执行测试
+        for (int round = 0; round < 200; round++) {
+            serve(limit, 5, 1000);
+        }
+
+        // 验证结果
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("低优先级只能占用上限的一部分")
+    void whenShareBelowOne_thenRejectEarlier() {
+        // 准备测试数据
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 10, 1.5, 100);
+
+        // 执行测试
+        int normal = 0;
+        while (limit.tryAcquire(0.5)) {
+            normal++;
+        }
+        int login = 0;
+        while (limit.tryAcquire(1.0)) {
+            login++;
+        }
+
+        // 验证结果
+        assertEquals(5, normal);
+        assertEquals(5, login);
+        assertEquals(10, limit.getInflight());
+    }
+
+    /**
+     * 模拟一轮请求：offered 个请求同时到达，放行的请求按当前并发计算耗时后全部完成
+     */
+    private static void serve(AdaptiveConcurrencyLimit limit, int offered, int capacity) {
+        int admitted = 0;
+        while (admitted < offered && limit.tryAcquire(1.0)) {
+            admitted++;
+        }
+        long rtt = BASE_RTT * Math.max(capacity, admitted) / capacity;
+        for (int i = 0; i < admitted; i++) {
+            limit.release(rtt);
+        }
+    }
+}
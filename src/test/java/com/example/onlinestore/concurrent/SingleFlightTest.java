@@ -0,0 +1,102 @@
+package com.example.onlinestore.concurrent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("并发调用合并测试")
+public class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("同键并发调用只执行一次并共享结果")
+    void whenConcurrentCallsWithSameKey_thenExecuteOnce() throws Exception {
+        // 准备测试数据
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try {
+            // 执行测试：第一个调用阻塞，其余调用在它执行期间到达
+            Future<Integer> leader = pool.submit(() -> flight.execute("alice", () -> {
+                started.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(pool.submit(() -> flight.execute("alice", executions::incrementAndGet)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            // 验证结果
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> follower : followers) {
+                assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+            assertEquals(0, flight.inflightCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("异常传递给所有等待者，之后的调用重新执行")
+    void whenLeaderFails_thenFollowersSeeSameExceptionAndNextCallRetries() throws Exception {
+        // 准备测试数据
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            // 执行测试
+            Future<Integer> leader = pool.submit(() -> flight.execute("bob", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalArgumentException("认证失败");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> follower = pool.submit(() -> flight.execute("bob", () -> 2));
+            Thread.sleep(100);
+            release.countDown();
+
+            // 验证结果
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, leaderError.getCause());
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, followerError.getCause());
+            assertEquals(3, flight.execute("bob", () -> 3));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("不同键互不影响")
+    void whenDifferentKeys_thenExecuteIndependently() {
+        assertEquals(1, flight.execute("a", () -> flight.execute("b", () -> 1)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
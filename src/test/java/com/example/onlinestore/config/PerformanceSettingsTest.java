@@ -0,0 +1,98 @@
+package com.example.onlinestore.config;
+
+import com.example.onlinestore.event.PerformanceSettingsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("运行时性能参数测试")
+public class PerformanceSettingsTest {
+
+    private MockEnvironment environment;
+    private PerformanceSettings performanceSettings;
+    private final List<Object> published = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+            .withProperty("catalog.cache.local-max-size", "10000")
+            .withProperty("spring.data.redis.jedis.pool.max-wait", "500ms");
+        performanceSettings = new PerformanceSettings();
+        ReflectionTestUtils.setField(performanceSettings, "environment", environment);
+        ReflectionTestUtils.setField(performanceSettings, "eventPublisher", (ApplicationEventPublisher) published::add);
+        performanceSettings.init();
+    }
+
+    @Test
+    @DisplayName("启动时绑定配置，未配置的项取默认值")
+    void whenInit_thenBindWithDefaults() {
+        PerformanceProperties settings = performanceSettings.current();
+        assertEquals(10000, settings.getCatalogCache().getLocalMaxSize());
+        assertEquals(Duration.ofMillis(500), settings.getRedisPool().getMaxWait());
+        assertEquals(Duration.ofDays(1), settings.getToken().getTtl());
+        assertEquals(50, settings.getHttp().getMaxTotal());
+    }
+
+    @Test
+    @DisplayName("配置变更后替换参数，并通知受影响的分组")
+    void whenChanged_thenReplaceAndPublish() {
+        // 准备测试数据
+        environment.setProperty("catalog.cache.local-max-size", "500");
+        environment.setProperty("service.http.max-total", "200");
+
+        // 执行测试
+        performanceSettings.onEnvironmentChange(new EnvironmentChangeEvent(
+            Set.of("catalog.cache.local-max-size", "service.http.max-total", "order.pending-ttl")));
+
+        // 验证结果
+        assertEquals(500, performanceSettings.current().getCatalogCache().getLocalMaxSize());
+        assertEquals(200, performanceSettings.current().getHttp().getMaxTotal());
+        assertEquals(1, published.size());
+        PerformanceSettingsChangedEvent event = (PerformanceSettingsChangedEvent) published.get(0);
+        assertTrue(event.affects(PerformanceProperties.CATALOG_CACHE));
+        assertTrue(event.affects(PerformanceProperties.HTTP));
+        assertFalse(event.affects(PerformanceProperties.LOGIN_RATE_LIMIT));
+    }
+
+    @Test
+    @DisplayName("新配置无效时保留原参数，不通知")
+    void whenInvalid_thenKeepPrevious() {
+        // 准备测试数据
+        PerformanceProperties previous = performanceSettings.current();
+        environment.setProperty("user.token.ttl", "PT0S");
+        environment.setProperty("catalog.cache.local-max-size", "500");
+
+        // 执行测试
+        performanceSettings.onEnvironmentChange(new EnvironmentChangeEvent(
+            Set.of("user.token.ttl", "catalog.cache.local-max-size")));
+
+        // 验证结果
+        assertSame(previous, performanceSettings.current());
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    @DisplayName("与性能参数无关的配置变更不重新绑定")
+    void whenUnrelatedChange_thenIgnore() {
+        // 准备测试数据
+        PerformanceProperties previous = performanceSettings.current();
+
+        // 执行测试
+        performanceSettings.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("order.pending-ttl")));
+
+        // 验证结果
+        assertSame(previous, performanceSettings.current());
+        assertTrue(published.isEmpty());
+    }
+}
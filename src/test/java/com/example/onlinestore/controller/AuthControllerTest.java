@@ -2,6 +2,7 @@ package com.example.onlinestore.controller;
 
 import com.example.onlinestore.dto.LoginRequest;
 import com.example.onlinestore.dto.LoginResponse;
+import com.example.onlinestore.security.LoginRateLimiter;
 import com.example.onlinestore.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +21,9 @@ import java.time.LocalDateTime;
 import java.util.Locale;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,6 +45,9 @@ public class AuthControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private LoginRateLimiter loginRateLimiter;
+
     private LoginRequest request;
     private LoginResponse response;
 
@@ -143,5 +150,26 @@ public class AuthControllerTest {
                     .andExpect(status().isInternalServerError())
                     .andExpect(content().string(zhErrorMessage));
         }
+
+        @Test
+        @DisplayName("超出登录次数限制 - 返回429且不调用认证服务")
+        void whenThrottled_thenReturnTooManyRequests() throws Exception {
+            // 设置 mock 行为
+            when(loginRateLimiter.acquire(anyString(), anyString())).thenReturn(30L);
+            String errorMessage = messageSource.getMessage(
+                "error.login.throttled", null, Locale.SIMPLIFIED_CHINESE);
+
+            // 执行测试
+            mockMvc.perform(post("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Accept-Language", "zh-CN")
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "30"))
+                    .andExpect(content().string(errorMessage));
+
+            // 验证结果
+            verify(userService, never()).login(any(LoginRequest.class));
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,144 @@
+package com.example.onlinestore.controller;
+
+import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.Versioned;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.service.InventoryService;
+import com.example.onlinestore.service.ProductSearchService;
+import com.example.onlinestore.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("商品浏览控制器测试")
+public class ProductControllerTest {
+
+    private static final String ETAG = "\"5d41402abc4b2a76b9719d911017c592\"";
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductSearchService productSearchService;
+
+    @MockBean
+    private InventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("键盘");
+        product.setPrice(new BigDecimal("199.00"));
+        product.setStatus(Product.STATUS_ON_SALE);
+        when(productService.getProduct(1L)).thenReturn(new Versioned<>(product, ETAG, LAST_MODIFIED));
+    }
+
+    @Test
+    @DisplayName("无需登录即可查询商品，响应带 ETag 和 Last-Modified")
+    void whenGetProductWithoutToken_thenReturnProductWithValidators() throws Exception {
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", ETAG))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.name").value("键盘"));
+    }
+
+    @Test
+    @DisplayName("If-None-Match 命中时返回 304")
+    void whenEtagMatches_thenReturnNotModified() throws Exception {
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(jsonPath("$").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("商品不存在时返回 404")
+    void whenProductMissing_thenReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/products/2"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    @DisplayName("分类列表无需登录，只带 ETag")
+    void whenListCategories_thenReturnOk() throws Exception {
+        when(productService.listCategories()).thenReturn(new Versioned<>(List.of(), ETAG, Versioned.NO_LAST_MODIFIED));
+
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", ETAG))
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("搜索无需登录，结果按分页结构返回")
+    void whenSearch_thenReturnPage() throws Exception {
+        PageResponse<Product> page = new PageResponse<>();
+        page.setRecords(List.of());
+        page.setTotal(0);
+        page.setPageNum(1);
+        page.setPageSize(20);
+        when(productSearchService.search(any())).thenReturn(page);
+
+        mockMvc.perform(get("/api/products/search").param("q", "键盘"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+    }
+
+    @Test
+    @DisplayName("搜索词为空时返回 400，索引未就绪时返回 503")
+    void whenSearchInvalidOrNotReady_thenReturnError() throws Exception {
+        when(productSearchService.search(any())).thenThrow(new IllegalStateException("not ready"));
+
+        mockMvc.perform(get("/api/products/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/search").param("q", "键盘"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("not ready"));
+    }
+
+    @Test
+    @DisplayName("查询库存时商品不存在返回 404，不访问库存")
+    void whenStockOfMissingProduct_thenReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/products/2/stock"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").exists());
+
+        verifyNoInteractions(inventoryService);
+    }
+
+    @Test
+    @DisplayName("上架商品无需登录即可查询库存")
+    void whenStockOfProduct_thenReturnAvailable() throws Exception {
+        when(inventoryService.getAvailable(1L)).thenReturn(5);
+
+        mockMvc.perform(get("/api/products/1/stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(5));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.onlinestore.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JFR 录制端点测试")
+public class JfrEndpointTest {
+
+    private JfrEndpoint jfrEndpoint;
+
+    @BeforeEach
+    void setUp() {
+        jfrEndpoint = new JfrEndpoint();
+        ReflectionTestUtils.setField(jfrEndpoint, "rollingEnabled", false);
+        ReflectionTestUtils.setField(jfrEndpoint, "defaultDuration", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(jfrEndpoint, "maxDuration", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(jfrEndpoint, "maxSize", DataSize.ofMegabytes(16));
+        jfrEndpoint.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jfrEndpoint.destroy();
+    }
+
+    @Test
+    @DisplayName("按需录制的时长和大小不超过上限，下载的文件包含自定义事件")
+    void whenRecording_thenDumpContainsCustomEvents() throws Exception {
+        // 执行测试
+        Map<String, Object> started = jfrEndpoint.start(3600, 1024);
+        LoginStageEvent stage = LoginStageEvent.start("authenticate");
+        stage.commit();
+        Resource dump = jfrEndpoint.dump(JfrEndpoint.ON_DEMAND);
+
+        // 验证结果
+        assertEquals("RUNNING", started.get("state"));
+        assertEquals(Duration.ofMinutes(5), started.get("duration"));
+        assertEquals(DataSize.ofMegabytes(16).toBytes(), started.get("maxSize"));
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.getFile().toPath());
+        assertTrue(events.stream().anyMatch(event -> "onlinestore.LoginStage".equals(event.getEventType().getName())
+            && "authenticate".equals(event.getString("stage"))));
+    }
+
+    @Test
+    @DisplayName("不带参数开始录制时使用默认时长；停止后不能再下载按需录制，未开启的滚动录制也不能下载")
+    void whenStopped_thenNothingToDump() throws Exception {
+        // 执行测试
+        Map<String, Object> started = jfrEndpoint.start(null, null);
+        assertEquals(Duration.ofMinutes(1), started.get("duration"));
+        Map<String, Object> status = jfrEndpoint.stop();
+
+        // 验证结果
+        assertEquals("NONE", ((Map<?, ?>) status.get(JfrEndpoint.ON_DEMAND)).get("state"));
+        assertNull(jfrEndpoint.dump(JfrEndpoint.ON_DEMAND));
+        assertNull(jfrEndpoint.dump(JfrEndpoint.ROLLING));
+    }
+}
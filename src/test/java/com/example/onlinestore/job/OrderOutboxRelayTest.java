@@ -0,0 +1,106 @@
+package com.example.onlinestore.job;
+
+import com.example.onlinestore.mapper.OutboxMapper;
+import com.example.onlinestore.model.OutboxEvent;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("订单发件箱中继测试")
+public class OrderOutboxRelayTest {
+
+    @Mock
+    private OutboxMapper outboxMapper;
+
+    @Mock
+    private RedisAccessor redisAccessor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private StringRedisConnection connection;
+
+    @InjectMocks
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(relay, "objectMapper", new ObjectMapper());
+        relay.batchSize = 3;
+        relay.init();
+    }
+
+    @Test
+    @DisplayName("载荷格式错误的事件标记为失败，同批其他事件照常发布")
+    void whenOnePayloadCorrupt_thenMarkFailedAndPublishRest() {
+        // 准备测试数据
+        when(outboxMapper.lockPending(3)).thenReturn(List.of(
+            event(1L, "{\"orderNo\":\"A1\"}"), event(2L, "{\"orderNo\":"), event(3L, "{\"orderNo\":\"A3\"}")));
+        when(redisAccessor.pipelined(any())).thenAnswer(invocation -> {
+            Consumer<StringRedisConnection> commands = invocation.getArgument(0);
+            commands.accept(connection);
+            return List.of();
+        });
+
+        // 执行测试
+        int processed = relay.relayBatch();
+
+        // 验证结果
+        assertEquals(3, processed);
+        verify(outboxMapper).markFailed(List.of(2L));
+        verify(connection).publish(eq(OrderOutboxRelay.CHANNEL), contains("\"id\":1"));
+        verify(connection).publish(eq(OrderOutboxRelay.CHANNEL), contains("\"id\":3"));
+        verify(connection, times(2)).publish(eq(OrderOutboxRelay.CHANNEL), any(String.class));
+        verify(outboxMapper).markPublished(eq(List.of(1L, 3L)), any());
+        verify(outboxMapper, never()).incrementAttempts(anyList());
+    }
+
+    @Test
+    @DisplayName("Redis 发布失败时只累计格式正确事件的重试次数")
+    void whenPublishFails_thenIncrementAttemptsOfValidEvents() {
+        // 准备测试数据
+        when(outboxMapper.lockPending(3)).thenReturn(List.of(event(1L, "not json"), event(2L, "{}")));
+        when(redisAccessor.pipelined(any())).thenThrow(new IllegalStateException("连接失败"));
+
+        // 执行测试
+        int processed = relay.relayBatch();
+
+        // 验证结果
+        assertEquals(0, processed);
+        verify(outboxMapper).markFailed(List.of(1L));
+        verify(outboxMapper).incrementAttempts(List.of(2L));
+        verify(outboxMapper, never()).markPublished(anyList(), any());
+    }
+
+    private static OutboxEvent event(Long id, String payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setAggregateId("A" + id);
+        event.setEventType("ORDER_CREATED");
+        event.setPayload(payload);
+        event.setStatus(OutboxEvent.STATUS_PENDING);
+        event.setAttempts(0);
+        return event;
+    }
+}
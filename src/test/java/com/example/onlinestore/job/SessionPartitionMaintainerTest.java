@@ -0,0 +1,97 @@
+package com.example.onlinestore.job;
+
+import com.example.onlinestore.mapper.UserSessionMapper;
+import com.example.onlinestore.mapper.UserSessionMapper.SessionPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("会话分区维护任务测试")
+public class SessionPartitionMaintainerTest {
+
+    @Mock
+    private UserSessionMapper userSessionMapper;
+
+    @InjectMocks
+    private SessionPartitionMaintainer maintainer;
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @BeforeEach
+    void setUp() {
+        maintainer.daysAhead = 2;
+    }
+
+    @Test
+    @DisplayName("首次运行时创建今天及未来的分区")
+    void whenNoDailyPartitions_thenCreateFromToday() {
+        // 准备测试数据
+        when(userSessionMapper.findPartitionNames()).thenReturn(Collections.singletonList("p_future"));
+
+        // 执行测试
+        maintainer.maintain(TODAY);
+
+        // 验证结果
+        List<SessionPartition> created = captureCreated();
+        assertEquals(3, created.size());
+        assertEquals("p20240310", created.get(0).getName());
+        assertEquals("2024-03-11", created.get(0).getLessThan());
+        assertEquals("p20240312", created.get(2).getName());
+        verify(userSessionMapper, never()).dropPartitions(anyList());
+    }
+
+    @Test
+    @DisplayName("删除过期分区并只补齐缺失的分区")
+    void whenPartitionsExist_thenDropExpiredAndAppendMissing() {
+        // 准备测试数据
+        when(userSessionMapper.findPartitionNames()).thenReturn(Arrays.asList(
+            "p20240308", "p20240309", "p20240310", "p20240311", "p_future"));
+
+        // 执行测试
+        maintainer.maintain(TODAY);
+
+        // 验证结果
+        List<SessionPartition> created = captureCreated();
+        assertEquals(1, created.size());
+        assertEquals("p20240312", created.get(0).getName());
+        verify(userSessionMapper).dropPartitions(Arrays.asList("p20240308", "p20240309"));
+    }
+
+    @Test
+    @DisplayName("分区已齐全时不执行 DDL")
+    void whenPartitionsUpToDate_thenDoNothing() {
+        // 准备测试数据
+        when(userSessionMapper.findPartitionNames()).thenReturn(Arrays.asList(
+            "p20240310", "p20240311", "p20240312", "p_future"));
+
+        // 执行测试
+        maintainer.maintain(TODAY);
+
+        // 验证结果
+        verify(userSessionMapper, never()).addPartitions(any());
+        verify(userSessionMapper, never()).dropPartitions(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SessionPartition> captureCreated() {
+        ArgumentCaptor<List<SessionPartition>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userSessionMapper).addPartitions(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.onlinestore.json;
+
+import com.example.onlinestore.dto.UserVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UserVO 序列化器测试")
+public class UserVOSerializerTest {
+
+    private final ObjectMapper defaultMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ObjectMapper mapper = defaultMapper.copy()
+        .registerModule(new SimpleModule().addSerializer(UserVO.class, new UserVOSerializer()));
+
+    @Test
+    @DisplayName("输出与默认序列化一致，包括纳秒、整秒和 null 字段")
+    void whenSerialize_thenSameAsDefault() throws Exception {
+        LocalDateTime[] times = {
+            LocalDateTime.of(2026, 1, 2, 3, 4, 5),
+            LocalDateTime.of(2026, 12, 31, 23, 59, 0),
+            LocalDateTime.of(2026, 6, 1, 0, 0, 0, 500_000_000),
+            LocalDateTime.of(2026, 6, 1, 0, 0, 0, 123_456_000),
+            LocalDateTime.of(2026, 6, 1, 0, 0, 0, 1),
+            LocalDateTime.of(10000, 1, 1, 0, 0),
+            null
+        };
+        for (LocalDateTime time : times) {
+            UserVO vo = new UserVO();
+            vo.setId(7L);
+            vo.setUsername("用户\"7\"");
+            vo.setCreatedAt(time);
+            vo.setUpdatedAt(LocalDateTime.of(2026, 6, 1, 8, 30));
+
+            assertEquals(defaultMapper.writeValueAsString(vo), mapper.writeValueAsString(vo));
+        }
+        assertEquals(defaultMapper.writeValueAsString(new UserVO()), mapper.writeValueAsString(new UserVO()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.onlinestore.logging;
+
+import com.example.onlinestore.security.TokenGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("日志抽样测试")
+public class LogSamplerTest {
+
+    @Test
+    @DisplayName("每个窗口最多输出指定条数，新窗口的第一条报告此前省略的条数")
+    void whenPermitsUsed_thenSuppressAndReport() throws Exception {
+        // 准备测试数据
+        LogSampler sampler = new LogSampler(Duration.ofMillis(200), 2);
+
+        // 执行测试
+        long first = sampler.acquire();
+        long second = sampler.acquire();
+        long third = sampler.acquire();
+        long fourth = sampler.acquire();
+        Thread.sleep(250);
+        long nextWindow = sampler.acquire();
+
+        // 验证结果
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(-1, third);
+        assertEquals(-1, fourth);
+        assertEquals(2, nextWindow);
+    }
+
+    @Test
+    @DisplayName("日志中的 token 只保留前 4 个字符")
+    void whenRedact_thenKeepPrefixOnly() {
+        assertEquals("AbCd****", TokenGenerator.redact("AbCdEfGhIjKlMnOpQrStUv"));
+        assertEquals("****", TokenGenerator.redact("abc"));
+        assertNull(TokenGenerator.redact(null));
+    }
+}
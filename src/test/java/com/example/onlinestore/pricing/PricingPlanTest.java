@@ -0,0 +1,136 @@
+package com.example.onlinestore.pricing;
+
+import com.example.onlinestore.model.Promotion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("促销规则计价测试")
+public class PricingPlanTest {
+
+    private static final long NOW = LocalDateTime.of(2026, 11, 11, 12, 0)
+        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    @Test
+    @DisplayName("没有规则时按标价计价")
+    void whenNoRules_thenListPrice() {
+        PricingResult result = PricingPlan.EMPTY.price(List.of(line(1, 10, 1999, 2)), false, null, NOW);
+
+        assertArrayEquals(new long[]{1999}, result.getUnitPrices());
+        assertEquals(3998, result.getSubtotal());
+        assertEquals(0, result.getDiscount());
+        assertEquals(3998, result.getPayable());
+    }
+
+    @Test
+    @DisplayName("单品促销取成交价最低的一条，限会员的规则只对登录用户生效")
+    void whenSeveralItemRules_thenLowestPriceWins() {
+        // 准备测试数据：商品 1 特价 80 元（限会员），分类 10 九折，全场 95 折
+        PricingPlan plan = PricingPlan.compile(List.of(
+            special("会员价", 1, "80", true),
+            percentOff("分类九折", Promotion.SCOPE_CATEGORY, 10L, "10"),
+            percentOff("全场95折", Promotion.SCOPE_ALL, null, "5")));
+        List<PriceLine> lines = List.of(line(1, 10, 10000, 1), line(2, 20, 10000, 1));
+
+        // 执行测试
+        PricingResult member = plan.price(lines, true, null, NOW);
+        PricingResult guest = plan.price(lines, false, null, NOW);
+
+        // 验证结果
+        assertArrayEquals(new long[]{8000, 9500}, member.getUnitPrices());
+        assertArrayEquals(new String[]{"会员价", "全场95折"}, member.getLinePromotions());
+        assertArrayEquals(new long[]{9000, 9500}, guest.getUnitPrices());
+    }
+
+    @Test
+    @DisplayName("满减按适用范围内的成交金额取最高档，普通满减与优惠券各取一条叠加")
+    void whenAmountOff_thenBestTierAndCouponStack() {
+        // 准备测试数据
+        Promotion coupon = amountOff("新人券", Promotion.SCOPE_ALL, null, "0:5");
+        coupon.setCouponCode("NEW5");
+        PricingPlan plan = PricingPlan.compile(List.of(
+            amountOff("分类满减", Promotion.SCOPE_CATEGORY, 10L, "100:10,200:30"),
+            amountOff("全场满减", Promotion.SCOPE_ALL, null, "300:20"),
+            coupon));
+        // 分类 10 的商品合计 250 元，全部商品合计 310 元
+        List<PriceLine> lines = List.of(line(1, 10, 12500, 2), line(2, 20, 6000, 1));
+
+        // 执行测试
+        PricingResult withoutCoupon = plan.price(lines, true, null, NOW);
+        PricingResult withCoupon = plan.price(lines, true, "NEW5", NOW);
+
+        // 验证结果
+        assertEquals(31000, withoutCoupon.getSubtotal());
+        assertEquals(3000, withoutCoupon.getDiscount());
+        assertEquals(List.of("分类满减"), withoutCoupon.getOrderPromotions());
+        assertEquals(3500, withCoupon.getDiscount());
+        assertEquals(List.of("分类满减", "新人券"), withCoupon.getOrderPromotions());
+        assertEquals(27500, withCoupon.getPayable());
+    }
+
+    @Test
+    @DisplayName("规则只在有效期内生效")
+    void whenOutsideWindow_thenIgnored() {
+        Promotion upcoming = percentOff("明日折扣", Promotion.SCOPE_ALL, null, "50");
+        upcoming.setStartsAt(LocalDateTime.of(2026, 11, 12, 0, 0));
+        Promotion expired = percentOff("昨日折扣", Promotion.SCOPE_ALL, null, "50");
+        expired.setEndsAt(LocalDateTime.of(2026, 11, 11, 0, 0));
+        PricingPlan plan = PricingPlan.compile(List.of(upcoming, expired));
+
+        assertArrayEquals(new long[]{1000}, plan.price(List.of(line(1, 10, 1000, 1)), true, null, NOW).getUnitPrices());
+    }
+
+    @Test
+    @DisplayName("无效的规则被忽略，不影响其他规则")
+    void whenRuleInvalid_thenSkipped() {
+        PricingPlan plan = PricingPlan.compile(List.of(
+            special("分类特价", 0, "1", false),
+            amountOff("格式错误", Promotion.SCOPE_ALL, null, "100-10"),
+            percentOff("超过百分百", Promotion.SCOPE_ALL, null, "150"),
+            percentOff("八折", Promotion.SCOPE_ALL, null, "20")));
+
+        PricingResult result = plan.price(List.of(line(1, 10, 999, 1)), true, null, NOW);
+
+        assertArrayEquals(new long[]{799}, result.getUnitPrices());
+    }
+
+    private static PriceLine line(long productId, long categoryId, long unitPrice, int quantity) {
+        return new PriceLine(productId, categoryId, unitPrice, quantity);
+    }
+
+    private static Promotion special(String name, long productId, String price, boolean memberOnly) {
+        Promotion promotion = promotion(name, Promotion.TYPE_SPECIAL_PRICE,
+            productId == 0 ? Promotion.SCOPE_CATEGORY : Promotion.SCOPE_PRODUCT, productId == 0 ? 10L : productId);
+        promotion.setValue(new BigDecimal(price));
+        promotion.setMemberOnly(memberOnly);
+        return promotion;
+    }
+
+    private static Promotion percentOff(String name, int scopeType, Long scopeId, String percent) {
+        Promotion promotion = promotion(name, Promotion.TYPE_PERCENT_OFF, scopeType, scopeId);
+        promotion.setValue(new BigDecimal(percent));
+        return promotion;
+    }
+
+    private static Promotion amountOff(String name, int scopeType, Long scopeId, String tiers) {
+        Promotion promotion = promotion(name, Promotion.TYPE_AMOUNT_OFF, scopeType, scopeId);
+        promotion.setTiers(tiers);
+        return promotion;
+    }
+
+    private static Promotion promotion(String name, int type, int scopeType, Long scopeId) {
+        Promotion promotion = new Promotion();
+        promotion.setName(name);
+        promotion.setType(type);
+        promotion.setScopeType(scopeType);
+        promotion.setScopeId(scopeId);
+        promotion.setStatus(Promotion.STATUS_ENABLED);
+        return promotion;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.onlinestore.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Redis 访问层测试")
+public class RedisAccessorTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @InjectMocks
+    private RedisAccessor redisAccessor;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(redisAccessor, "clientType", "lettuce");
+        ReflectionTestUtils.setField(redisAccessor, "meterRegistry", meterRegistry);
+        redisAccessor.init();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("命令耗时按命令和客户端模式记录")
+    void whenGet_thenRecordTimerWithClientTag() {
+        // 准备测试数据
+        when(valueOperations.get("token:abc")).thenReturn("{}");
+
+        // 执行测试
+        String value = redisAccessor.get("token:abc");
+
+        // 验证结果
+        assertEquals("{}", value);
+        Timer timer = meterRegistry.get("redis.commands").tag("command", "get").tag("client", "lettuce").timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    @DisplayName("命令执行期间计入在途数，完成或失败后归零")
+    void whenCommandRunning_thenInflightIsTracked() {
+        // 准备测试数据
+        when(valueOperations.get("token:slow")).thenAnswer(invocation -> {
+            assertEquals(1.0, meterRegistry.get("redis.commands.inflight").gauge().value());
+            throw new IllegalStateException("连接失败");
+        });
+
+        // 执行测试
+        assertThrows(IllegalStateException.class, () -> redisAccessor.get("token:slow"));
+
+        // 验证结果
+        assertEquals(0.0, meterRegistry.get("redis.commands.inflight").gauge().value());
+        assertEquals(1, meterRegistry.get("redis.commands").tag("command", "get").timer().count());
+    }
+
+    @Test
+    @DisplayName("读取达到阈值的键成为热点，之后的读取由本地副本返回")
+    void whenKeyIsHot_thenServedFromReplica() {
+        // 准备测试数据
+        enableHotKeys();
+        when(valueOperations.get("token:hot")).thenReturn("{}");
+
+        // 执行测试
+        for (int i = 0; i < 10; i++) {
+            assertEquals("{}", redisAccessor.get("token:hot"));
+        }
+
+        // 验证结果：前 3 次读取访问 Redis，第 3 次后成为热点
+        verify(valueOperations, times(3)).get("token:hot");
+        assertEquals(1, redisAccessor.hotKeys().size());
+        assertEquals(7, redisAccessor.hotKeys().get(0).getReplicaHits());
+        assertEquals(7.0, meterRegistry.get("redis.hotkeys.replica.hits").counter().count());
+    }
+
+    @Test
+    @DisplayName("本实例写入或删除热点键时清除本地副本")
+    void whenHotKeyDeleted_thenReplicaEvicted() {
+        // 准备测试数据
+        enableHotKeys();
+        when(valueOperations.get("token:hot")).thenReturn("{}", "{}", "{}", null);
+        for (int i = 0; i < 3; i++) {
+            redisAccessor.get("token:hot");
+        }
+
+        // 执行测试
+        redisAccessor.delete("token:hot");
+
+        // 验证结果
+        assertNull(redisAccessor.get("token:hot"));
+        verify(valueOperations, times(4)).get("token:hot");
+    }
+
+    @Test
+    @DisplayName("读取期间键被删除时，读到的旧值不写入本地副本")
+    void whenDeletedDuringGet_thenStaleValueNotReplicated() {
+        // 准备测试数据：第 3 次读取成为热点，但 Redis 返回前本实例删除了该键
+        enableHotKeys();
+        when(valueOperations.get("token:hot")).thenReturn("{}", "{}").thenAnswer(invocation -> {
+            redisAccessor.delete("token:hot");
+            return "{}";
+        }).thenReturn(null);
+        for (int i = 0; i < 3; i++) {
+            redisAccessor.get("token:hot");
+        }
+
+        // 执行测试
+        String value = redisAccessor.get("token:hot");
+
+        // 验证结果
+        assertNull(value);
+        verify(valueOperations, times(4)).get("token:hot");
+    }
+
+    @Test
+    @DisplayName("只有配置的前缀参与热点检测；冷却后的热点键在窗口结束时降级")
+    void whenKeyCoolsDown_thenDemoted() {
+        // 准备测试数据
+        enableHotKeys();
+        when(valueOperations.get("stock:1")).thenReturn("5");
+        when(valueOperations.get("catalog:product:1")).thenReturn("{}");
+        for (int i = 0; i < 5; i++) {
+            redisAccessor.get("stock:1");
+            redisAccessor.get("catalog:product:1");
+        }
+        assertEquals(1, redisAccessor.hotKeys().size());
+
+        // 执行测试：第一个窗口内仍然很热，第二个窗口内没有读取
+        redisAccessor.rotateHotKeys();
+        redisAccessor.rotateHotKeys();
+
+        // 验证结果
+        assertTrue(redisAccessor.hotKeys().isEmpty());
+        redisAccessor.get("catalog:product:1");
+        verify(valueOperations, times(4)).get("catalog:product:1");
+        verify(valueOperations, times(5)).get("stock:1");
+    }
+
+    private void enableHotKeys() {
+        ReflectionTestUtils.setField(redisAccessor, "hotKeyEnabled", true);
+        ReflectionTestUtils.setField(redisAccessor, "hotKeyPrefixes", new String[]{"token:", "catalog:"});
+        ReflectionTestUtils.setField(redisAccessor, "hotKeySampleRate", 1);
+        ReflectionTestUtils.setField(redisAccessor, "hotKeyThreshold", 3L);
+        ReflectionTestUtils.setField(redisAccessor, "hotKeyMaxKeys", 4);
+        ReflectionTestUtils.setField(redisAccessor, "replicaTtl", Duration.ofMinutes(1));
+        redisAccessor.init();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.onlinestore.redis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Redis 熔断器测试")
+public class RedisCircuitBreakerTest {
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    @Mock
+    private RedisConnection connection;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RedisCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new RedisCircuitBreaker();
+        ReflectionTestUtils.setField(breaker, "enabled", true);
+        ReflectionTestUtils.setField(breaker, "failureThreshold", 3);
+        ReflectionTestUtils.setField(breaker, "recoveryWindow", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(breaker, "connectionFactory", connectionFactory);
+        ReflectionTestUtils.setField(breaker, "meterRegistry", meterRegistry);
+        breaker.init();
+    }
+
+    @Test
+    @DisplayName("连续失败达到阈值时打开，中间有成功调用则重新计数")
+    void whenConsecutiveFailures_thenOpen() {
+        // 执行测试
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        // 验证结果
+        assertFalse(breaker.isOpen());
+        breaker.recordFailure();
+        assertTrue(breaker.isOpen());
+        assertEquals(1.0, meterRegistry.get("redis.circuit.opened").counter().count());
+        assertEquals(1.0, meterRegistry.get("redis.circuit.open").gauge().value());
+    }
+
+    @Test
+    @DisplayName("打开后由后台探测关闭，探测失败时保持打开")
+    void whenProbeSucceeds_thenClose() {
+        // 准备测试数据
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        when(connectionFactory.getConnection())
+            .thenThrow(new RedisConnectionFailureException("down"))
+            .thenReturn(connection);
+
+        // 执行测试
+        assertFalse(breaker.isRecovering());
+        breaker.probe();
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.isRecovering());
+        breaker.probe();
+
+        // 验证结果
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.isRecovering());
+        verify(connection).ping();
+        breaker.recordFailure();
+        assertFalse(breaker.isOpen());
+    }
+
+    @Test
+    @DisplayName("熔断关闭时探测不访问 Redis")
+    void whenClosed_thenProbeSkipsRedis() {
+        // 执行测试
+        breaker.probe();
+
+        // 验证结果
+        verify(connectionFactory, never()).getConnection();
+        assertFalse(breaker.isRecovering());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.onlinestore.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("倒排索引测试")
+public class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    @DisplayName("分词：字母数字分开，汉字索引为单字和二元组，查询取覆盖全部汉字的二元组")
+    void whenTokenize_thenSplitWordsAndHanBigrams() {
+        Map<String, Integer> freqs = new HashMap<>();
+        Tokenizer.addTerms("ＩＰｈｏｎｅ15 手机壳", 1, freqs);
+
+        assertEquals(Map.of("iphone", 1, "15", 1, "手", 1, "机", 1, "壳", 1, "手机", 1, "机壳", 1), freqs);
+        assertEquals(List.of("iphone", "15", "手机", "机壳"), Tokenizer.queryTerms("iPhone15 手机壳"));
+        assertEquals(List.of("壳"), Tokenizer.queryTerms("壳"));
+        assertEquals(List.of("机械", "键盘"), Tokenizer.queryTerms("机械键盘"));
+    }
+
+    @Test
+    @DisplayName("只返回包含全部查询词的文档，词频高、文档短的排在前面")
+    void whenSearch_thenMatchAllTermsRankedByBm25() {
+        // 准备测试数据
+        add(1, 1, "机械键盘 青轴", "");
+        add(2, 1, "无线鼠标", "可搭配机械键盘使用");
+        add(3, 1, "机械键盘 红轴 机械键盘 背光", "");
+        add(4, 1, "显示器", "");
+
+        // 执行测试
+        SearchResult result = index.search(Tokenizer.queryTerms("机械键盘"), null, 0, 10);
+
+        // 验证结果：名称按 3 倍计入，描述命中的排在最后
+        assertEquals(3, result.getTotal());
+        assertArrayEquals(new long[]{3, 1, 2}, result.getKeys());
+        assertEquals(0, index.search(Tokenizer.queryTerms("机械 鼠标 显示器"), null, 0, 10).getTotal());
+    }
+
+    @Test
+    @DisplayName("分页返回指定区间，总数为全部匹配数；可按分组过滤")
+    void whenPageAndFilter_thenReturnSlice() {
+        for (int i = 1; i <= 25; i++) {
+            add(i, i % 2, "蓝牙耳机", "");
+        }
+
+        SearchResult page = index.search(List.of("耳机"), null, 20, 10);
+        SearchResult odd = index.search(List.of("耳机"), 1L, 0, 100);
+
+        // 得分相同时较晚加入的在前
+        assertEquals(25, page.getTotal());
+        assertArrayEquals(new long[]{5, 4, 3, 2, 1}, page.getKeys());
+        assertEquals(13, odd.getTotal());
+        assertEquals(25, odd.getKeys()[0]);
+    }
+
+    @Test
+    @DisplayName("更新后按新内容检索，删除后不再返回，压缩后结果不变")
+    void whenUpdateAndRemove_thenReflectLatestContent() {
+        // 准备测试数据：足够多的删除以触发压缩
+        for (int i = 1; i <= 3000; i++) {
+            add(i, 1, "商品" + i + " 充电器", "");
+        }
+        for (int i = 1; i <= 2000; i++) {
+            index.remove(i);
+        }
+        add(2500, 1, "数据线", "");
+
+        // 执行测试
+        SearchResult charger = index.search(Tokenizer.queryTerms("充电器"), null, 0, 5);
+        SearchResult cable = index.search(Tokenizer.queryTerms("数据线"), null, 0, 5);
+
+        // 验证结果
+        assertEquals(999, index.search(Tokenizer.queryTerms("充电器"), null, 0, 1).getTotal());
+        assertArrayEquals(new long[]{3000, 2999, 2998, 2997, 2996}, charger.getKeys());
+        assertArrayEquals(new long[]{2500}, cable.getKeys());
+        assertEquals(1000, index.size());
+        assertFalse(index.remove(1));
+    }
+
+    @Test
+    @DisplayName("前缀补全按包含该词的文档数排序")
+    void whenSuggest_thenOrderByDocumentFrequency() {
+        add(1, 1, "iphone case", "");
+        add(2, 1, "iphone charger", "");
+        add(3, 1, "ipad case", "");
+
+        assertEquals(List.of("iphone", "ipad"), index.suggest("ip", 10));
+        assertEquals(List.of("iphone"), index.suggest("ip", 1));
+        assertEquals(List.of(), index.suggest("iphone", 10));
+    }
+
+    private void add(long key, long group, String name, String description) {
+        Map<String, Integer> freqs = new HashMap<>();
+        Tokenizer.addTerms(name, 3, freqs);
+        Tokenizer.addTerms(description, 1, freqs);
+        index.upsert(key, group, freqs);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.onlinestore.security;
+
+import com.example.onlinestore.redis.RedisAccessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("登录凭据缓存测试")
+public class CredentialCacheTest {
+
+    @Mock
+    private RedisAccessor redisAccessor;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CredentialCache credentialCache;
+
+    @BeforeEach
+    void setUp() {
+        credentialCache = new CredentialCache();
+        ReflectionTestUtils.setField(credentialCache, "enabled", true);
+        ReflectionTestUtils.setField(credentialCache, "ttl", Duration.ofMinutes(5));
+        // 测试中使用较小的 cost，只验证流程
+        ReflectionTestUtils.setField(credentialCache, "cpuCost", 16);
+        ReflectionTestUtils.setField(credentialCache, "memoryCost", 8);
+        ReflectionTestUtils.setField(credentialCache, "parallelization", 1);
+        ReflectionTestUtils.setField(credentialCache, "redisAccessor", redisAccessor);
+        ReflectionTestUtils.setField(credentialCache, "meterRegistry", meterRegistry);
+        credentialCache.init();
+    }
+
+    @Test
+    @DisplayName("写入的是加盐 scrypt 摘要而不是明文，同一密码可通过校验，其他密码不能")
+    void whenPut_thenStoreSaltedHashAndVerify() {
+        // 执行测试
+        credentialCache.put("alice", "secret");
+        credentialCache.put("alice", "secret");
+
+        // 验证结果
+        ArgumentCaptor<String> encoded = ArgumentCaptor.forClass(String.class);
+        verify(redisAccessor, times(2)).eval(any(RedisScript.class),
+            eq(List.of("auth:cred:alice")), encoded.capture(), eq("revoked"), eq("300000"));
+        String first = encoded.getAllValues().get(0);
+        assertFalse(first.contains("secret"));
+        assertNotEquals(first, encoded.getAllValues().get(1));
+
+        when(redisAccessor.get("auth:cred:alice")).thenReturn(first);
+        assertTrue(credentialCache.verify("alice", "secret"));
+        assertFalse(credentialCache.verify("alice", "wrong"));
+        assertEquals(1.0, meterRegistry.get("user.auth.credential-cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("user.auth.credential-cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("失效后写入墓碑，墓碑不会被当作凭据")
+    void whenInvalidated_thenWriteTombstone() {
+        // 执行测试
+        credentialCache.invalidate("alice");
+
+        // 验证结果
+        verify(redisAccessor).set("auth:cred:alice", "revoked", 300000L, TimeUnit.MILLISECONDS);
+        when(redisAccessor.get("auth:cred:alice")).thenReturn("revoked");
+        assertFalse(credentialCache.verify("alice", "revoked"));
+    }
+
+    @Test
+    @DisplayName("Redis 不可用时不命中，登录照常调用 user-service")
+    void whenRedisDown_thenMiss() {
+        // 准备测试数据
+        when(redisAccessor.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        // 执行测试与验证结果
+        assertFalse(credentialCache.verify("alice", "secret"));
+    }
+
+    @Test
+    @DisplayName("未开启时不访问 Redis")
+    void whenDisabled_thenSkipRedis() {
+        // 准备测试数据
+        ReflectionTestUtils.setField(credentialCache, "enabled", false);
+
+        // 执行测试
+        credentialCache.put("alice", "secret");
+
+        // 验证结果
+        assertFalse(credentialCache.verify("alice", "secret"));
+        verify(redisAccessor, never()).get(anyString());
+        verify(redisAccessor, never()).eval(any(RedisScript.class), any(), any(String[].class));
+    }
+}
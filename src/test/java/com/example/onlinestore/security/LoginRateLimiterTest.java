@@ -0,0 +1,120 @@
+package com.example.onlinestore.security;
+
+import com.example.onlinestore.redis.RedisAccessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("登录限流测试")
+public class LoginRateLimiterTest {
+
+    @Mock
+    private RedisAccessor redisAccessor;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoginRateLimiter loginRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        loginRateLimiter = new LoginRateLimiter();
+        ReflectionTestUtils.setField(loginRateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(loginRateLimiter, "period", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(loginRateLimiter, "usernameCapacity", 3);
+        ReflectionTestUtils.setField(loginRateLimiter, "usernameIpCapacity", 2);
+        ReflectionTestUtils.setField(loginRateLimiter, "ipCapacity", 5);
+        ReflectionTestUtils.setField(loginRateLimiter, "maxKeys", 1000);
+        ReflectionTestUtils.setField(loginRateLimiter, "redisAccessor", redisAccessor);
+        ReflectionTestUtils.setField(loginRateLimiter, "meterRegistry", meterRegistry);
+        loginRateLimiter.init();
+    }
+
+    @Test
+    @DisplayName("同一用户名超出本地令牌桶后直接拒绝，不再访问 Redis；用户名不区分大小写")
+    void whenLocalBucketEmpty_thenRejectWithoutRedis() {
+        // 准备测试数据
+        when(redisAccessor.eval(any(), anyList(), any(String[].class))).thenReturn(List.of(0L, 0L));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, loginRateLimiter.acquire("Alice", "10.0.0." + i));
+        }
+
+        // 执行测试
+        long retryAfter = loginRateLimiter.acquire(" alice", "10.0.0.9");
+
+        // 验证结果：每 20 秒补充一个令牌
+        assertEquals(20, retryAfter);
+        assertEquals(0, loginRateLimiter.acquire("bob", "10.0.0.9"));
+        verify(redisAccessor, times(4)).eval(any(), anyList(), any(String[].class));
+        assertEquals(1.0, meterRegistry.get("auth.login.throttled")
+            .tag("scope", "username").tag("layer", "local").counter().count());
+    }
+
+    @Test
+    @DisplayName("同一 IP 对一个用户名的尝试耗尽后只拒绝该 IP，用户本人从其他 IP 仍可登录")
+    void whenUsernameIpBucketEmpty_thenOtherIpsStillAllowed() {
+        // 准备测试数据：攻击者从 10.0.0.1 耗尽 alice 的次数
+        when(redisAccessor.eval(any(), anyList(), any(String[].class))).thenReturn(List.of(0L, 0L));
+        for (int i = 0; i < 2; i++) {
+            assertEquals(0, loginRateLimiter.acquire("alice", "10.0.0.1"));
+        }
+
+        // 执行测试
+        long retryAfter = loginRateLimiter.acquire("alice", "10.0.0.1");
+
+        // 验证结果：每 30 秒补充一个令牌；用户名的总次数未被消耗，其他 IP 不受影响
+        assertEquals(30, retryAfter);
+        assertEquals(0, loginRateLimiter.acquire("alice", "10.0.0.2"));
+        assertEquals(1.0, meterRegistry.get("auth.login.throttled")
+            .tag("scope", "username_ip").tag("layer", "local").counter().count());
+    }
+
+    @Test
+    @DisplayName("本地放行但超出集群窗口时拒绝，并按窗口返回等待时间")
+    void whenGlobalWindowFull_thenReject() {
+        // 准备测试数据
+        when(redisAccessor.eval(any(), anyList(), any(String[].class))).thenReturn(List.of(1500L, 2L));
+
+        // 执行测试
+        long retryAfter = loginRateLimiter.acquire("alice", "10.0.0.1");
+
+        // 验证结果
+        assertEquals(2, retryAfter);
+        assertEquals(1.0, meterRegistry.get("auth.login.throttled")
+            .tag("scope", "ip").tag("layer", "global").counter().count());
+    }
+
+    @Test
+    @DisplayName("Redis 不可用时只按本地令牌桶限流")
+    void whenRedisUnavailable_thenLocalLimitOnly() {
+        // 准备测试数据
+        when(redisAccessor.eval(any(), anyList(), any(String[].class)))
+            .thenThrow(new RedisConnectionFailureException("连接失败"));
+
+        // 执行测试
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, loginRateLimiter.acquire("user" + i, "10.0.0.1"));
+        }
+        long retryAfter = loginRateLimiter.acquire("carol", "10.0.0.1");
+
+        // 验证结果：IP 桶容量为 5，第 6 次被拒绝
+        assertEquals(12, retryAfter);
+    }
+}
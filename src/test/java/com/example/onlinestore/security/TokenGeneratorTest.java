@@ -0,0 +1,53 @@
+package com.example.onlinestore.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("token 生成器测试")
+public class TokenGeneratorTest {
+
+    private final TokenGenerator tokenGenerator = new TokenGenerator();
+
+    @Test
+    @DisplayName("生成 22 字符的 base64url token，解码为 128 位")
+    void whenNextToken_thenReturnCompactUrlSafeToken() {
+        String token = tokenGenerator.nextToken();
+
+        assertEquals(22, token.length());
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(TokenGenerator.TOKEN_BYTES, Base64.getUrlDecoder().decode(token).length);
+    }
+
+    @Test
+    @DisplayName("多线程并发生成的 token 不重复")
+    void whenGenerateConcurrently_thenTokensAreUnique() throws Exception {
+        // 准备测试数据
+        int threads = 8;
+        int perThread = 10_000;
+        Set<String> tokens = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        // 执行测试
+        for (int i = 0; i < threads; i++) {
+            pool.submit(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    tokens.add(tokenGenerator.nextToken());
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        // 验证结果
+        assertEquals(threads * perThread, tokens.size());
+    }
+}
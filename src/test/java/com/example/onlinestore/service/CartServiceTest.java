@@ -0,0 +1,245 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.CartItemRequest;
+import com.example.onlinestore.dto.CartItemVO;
+import com.example.onlinestore.dto.CartVO;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.security.TokenGenerator;
+import com.example.onlinestore.service.impl.CartServiceImpl;
+import com.example.onlinestore.service.impl.PricingServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("购物车服务测试")
+public class CartServiceTest {
+
+    private static final RedisScript<?> MERGE_SCRIPT =
+        (RedisScript<?>) ReflectionTestUtils.getField(CartServiceImpl.class, "MERGE_SCRIPT");
+
+    @Mock
+    private RedisAccessor redisAccessor;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private MessageSource messageSource;
+
+    @Mock
+    private StringRedisConnection connection;
+
+    private CartServiceImpl cartService;
+
+    @BeforeEach
+    void setUp() {
+        cartService = new CartServiceImpl();
+        ReflectionTestUtils.setField(cartService, "maxItems", 100);
+        ReflectionTestUtils.setField(cartService, "maxQuantity", 99);
+        ReflectionTestUtils.setField(cartService, "userCartTtl", Duration.ofDays(30));
+        ReflectionTestUtils.setField(cartService, "guestCartTtl", Duration.ofDays(7));
+        ReflectionTestUtils.setField(cartService, "redisAccessor", redisAccessor);
+        ReflectionTestUtils.setField(cartService, "productService", productService);
+        ReflectionTestUtils.setField(cartService, "inventoryService", inventoryService);
+        ReflectionTestUtils.setField(cartService, "pricingService", new PricingServiceImpl());
+        ReflectionTestUtils.setField(cartService, "tokenGenerator", new TokenGenerator());
+        ReflectionTestUtils.setField(cartService, "messageSource", messageSource);
+        lenient().when(messageSource.getMessage(anyString(), isNull(), any(Locale.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(productService.getProducts(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, Product> products = new HashMap<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                products.put(id, product(id));
+            }
+            return products;
+        });
+        lenient().when(inventoryService.getAvailable(anyCollection())).thenAnswer(invocation -> {
+            Map<Long, Integer> stocks = new HashMap<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                stocks.put(id, 10);
+            }
+            return stocks;
+        });
+    }
+
+    @Test
+    @DisplayName("加购在一个流水线中累加数量并读取购物车，展示时商品和库存各批量读取一次")
+    void whenAddItems_thenSinglePipelineAndBatchedRender() {
+        // 准备测试数据：同一商品在请求中出现两次，数量合并
+        pipelineReturns(List.of(3L, 1L, true, Map.of("1", "3", "2", "1")));
+
+        // 执行测试
+        CartVO cart = cartService.addItems(7L, List.of(item(1L, 2), item(2L, 1), item(1L, 1)));
+
+        // 验证结果
+        verify(connection).hIncrBy("cart:7", "1", 3);
+        verify(connection).hIncrBy("cart:7", "2", 1);
+        verify(connection).expire("cart:7", Duration.ofDays(30).toSeconds());
+        verify(connection).hGetAll("cart:7");
+        verify(redisAccessor, times(1)).pipelined(any());
+        verify(inventoryService, times(1)).getAvailable(anyCollection());
+
+        assertEquals(4, cart.getTotalQuantity());
+        assertEquals(new BigDecimal("40.00"), cart.getTotalAmount());
+        assertEquals(List.of(1L, 2L), cart.getItems().stream().map(CartItemVO::getProductId).toList());
+        assertTrue(cart.getItems().get(0).isPurchasable());
+    }
+
+    @Test
+    @DisplayName("累加后超过数量上限的商品被截断")
+    void whenQuantityExceedsLimit_thenCap() {
+        // 准备测试数据
+        pipelineReturns(List.of(120L, true, Map.of("1", "120")), List.of(true));
+
+        // 执行测试
+        CartVO cart = cartService.addItems(7L, List.of(item(1L, 30)));
+
+        // 验证结果
+        verify(connection).hMSet("cart:7", Map.of("1", "99"));
+        assertEquals(99, cart.getItems().get(0).getQuantity());
+    }
+
+    @Test
+    @DisplayName("加购不存在或已下架的商品被拒绝，不写入 Redis")
+    void whenProductNotOnSale_thenReject() {
+        // 准备测试数据
+        when(productService.getProducts(anyCollection())).thenReturn(Map.of());
+
+        // 执行测试
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> cartService.addItems(7L, List.of(item(1L, 1))));
+
+        // 验证结果
+        assertEquals("error.product.not.found", exception.getMessage());
+        verify(redisAccessor, never()).pipelined(any());
+    }
+
+    @Test
+    @DisplayName("商品种类超过上限时撤销本次新增的商品")
+    void whenCartFull_thenRollBackCreatedItems() {
+        // 准备测试数据：1 为已有商品，2 为新增商品
+        ReflectionTestUtils.setField(cartService, "maxItems", 1);
+        pipelineReturns(List.of(2L, 1L, true, Map.of("1", "2", "2", "1")));
+
+        // 执行测试
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> cartService.addItems(7L, List.of(item(1L, 1), item(2L, 1))));
+
+        // 验证结果
+        assertEquals("error.cart.items.full", exception.getMessage());
+        verify(redisAccessor).hashDelete("cart:7", "2");
+    }
+
+    @Test
+    @DisplayName("修改数量时数量为 0 的商品被移除，变更在一个流水线中完成")
+    void whenUpdateWithZero_thenRemoveInSamePipeline() {
+        // 准备测试数据
+        pipelineReturns(List.of(false, 1L, true, Map.of("1", "5")));
+
+        // 执行测试
+        CartVO cart = cartService.updateItems(7L, List.of(item(1L, 5), item(2L, 0)));
+
+        // 验证结果
+        verify(connection).hSet("cart:7", "1", "5");
+        verify(connection).hDel("cart:7", "2");
+        verify(productService).getProducts(List.of(1L));
+        assertEquals(5, cart.getTotalQuantity());
+    }
+
+    @Test
+    @DisplayName("已下架或库存不足的商品标记为不可购买，不计入合计金额")
+    void whenProductOffSaleOrStockShort_thenNotPurchasable() {
+        // 准备测试数据
+        when(redisAccessor.hashEntries("cart:7")).thenReturn(Map.of("1", "2", "2", "20", "3", "1"));
+        when(productService.getProducts(anyCollection())).thenReturn(Map.of(1L, product(1L), 2L, product(2L)));
+
+        // 执行测试
+        CartVO cart = cartService.getCart(7L);
+
+        // 验证结果
+        List<CartItemVO> items = cart.getItems();
+        assertTrue(items.get(0).isPurchasable());
+        assertFalse(items.get(1).isPurchasable());
+        assertFalse(items.get(2).isPurchasable());
+        assertNull(items.get(2).getName());
+        assertEquals(new BigDecimal("20.00"), cart.getTotalAmount());
+        assertEquals(23, cart.getTotalQuantity());
+    }
+
+    @Test
+    @DisplayName("无效的游客购物车标识被拒绝")
+    void whenGuestCartIdInvalid_thenReject() {
+        assertThrows(IllegalArgumentException.class, () -> cartService.getGuestCart("../cart:1"));
+        verifyNoInteractions(redisAccessor);
+    }
+
+    @Test
+    @DisplayName("游客购物车通过一次脚本调用合并到用户购物车")
+    void whenMergeGuestCart_thenSingleScriptCall() {
+        // 准备测试数据
+        String cartId = cartService.createGuestCart().getCartId();
+        doReturn(3L).when(redisAccessor).eval(eq(MERGE_SCRIPT), anyList(), any(String[].class));
+
+        // 执行测试
+        int merged = cartService.mergeGuestCart(cartId, 7L);
+
+        // 验证结果
+        assertEquals(3, merged);
+        verify(redisAccessor).eval(eq(MERGE_SCRIPT), eq(List.of("cart:guest:" + cartId, "cart:7")),
+            eq(new String[]{"99", "100", String.valueOf(Duration.ofDays(30).toSeconds())}));
+    }
+
+    /**
+     * 依次为每次流水线调用返回结果，同时在 mock 连接上执行回调以便校验发送的命令
+     */
+    @SafeVarargs
+    private void pipelineReturns(List<Object>... results) {
+        List<List<Object>> remaining = new ArrayList<>(List.of(results));
+        when(redisAccessor.pipelined(any())).thenAnswer(invocation -> {
+            invocation.<Consumer<StringRedisConnection>>getArgument(0).accept(connection);
+            return remaining.remove(0);
+        });
+    }
+
+    private static CartItemRequest item(Long productId, int quantity) {
+        CartItemRequest item = new CartItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("商品" + id);
+        product.setPrice(new BigDecimal("10.00"));
+        product.setStatus(Product.STATUS_ON_SALE);
+        return product;
+    }
+}
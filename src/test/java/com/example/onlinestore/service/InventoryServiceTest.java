@@ -0,0 +1,229 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.Reservation;
+import com.example.onlinestore.mapper.InventoryMapper;
+import com.example.onlinestore.model.Inventory;
+import com.example.onlinestore.model.InventoryDeduction;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.security.TokenGenerator;
+import com.example.onlinestore.service.impl.InventoryServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("库存服务测试")
+public class InventoryServiceTest {
+
+    private static final RedisScript<?> RESERVE_SCRIPT =
+        (RedisScript<?>) ReflectionTestUtils.getField(InventoryServiceImpl.class, "RESERVE_SCRIPT");
+    private static final RedisScript<?> RELEASE_SCRIPT =
+        (RedisScript<?>) ReflectionTestUtils.getField(InventoryServiceImpl.class, "RELEASE_SCRIPT");
+    private static final RedisScript<?> LOAD_SCRIPT =
+        (RedisScript<?>) ReflectionTestUtils.getField(InventoryServiceImpl.class, "LOAD_SCRIPT");
+    private static final RedisScript<?> DEDUCT_SCRIPT =
+        (RedisScript<?>) ReflectionTestUtils.getField(InventoryServiceImpl.class, "DEDUCT_SCRIPT");
+
+    @Mock
+    private RedisAccessor redisAccessor;
+
+    @Mock
+    private InventoryMapper inventoryMapper;
+
+    @Mock
+    private MessageSource messageSource;
+
+    private InventoryServiceImpl inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new InventoryServiceImpl();
+        ReflectionTestUtils.setField(inventoryService, "reservationTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(inventoryService, "soldOutTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(inventoryService, "redisAccessor", redisAccessor);
+        ReflectionTestUtils.setField(inventoryService, "inventoryMapper", inventoryMapper);
+        ReflectionTestUtils.setField(inventoryService, "tokenGenerator", new TokenGenerator());
+        ReflectionTestUtils.setField(inventoryService, "messageSource", messageSource);
+        ReflectionTestUtils.setField(inventoryService, "meterRegistry", new SimpleMeterRegistry());
+        inventoryService.init();
+        lenient().when(messageSource.getMessage(eq("error.inventory.insufficient"), isNull(), any(Locale.class)))
+            .thenReturn("库存不足");
+    }
+
+    @Test
+    @DisplayName("预占成功返回预占信息")
+    void whenStockEnough_thenReserve() {
+        // 准备测试数据
+        doReturn(List.of(1L, 9L)).when(redisAccessor).eval(eq(RESERVE_SCRIPT), anyList(), any(String[].class));
+
+        // 执行测试
+        Reservation reservation = inventoryService.reserve(7L, 100L, 1);
+
+        // 验证结果
+        assertNotNull(reservation.getReservationId());
+        assertEquals(100L, reservation.getProductId());
+        assertNotNull(reservation.getExpireTime());
+    }
+
+    @Test
+    @DisplayName("售罄后在本地直接拒绝，不再访问 Redis")
+    void whenSoldOut_thenRejectLocally() {
+        // 准备测试数据
+        doReturn(List.of(0L, 0L)).when(redisAccessor).eval(eq(RESERVE_SCRIPT), anyList(), any(String[].class));
+
+        // 执行测试
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.reserve(7L, 100L, 1));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> inventoryService.reserve(8L, 100L, 1));
+
+        // 验证结果
+        assertEquals("库存不足", exception.getMessage());
+        verify(redisAccessor, times(1)).eval(eq(RESERVE_SCRIPT), anyList(), any(String[].class));
+    }
+
+    @Test
+    @DisplayName("库存未加载时从数据库加载后重试")
+    void whenStockNotLoaded_thenLoadFromDatabaseAndRetry() {
+        // 准备测试数据
+        Inventory inventory = new Inventory();
+        inventory.setProductId(100L);
+        inventory.setStock(5);
+        when(inventoryMapper.findByProductId(100L)).thenReturn(inventory);
+        doReturn(List.of(-1L, 0L), List.of(1L, 4L))
+            .when(redisAccessor).eval(eq(RESERVE_SCRIPT), anyList(), any(String[].class));
+        doReturn(5L).when(redisAccessor).eval(eq(LOAD_SCRIPT), anyList(), any(String[].class));
+
+        // 执行测试
+        Reservation reservation = inventoryService.reserve(7L, 100L, 1);
+
+        // 验证结果
+        assertNotNull(reservation);
+        verify(redisAccessor).eval(eq(LOAD_SCRIPT), eq(List.of("inventory:stock:100", "inventory:reserved:100")),
+            eq(new String[]{"5"}));
+    }
+
+    @Test
+    @DisplayName("批量查询库存只发送一次 MGET，缺失的商品从数据库加载")
+    void whenGetAvailableInBatch_thenSingleMultiGet() {
+        // 准备测试数据
+        when(redisAccessor.multiGet(List.of("inventory:stock:1", "inventory:stock:2", "inventory:stock:3")))
+            .thenReturn(Arrays.asList("5", null, "-1"));
+        doReturn(8L).when(redisAccessor).eval(eq(LOAD_SCRIPT), anyList(), any(String[].class));
+
+        // 执行测试
+        Map<Long, Integer> available = inventoryService.getAvailable(List.of(1L, 2L, 3L));
+
+        // 验证结果
+        assertEquals(Map.of(1L, 5, 2L, 8, 3L, 0), available);
+        verify(redisAccessor, never()).get(anyString());
+        verify(inventoryMapper).findByProductId(2L);
+    }
+
+    @Test
+    @DisplayName("释放预占后清除本地售罄标记")
+    void whenRelease_thenClearSoldOutMark() {
+        // 准备测试数据：先售罄
+        doReturn(List.of(1L, 0L), List.of(1L, 0L))
+            .when(redisAccessor).eval(eq(RESERVE_SCRIPT), anyList(), any(String[].class));
+        Reservation reservation = inventoryService.reserve(7L, 100L, 1);
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.reserve(8L, 100L, 1));
+        when(redisAccessor.hashGet("inventory:reservation:" + reservation.getReservationId(), "productId"))
+            .thenReturn("100");
+        doReturn(1L).when(redisAccessor).eval(eq(RELEASE_SCRIPT), anyList(), any(String[].class));
+
+        // 执行测试
+        assertTrue(inventoryService.release(reservation.getReservationId(), 7L));
+
+        // 验证结果：再次预占会访问 Redis
+        inventoryService.reserve(8L, 100L, 1);
+        verify(redisAccessor, times(2)).eval(eq(RESERVE_SCRIPT), anyList(), any(String[].class));
+    }
+
+    @Test
+    @DisplayName("释放他人的预占被拒绝")
+    void whenReleaseOthersReservation_thenDenied() {
+        when(redisAccessor.hashGet("inventory:reservation:r1", "productId")).thenReturn("100");
+        doReturn(-1L).when(redisAccessor).eval(eq(RELEASE_SCRIPT), anyList(), any(String[].class));
+
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.release("r1", 8L));
+    }
+
+    @Test
+    @DisplayName("回写时未售出库存为可售加已预占")
+    @SuppressWarnings("unchecked")
+    void whenReconcile_thenWriteStockIncludingReserved() {
+        // 准备测试数据
+        when(redisAccessor.popMembers("inventory:dirty", 500)).thenReturn(List.of("1", "2"));
+        when(redisAccessor.multiGet(anyList())).thenReturn(Arrays.asList("3", "2", null, null));
+
+        // 执行测试
+        int count = inventoryService.reconcile(500);
+
+        // 验证结果
+        assertEquals(1, count);
+        ArgumentCaptor<List<Inventory>> captor = ArgumentCaptor.forClass(List.class);
+        verify(inventoryMapper).upsertInventories(captor.capture());
+        Inventory inventory = captor.getValue().get(0);
+        assertEquals(1L, inventory.getProductId());
+        assertEquals(5, inventory.getStock());
+        assertEquals(2, inventory.getReserved());
+    }
+
+    @Test
+    @DisplayName("回写失败时放回待回写集合")
+    void whenReconcileFails_thenRequeue() {
+        // 准备测试数据
+        when(redisAccessor.popMembers("inventory:dirty", 500)).thenReturn(List.of("1"));
+        when(redisAccessor.multiGet(anyList())).thenReturn(Arrays.asList("3", "0"));
+        when(inventoryMapper.upsertInventories(anyList())).thenThrow(new IllegalStateException("Database error"));
+
+        // 执行测试
+        assertThrows(IllegalStateException.class, () -> inventoryService.reconcile(500));
+
+        // 验证结果
+        verify(redisAccessor).addMembers("inventory:dirty", "1");
+    }
+
+    @Test
+    @DisplayName("回写前补扣确认失败的预占，补扣后删除记录，库存未加载时先加载")
+    void whenReconcileWithDeductions_thenDeductAndDelete() {
+        // 准备测试数据
+        InventoryDeduction deduction = new InventoryDeduction();
+        deduction.setReservationId("r1");
+        deduction.setOrderNo("order-1");
+        deduction.setProductId(100L);
+        deduction.setQuantity(2);
+        when(inventoryMapper.findDeductions(500)).thenReturn(List.of(deduction));
+        doReturn(-1L, 1L).when(redisAccessor).eval(eq(DEDUCT_SCRIPT), anyList(), any(String[].class));
+        doReturn(5L).when(redisAccessor).eval(eq(LOAD_SCRIPT), anyList(), any(String[].class));
+
+        // 执行测试
+        inventoryService.reconcile(500);
+
+        // 验证结果
+        verify(inventoryMapper).findByProductId(100L);
+        verify(redisAccessor, times(2)).eval(eq(DEDUCT_SCRIPT),
+            eq(List.of("inventory:reservation:r1", "inventory:stock:100", "inventory:reserved:100",
+                "inventory:reservations", "inventory:dirty", "inventory:deducted:r1")),
+            eq("r1"), eq("100"), eq("2"), anyString());
+        verify(inventoryMapper).deleteDeduction("r1");
+    }
+}
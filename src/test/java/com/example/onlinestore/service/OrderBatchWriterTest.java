@@ -0,0 +1,206 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.mapper.OrderMapper;
+import com.example.onlinestore.mapper.OutboxMapper;
+import com.example.onlinestore.model.Order;
+import com.example.onlinestore.model.OutboxEvent;
+import com.example.onlinestore.service.impl.OrderBatchWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("订单组提交测试")
+public class OrderBatchWriterTest {
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private OutboxMapper outboxMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderBatchWriter writer;
+
+    /** 每次 insertOrders 调用写入的订单号 */
+    private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        writer = new OrderBatchWriter();
+        ReflectionTestUtils.setField(writer, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 10);
+        ReflectionTestUtils.setField(writer, "maxQueueWait", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(writer, "pendingTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(writer, "orderMapper", orderMapper);
+        ReflectionTestUtils.setField(writer, "outboxMapper", outboxMapper);
+        ReflectionTestUtils.setField(writer, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(writer, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("上一批提交期间到达的订单合并为一个事务写入")
+    void whenOrdersArriveDuringCommit_thenWriteAsOneBatch() throws Exception {
+        // 准备测试数据：第一批写入阻塞，期间再提交 5 个订单
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        recordBatches(firstStarted, releaseFirst);
+        writer.init();
+
+        CompletableFuture<Void> first = writer.submit(order("o0"), event("o0"));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Void>> rest = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            rest.add(writer.submit(order("o" + i), event("o" + i)));
+        }
+
+        // 执行测试
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(rest.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // 验证结果
+        assertEquals(List.of(List.of("o0"), List.of("o1", "o2", "o3", "o4", "o5")), batches);
+        verify(outboxMapper, times(2)).insertEvents(anyList());
+    }
+
+    @Test
+    @DisplayName("整批写入失败时逐个重试，只有出错的订单失败")
+    void whenBatchFails_thenRetryIndividually() throws Exception {
+        // 准备测试数据：包含 bad 的写入都失败
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        recordBatches(firstStarted, releaseFirst);
+        doAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            batches.add(orders.stream().map(Order::getOrderNo).toList());
+            if (orders.stream().anyMatch(order -> order.getOrderNo().equals("bad"))) {
+                throw new DuplicateKeyException("uk_orders_order_no");
+            }
+            return orders.size();
+        }).when(orderMapper).insertOrders(argThat(orders -> !orders.get(0).getOrderNo().equals("o0")));
+        writer.init();
+
+        CompletableFuture<Void> first = writer.submit(order("o0"), event("o0"));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> good = writer.submit(order("good"), event("good"));
+        CompletableFuture<Void> bad = writer.submit(order("bad"), event("bad"));
+
+        // 执行测试
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        // 验证结果
+        good.get(5, TimeUnit.SECONDS);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DuplicateKeyException.class, exception.getCause());
+        assertEquals(List.of(List.of("o0"), List.of("good", "bad"), List.of("good"), List.of("bad")), batches);
+    }
+
+    @Test
+    @DisplayName("队列已满时立即拒绝")
+    void whenQueueFull_thenReject() throws Exception {
+        // 准备测试数据：写入线程阻塞在第一批，队列容量为 1
+        ReflectionTestUtils.setField(writer, "queueCapacity", 1);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        recordBatches(firstStarted, releaseFirst);
+        writer.init();
+
+        CompletableFuture<Void> first = writer.submit(order("o0"), event("o0"));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = writer.submit(order("o1"), event("o1"));
+
+        // 执行测试
+        CompletableFuture<Void> rejected = writer.submit(order("o2"), event("o2"));
+
+        // 验证结果
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("在队列中等待超过 max-queue-wait 的订单不再写入")
+    void whenQueuedTooLong_thenReject() throws Exception {
+        // 准备测试数据：写入线程阻塞在第一批，期间排队的订单超过等待上限
+        ReflectionTestUtils.setField(writer, "maxQueueWait", Duration.ofMillis(50));
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        recordBatches(firstStarted, releaseFirst);
+        writer.init();
+
+        CompletableFuture<Void> first = writer.submit(order("o0"), event("o0"));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = writer.submit(order("o1"), event("o1"));
+        Thread.sleep(100);
+
+        // 执行测试
+        releaseFirst.countDown();
+
+        // 验证结果
+        first.get(5, TimeUnit.SECONDS);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        assertEquals(List.of(List.of("o0")), batches);
+    }
+
+    /**
+     * 记录每批写入的订单号，第一批写入时阻塞直到 releaseFirst
+     */
+    private void recordBatches(CountDownLatch firstStarted, CountDownLatch releaseFirst) {
+        lenient().doAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            batches.add(orders.stream().map(Order::getOrderNo).toList());
+            if (firstStarted.getCount() > 0) {
+                firstStarted.countDown();
+                assertTrue(releaseFirst.await(5, TimeUnit.SECONDS));
+            }
+            return orders.size();
+        }).when(orderMapper).insertOrders(anyList());
+    }
+
+    private static Order order(String orderNo) {
+        Order order = new Order();
+        order.setOrderNo(orderNo);
+        order.setItems(List.of());
+        return order;
+    }
+
+    private static OutboxEvent event(String orderNo) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateId(orderNo);
+        return event;
+    }
+}
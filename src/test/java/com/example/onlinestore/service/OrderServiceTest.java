@@ -0,0 +1,255 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.OrderItemRequest;
+import com.example.onlinestore.dto.OrderRequest;
+import com.example.onlinestore.dto.PlacedOrder;
+import com.example.onlinestore.dto.Reservation;
+import com.example.onlinestore.mapper.OrderMapper;
+import com.example.onlinestore.model.Order;
+import com.example.onlinestore.model.OutboxEvent;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.security.TokenGenerator;
+import com.example.onlinestore.service.impl.OrderBatchWriter;
+import com.example.onlinestore.service.impl.OrderServiceImpl;
+import com.example.onlinestore.service.impl.PricingServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("订单服务测试")
+public class OrderServiceTest {
+
+    private static final String KEY = "order:idempotency:7:key-1";
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @Mock
+    private OrderBatchWriter orderBatchWriter;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private CartService cartService;
+
+    @Mock
+    private RedisAccessor redisAccessor;
+
+    @Mock
+    private MessageSource messageSource;
+
+    private OrderServiceImpl orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderServiceImpl();
+        ReflectionTestUtils.setField(orderService, "idempotencyTtl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(orderService, "pendingTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(orderService, "writeTimeout", Duration.ofSeconds(3));
+        ReflectionTestUtils.setField(orderService, "orderMapper", orderMapper);
+        ReflectionTestUtils.setField(orderService, "orderBatchWriter", orderBatchWriter);
+        ReflectionTestUtils.setField(orderService, "productService", productService);
+        ReflectionTestUtils.setField(orderService, "inventoryService", inventoryService);
+        ReflectionTestUtils.setField(orderService, "cartService", cartService);
+        ReflectionTestUtils.setField(orderService, "pricingService", new PricingServiceImpl());
+        ReflectionTestUtils.setField(orderService, "redisAccessor", redisAccessor);
+        ReflectionTestUtils.setField(orderService, "tokenGenerator", new TokenGenerator());
+        ReflectionTestUtils.setField(orderService, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(orderService, "messageSource", messageSource);
+        lenient().when(messageSource.getMessage(anyString(), isNull(), any(Locale.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(productService.getProducts(anyCollection()))
+            .thenReturn(Map.of(1L, product(1L, "10.00"), 2L, product(2L, "2.50")));
+    }
+
+    @Test
+    @DisplayName("下单成功后确认预占、记录幂等结果并移除购物车中的商品")
+    void whenPlaceOrder_thenWriteAndSettle() {
+        // 准备测试数据
+        when(redisAccessor.setIfAbsent(eq(KEY), eq("PENDING"), anyLong(), any())).thenReturn(true);
+        when(inventoryService.reserve(eq(7L), anyLong(), anyInt()))
+            .thenReturn(reservation("r1"), reservation("r2"));
+        when(orderBatchWriter.submit(any(Order.class), any(OutboxEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(inventoryService.confirm(anyString())).thenReturn(true);
+
+        // 执行测试：同一商品出现两次，数量合并
+        PlacedOrder placed = orderService.placeOrder(7L, "key-1", request(item(1L, 1), item(2L, 2), item(1L, 1)));
+
+        // 验证结果
+        Order order = placed.getOrder();
+        assertFalse(placed.isReplayed());
+        assertEquals(new BigDecimal("25.00"), order.getTotalAmount());
+        assertEquals(2, order.getItems().size());
+        verify(inventoryService).reserve(7L, 1L, 2);
+        verify(inventoryService).confirm("r1");
+        verify(inventoryService).confirm("r2");
+        verify(inventoryService, never()).recordDeduction(anyString(), any());
+        verify(redisAccessor).set(KEY, order.getOrderNo(), TimeUnit.HOURS.toMillis(24), TimeUnit.MILLISECONDS);
+        verify(cartService).removeItems(7L, List.of(1L, 2L));
+
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(orderBatchWriter).submit(eq(order), event.capture());
+        assertEquals("ORDER_CREATED", event.getValue().getEventType());
+        assertEquals(order.getOrderNo(), event.getValue().getAggregateId());
+    }
+
+    @Test
+    @DisplayName("确认预占出错时重试，预占已释放时记为待扣减库存")
+    void whenConfirmFails_thenRetryAndRecordDeduction() {
+        // 准备测试数据：r1 第一次确认出错，r2 已过期释放
+        when(redisAccessor.setIfAbsent(eq(KEY), eq("PENDING"), anyLong(), any())).thenReturn(true);
+        Reservation r2 = reservation("r2");
+        when(inventoryService.reserve(eq(7L), anyLong(), anyInt())).thenReturn(reservation("r1"), r2);
+        when(orderBatchWriter.submit(any(Order.class), any(OutboxEvent.class)))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        when(inventoryService.confirm("r1")).thenThrow(new IllegalStateException("Redis error")).thenReturn(true);
+        when(inventoryService.confirm("r2")).thenReturn(false);
+
+        // 执行测试
+        PlacedOrder placed = orderService.placeOrder(7L, "key-1", request(item(1L, 1), item(2L, 1)));
+
+        // 验证结果
+        verify(inventoryService, times(2)).confirm("r1");
+        verify(inventoryService).confirm("r2");
+        verify(inventoryService).recordDeduction(placed.getOrder().getOrderNo(), r2);
+        verify(inventoryService, never()).release(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("幂等键已有结果时返回首次创建的订单，不重复下单")
+    void whenKeyAlreadyUsed_thenReplay() {
+        // 准备测试数据
+        Order existing = new Order();
+        existing.setOrderNo("order-1");
+        existing.setUserId(7L);
+        when(redisAccessor.setIfAbsent(eq(KEY), anyString(), anyLong(), any())).thenReturn(false);
+        when(redisAccessor.get(KEY)).thenReturn("order-1");
+        when(orderMapper.findByOrderNo("order-1")).thenReturn(existing);
+
+        // 执行测试
+        PlacedOrder placed = orderService.placeOrder(7L, "key-1", request(item(1L, 1)));
+
+        // 验证结果
+        assertTrue(placed.isReplayed());
+        assertSame(existing, placed.getOrder());
+        verifyNoInteractions(inventoryService, orderBatchWriter);
+    }
+
+    @Test
+    @DisplayName("相同幂等键的请求仍在处理中时拒绝")
+    void whenKeyPending_thenInProgress() {
+        when(redisAccessor.setIfAbsent(eq(KEY), anyString(), anyLong(), any())).thenReturn(false);
+        when(redisAccessor.get(KEY)).thenReturn("PENDING");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> orderService.placeOrder(7L, "key-1", request(item(1L, 1))));
+
+        assertEquals("error.order.in.progress", exception.getMessage());
+        verifyNoInteractions(inventoryService);
+    }
+
+    @Test
+    @DisplayName("库存不足时释放已预占的商品并删除幂等键")
+    void whenReserveFails_thenReleaseEarlierReservations() {
+        // 准备测试数据
+        when(redisAccessor.setIfAbsent(eq(KEY), anyString(), anyLong(), any())).thenReturn(true);
+        when(inventoryService.reserve(7L, 1L, 1)).thenReturn(reservation("r1"));
+        when(inventoryService.reserve(7L, 2L, 1)).thenThrow(new IllegalArgumentException("库存不足"));
+
+        // 执行测试
+        assertThrows(IllegalArgumentException.class,
+            () -> orderService.placeOrder(7L, "key-1", request(item(1L, 1), item(2L, 1))));
+
+        // 验证结果
+        verify(inventoryService).release("r1", null);
+        verify(redisAccessor).delete(KEY);
+        verifyNoInteractions(orderBatchWriter);
+    }
+
+    @Test
+    @DisplayName("写入队列已满时释放预占并删除幂等键，客户端可用同一幂等键重试")
+    void whenWriterRejects_thenRollBackReservations() {
+        // 准备测试数据
+        when(redisAccessor.setIfAbsent(eq(KEY), anyString(), anyLong(), any())).thenReturn(true);
+        when(inventoryService.reserve(eq(7L), anyLong(), anyInt())).thenReturn(reservation("r1"));
+        when(orderBatchWriter.submit(any(Order.class), any(OutboxEvent.class)))
+            .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("订单写入队列已满")));
+
+        // 执行测试
+        assertThrows(RejectedExecutionException.class,
+            () -> orderService.placeOrder(7L, "key-1", request(item(1L, 1))));
+
+        // 验证结果
+        verify(inventoryService).release("r1", null);
+        verify(inventoryService, never()).confirm(anyString());
+        verify(redisAccessor).delete(KEY);
+    }
+
+    @Test
+    @DisplayName("只能查询自己的订单")
+    void whenOrderBelongsToOtherUser_thenNotFound() {
+        Order order = new Order();
+        order.setOrderNo("order-1");
+        order.setUserId(8L);
+        when(orderMapper.findByOrderNo("order-1")).thenReturn(order);
+
+        assertNull(orderService.getOrder(7L, "order-1"));
+        verify(orderMapper, never()).findItemsByOrderNo(anyString());
+    }
+
+    private static OrderRequest request(OrderItemRequest... items) {
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(items));
+        return request;
+    }
+
+    private static OrderItemRequest item(Long productId, int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static Reservation reservation(String id) {
+        Reservation reservation = new Reservation();
+        reservation.setReservationId(id);
+        return reservation;
+    }
+
+    private static Product product(Long id, String price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("商品" + id);
+        product.setPrice(new BigDecimal(price));
+        product.setStatus(Product.STATUS_ON_SALE);
+        return product;
+    }
+}
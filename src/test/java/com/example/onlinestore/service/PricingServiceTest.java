@@ -0,0 +1,90 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.mapper.PromotionMapper;
+import com.example.onlinestore.model.Promotion;
+import com.example.onlinestore.pricing.PriceLine;
+import com.example.onlinestore.service.impl.PricingServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("计价服务测试")
+public class PricingServiceTest {
+
+    private static final List<PriceLine> CART = List.of(new PriceLine(1L, 10L, 10000, 1));
+
+    @Mock
+    private PromotionMapper promotionMapper;
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    private PricingServiceImpl pricingService;
+
+    @BeforeEach
+    void setUp() {
+        pricingService = new PricingServiceImpl();
+        ReflectionTestUtils.setField(pricingService, "promotionMapper", promotionMapper);
+        ReflectionTestUtils.setField(pricingService, "environment", environment);
+    }
+
+    @Test
+    @DisplayName("配置中的规则在启动时编译，配置刷新后重新编译")
+    void whenConfigRulesChange_thenRecompile() {
+        // 准备测试数据
+        environment.setProperty("pricing.rules[0].name", "分类九折");
+        environment.setProperty("pricing.rules[0].type", "2");
+        environment.setProperty("pricing.rules[0].scope-type", "1");
+        environment.setProperty("pricing.rules[0].scope-id", "10");
+        environment.setProperty("pricing.rules[0].value", "10");
+        environment.setProperty("pricing.rules[0].starts-at", "2020-01-01T00:00:00");
+        pricingService.init();
+        long before = pricingService.price(CART, true, null).getUnitPrices()[0];
+
+        // 执行测试
+        environment.setProperty("pricing.rules[0].value", "20");
+        pricingService.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("pricing.rules[0].value")));
+
+        // 验证结果
+        assertEquals(9000, before);
+        assertEquals(8000, pricingService.price(CART, true, null).getUnitPrices()[0]);
+    }
+
+    @Test
+    @DisplayName("数据库规则与配置规则合并；加载失败时保留上一次的规则")
+    void whenDatabaseReloadFails_thenKeepCurrentRules() {
+        // 准备测试数据
+        Promotion special = new Promotion();
+        special.setName("特价");
+        special.setType(Promotion.TYPE_SPECIAL_PRICE);
+        special.setScopeType(Promotion.SCOPE_PRODUCT);
+        special.setScopeId(1L);
+        special.setValue(new BigDecimal("66.00"));
+        special.setStatus(Promotion.STATUS_ENABLED);
+        when(promotionMapper.findEffective(any()))
+            .thenReturn(List.of(special))
+            .thenThrow(new RuntimeException("数据库不可用"));
+        pricingService.init();
+
+        // 执行测试
+        pricingService.scheduledReload();
+        pricingService.scheduledReload();
+
+        // 验证结果
+        assertEquals(6600, pricingService.price(CART, false, null).getUnitPrices()[0]);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.ProductPageRequest;
+import com.example.onlinestore.dto.ProductRequest;
+import com.example.onlinestore.dto.Versioned;
+import com.example.onlinestore.event.CatalogChangedEvent;
+import com.example.onlinestore.mapper.CategoryMapper;
+import com.example.onlinestore.mapper.ProductMapper;
+import com.example.onlinestore.model.Category;
+import com.example.onlinestore.model.Product;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.service.impl.CatalogCache;
+import com.example.onlinestore.service.impl.ProductServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("商品服务测试")
+public class ProductServiceTest {
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private RedisAccessor redisAccessor;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MessageSource messageSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        CatalogCache catalogCache = new CatalogCache();
+        ReflectionTestUtils.setField(catalogCache, "localMaxSize", 100L);
+        ReflectionTestUtils.setField(catalogCache, "localTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(catalogCache, "pageTtl", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(catalogCache, "redisTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(catalogCache, "redisAccessor", redisAccessor);
+        ReflectionTestUtils.setField(catalogCache, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(catalogCache, "meterRegistry", new SimpleMeterRegistry());
+        catalogCache.init();
+
+        productService = new ProductServiceImpl();
+        ReflectionTestUtils.setField(productService, "productMapper", productMapper);
+        ReflectionTestUtils.setField(productService, "categoryMapper", categoryMapper);
+        ReflectionTestUtils.setField(productService, "catalogCache", catalogCache);
+        ReflectionTestUtils.setField(productService, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(productService, "messageSource", messageSource);
+    }
+
+    @Test
+    @DisplayName("首次读取回源数据库并写入 Redis，之后命中本地缓存")
+    void whenGetProductTwice_thenLoadOnceAndFillRedis() {
+        // 准备测试数据
+        when(productMapper.findById(1L)).thenReturn(product(1L, Product.STATUS_ON_SALE));
+
+        // 执行测试
+        Versioned<Product> first = productService.getProduct(1L);
+        Versioned<Product> second = productService.getProduct(1L);
+
+        // 验证结果
+        assertNotNull(first);
+        assertSame(first, second);
+        assertTrue(first.getEtag().startsWith("\""));
+        assertTrue(first.getLastModified() > 0);
+        verify(productMapper, times(1)).findById(1L);
+        verify(redisAccessor).set(eq("catalog:product:1"), anyString(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("本地缓存未命中时使用 Redis 中的数据，不查询数据库")
+    void whenRedisHit_thenSkipDatabase() throws Exception {
+        // 准备测试数据
+        String json = objectMapper.writeValueAsString(product(2L, Product.STATUS_ON_SALE));
+        when(redisAccessor.get("catalog:product:2")).thenReturn(json);
+
+        // 执行测试
+        Versioned<Product> product = productService.getProduct(2L);
+
+        // 验证结果
+        assertEquals("商品2", product.getValue().getName());
+        verify(productMapper, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Redis 不可用时回源数据库")
+    void whenRedisUnavailable_thenFallBackToDatabase() {
+        // 准备测试数据
+        when(redisAccessor.get(anyString())).thenThrow(new IllegalStateException("连接失败"));
+        doThrow(new IllegalStateException("连接失败")).when(redisAccessor).set(anyString(), anyString(), anyLong(), any());
+        when(productMapper.findById(3L)).thenReturn(product(3L, Product.STATUS_ON_SALE));
+
+        // 执行测试并验证结果
+        assertNotNull(productService.getProduct(3L));
+    }
+
+    @Test
+    @DisplayName("批量读取时本地未命中的键一次 MGET，Redis 也未命中的一次查询数据库，下架商品不返回")
+    void whenGetProducts_thenBatchRedisAndDatabase() throws Exception {
+        // 准备测试数据：5 已在本地缓存，6 在 Redis 中，7、8 需要回源
+        when(productMapper.findById(5L)).thenReturn(product(5L, Product.STATUS_ON_SALE));
+        productService.getProduct(5L);
+        String json = objectMapper.writeValueAsString(product(6L, Product.STATUS_ON_SALE));
+        when(redisAccessor.multiGet(anyList())).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(0);
+            return keys.stream().map(key -> key.equals("catalog:product:6") ? json : null).toList();
+        });
+        when(productMapper.findByIds(anyCollection()))
+            .thenReturn(List.of(product(7L, Product.STATUS_ON_SALE), product(8L, Product.STATUS_OFF_SALE)));
+
+        // 执行测试
+        Map<Long, Product> products = productService.getProducts(List.of(5L, 6L, 7L, 8L, 9L));
+
+        // 验证结果
+        assertEquals(List.of(5L, 6L, 7L), List.copyOf(products.keySet()));
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisAccessor).multiGet(keys.capture());
+        assertEquals(Set.of("catalog:product:6", "catalog:product:7", "catalog:product:8", "catalog:product:9"),
+            Set.copyOf(keys.getValue()));
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(productMapper).findByIds(ids.capture());
+        assertEquals(Set.of(7L, 8L, 9L), Set.copyOf(ids.getValue()));
+        verify(redisAccessor).pipelined(any());
+    }
+
+    @Test
+    @DisplayName("下架商品不对外返回")
+    void whenProductOffSale_thenReturnNull() {
+        when(productMapper.findById(4L)).thenReturn(product(4L, Product.STATUS_OFF_SALE));
+
+        assertNull(productService.getProduct(4L));
+    }
+
+    @Test
+    @DisplayName("更新商品后失效缓存并广播")
+    void whenUpdateProduct_thenInvalidateCache() {
+        // 准备测试数据
+        when(productMapper.findById(5L)).thenReturn(product(5L, Product.STATUS_ON_SALE));
+        when(categoryMapper.findById(10L)).thenReturn(new Category());
+        productService.getProduct(5L);
+        ProductRequest request = new ProductRequest();
+        request.setCategoryId(10L);
+        request.setName("新名称");
+        request.setPrice(new BigDecimal("9.90"));
+
+        // 执行测试：服务发布事件，事务提交后由监听方法失效缓存
+        productService.updateProduct(5L, request);
+        ArgumentCaptor<CatalogChangedEvent> eventCaptor = ArgumentCaptor.forClass(CatalogChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        productService.onCatalogChanged(eventCaptor.getValue());
+        productService.getProduct(5L);
+
+        // 验证结果
+        verify(productMapper).updateProduct(any(Product.class));
+        verify(redisAccessor).delete("catalog:product:5");
+        verify(redisAccessor).publish("catalog:invalidate", "product:5");
+        verify(productMapper, times(3)).findById(5L);
+    }
+
+    @Test
+    @DisplayName("分类不存在时拒绝创建商品")
+    void whenCategoryMissing_thenRejectCreate() {
+        // 准备测试数据
+        when(messageSource.getMessage(eq("error.category.not.found"), isNull(), any(Locale.class)))
+            .thenReturn("分类不存在");
+        ProductRequest request = new ProductRequest();
+        request.setCategoryId(99L);
+
+        // 执行测试并验证异常
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> productService.createProduct(request));
+        assertEquals("分类不存在", exception.getMessage());
+        verify(productMapper, never()).insertProduct(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("其他实例的失效通知后重新加载不返回热点副本中的旧值")
+    void whenPeerInvalidatesHotKey_thenReloadSkipsReplica() throws Exception {
+        // 准备测试数据：catalog: 被配置为热点键，商品 3 已在 RedisAccessor 中有副本
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        RedisAccessor accessor = new RedisAccessor();
+        ReflectionTestUtils.setField(accessor, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(accessor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(accessor, "clientType", "lettuce");
+        ReflectionTestUtils.setField(accessor, "hotKeyEnabled", true);
+        ReflectionTestUtils.setField(accessor, "hotKeyPrefixes", new String[]{"catalog:"});
+        ReflectionTestUtils.setField(accessor, "hotKeySampleRate", 1);
+        ReflectionTestUtils.setField(accessor, "hotKeyThreshold", 1L);
+        ReflectionTestUtils.setField(accessor, "hotKeyMaxKeys", 4);
+        ReflectionTestUtils.setField(accessor, "replicaTtl", Duration.ofMinutes(1));
+        accessor.init();
+        CatalogCache catalogCache = (CatalogCache) ReflectionTestUtils.getField(productService, "catalogCache");
+        ReflectionTestUtils.setField(catalogCache, "redisAccessor", accessor);
+
+        Product stale = product(3L, Product.STATUS_ON_SALE);
+        Product updated = product(3L, Product.STATUS_ON_SALE);
+        updated.setName("新名称");
+        when(valueOperations.get("catalog:product:3")).thenReturn(
+            objectMapper.writeValueAsString(stale), objectMapper.writeValueAsString(updated));
+        assertEquals("商品3", productService.getProduct(3L).getValue().getName());
+
+        // 执行测试：其他实例修改商品后发布失效通知
+        catalogCache.onMessage(new DefaultMessage("catalog:invalidate".getBytes(StandardCharsets.UTF_8),
+            "product:3".getBytes(StandardCharsets.UTF_8)), null);
+        Versioned<Product> reloaded = productService.getProduct(3L);
+
+        // 验证结果
+        assertEquals("新名称", reloaded.getValue().getName());
+        verify(valueOperations, times(2)).get("catalog:product:3");
+    }
+
+    @Test
+    @DisplayName("分页列表只缓存在本地")
+    void whenListProducts_thenCachePageLocally() {
+        // 准备测试数据
+        ProductPageRequest request = new ProductPageRequest();
+        when(productMapper.findOnSaleWithPagination(null, 0, 20)).thenReturn(List.of(product(6L, Product.STATUS_ON_SALE)));
+        when(productMapper.countOnSale(null)).thenReturn(1L);
+
+        // 执行测试
+        Versioned<PageResponse<Product>> first = productService.listProducts(request);
+        Versioned<PageResponse<Product>> second = productService.listProducts(request);
+
+        // 验证结果
+        assertSame(first, second);
+        assertEquals(1L, first.getValue().getTotal());
+        assertEquals(Versioned.NO_LAST_MODIFIED, first.getLastModified());
+        verify(productMapper, times(1)).countOnSale(null);
+        verify(redisAccessor, never()).set(anyString(), anyString(), anyLong(), any());
+    }
+
+    private static Product product(Long id, int status) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCategoryId(10L);
+        product.setName("商品" + id);
+        product.setPrice(new BigDecimal("19.90"));
+        product.setStatus(status);
+        product.setCreatedAt(LocalDateTime.now());
+        product.setUpdatedAt(LocalDateTime.now());
+        return product;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.dto.UserImportReport;
+import com.example.onlinestore.mapper.UserMapper;
+import com.example.onlinestore.model.User;
+import com.example.onlinestore.service.UserImportService.ImportFormat;
+import com.example.onlinestore.service.impl.UserImportServiceImpl;
+import com.example.onlinestore.service.impl.UserVersionStamp;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("批量用户导入测试")
+public class UserImportServiceTest {
+
+    @Mock
+    private SqlSession batchSession;
+
+    @Mock
+    private UserMapper batchMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UserVersionStamp userVersionStamp;
+
+    private UserImportServiceImpl importService;
+
+    /** 模拟数据库中已存在的用户名，包含之前块插入的数据 */
+    private final Set<String> database = new HashSet<>();
+    private final List<List<User>> insertedChunks = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        importService = new UserImportServiceImpl();
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        ReflectionTestUtils.setField(importService, "commitInterval", 2);
+        ReflectionTestUtils.setField(importService, "rejectSampleLimit", 10);
+        ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "batchSession", batchSession);
+        ReflectionTestUtils.setField(importService, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(importService, "userVersionStamp", userVersionStamp);
+
+        when(batchSession.getMapper(UserMapper.class)).thenReturn(batchMapper);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            ((TransactionCallback<Boolean>) invocation.getArgument(0)).doInTransaction(null));
+        lenient().when(batchMapper.findExistingUsernames(any())).thenAnswer(invocation -> {
+            Collection<String> usernames = invocation.getArgument(0);
+            return usernames.stream().filter(database::contains).toList();
+        });
+        lenient().when(batchMapper.batchInsertUsers(anyList())).thenAnswer(invocation -> {
+            List<User> users = new ArrayList<>(invocation.<List<User>>getArgument(0));
+            insertedChunks.add(users);
+            users.forEach(user -> database.add(user.getUsername()));
+            return users.size();
+        });
+        lenient().when(batchSession.flushStatements()).thenAnswer(invocation -> {
+            BatchResult result = new BatchResult(null, "INSERT", null);
+            result.setUpdateCounts(new int[]{insertedChunks.get(insertedChunks.size() - 1).size()});
+            return Collections.singletonList(result);
+        });
+    }
+
+    @Test
+    @DisplayName("CSV 导入：跳过表头，块内和跨块去重")
+    void whenImportCsv_thenDeduplicateAcrossChunks() throws Exception {
+        // 准备测试数据
+        database.add("existing");
+        String csv = "username,email\nalice,a@example.com\nbob\nalice\nexisting\ncarol\n\"bob\"\n";
+
+        // 执行测试
+        UserImportReport report = importService.importUsers(stream(csv), ImportFormat.CSV);
+
+        // 验证结果
+        assertEquals(6, report.getProcessed());
+        assertEquals(3, report.getInserted());
+        assertEquals(3, report.getDuplicates());
+        assertEquals(0, report.getRejected());
+        assertTrue(database.containsAll(List.of("alice", "bob", "carol")));
+        verify(userVersionStamp, atLeastOnce()).bump();
+    }
+
+    @Test
+    @DisplayName("NDJSON 导入：记录无效行")
+    void whenImportNdjsonWithInvalidLines_thenReject() throws Exception {
+        // 准备测试数据
+        String ndjson = "{\"username\":\"dave\"}\n{broken\n{\"name\":\"x\"}\n{\"username\":\"has space\"}\n";
+
+        // 执行测试
+        UserImportReport report = importService.importUsers(stream(ndjson), ImportFormat.NDJSON);
+
+        // 验证结果
+        assertEquals(4, report.getProcessed());
+        assertEquals(1, report.getInserted());
+        assertEquals(3, report.getRejected());
+        assertEquals(3, report.getRejectSamples().size());
+        assertTrue(report.getRejectSamples().get(0).startsWith("第2行"));
+    }
+
+    @Test
+    @DisplayName("按提交间隔分多个事务提交")
+    void whenManyChunks_thenCommitPeriodically() throws Exception {
+        // 准备测试数据：7 个用户，每块 2 个，每 2 块提交一次
+        String csv = "u1\nu2\nu3\nu4\nu5\nu6\nu7\n";
+
+        // 执行测试
+        UserImportReport report = importService.importUsers(stream(csv), ImportFormat.CSV);
+
+        // 验证结果
+        assertEquals(7, report.getInserted());
+        assertEquals(4, insertedChunks.size());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
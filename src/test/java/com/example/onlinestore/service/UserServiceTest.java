@@ -1,25 +1,49 @@
 package com.example.onlinestore.service;
 
+import com.example.onlinestore.client.UserAuthClient;
 import com.example.onlinestore.dto.LoginRequest;
 import com.example.onlinestore.dto.LoginResponse;
+import com.example.onlinestore.dto.PageResponse;
+import com.example.onlinestore.dto.UserPageRequest;
+import com.example.onlinestore.dto.UserVO;
 import com.example.onlinestore.model.User;
+import com.example.onlinestore.model.UserSession;
 import com.example.onlinestore.mapper.UserMapper;
+import com.example.onlinestore.mapper.UserSessionMapper;
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.redis.RedisCircuitBreaker;
+import com.example.onlinestore.security.CredentialCache;
+import com.example.onlinestore.security.TokenGenerator;
+import com.example.onlinestore.service.impl.SessionFallback;
 import com.example.onlinestore.service.impl.UserServiceImpl;
+import com.example.onlinestore.service.impl.UserVersionStamp;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,16 +53,34 @@ import static org.mockito.Mockito.*;
 public class UserServiceTest {
 
     @Mock
-    private RestTemplate restTemplate;
+    private UserAuthClient userAuthClient;
+
+    @Mock
+    private CredentialCache credentialCache;
 
     @Mock
     private UserMapper userMapper;
 
     @Mock
-    private StringRedisTemplate redisTemplate;
+    private UserSessionMapper userSessionMapper;
+
+    @Mock
+    private RedisAccessor redisAccessor;
+
+    @Mock
+    private RedisCircuitBreaker redisCircuitBreaker;
+
+    @Mock
+    private SessionFallback sessionFallback;
+
+    @Mock
+    private UserVersionStamp userVersionStamp;
+
+    @Spy
+    private TokenGenerator tokenGenerator = new TokenGenerator();
 
     @Mock
-    private ValueOperations<String, String> valueOperations;
+    private CartService cartService;
 
     @Mock
     private MessageSource messageSource;
@@ -48,14 +90,15 @@ public class UserServiceTest {
 
     private static final String ADMIN_USERNAME = "admin";
     private static final String ADMIN_PASSWORD = "password";
-    private static final String USER_SERVICE_BASE_URL = "http://user-service";
 
     @BeforeEach
     void setUp() {
         // 设置配置项的值
         ReflectionTestUtils.setField(userService, "adminUsername", ADMIN_USERNAME);
         ReflectionTestUtils.setField(userService, "adminPassword", ADMIN_PASSWORD);
-        ReflectionTestUtils.setField(userService, "userServiceBaseUrl", USER_SERVICE_BASE_URL);
+        ReflectionTestUtils.setField(userService, "tokenTtl", Duration.ofDays(1));
+        ReflectionTestUtils.setField(userService, "queryExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(userService, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
     }
 
     @Test
@@ -67,7 +110,6 @@ public class UserServiceTest {
 
         // 设置mock行为：用户不存在
         when(userMapper.findByUsername(ADMIN_USERNAME)).thenReturn(null);
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
         // 执行测试
         LoginResponse response = userService.login(request);
@@ -80,11 +122,13 @@ public class UserServiceTest {
         // 验证调用
         verify(userMapper).findByUsername(ADMIN_USERNAME);
         verify(userMapper).insertUser(any(User.class));
+        verify(userVersionStamp).bump();
         verify(userMapper, never()).updateUserToken(any(User.class));
-        verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
+        verify(userSessionMapper).insertSession(any(UserSession.class));
+        verify(redisAccessor).set(anyString(), anyString(), anyLong(), any());
         
         // 验证没有调用用户服务
-        verify(restTemplate, never()).postForObject(anyString(), any(), any());
+        verify(userAuthClient, never()).authenticate(any());
     }
 
     @Test
@@ -100,7 +144,6 @@ public class UserServiceTest {
         existingUser.setToken("old-token");
         existingUser.setTokenExpireTime(LocalDateTime.now().minusDays(1));
         when(userMapper.findByUsername(ADMIN_USERNAME)).thenReturn(existingUser);
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
         // 执行测试
         LoginResponse response = userService.login(request);
@@ -114,11 +157,50 @@ public class UserServiceTest {
         // 验证调用
         verify(userMapper).findByUsername(ADMIN_USERNAME);
         verify(userMapper, never()).insertUser(any(User.class));
-        verify(userMapper).updateUserToken(any(User.class));
-        verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
+        verify(userVersionStamp, never()).bump();
+        verify(userMapper, never()).updateUserToken(any(User.class));
+        verify(userSessionMapper).insertSession(any(UserSession.class));
+        verify(redisAccessor).set(anyString(), anyString(), anyLong(), any());
         
         // 验证没有调用用户服务
-        verify(restTemplate, never()).postForObject(anyString(), any(), any());
+        verify(userAuthClient, never()).authenticate(any());
+    }
+
+    @Test
+    void whenLoginWithGuestCart_thenMergeIntoUserCart() {
+        // 准备测试数据
+        LoginRequest request = new LoginRequest();
+        request.setUsername(ADMIN_USERNAME);
+        request.setPassword(ADMIN_PASSWORD);
+        request.setGuestCartId("guest-cart-id");
+        User existingUser = new User();
+        existingUser.setId(42L);
+        existingUser.setUsername(ADMIN_USERNAME);
+        when(userMapper.findByUsername(ADMIN_USERNAME)).thenReturn(existingUser);
+
+        // 执行测试
+        LoginResponse response = userService.login(request);
+
+        // 验证结果
+        assertNotNull(response.getToken());
+        verify(cartService).mergeGuestCart("guest-cart-id", 42L);
+    }
+
+    @Test
+    void whenMergeGuestCartFails_thenLoginStillSucceeds() {
+        // 准备测试数据
+        LoginRequest request = new LoginRequest();
+        request.setUsername(ADMIN_USERNAME);
+        request.setPassword(ADMIN_PASSWORD);
+        request.setGuestCartId("guest-cart-id");
+        User existingUser = new User();
+        existingUser.setId(42L);
+        existingUser.setUsername(ADMIN_USERNAME);
+        when(userMapper.findByUsername(ADMIN_USERNAME)).thenReturn(existingUser);
+        when(cartService.mergeGuestCart(anyString(), anyLong())).thenThrow(new IllegalStateException("连接失败"));
+
+        // 执行测试并验证结果
+        assertNotNull(userService.login(request).getToken());
     }
 
     @Test
@@ -130,9 +212,8 @@ public class UserServiceTest {
 
         // 设置mock行为：用户不存在，认证成功
         when(userMapper.findByUsername("normal_user")).thenReturn(null);
-        when(restTemplate.postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class)))
+        when(userAuthClient.authenticate(any(LoginRequest.class)))
             .thenReturn(true);
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
         // 执行测试
         LoginResponse response = userService.login(request);
@@ -145,9 +226,12 @@ public class UserServiceTest {
         // 验证调用
         verify(userMapper).findByUsername("normal_user");
         verify(userMapper).insertUser(any(User.class));
+        verify(userVersionStamp).bump();
         verify(userMapper, never()).updateUserToken(any(User.class));
-        verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
-        verify(restTemplate).postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class));
+        verify(userSessionMapper).insertSession(any(UserSession.class));
+        verify(redisAccessor).set(anyString(), anyString(), anyLong(), any());
+        verify(userAuthClient).authenticate(any(LoginRequest.class));
+        verify(credentialCache).put("normal_user", "password");
 
         // 验证插入的用户数据
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
@@ -167,13 +251,13 @@ public class UserServiceTest {
 
         // 设置mock行为：用户已存在，认证成功
         User existingUser = new User();
+        existingUser.setId(42L);
         existingUser.setUsername("normal_user");
         existingUser.setToken("old-token");
         existingUser.setTokenExpireTime(LocalDateTime.now().minusDays(1));
         when(userMapper.findByUsername("normal_user")).thenReturn(existingUser);
-        when(restTemplate.postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class)))
+        when(userAuthClient.authenticate(any(LoginRequest.class)))
             .thenReturn(true);
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
         // 执行测试
         LoginResponse response = userService.login(request);
@@ -187,17 +271,20 @@ public class UserServiceTest {
         // 验证调用
         verify(userMapper).findByUsername("normal_user");
         verify(userMapper, never()).insertUser(any(User.class));
-        verify(userMapper).updateUserToken(any(User.class));
-        verify(valueOperations).set(anyString(), anyString(), anyLong(), any());
-        verify(restTemplate).postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class));
-
-        // 验证更新的用户数据
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        verify(userMapper).updateUserToken(userCaptor.capture());
-        User updatedUser = userCaptor.getValue();
-        assertEquals("normal_user", updatedUser.getUsername());
-        assertEquals(response.getToken(), updatedUser.getToken());
-        assertEquals(response.getExpireTime(), updatedUser.getTokenExpireTime());
+        verify(userVersionStamp, never()).bump();
+        verify(userMapper, never()).updateUserToken(any(User.class));
+        verify(userSessionMapper).insertSession(any(UserSession.class));
+        verify(redisAccessor).set(anyString(), anyString(), anyLong(), any());
+        verify(userAuthClient).authenticate(any(LoginRequest.class));
+
+        // 验证写入的会话数据
+        ArgumentCaptor<UserSession> sessionCaptor = ArgumentCaptor.forClass(UserSession.class);
+        verify(userSessionMapper).insertSession(sessionCaptor.capture());
+        UserSession session = sessionCaptor.getValue();
+        assertEquals(existingUser.getId(), session.getUserId());
+        assertEquals(response.getToken(), session.getToken());
+        assertEquals(response.getExpireTime(), session.getExpireTime());
+        assertEquals(response.getExpireTime().toLocalDate(), session.getExpireDate());
     }
 
     @Test
@@ -220,8 +307,9 @@ public class UserServiceTest {
         verify(userMapper, never()).findByUsername(anyString());
         verify(userMapper, never()).insertUser(any(User.class));
         verify(userMapper, never()).updateUserToken(any(User.class));
-        verify(valueOperations, never()).set(anyString(), anyString(), anyLong(), any());
-        verify(restTemplate, never()).postForObject(anyString(), any(), any());
+        verify(userSessionMapper, never()).insertSession(any(UserSession.class));
+        verify(redisAccessor, never()).set(anyString(), anyString(), anyLong(), any());
+        verify(userAuthClient, never()).authenticate(any());
     }
 
     @Test
@@ -232,7 +320,7 @@ public class UserServiceTest {
         request.setPassword("wrong_password");
 
         // 设置mock行为
-        when(restTemplate.postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class)))
+        when(userAuthClient.authenticate(any(LoginRequest.class)))
             .thenReturn(false);
         when(messageSource.getMessage(eq("error.invalid.credentials"), isNull(), any(Locale.class)))
             .thenReturn("Invalid username or password");
@@ -246,7 +334,220 @@ public class UserServiceTest {
         verify(userMapper, never()).findByUsername(anyString());
         verify(userMapper, never()).insertUser(any(User.class));
         verify(userMapper, never()).updateUserToken(any(User.class));
-        verify(valueOperations, never()).set(anyString(), anyString(), anyLong(), any());
-        verify(restTemplate).postForObject(eq(USER_SERVICE_BASE_URL + "/auth"), any(), eq(Boolean.class));
+        verify(userSessionMapper, never()).insertSession(any(UserSession.class));
+        verify(redisAccessor, never()).set(anyString(), anyString(), anyLong(), any());
+        verify(userAuthClient).authenticate(any(LoginRequest.class));
+        verify(credentialCache, never()).put(anyString(), anyString());
+        verify(credentialCache).invalidate("normal_user");
+    }
+
+    @Test
+    void whenUserServiceRejectsAccount_thenInvalidateCredentialCache() {
+        // 准备测试数据
+        LoginRequest request = new LoginRequest();
+        request.setUsername("normal_user");
+        request.setPassword("password");
+
+        // 设置mock行为：账号已被锁定
+        when(userAuthClient.authenticate(any(LoginRequest.class)))
+            .thenThrow(HttpClientErrorException.create(HttpStatus.LOCKED, "Locked", null, null, null));
+
+        // 执行测试并验证异常
+        assertThrows(HttpClientErrorException.class, () -> userService.login(request));
+
+        // 验证调用
+        verify(credentialCache).invalidate("normal_user");
+        verify(credentialCache, never()).put(anyString(), anyString());
+    }
+
+    @Test
+    void whenCredentialCached_thenSkipUserService() {
+        // 准备测试数据
+        LoginRequest request = new LoginRequest();
+        request.setUsername("normal_user");
+        request.setPassword("password");
+
+        // 设置mock行为：ttl 内用同一密码登录过
+        when(credentialCache.verify("normal_user", "password")).thenReturn(true);
+        when(userMapper.findByUsername("normal_user")).thenReturn(null);
+
+        // 执行测试
+        LoginResponse response = userService.login(request);
+
+        // 验证结果
+        assertNotNull(response.getToken());
+        verify(userAuthClient, never()).authenticate(any());
+        verify(credentialCache, never()).put(anyString(), anyString());
+        verify(userSessionMapper).insertSession(any(UserSession.class));
+    }
+
+    @Test
+    void whenListUsers_thenReturnPageWithTotal() {
+        // 准备测试数据
+        UserPageRequest request = new UserPageRequest();
+        request.setPageNum(2);
+        request.setPageSize(10);
+        UserVO user = new UserVO();
+        user.setId(11L);
+        user.setUsername("user11");
+        when(userMapper.findPageRecords(10, 10)).thenReturn(List.of(user));
+        when(userMapper.countTotal()).thenReturn(11L);
+
+        // 执行测试
+        PageResponse<UserVO> response = userService.listUsers(request);
+
+        // 验证结果
+        assertEquals(11L, response.getTotal());
+        assertEquals(1, response.getRecords().size());
+        assertEquals("user11", response.getRecords().get(0).getUsername());
+        assertEquals(2, response.getPageNum());
+    }
+
+    @Test
+    void whenCountFails_thenPropagateOriginalException() {
+        // 准备测试数据
+        UserPageRequest request = new UserPageRequest();
+        when(userMapper.countTotal()).thenThrow(new IllegalStateException("Database error"));
+
+        // 执行测试并验证异常
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> userService.listUsers(request));
+        assertEquals("Database error", exception.getMessage());
+    }
+
+    @Test
+    void whenConcurrentLoginsForSameUser_thenAuthenticateOnceAndShareToken() throws Exception {
+        // 准备测试数据
+        LoginRequest request = new LoginRequest();
+        request.setUsername("normal_user");
+        request.setPassword("password");
+        CountDownLatch authStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // 设置mock行为：认证调用阻塞，直到其他登录请求到达
+        when(userMapper.findByUsername("normal_user")).thenReturn(null);
+        when(userAuthClient.authenticate(any(LoginRequest.class)))
+            .thenAnswer(invocation -> {
+                authStarted.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return true;
+            });
+
+        // 执行测试
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            Future<LoginResponse> first = pool.submit(() -> userService.login(request));
+            assertTrue(authStarted.await(5, TimeUnit.SECONDS));
+            Future<LoginResponse> second = pool.submit(() -> userService.login(request));
+            Future<LoginResponse> third = pool.submit(() -> userService.login(request));
+            Thread.sleep(100);
+            release.countDown();
+
+            // 验证结果
+            String token = first.get(5, TimeUnit.SECONDS).getToken();
+            assertEquals(token, second.get(5, TimeUnit.SECONDS).getToken());
+            assertEquals(token, third.get(5, TimeUnit.SECONDS).getToken());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // 验证调用：认证、建用户、写会话和缓存各一次
+        verify(userAuthClient, times(1)).authenticate(any());
+        verify(userMapper, times(1)).insertUser(any(User.class));
+        verify(userSessionMapper, times(1)).insertSession(any(UserSession.class));
+        verify(redisAccessor, times(1)).set(anyString(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void whenInsertUserRacesOnUniqueKey_thenUseExistingUser() {
+        // 准备测试数据
+        LoginRequest request = new LoginRequest();
+        request.setUsername(ADMIN_USERNAME);
+        request.setPassword(ADMIN_PASSWORD);
+        User concurrentUser = new User();
+        concurrentUser.setId(7L);
+        concurrentUser.setUsername(ADMIN_USERNAME);
+
+        // 设置mock行为：查询时不存在，插入时已被其他请求创建
+        when(userMapper.findByUsername(ADMIN_USERNAME)).thenReturn(null, concurrentUser);
+        doThrow(new DuplicateKeyException("Duplicate entry")).when(userMapper).insertUser(any(User.class));
+
+        // 执行测试
+        LoginResponse response = userService.login(request);
+
+        // 验证结果
+        assertNotNull(response.getToken());
+        ArgumentCaptor<UserSession> sessionCaptor = ArgumentCaptor.forClass(UserSession.class);
+        verify(userSessionMapper).insertSession(sessionCaptor.capture());
+        assertEquals(7L, sessionCaptor.getValue().getUserId());
+        verify(userVersionStamp, never()).bump();
+    }
+
+    @Test
+    void whenRedisFails_thenFallbackToSessionLookup() {
+        // 准备测试数据
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("normal_user");
+        user.setTokenExpireTime(LocalDateTime.now().plusHours(1));
+
+        // 设置mock行为：Redis 超时，降级查询找到会话
+        when(redisAccessor.get("token:abc")).thenThrow(new RedisConnectionFailureException("timeout"));
+        when(sessionFallback.lookup("abc")).thenReturn(user);
+
+        // 执行测试
+        User result = userService.getUserByToken("abc");
+
+        // 验证结果
+        assertSame(user, result);
+        verify(redisCircuitBreaker).recordFailure();
+    }
+
+    @Test
+    void whenRedisCircuitOpen_thenSkipRedis() {
+        // 准备测试数据
+        User user = new User();
+        user.setId(42L);
+
+        // 设置mock行为：熔断已打开
+        when(redisCircuitBreaker.isOpen()).thenReturn(true);
+        when(sessionFallback.lookup("abc")).thenReturn(user);
+
+        // 执行测试
+        User result = userService.getUserByToken("abc");
+
+        // 验证结果
+        assertSame(user, result);
+        verify(redisAccessor, never()).get(anyString());
+    }
+
+    @Test
+    void whenTokenMissingInRedis_thenRestoreFromMySql() {
+        // 准备测试数据：熔断刚关闭，熔断期间登录的会话只在 user_sessions 中
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("normal_user");
+        user.setToken("abc");
+        user.setTokenExpireTime(LocalDateTime.now().plusHours(1));
+        when(redisCircuitBreaker.isRecovering()).thenReturn(true);
+        when(sessionFallback.recover("abc")).thenReturn(user);
+
+        // 执行测试
+        User result = userService.getUserByToken("abc");
+
+        // 验证结果
+        assertSame(user, result);
+        verify(sessionFallback, never()).lookup(anyString());
+        verify(redisAccessor).set(eq("token:abc"), anyString(), longThat(ttl -> ttl > 0), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void whenTokenMissingInHealthyRedis_thenReturnNullWithoutMySql() {
+        // 执行测试
+        User result = userService.getUserByToken("junk");
+
+        // 验证结果
+        assertNull(result);
+        verifyNoInteractions(sessionFallback);
     }
-} 
\ No newline at end of file
+}
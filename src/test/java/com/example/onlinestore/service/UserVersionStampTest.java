@@ -0,0 +1,74 @@
+package com.example.onlinestore.service;
+
+import com.example.onlinestore.redis.RedisAccessor;
+import com.example.onlinestore.service.impl.UserVersionStamp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("用户版本号测试")
+public class UserVersionStampTest {
+
+    @Mock
+    private RedisAccessor redisAccessor;
+
+    @InjectMocks
+    private UserVersionStamp userVersionStamp;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("版本号不存在时初始化")
+    void whenVersionMissing_thenInitialize() {
+        // 准备测试数据
+        when(redisAccessor.get("users:version")).thenReturn(null, "1700000000000");
+
+        // 执行测试
+        String version = userVersionStamp.current();
+
+        // 验证结果
+        assertEquals("1700000000000", version);
+        verify(redisAccessor).setIfAbsent(eq("users:version"), anyString());
+    }
+
+    @Test
+    @DisplayName("Redis 不可用时返回 null")
+    void whenRedisUnavailable_thenReturnNull() {
+        when(redisAccessor.get("users:version")).thenThrow(new IllegalStateException("连接失败"));
+
+        assertNull(userVersionStamp.current());
+    }
+
+    @Test
+    @DisplayName("事务中递增延迟到提交之后")
+    void whenBumpInTransaction_thenIncrementAfterCommit() {
+        // 准备测试数据
+        TransactionSynchronizationManager.initSynchronization();
+
+        // 执行测试
+        userVersionStamp.bump();
+
+        // 验证结果：提交前不递增
+        verify(redisAccessor, never()).increment(anyString());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(redisAccessor).increment("users:version");
+    }
+}
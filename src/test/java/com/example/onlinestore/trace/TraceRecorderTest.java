@@ -0,0 +1,85 @@
+package com.example.onlinestore.trace;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("请求追踪测试")
+public class TraceRecorderTest {
+
+    private TraceRecorder traceRecorder;
+
+    @BeforeEach
+    void setUp() {
+        traceRecorder = new TraceRecorder();
+        ReflectionTestUtils.setField(traceRecorder, "enabled", true);
+        ReflectionTestUtils.setField(traceRecorder, "slowThreshold", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(traceRecorder, "sampleRate", 0.0);
+        ReflectionTestUtils.setField(traceRecorder, "maxSpans", 8);
+        ReflectionTestUtils.setField(traceRecorder, "retained", 2);
+        ReflectionTestUtils.setField(traceRecorder, "meterRegistry", new SimpleMeterRegistry());
+        traceRecorder.init();
+    }
+
+    @Test
+    @DisplayName("慢请求保留嵌套的 span，快请求在采样率为 0 时不保留")
+    void whenRequestSlow_thenKeepSpans() throws Exception {
+        // 执行测试
+        traceRecorder.start();
+        int service = Tracer.begin("service", "UserService.listUsers");
+        int query = Tracer.begin("mybatis", "UserMapper.findPageRecords");
+        Thread.sleep(2);
+        Tracer.end(query);
+        Tracer.end(service);
+        int open = Tracer.begin("redis", "get");
+        traceRecorder.finish("GET", "/api/users", 200);
+        Tracer.end(open);
+
+        traceRecorder.start();
+        Tracer.end(Tracer.begin("redis", "get"));
+        traceRecorder.finish("GET", "/api/products", 200);
+
+        // 验证结果
+        List<Trace> slow = traceRecorder.slowTraces();
+        assertEquals(1, slow.size());
+        assertTrue(traceRecorder.sampledTraces().isEmpty());
+        Trace trace = slow.get(0);
+        assertEquals("/api/users", trace.getUri());
+        assertEquals(3, trace.getSpans().size());
+        assertEquals(1, trace.getSpans().get(1).getDepth());
+        assertTrue(trace.getSpans().get(1).getDurationMicros() >= 2000);
+        assertEquals(-1, trace.getSpans().get(2).getDurationMicros());
+    }
+
+    @Test
+    @DisplayName("span 超出缓冲容量时保留最近的 span，并记录被覆盖的个数")
+    void whenTooManySpans_thenKeepLatest() throws Exception {
+        // 执行测试
+        traceRecorder.start();
+        for (int i = 0; i < 10; i++) {
+            Tracer.end(Tracer.begin("redis", "get" + i));
+        }
+        Thread.sleep(2);
+        traceRecorder.finish("POST", "/api/orders", 201);
+
+        // 验证结果
+        Trace trace = traceRecorder.slowTraces().get(0);
+        assertEquals(8, trace.getSpans().size());
+        assertEquals(2, trace.getDroppedSpans());
+        assertEquals("get2", trace.getSpans().get(0).getDetail());
+    }
+
+    @Test
+    @DisplayName("没有正在追踪的请求时不记录 span")
+    void whenNoActiveRequest_thenNoop() {
+        assertEquals(-1, Tracer.begin("redis", "get"));
+        Tracer.end(-1);
+    }
+}